@@ -0,0 +1,108 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Filtro de Bloom sobre textos: "mightContain" nunca da falsos negativos y da falsos positivos con
+ * la probabilidad indicada mientras no se supere la cantidad de elementos esperada (luego la
+ * probabilidad crece, pero sigue sin haber falsos negativos).
+ * Los bits se guardan en un AtomicLongArray, por lo que admite lecturas y escrituras concurrentes.
+ * Las posiciones se obtienen con doble hashing (h1 + i * h2) a partir de un hash de 64 bits.
+ * Cuenta los elementos agregados y los bits encendidos, para saber cuándo se superó la capacidad
+ * y estimar la probabilidad real de falsos positivos.
+ */
+final class BloomFilter {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashCount;
+  private final long expectedInsertions;
+  private final AtomicLong insertions = new AtomicLong();
+  private final AtomicLong bitsSet = new AtomicLong();
+
+  private BloomFilter(long bitCount, int hashCount, long expectedInsertions) {
+    this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+    this.bitCount = (long) words.length() * 64;
+    this.hashCount = hashCount;
+    this.expectedInsertions = expectedInsertions;
+  }
+
+  static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+    long insertions = Math.max(1, expectedInsertions);
+    long bits =
+        (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int hashes = Math.max(1, (int) Math.round((double) bits / insertions * Math.log(2)));
+    return new BloomFilter(bits, hashes, insertions);
+  }
+
+  // Un valor que no enciende ningún bit nuevo ya estaba (o es un falso positivo) y no se cuenta
+  void put(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    boolean changed = false;
+    for (int i = 1; i <= hashCount; i++) {
+      long bit = this.position(h1 + i * h2);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current;
+      do {
+        current = words.get(word);
+        if ((current & mask) != 0) {
+          break;
+        }
+      } while (!words.compareAndSet(word, current, current | mask));
+      if ((current & mask) == 0) {
+        bitsSet.incrementAndGet();
+        changed = true;
+      }
+    }
+    if (changed) {
+      insertions.incrementAndGet();
+    }
+  }
+
+  boolean mightContain(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long bit = this.position(h1 + i * h2);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Se agregaron más elementos que los previstos al crearlo: los falsos positivos ya son más
+  boolean isSaturated() {
+    return insertions.get() > expectedInsertions;
+  }
+
+  // Probabilidad de que un valor no agregado dé positivo, según la proporción de bits encendidos
+  double falsePositiveRate() {
+    return Math.pow((double) bitsSet.get() / bitCount, hashCount);
+  }
+
+  private long position(int combinedHash) {
+    return (combinedHash & Integer.MAX_VALUE) % bitCount;
+  }
+
+  // FNV-1a de 64 bits seguido del mezclador de SplitMix64 para distribuir bien los bits
+  private static long hash(String value) {
+    long hash = FNV_OFFSET_BASIS;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= FNV_PRIME;
+    }
+    hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+    hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+    return hash ^ (hash >>> 31);
+  }
+}
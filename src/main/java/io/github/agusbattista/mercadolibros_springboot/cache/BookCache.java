@@ -0,0 +1,164 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.agusbattista.mercadolibros_springboot.config.ReadReplicaRouting;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.mapper.BookMapper;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/*
+ * Caché de lectura de libros para GET /api/books/{uuid} y /isbn/{isbn}: guarda la respuesta ya
+ * mapeada por UUID y, aparte, la relación ISBN -> UUID, por lo que un mismo libro se guarda una
+ * sola vez. Tiene un tamaño máximo y un tiempo de vida configurables (app.cache.books.*).
+ * Luego de confirmada cada modificación, restauración o baja se invalidan el UUID y el ISBN del
+ * libro (antes de que CatalogVersion cambie), y ante cualquier cambio de un género se vacía la caché
+ * completa. Los libros inexistentes
+ * no se guardan. Se cargan siempre del primario, para no guardar por todo el tiempo de vida un
+ * libro que la réplica de lectura todavía no actualizó.
+ * Una carga puede leer el libro antes de un cambio y guardarlo después de su invalidación: cada
+ * invalidación incrementa "invalidations" y, si cambió durante la carga, se descarta lo cargado.
+ * Las peticiones simultáneas de un mismo libro que no está en la caché comparten una sola
+ * consulta: Caffeine ya agrupa las cargas por UUID y las búsquedas por ISBN usan SingleFlight.
+ * Aciertos, fallos y desalojos se publican en /actuator/metrics (cache=books.byUuid e
+ * cache=books.uuidByIsbn).
+ */
+@Component
+public class BookCache {
+
+  private final BookRepository bookRepository;
+  private final BookMapper bookMapper;
+  private final Cache<UUID, BookResponseDTO> byUuid;
+  private final Cache<String, UUID> uuidByIsbn;
+  private final SingleFlight<String, Optional<BookResponseDTO>> isbnLoads = new SingleFlight<>();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public BookCache(
+      BookRepository bookRepository,
+      BookMapper bookMapper,
+      MeterRegistry meterRegistry,
+      @Value("${app.cache.books.max-size:10000}") long maxSize,
+      @Value("${app.cache.books.ttl:10m}") Duration ttl) {
+    this.bookRepository = bookRepository;
+    this.bookMapper = bookMapper;
+    this.byUuid = newCache(maxSize, ttl);
+    this.uuidByIsbn = newCache(maxSize, ttl);
+    CaffeineCacheMetrics.monitor(meterRegistry, byUuid, "books.byUuid");
+    CaffeineCacheMetrics.monitor(meterRegistry, uuidByIsbn, "books.uuidByIsbn");
+  }
+
+  public Optional<BookResponseDTO> findByUuid(UUID uuid) {
+    return Optional.ofNullable(this.getByUuid(uuid));
+  }
+
+  public Optional<BookResponseDTO> findByIsbn(String isbn) {
+    UUID uuid = uuidByIsbn.getIfPresent(isbn);
+    if (uuid != null) {
+      BookResponseDTO book = this.getByUuid(uuid);
+      // El libro pudo cambiar de ISBN o haberse eliminado desde que se guardó la relación
+      if (book != null && book.isbn().equals(isbn)) {
+        return Optional.of(book);
+      }
+      uuidByIsbn.invalidate(isbn);
+    }
+    return isbnLoads.load(isbn, () -> this.loadByIsbn(isbn));
+  }
+
+  /*
+   * Las altas no se invalidan: el UUID es nuevo y el ISBN no podía estar guardado, porque los
+   * libros inexistentes no se guardan.
+   */
+  @TransactionalEventListener
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public void onBookChanged(BookChangedEvent event) {
+    if (event.type() == ChangeType.CREATED) {
+      return;
+    }
+    invalidations.incrementAndGet();
+    BookResponseDTO previous = byUuid.getIfPresent(event.book().uuid());
+    if (previous != null) {
+      uuidByIsbn.invalidate(previous.isbn());
+    }
+    byUuid.invalidate(event.book().uuid());
+    uuidByIsbn.invalidate(event.book().isbn());
+  }
+
+  // Cada libro incluye su género en la respuesta; los géneros casi nunca cambian
+  @TransactionalEventListener
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public void onGenreChanged(GenreChangedEvent event) {
+    invalidations.incrementAndGet();
+    byUuid.invalidateAll();
+    uuidByIsbn.invalidateAll();
+  }
+
+  // Los desalojos por tamaño son asíncronos; permite aplicarlos de inmediato (por ejemplo, en
+  // tests)
+  void cleanUp() {
+    byUuid.cleanUp();
+    uuidByIsbn.cleanUp();
+  }
+
+  // Caffeine no descarta las cargas en curso al vaciar la caché (invalidateAll)
+  private BookResponseDTO getByUuid(UUID uuid) {
+    long generation = invalidations.get();
+    BookResponseDTO book = byUuid.get(uuid, this::loadByUuid);
+    this.discardIfInvalidated(generation, book);
+    return book;
+  }
+
+  private BookResponseDTO loadByUuid(UUID uuid) {
+    Optional<BookResponseDTO> book =
+        ReadReplicaRouting.callOnPrimary(() -> bookRepository.findByUuid(uuid))
+            .map(bookMapper::toResponse);
+    book.ifPresent(found -> uuidByIsbn.put(found.isbn(), found.uuid()));
+    return book.orElse(null);
+  }
+
+  private Optional<BookResponseDTO> loadByIsbn(String isbn) {
+    long generation = invalidations.get();
+    Optional<BookResponseDTO> book =
+        ReadReplicaRouting.callOnPrimary(() -> bookRepository.findByIsbn(isbn))
+            .map(bookMapper::toResponse);
+    book.ifPresent(
+        found -> {
+          this.put(found);
+          this.discardIfInvalidated(generation, found);
+        });
+    return book;
+  }
+
+  /*
+   * Se verifica después de guardar: una invalidación anterior a la verificación se detecta acá, y
+   * una posterior elimina lo guardado. Sólo se quitan las entradas que siguen siendo las cargadas.
+   */
+  private void discardIfInvalidated(long generation, BookResponseDTO book) {
+    if (book != null && invalidations.get() != generation) {
+      byUuid.asMap().remove(book.uuid(), book);
+      uuidByIsbn.asMap().remove(book.isbn(), book.uuid());
+    }
+  }
+
+  private void put(BookResponseDTO book) {
+    byUuid.put(book.uuid(), book);
+    uuidByIsbn.put(book.isbn(), book.uuid());
+  }
+
+  private static <K, V> Cache<K, V> newCache(long maxSize, Duration ttl) {
+    return Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+  }
+}
@@ -0,0 +1,176 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import io.github.agusbattista.mercadolibros_springboot.config.ReadReplicaRouting;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookKeys;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ * Filtro de Bloom con los UUID e ISBN de los libros activos, para responder 404 sin consultar la
+ * base de datos cuando se pide un libro que seguro no existe (enlaces viejos, crawlers).
+ * Se construye al iniciar la aplicación y se actualiza dentro de la transacción de cada alta,
+ * modificación o restauración: si la transacción se revierte sólo queda un falso positivo, que
+ * termina en la consulta habitual. Las bajas no se quitan (un filtro de Bloom no lo permite), por
+ * lo que un libro eliminado también se consulta. Mientras no está listo, todo "puede existir" y
+ * los cambios se guardan para agregarlos al filtro en cuanto empieza a construirse.
+ * Se reconstruye cada app.lookup-filter.rebuild-interval, lo que descarta las bajas, y también
+ * en cuanto las altas superan la capacidad prevista, con el tamaño actual del catálogo. La
+ * probabilidad estimada de falsos positivos se publica en "books.lookup.filter.false.positive.rate".
+ */
+@Component
+@Slf4j
+public class BookLookupFilter {
+
+  private static final int REBUILD_BATCH_SIZE = 5_000;
+  private static final double FALSE_POSITIVE_RATE = 0.01;
+
+  // Margen para las altas posteriores a la construcción: UUID e ISBN de cada libro, por dos
+  private static final int KEYS_PER_BOOK = 2;
+  private static final long GROWTH_FACTOR = 2;
+  private static final long MIN_EXPECTED_KEYS = 10_000;
+
+  private static final String UUID_PREFIX = "uuid:";
+  private static final String ISBN_PREFIX = "isbn:";
+
+  private final BookRepository bookRepository;
+
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+  private volatile BloomFilter filter;
+  private BloomFilter building;
+  // Claves de los cambios ocurridos antes de empezar la primera construcción
+  private final List<String> pendingKeys = new ArrayList<>();
+  /*
+   * Claves de transacciones todavía sin confirmar: una reconstrucción no las ve en la base de datos
+   * y, si se agregaron sólo al filtro anterior, el libro se respondería como inexistente.
+   */
+  private final List<String> uncommittedKeys = new ArrayList<>();
+
+  public BookLookupFilter(BookRepository bookRepository, MeterRegistry meterRegistry) {
+    this.bookRepository = bookRepository;
+    meterRegistry.gauge(
+        "books.lookup.filter.false.positive.rate", this, BookLookupFilter::falsePositiveRate);
+  }
+
+  /*
+   * Del primario: un libro que falte en la réplica se respondería como inexistente. Si ya hay una
+   * construcción en curso no se inicia otra; el filtro anterior sigue respondiendo mientras tanto.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      initialDelayString = "${app.lookup-filter.rebuild-interval:6h}",
+      fixedDelayString = "${app.lookup-filter.rebuild-interval:6h}")
+  public void rebuild() {
+    if (rebuilding.compareAndSet(false, true)) {
+      this.rebuildAndRelease();
+    }
+  }
+
+  private void rebuildAndRelease() {
+    try {
+      ReadReplicaRouting.runOnPrimary(this::build);
+    } finally {
+      rebuilding.set(false);
+    }
+  }
+
+  private void build() {
+    long expectedKeys =
+        Math.max(MIN_EXPECTED_KEYS, bookRepository.count() * KEYS_PER_BOOK * GROWTH_FACTOR);
+    BloomFilter next = BloomFilter.create(expectedKeys, FALSE_POSITIVE_RATE);
+    synchronized (this) {
+      building = next;
+      pendingKeys.forEach(next::put);
+      pendingKeys.clear();
+      uncommittedKeys.forEach(next::put);
+    }
+    long lastId = 0;
+    long books = 0;
+    List<BookKeys> batch;
+    do {
+      batch = bookRepository.findKeysAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+      for (BookKeys keys : batch) {
+        next.put(UUID_PREFIX + keys.getUuid());
+        next.put(ISBN_PREFIX + keys.getIsbn());
+      }
+      if (!batch.isEmpty()) {
+        lastId = batch.getLast().getId();
+        books += batch.size();
+      }
+    } while (batch.size() == REBUILD_BATCH_SIZE);
+    synchronized (this) {
+      filter = next;
+      building = null;
+    }
+    log.info("Filtro de libros existentes construido con {} libros", books);
+  }
+
+  /*
+   * Se agrega dentro de la transacción, antes del commit, para que un libro recién creado nunca se
+   * responda como inexistente. Los cambios que llegan durante la construcción se agregan también
+   * al filtro nuevo, y los de transacciones abiertas al empezarla se copian en él.
+   */
+  @EventListener
+  public synchronized void onBookChanged(BookChangedEvent event) {
+    if (event.type() == ChangeType.DELETED) {
+      return;
+    }
+    List<String> keys =
+        List.of(UUID_PREFIX + event.book().uuid(), ISBN_PREFIX + event.book().isbn());
+    if (filter == null && building == null) {
+      pendingKeys.addAll(keys);
+    }
+    for (BloomFilter target : new BloomFilter[] {filter, building}) {
+      if (target != null) {
+        keys.forEach(target::put);
+      }
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      uncommittedKeys.addAll(keys);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              BookLookupFilter.this.completed(keys);
+            }
+          });
+    }
+    if (filter != null && filter.isSaturated() && rebuilding.compareAndSet(false, true)) {
+      log.info("El filtro de libros existentes superó su capacidad, se reconstruye");
+      Thread.ofVirtual().name("book-lookup-filter-rebuild").start(this::rebuildAndRelease);
+    }
+  }
+
+  private synchronized void completed(List<String> keys) {
+    keys.forEach(uncommittedKeys::remove);
+  }
+
+  public boolean mightContainUuid(UUID uuid) {
+    BloomFilter current = filter;
+    return current == null || current.mightContain(UUID_PREFIX + uuid);
+  }
+
+  public boolean mightContainIsbn(String isbn) {
+    BloomFilter current = filter;
+    return current == null || current.mightContain(ISBN_PREFIX + isbn);
+  }
+
+  // Sin filtro todo "puede existir": ninguna consulta se evita
+  double falsePositiveRate() {
+    BloomFilter current = filter;
+    return current == null ? 1 : current.falsePositiveRate();
+  }
+}
@@ -0,0 +1,41 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/*
+ * Versión del catálogo completo (libros y géneros), usada como ETag de los listados y búsquedas:
+ * cualquier cambio confirmado la incrementa, por lo que una página sin cambios se puede responder
+ * con 304 sin consultar la base de datos. Se incrementa luego del commit y después de que el índice
+ * de búsqueda y la caché de libros aplicaron el cambio (sus listeners tienen un orden menor), así
+ * que una respuesta nunca lleva una versión más nueva que sus datos.
+ * Vive en memoria: supone una única instancia de la aplicación, como el resto de las cachés.
+ */
+@Component
+public class CatalogVersion {
+
+  // El contador vuelve a 0 al reiniciar; el prefijo evita repetir un ETag de un arranque anterior
+  private final String instance = Long.toString(System.currentTimeMillis(), 36);
+  private final AtomicLong changes = new AtomicLong();
+
+  @TransactionalEventListener
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  public void onBookChanged(BookChangedEvent event) {
+    changes.incrementAndGet();
+  }
+
+  @TransactionalEventListener
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  public void onGenreChanged(GenreChangedEvent event) {
+    changes.incrementAndGet();
+  }
+
+  public String current() {
+    return instance + "-" + changes.get();
+  }
+}
@@ -0,0 +1,133 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.agusbattista.mercadolibros_springboot.config.ReadReplicaRouting;
+import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.mapper.GenreMapper;
+import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import io.github.agusbattista.mercadolibros_springboot.repository.GenreRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ * Caché de lectura del catálogo de géneros, por ID y por código (la búsqueda por nombre usa el
+ * código generado a partir del nombre). Los géneros casi nunca cambian, por lo que no expiran:
+ * GenreServiceImpl invalida la caché completa luego de cada alta, modificación o baja.
+ * Los géneros inexistentes no se guardan, para que un alta posterior se vea de inmediato, y se
+ * cargan siempre del primario, no de la réplica de lectura.
+ * Como no expiran, una carga que leyó un género antes de un cambio no puede guardarse después de
+ * la invalidación: Caffeine no descarta las cargas en curso, por lo que cada invalidación
+ * incrementa "invalidations" y, si cambió durante la carga, se quita lo cargado.
+ * Los aciertos y fallos se publican en /actuator/metrics/cache.gets (cache=genres.byId y
+ * cache=genres.byCode).
+ */
+@Component
+public class GenreCache {
+
+  // Muy por encima de la cantidad de géneros esperada; sólo evita un crecimiento sin límite
+  private static final int MAX_GENRES = 1_000;
+
+  private final GenreRepository genreRepository;
+  private final GenreMapper genreMapper;
+  private final Cache<Long, GenreResponseDTO> byId = newCache();
+  private final Cache<String, GenreResponseDTO> byCode = newCache();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public GenreCache(
+      GenreRepository genreRepository, GenreMapper genreMapper, MeterRegistry meterRegistry) {
+    this.genreRepository = genreRepository;
+    this.genreMapper = genreMapper;
+    CaffeineCacheMetrics.monitor(meterRegistry, byId, "genres.byId");
+    CaffeineCacheMetrics.monitor(meterRegistry, byCode, "genres.byCode");
+  }
+
+  public Optional<GenreResponseDTO> findById(Long id) {
+    long generation = invalidations.get();
+    GenreResponseDTO genre =
+        byId.get(
+            id,
+            key ->
+                ReadReplicaRouting.callOnPrimary(() -> genreRepository.findById(key))
+                    .map(genreMapper::toResponse)
+                    .orElse(null));
+    this.discardIfInvalidated(generation, byId, id, genre);
+    return Optional.ofNullable(genre);
+  }
+
+  // "code" ya debe estar generado con StringFormatter.generateCode
+  public Optional<GenreResponseDTO> findByCode(String code) {
+    long generation = invalidations.get();
+    GenreResponseDTO genre =
+        byCode.get(
+            code,
+            key ->
+                ReadReplicaRouting.callOnPrimary(() -> genreRepository.findByCode(key))
+                    .map(genreMapper::toResponse)
+                    .orElse(null));
+    this.discardIfInvalidated(generation, byCode, code, genre);
+    return Optional.ofNullable(genre);
+  }
+
+  // Los géneros que no están en la caché se cargan juntos, con una única consulta IN
+  public Map<Long, GenreResponseDTO> findAllById(Collection<Long> ids) {
+    long generation = invalidations.get();
+    Map<Long, GenreResponseDTO> genres =
+        byId.getAll(
+            ids,
+            missing ->
+                ReadReplicaRouting.callOnPrimary(
+                        () -> genreRepository.findAllById(Set.copyOf(missing)))
+                    .stream()
+                    .collect(Collectors.toMap(Genre::getId, genreMapper::toResponse)));
+    genres.forEach((id, genre) -> this.discardIfInvalidated(generation, byId, id, genre));
+    return genres;
+  }
+
+  /*
+   * Dentro de una transacción se invalida también al confirmarla: de lo contrario, una lectura
+   * concurrente podría volver a cargar el valor anterior antes del commit.
+   */
+  public void invalidateAll() {
+    this.clear();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              GenreCache.this.clear();
+            }
+          });
+    }
+  }
+
+  private void clear() {
+    invalidations.incrementAndGet();
+    byId.invalidateAll();
+    byCode.invalidateAll();
+  }
+
+  /*
+   * Se verifica después de guardar: una invalidación anterior a la verificación se detecta acá, y
+   * una posterior elimina lo guardado. Sólo se quitan las entradas que siguen siendo las cargadas.
+   */
+  private <K> void discardIfInvalidated(
+      long generation, Cache<K, GenreResponseDTO> cache, K key, GenreResponseDTO genre) {
+    if (genre != null && invalidations.get() != generation) {
+      cache.asMap().remove(key, genre);
+    }
+  }
+
+  private static <K> Cache<K, GenreResponseDTO> newCache() {
+    return Caffeine.newBuilder().maximumSize(MAX_GENRES).recordStats().build();
+  }
+}
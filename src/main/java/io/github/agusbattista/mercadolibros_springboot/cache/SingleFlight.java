@@ -0,0 +1,55 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/*
+ * Agrupa las cargas simultáneas de una misma clave: el primero que la pide ejecuta la carga y el
+ * resto espera y recibe el mismo resultado (o la misma excepción), por lo que una ráfaga de
+ * peticiones iguales produce una sola consulta. No guarda nada: en cuanto la carga termina, la
+ * siguiente petición vuelve a cargar.
+ */
+public final class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  public V load(K key, Supplier<V> loader) {
+    CompletableFuture<V> own = new CompletableFuture<>();
+    CompletableFuture<V> current = inFlight.putIfAbsent(key, own);
+    if (current != null) {
+      return await(current);
+    }
+    try {
+      V value = loader.get();
+      own.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      own.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, own);
+    }
+  }
+
+  // Cantidad de claves cargándose en este momento
+  int inFlightCount() {
+    return inFlight.size();
+  }
+
+  private static <V> V await(CompletableFuture<V> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
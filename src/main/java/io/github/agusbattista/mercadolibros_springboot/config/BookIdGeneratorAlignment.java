@@ -0,0 +1,57 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+ * Los libros creados cuando Book usaba IDENTITY ya ocupan IDs, pero el generador de la tabla
+ * id_generators empieza en 0. Al iniciar (luego de que Hibernate actualiza el esquema y antes de
+ * que el servidor acepte peticiones) se adelanta el generador hasta el mayor ID existente.
+ * El optimizador de Hibernate reserva el bloque que termina en el valor guardado (los
+ * ID_ALLOCATION_SIZE IDs anteriores), por lo que se guarda el mayor ID más un bloque completo: si
+ * se igualara al mayor ID, los libros nuevos repetirían IDs existentes.
+ * Luego de la primera ejecución el generador ya está adelantado y no se modifica.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class BookIdGeneratorAlignment implements InitializingBean {
+
+  private static final String GENERATOR_KEY = "books";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void afterPropertiesSet() {
+    long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM books", Long.class);
+    long nextVal = maxId + Book.ID_ALLOCATION_SIZE;
+    // El bloque que reserva Hibernate a partir de un valor V empieza en V - ID_ALLOCATION_SIZE + 2,
+    // así que cualquier valor desde nextVal - 1 ya deja fuera los IDs existentes
+    int updated =
+        jdbcTemplate.update(
+            "UPDATE id_generators SET next_val = ? WHERE entity = ? AND next_val < ?",
+            nextVal,
+            GENERATOR_KEY,
+            nextVal - 1);
+    if (updated == 0) {
+      Integer rows =
+          jdbcTemplate.queryForObject(
+              "SELECT COUNT(*) FROM id_generators WHERE entity = ?", Integer.class, GENERATOR_KEY);
+      if (rows == null || rows == 0) {
+        jdbcTemplate.update(
+            "INSERT INTO id_generators (entity, next_val) VALUES (?, ?)", GENERATOR_KEY, nextVal);
+        updated = 1;
+      }
+    }
+    if (updated > 0) {
+      log.info(
+          "Generador de IDs de libros adelantado: los libros nuevos empiezan en {}", maxId + 1);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.BookImportErrorDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookImportSummaryDTO;
+import io.github.agusbattista.mercadolibros_springboot.service.BookFileFormat;
+import io.github.agusbattista.mercadolibros_springboot.service.BookImportService;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/*
+ * Importa un catálogo desde la línea de comandos, con el mismo proceso que POST
+ * /api/books/import: java -jar app.jar --app.import.file=catalogo.csv
+ * El formato se deduce de la extensión (.ndjson, .jsonl o .csv). Con
+ * --spring.main.web-application-type=none la aplicación termina al finalizar la importación.
+ */
+@Component
+@ConditionalOnProperty("app.import.file")
+@Slf4j
+public class BookImportRunner implements CommandLineRunner {
+
+  private final BookImportService bookImportService;
+  private final Path file;
+
+  public BookImportRunner(
+      BookImportService bookImportService, @Value("${app.import.file}") Path file) {
+    this.bookImportService = bookImportService;
+    this.file = file;
+  }
+
+  @Override
+  public void run(String... args) throws Exception {
+    BookFileFormat format = BookFileFormat.fromFileName(file.getFileName().toString());
+    log.info("Iniciando la importación de {} ({})", file, format);
+    BookImportSummaryDTO summary;
+    try (InputStream input = Files.newInputStream(file)) {
+      summary = bookImportService.importBooks(input, format);
+    }
+    for (BookImportErrorDTO error : summary.errors()) {
+      log.warn("Fila {} rechazada (ISBN {}): {}", error.row(), error.isbn(), error.errors());
+    }
+    if (summary.errorsTruncated()) {
+      log.warn("Se omitieron {} filas rechazadas más", summary.failed() - summary.errors().size());
+    }
+  }
+}
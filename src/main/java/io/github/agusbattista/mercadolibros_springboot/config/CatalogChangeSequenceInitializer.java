@@ -0,0 +1,43 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import io.github.agusbattista.mercadolibros_springboot.model.CatalogChangeSequence;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+ * Crea la fila de catalog_change_sequence la primera vez, luego de que Hibernate crea la tabla y
+ * antes de que se registre cualquier cambio (incluidos los de los CommandLineRunner). Así las
+ * transacciones sólo necesitan bloquearla, sin competir por crearla.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogChangeSequenceInitializer implements InitializingBean {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void afterPropertiesSet() {
+    Integer rows =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM catalog_change_sequence WHERE id = ?",
+            Integer.class,
+            CatalogChangeSequence.ID);
+    if (rows != null && rows > 0) {
+      return;
+    }
+    long lastValue =
+        jdbcTemplate.queryForObject(
+            "SELECT COALESCE(MAX(sequence), 0) FROM catalog_changes", Long.class);
+    jdbcTemplate.update(
+        "INSERT INTO catalog_change_sequence (id, last_value) VALUES (?, ?)",
+        CatalogChangeSequence.ID,
+        lastValue);
+    log.info("Secuencia del registro de cambios iniciada en {}", lastValue);
+  }
+}
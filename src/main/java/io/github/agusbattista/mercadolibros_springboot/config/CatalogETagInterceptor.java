@@ -0,0 +1,31 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/*
+ * Responde If-None-Match en los listados y búsquedas con la versión del catálogo (ver WebConfig).
+ * Se evalúa antes del controlador: si nada cambió, responde 304 sin armar ni serializar la página.
+ * En caso contrario agrega el ETag a la respuesta y continúa normalmente. Como la versión se lee
+ * antes que los datos, la página nunca es más vieja que su ETag.
+ */
+@RequiredArgsConstructor
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+  private final Supplier<String> catalogVersion;
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!HttpMethod.GET.matches(request.getMethod())
+        && !HttpMethod.HEAD.matches(request.getMethod())) {
+      return true;
+    }
+    return !new ServletWebRequest(request, response).checkNotModified(catalogVersion.get());
+  }
+}
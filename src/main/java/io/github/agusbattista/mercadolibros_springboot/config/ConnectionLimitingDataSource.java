@@ -0,0 +1,147 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/*
+ * Limita la cantidad de conexiones pedidas al mismo tiempo al tamaño del pool. Con hilos
+ * virtuales puede haber miles de peticiones esperando una conexión: acá esperan en una cola
+ * ordenada (semáforo justo), sin sobrecargar la espera de Hikari, y fallan si no la obtienen en
+ * "acquireTimeout". Cada conexión devuelve su permiso al cerrarse.
+ * Publica en /actuator/metrics el tiempo de espera (db.connections.queue), el tiempo de uso de
+ * cada conexión (db.connections.execution) y las peticiones en espera (db.connections.queued),
+ * con la etiqueta "pool" para distinguir el primario de la réplica de lectura.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+  private final Semaphore permits;
+  private final Duration acquireTimeout;
+  private final Timer queueTimer;
+  private final Timer executionTimer;
+
+  public ConnectionLimitingDataSource(
+      DataSource target,
+      String pool,
+      int maxConnections,
+      Duration acquireTimeout,
+      MeterRegistry meterRegistry) {
+    super(target);
+    this.permits = new Semaphore(maxConnections, true);
+    this.acquireTimeout = acquireTimeout;
+    Tags tags = Tags.of("pool", pool);
+    this.queueTimer = meterRegistry.timer("db.connections.queue", tags);
+    this.executionTimer = meterRegistry.timer("db.connections.execution", tags);
+    meterRegistry.gauge("db.connections.queued", tags, permits, Semaphore::getQueueLength);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    this.acquire();
+    return this.limit(() -> this.obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    this.acquire();
+    return this.limit(() -> this.obtainTargetDataSource().getConnection(username, password));
+  }
+
+  // Permisos libres (tests)
+  int availablePermits() {
+    return permits.availablePermits();
+  }
+
+  private void acquire() throws SQLException {
+    long start = System.nanoTime();
+    try {
+      if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException(
+            "No se obtuvo una conexión a la base de datos luego de esperar " + acquireTimeout);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException(
+          "Se interrumpió la espera de una conexión a la base de datos", e);
+    } finally {
+      queueTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  // Si no se obtiene la conexión, el permiso se libera enseguida
+  private Connection limit(ConnectionSupplier supplier) throws SQLException {
+    Connection connection;
+    try {
+      connection = supplier.get();
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+    return (Connection)
+        Proxy.newProxyInstance(
+            ConnectionLimitingDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new ReleasingHandler(connection, System.nanoTime()));
+  }
+
+  @FunctionalInterface
+  private interface ConnectionSupplier {
+    Connection get() throws SQLException;
+  }
+
+  // Devuelve el permiso con el primer close(); el resto de los métodos se delega sin cambios
+  private final class ReleasingHandler implements InvocationHandler {
+
+    private final Connection target;
+    private final long acquiredAt;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private ReleasingHandler(Connection target, long acquiredAt) {
+      this.target = target;
+      this.acquiredAt = acquiredAt;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      return switch (method.getName()) {
+        case "equals" -> proxy == args[0];
+        case "hashCode" -> System.identityHashCode(proxy);
+        case "close" -> {
+          this.close();
+          yield null;
+        }
+        default -> {
+          try {
+            yield method.invoke(target, args);
+          } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+          }
+        }
+      };
+    }
+
+    private void close() throws SQLException {
+      try {
+        target.close();
+      } finally {
+        if (released.compareAndSet(false, true)) {
+          executionTimer.record(System.nanoTime() - acquiredAt, TimeUnit.NANOSECONDS);
+          permits.release();
+        }
+      }
+    }
+  }
+}
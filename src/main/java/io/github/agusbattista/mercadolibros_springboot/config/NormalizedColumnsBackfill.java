@@ -0,0 +1,62 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import io.github.agusbattista.mercadolibros_springboot.utils.StringFormatter;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+ * Completa las columnas normalized_* de los libros guardados antes de que existieran (incluidos
+ * los eliminados lógicamente). Los libros nuevos o modificados las completan al guardarse, por lo
+ * que luego de la primera ejecución la consulta inicial no encuentra filas.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NormalizedColumnsBackfill implements CommandLineRunner {
+
+  private static final int BATCH_SIZE = 500;
+
+  private static final String SELECT_PENDING =
+      """
+      SELECT id, title, authors, publisher FROM books
+      WHERE normalized_title IS NULL OR normalized_authors IS NULL
+      OR normalized_publisher IS NULL
+      ORDER BY id LIMIT ?
+      """;
+
+  private static final String UPDATE_NORMALIZED =
+      """
+      UPDATE books SET normalized_title = ?, normalized_authors = ?, normalized_publisher = ?
+      WHERE id = ?
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void run(String... args) {
+    int updated = 0;
+    List<Object[]> batch;
+    do {
+      batch =
+          jdbcTemplate.query(
+              SELECT_PENDING,
+              (rs, rowNum) ->
+                  new Object[] {
+                    StringFormatter.normalize(rs.getString("title")),
+                    StringFormatter.normalize(rs.getString("authors")),
+                    StringFormatter.normalize(rs.getString("publisher")),
+                    rs.getLong("id")
+                  },
+              BATCH_SIZE);
+      jdbcTemplate.batchUpdate(UPDATE_NORMALIZED, batch);
+      updated += batch.size();
+    } while (batch.size() == BATCH_SIZE);
+    if (updated > 0) {
+      log.info("Se completaron las columnas de búsqueda normalizadas de {} libros", updated);
+    }
+  }
+}
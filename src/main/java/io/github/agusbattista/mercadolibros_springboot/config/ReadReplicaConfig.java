@@ -0,0 +1,77 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Clock;
+import java.time.Duration;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/*
+ * Réplica de lectura opcional (app.datasource.replica.url): las transacciones de sólo lectura van
+ * a un pool de la réplica y el resto al primario (spring.datasource.*), por lo que las lecturas
+ * escalan agregando réplicas detrás de esa URL. Usuario y contraseña son los del primario salvo
+ * que se indiquen app.datasource.replica.username/password, y el pool se ajusta con
+ * app.datasource.replica.hikari.*.
+ * Luego de una escritura, el mismo cliente lee del primario durante
+ * app.datasource.replica.stickiness (ver ReadYourWritesInterceptor).
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.url")
+@Slf4j
+public class ReadReplicaConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource primary =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    primary.setPoolName("primary");
+    return primary;
+  }
+
+  @Bean
+  @ConfigurationProperties("app.datasource.replica.hikari")
+  HikariDataSource replicaDataSource(
+      DataSourceProperties properties,
+      @Value("${app.datasource.replica.url}") String url,
+      @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+      @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+    HikariDataSource replica =
+        DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+    replica.setPoolName("replica");
+    replica.setReadOnly(true);
+    log.info("Réplica de lectura activa: las transacciones de sólo lectura usan {}", url);
+    return replica;
+  }
+
+  // El pool se elige con la primera consulta, cuando ya se sabe si la transacción es de lectura
+  @Bean
+  @Primary
+  DataSource dataSource(
+      @Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica) {
+    return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica));
+  }
+
+  @Bean
+  ReadYourWritesInterceptor readYourWritesInterceptor(
+      @Value("${app.datasource.replica.stickiness:5s}") Duration stickiness) {
+    return new ReadYourWritesInterceptor(stickiness, Clock.systemUTC());
+  }
+}
@@ -0,0 +1,65 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import java.util.function.Supplier;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ * Con una réplica de lectura configurada (ver ReadReplicaConfig), las transacciones de sólo
+ * lectura se ejecutan en la réplica y el resto en el primario. La réplica puede estar unos
+ * instantes atrasada, por lo que las lecturas que no pueden perderse un cambio recién confirmado
+ * (cachés, índices en memoria, el stream de cambios, las peticiones de un cliente que acaba de
+ * escribir) se fuerzan al primario con callOnPrimary/runOnPrimary.
+ * Sin réplica todo va al primario y estos métodos no tienen efecto.
+ */
+public final class ReadReplicaRouting {
+
+  // Vencimiento de la lectura desde el primario luego de una escritura (ReadYourWritesInterceptor)
+  public static final String PRIMARY_UNTIL_HEADER = "Primary-Until";
+
+  private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+  private ReadReplicaRouting() {}
+
+  public static <T> T callOnPrimary(Supplier<T> action) {
+    Boolean previous = PRIMARY_REQUIRED.get();
+    PRIMARY_REQUIRED.set(Boolean.TRUE);
+    try {
+      return action.get();
+    } finally {
+      restore(previous);
+    }
+  }
+
+  public static void runOnPrimary(Runnable action) {
+    callOnPrimary(
+        () -> {
+          action.run();
+          return null;
+        });
+  }
+
+  static boolean usesReplica() {
+    return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !isPrimaryRequired();
+  }
+
+  public static boolean isPrimaryRequired() {
+    return PRIMARY_REQUIRED.get() != null;
+  }
+
+  // Para toda la petición actual (ReadYourWritesInterceptor); se deshace con clear()
+  static void requirePrimary() {
+    PRIMARY_REQUIRED.set(Boolean.TRUE);
+  }
+
+  static void clear() {
+    PRIMARY_REQUIRED.remove();
+  }
+
+  private static void restore(Boolean previous) {
+    if (previous == null) {
+      PRIMARY_REQUIRED.remove();
+    } else {
+      PRIMARY_REQUIRED.set(previous);
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/*
+ * Elige el primario o la réplica al pedir cada conexión (ver ReadReplicaRouting). Debe usarse
+ * detrás de LazyConnectionDataSourceProxy: la conexión se pide recién con la primera consulta,
+ * cuando ya se sabe si la transacción es de sólo lectura.
+ */
+class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+  enum Target {
+    PRIMARY,
+    REPLICA
+  }
+
+  ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+    this.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+    this.setDefaultTargetDataSource(primary);
+    this.afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return ReadReplicaRouting.usesReplica() ? Target.REPLICA : Target.PRIMARY;
+  }
+}
@@ -0,0 +1,97 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/*
+ * Lectura de las propias escrituras con una réplica de lectura: cada escritura (POST, PUT,
+ * DELETE, ...) deja una cookie que, durante "stickiness", envía todas las consultas de ese
+ * cliente al primario. Así un cliente ve sus cambios aunque la réplica todavía no los tenga;
+ * el resto de los clientes sigue leyendo de la réplica.
+ * Los clientes que no guardan cookies (otras APIs, o llamadas desde otro origen sin
+ * credenciales) reciben el mismo vencimiento en el encabezado Primary-Until y pueden reenviarlo
+ * en sus lecturas.
+ */
+class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+  static final String COOKIE_NAME = "primary_until";
+  static final String HEADER_NAME = ReadReplicaRouting.PRIMARY_UNTIL_HEADER;
+
+  private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+  private final Duration stickiness;
+  private final Clock clock;
+
+  ReadYourWritesInterceptor(Duration stickiness, Clock clock) {
+    this.stickiness = stickiness;
+    this.clock = clock;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    long now = clock.millis();
+    boolean write = !SAFE_METHODS.contains(request.getMethod());
+    if (write) {
+      String primaryUntil = Long.toString(now + stickiness.toMillis());
+      ResponseCookie cookie =
+          ResponseCookie.from(COOKIE_NAME, primaryUntil)
+              .path("/")
+              .maxAge(stickiness)
+              .httpOnly(true)
+              .sameSite("Lax")
+              .build();
+      response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+      response.setHeader(HEADER_NAME, primaryUntil);
+    }
+    if (write || this.isSticky(request, now)) {
+      ReadReplicaRouting.requirePrimary();
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    ReadReplicaRouting.clear();
+  }
+
+  // La petición continúa en otro hilo: se libera el actual
+  @Override
+  public void afterConcurrentHandlingStarted(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    ReadReplicaRouting.clear();
+  }
+
+  private boolean isSticky(HttpServletRequest request, long now) {
+    String header = request.getHeader(HEADER_NAME);
+    if (header != null) {
+      return isFuture(header, now);
+    }
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return false;
+    }
+    for (Cookie cookie : cookies) {
+      if (COOKIE_NAME.equals(cookie.getName())) {
+        return isFuture(cookie.getValue(), now);
+      }
+    }
+    return false;
+  }
+
+  private static boolean isFuture(String primaryUntil, long now) {
+    try {
+      return Long.parseLong(primaryUntil.trim()) > now;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tareas periódicas, por ejemplo la reconstrucción de BookLookupFilter
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -0,0 +1,76 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import io.github.agusbattista.mercadolibros_springboot.repository.GenreRepository;
+import java.time.Duration;
+import java.util.OptionalLong;
+import javax.cache.CacheManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * Caché de segundo nivel de Hibernate, opcional (app.jpa.second-level-cache.enabled=true): guarda
+ * en memoria, con Caffeine como proveedor JCache, las entidades Book y Genre leídas por ID o al
+ * resolver la relación Book.genre, y los resultados de GenreRepository.findByCode.
+ * Cada región se crea acá con su tamaño y vencimiento; una región sin configurar hace fallar el
+ * inicio en lugar de crearse sin límites. La región de marcas de tiempo, con la que Hibernate
+ * descarta los resultados de consultas de tablas modificadas, no puede vencer antes que ellos, por
+ * lo que no tiene límite.
+ * Los aciertos, fallos y escrituras de cada región se publican en /actuator/metrics
+ * (hibernate.second.level.cache.requests y hibernate.cache.query.requests).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.jpa.second-level-cache.enabled", havingValue = "true")
+@Slf4j
+public class SecondLevelCacheConfig {
+
+  // Igual que GenreCache: muy por encima de la cantidad de géneros esperada
+  private static final long MAX_GENRES = 1_000;
+
+  @Bean(destroyMethod = "close")
+  CacheManager hibernateCacheManager(
+      @Value("${app.jpa.second-level-cache.books.max-size:10000}") long maxBooks,
+      @Value("${app.jpa.second-level-cache.ttl:10m}") Duration ttl) {
+    CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+    cacheManager.createCache(Book.CACHE_REGION, region(OptionalLong.of(maxBooks), ttl));
+    cacheManager.createCache(Genre.CACHE_REGION, region(OptionalLong.of(MAX_GENRES), ttl));
+    cacheManager.createCache(
+        GenreRepository.BY_CODE_CACHE_REGION, region(OptionalLong.of(MAX_GENRES), ttl));
+    cacheManager.createCache(
+        RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+        region(OptionalLong.of(maxBooks), ttl));
+    cacheManager.createCache(
+        RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+        new CaffeineConfiguration<>());
+    log.info("Caché de segundo nivel de Hibernate activa para libros y géneros");
+    return cacheManager;
+  }
+
+  @Bean
+  HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+    return properties -> {
+      properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+      properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+      properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+      properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+      properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+      properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+    };
+  }
+
+  private static CaffeineConfiguration<Object, Object> region(OptionalLong maxSize, Duration ttl) {
+    return new CaffeineConfiguration<>()
+        .setMaximumSize(maxSize)
+        .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+  }
+}
@@ -0,0 +1,113 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+ * Migración de los UUID de los libros de la columna de texto "uuid" a la binaria "uuid_bin" (ver
+ * Book.uuid): copia los valores de a lotes, incluidos los de los libros eliminados lógicamente, por
+ * lo que las URL existentes siguen funcionando. Antes de copiar, la columna anterior pasa a admitir
+ * NULL, porque los libros nuevos ya no la completan.
+ * Es una migración con la aplicación detenida: las versiones anteriores sólo escriben "uuid" y ésta
+ * sólo "uuid_bin", por lo que antes de iniciar la primera instancia nueva deben detenerse todas las
+ * anteriores (un libro creado por una de ellas después de la copia quedaría sin "uuid_bin" hasta
+ * el próximo inicio). Se ejecuta al iniciar, luego de que Hibernate agrega "uuid_bin" y antes de
+ * que el servidor acepte peticiones: ningún libro responde 404 por no tener todavía su UUID
+ * binario, y los CommandLineRunner que insertan libros (BookDataLoader y BookImportRunner) no
+ * fallan porque "uuid" ya admite NULL.
+ * En las bases creadas con la columna binaria no hay columna anterior y no hace nada; en las
+ * migradas, luego de la primera ejecución la consulta inicial no encuentra filas. Una vez migradas
+ * todas las instancias, la columna "uuid" puede eliminarse.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class UuidBinaryBackfill implements InitializingBean {
+
+  static final String LEGACY_COLUMN = "uuid";
+
+  private static final int BATCH_SIZE = 500;
+
+  private static final String SELECT_PENDING =
+      "SELECT id, uuid FROM books WHERE uuid_bin IS NULL AND uuid IS NOT NULL ORDER BY id LIMIT ?";
+
+  private static final String UPDATE_UUID = "UPDATE books SET uuid_bin = ? WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void afterPropertiesSet() {
+    LegacyColumn legacyColumn = jdbcTemplate.execute(this::findLegacyColumn);
+    if (legacyColumn == null) {
+      return;
+    }
+    if (!legacyColumn.nullable()) {
+      jdbcTemplate.execute(legacyColumn.allowNullStatement());
+      log.info("La columna books.{} ahora admite NULL", LEGACY_COLUMN);
+    }
+    int updated = 0;
+    List<Object[]> batch;
+    do {
+      batch =
+          jdbcTemplate.query(
+              SELECT_PENDING,
+              (rs, rowNum) ->
+                  new Object[] {
+                    toBytes(UUID.fromString(rs.getString("uuid").trim())), rs.getLong("id")
+                  },
+              BATCH_SIZE);
+      jdbcTemplate.batchUpdate(UPDATE_UUID, batch);
+      updated += batch.size();
+    } while (batch.size() == BATCH_SIZE);
+    if (updated > 0) {
+      log.info("Se copiaron a la columna binaria los UUID de {} libros", updated);
+    }
+  }
+
+  static byte[] toBytes(UUID uuid) {
+    return ByteBuffer.allocate(16)
+        .putLong(uuid.getMostSignificantBits())
+        .putLong(uuid.getLeastSignificantBits())
+        .array();
+  }
+
+  private LegacyColumn findLegacyColumn(Connection connection) throws SQLException {
+    DatabaseMetaData metaData = connection.getMetaData();
+    String table = metaData.storesUpperCaseIdentifiers() ? "BOOKS" : "books";
+    try (ResultSet columns =
+        metaData.getColumns(connection.getCatalog(), connection.getSchema(), table, null)) {
+      while (columns.next()) {
+        if (LEGACY_COLUMN.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+          return new LegacyColumn(
+              metaData.getDatabaseProductName(),
+              columns.getInt("COLUMN_SIZE"),
+              columns.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls);
+        }
+      }
+    }
+    return null;
+  }
+
+  private record LegacyColumn(String databaseProduct, int length, boolean nullable) {
+
+    // MySQL no admite ALTER COLUMN ... SET NULL; en InnoDB este cambio no bloquea las escrituras
+    private String allowNullStatement() {
+      if ("MySQL".equalsIgnoreCase(databaseProduct)) {
+        return "ALTER TABLE books MODIFY " + LEGACY_COLUMN + " VARCHAR(" + length + ") NULL";
+      }
+      return "ALTER TABLE books ALTER COLUMN " + LEGACY_COLUMN + " SET NULL";
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/*
+ * Modo opcional con hilos virtuales (spring.threads.virtual.enabled=true): Spring Boot ya atiende
+ * las peticiones de Tomcat y ejecuta las tareas asíncronas (exportaciones, etc.) en hilos
+ * virtuales, por lo que la cantidad de peticiones simultáneas deja de estar limitada por el pool
+ * de hilos. El límite pasa a ser el pool de conexiones: el DataSource se envuelve en
+ * ConnectionLimitingDataSource, con tantos permisos como conexiones tiene Hikari (cada pool por
+ * separado si hay réplica de lectura).
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+
+  @Bean
+  static BeanPostProcessor connectionLimiter(
+      Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+    Duration acquireTimeout =
+        environment.getProperty(
+            "app.db.connection-limiter.timeout", Duration.class, Duration.ofSeconds(30));
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource hikari)) {
+          return bean;
+        }
+        log.info(
+            "Hilos virtuales activos: hasta {} conexiones simultáneas en {}",
+            hikari.getMaximumPoolSize(),
+            beanName);
+        return new ConnectionLimitingDataSource(
+            hikari,
+            beanName,
+            hikari.getMaximumPoolSize(),
+            acquireTimeout,
+            meterRegistry.getObject());
+      }
+    };
+  }
+}
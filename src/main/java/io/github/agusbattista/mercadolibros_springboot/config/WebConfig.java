@@ -0,0 +1,48 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import io.github.agusbattista.mercadolibros_springboot.cache.CatalogVersion;
+import io.github.agusbattista.mercadolibros_springboot.service.CatalogChangeService;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+  private final CatalogVersion catalogVersion;
+  private final CatalogChangeService catalogChangeService;
+  // Sólo existe con réplica de lectura (ReadReplicaConfig)
+  private final ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
+
+  // Los recursos individuales (/api/books/{uuid}, /api/genres/{id}, ...) usan su propia versión
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    // Primero: un cliente que acaba de escribir también lee la versión del primario
+    readYourWritesInterceptor.ifAvailable(registry::addInterceptor);
+    registry
+        .addInterceptor(new CatalogETagInterceptor(this.listVersion()))
+        .addPathPatterns(
+            "/api/books",
+            "/api/books/search",
+            "/api/books/suggest",
+            "/api/books/export",
+            "/api/genres");
+  }
+
+  /*
+   * CatalogVersion cambia al confirmar en el primario, luego de actualizar las cachés y el índice en
+   * memoria. Con réplica, los listados se leen de ella: el ETag agrega el último cambio que la
+   * réplica recibió (catalog_change_sequence), leído antes que la página y de la misma base, para
+   * que una réplica atrasada no deje en el cliente una página vieja con un ETag nuevo.
+   */
+  private Supplier<String> listVersion() {
+    if (readYourWritesInterceptor.getIfAvailable() == null) {
+      return catalogVersion::current;
+    }
+    return () -> catalogVersion.current() + "-" + catalogChangeService.latestSequence();
+  }
+}
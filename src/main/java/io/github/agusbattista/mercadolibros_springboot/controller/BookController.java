@@ -1,15 +1,36 @@
 package io.github.agusbattista.mercadolibros_springboot.controller;
 
+import io.github.agusbattista.mercadolibros_springboot.config.ReadReplicaRouting;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookImportSummaryDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookLookupResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.BookRequestDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookSearchCriteria;
+import io.github.agusbattista.mercadolibros_springboot.dto.CursorResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetedResponse;
 import io.github.agusbattista.mercadolibros_springboot.dto.PagedResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.SliceResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.SuggestionResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.exception.ResourceNotFoundException;
+import io.github.agusbattista.mercadolibros_springboot.service.BookExportService;
+import io.github.agusbattista.mercadolibros_springboot.service.BookFileFormat;
+import io.github.agusbattista.mercadolibros_springboot.service.BookImportService;
 import io.github.agusbattista.mercadolibros_springboot.service.BookService;
+import io.github.agusbattista.mercadolibros_springboot.utils.ETags;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,24 +39,59 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-@CrossOrigin(origins = "*")
+// ETag se expone para que los clientes puedan enviarlo en If-None-Match e If-Match, y
+// Primary-Until para que lo reenvíen en sus lecturas (ver ReadYourWritesInterceptor)
+@CrossOrigin(
+    origins = "*",
+    exposedHeaders = {HttpHeaders.ETAG, ReadReplicaRouting.PRIMARY_UNTIL_HEADER})
 @RestController
 @RequestMapping("/api/books")
-@RequiredArgsConstructor
 public class BookController {
 
+  private static final String TEXT_CSV_VALUE = "text/csv";
+
   private final BookService bookService;
+  private final BookImportService bookImportService;
+  private final BookExportService bookExportService;
+  private final Duration exportTimeout;
+
+  public BookController(
+      BookService bookService,
+      BookImportService bookImportService,
+      BookExportService bookExportService,
+      @Value("${app.export.timeout:1h}") Duration exportTimeout) {
+    this.bookService = bookService;
+    this.bookImportService = bookImportService;
+    this.bookExportService = bookExportService;
+    this.exportTimeout = exportTimeout;
+  }
 
   @GetMapping
   public ResponseEntity<PagedResponse<BookResponseDTO>> findAll(Pageable pageable) {
     return ResponseEntity.ok(bookService.findAll(pageable));
   }
 
+  // Sin totales: evita el COUNT(*) de cada página (útil para scroll infinito)
+  @GetMapping(params = {"count=false", "!after"})
+  public ResponseEntity<SliceResponse<BookResponseDTO>> sliceAll(Pageable pageable) {
+    return ResponseEntity.ok(bookService.sliceAll(pageable));
+  }
+
+  // Paginación por cursor: se activa al enviar "after" (vacío para la primera página)
+  @GetMapping(params = "after")
+  public ResponseEntity<CursorResponse<BookResponseDTO>> scrollAll(
+      @RequestParam(required = false) String after, Pageable pageable) {
+    return ResponseEntity.ok(bookService.scrollAll(after, pageable));
+  }
+
+  // Si el ETag coincide con If-None-Match, Spring responde 304 sin serializar el libro
   @GetMapping("/{uuid}")
   public ResponseEntity<BookResponseDTO> findByUuid(@PathVariable UUID uuid) {
     BookResponseDTO book =
@@ -43,7 +99,7 @@ public class BookController {
             .findByUuid(uuid)
             .orElseThrow(
                 () -> new ResourceNotFoundException("Libro con UUID: " + uuid + " no encontrado"));
-    return ResponseEntity.ok(book);
+    return ResponseEntity.ok().eTag(ETags.of(book)).body(book);
   }
 
   @GetMapping("/isbn/{isbn}")
@@ -53,18 +109,106 @@ public class BookController {
             .findByIsbn(isbn)
             .orElseThrow(
                 () -> new ResourceNotFoundException("Libro con ISBN: " + isbn + " no encontrado"));
-    return ResponseEntity.ok(book);
+    return ResponseEntity.ok().eTag(ETags.of(book)).body(book);
   }
 
   @GetMapping("/search")
   public ResponseEntity<PagedResponse<BookResponseDTO>> findBooksByCriteria(
-      @RequestParam(required = false) String title,
-      @RequestParam(required = false) String authors,
-      @RequestParam(required = false) String genre,
-      @RequestParam(required = false) String publisher,
+      @Valid BookSearchCriteria criteria, Pageable pageable) {
+    return ResponseEntity.ok(bookService.findBooksByCriteria(criteria, pageable));
+  }
+
+  /*
+   * Búsqueda paginada con conteos por faceta (genre, publisher y/o price). Las demás búsquedas
+   * excluyen "facets", por lo que las combinaciones que no la admiten llegan acá y responden 400
+   * en lugar de ignorar las facetas.
+   */
+  @GetMapping(value = "/search", params = "facets")
+  public ResponseEntity<FacetedResponse<BookResponseDTO>> findBooksByCriteriaWithFacets(
+      @Valid BookSearchCriteria criteria,
+      @RequestParam List<String> facets,
+      @RequestParam(required = false) String q,
+      @RequestParam(required = false) String after,
+      @RequestParam(defaultValue = "true") boolean count,
       Pageable pageable) {
-    return ResponseEntity.ok(
-        bookService.findBooksByCriteria(title, authors, genre, publisher, pageable));
+    if (q != null || after != null || !count) {
+      throw new IllegalArgumentException(
+          "Las facetas no se pueden combinar con la búsqueda de texto (q), con after ni con"
+              + " count=false");
+    }
+    return ResponseEntity.ok(bookService.findBooksByCriteriaWithFacets(criteria, facets, pageable));
+  }
+
+  @GetMapping(
+      value = "/search",
+      params = {"count=false", "!after", "!q", "!facets"})
+  public ResponseEntity<SliceResponse<BookResponseDTO>> sliceBooksByCriteria(
+      @Valid BookSearchCriteria criteria, Pageable pageable) {
+    return ResponseEntity.ok(bookService.sliceBooksByCriteria(criteria, pageable));
+  }
+
+  @GetMapping(
+      value = "/search",
+      params = {"after", "!q", "!facets"})
+  public ResponseEntity<CursorResponse<BookResponseDTO>> scrollBooksByCriteria(
+      @Valid BookSearchCriteria criteria,
+      @RequestParam(required = false) String after,
+      Pageable pageable) {
+    return ResponseEntity.ok(bookService.scrollBooksByCriteria(criteria, after, pageable));
+  }
+
+  // Búsqueda de texto libre en título, autores y editorial, ordenada por relevancia
+  @GetMapping(
+      value = "/search",
+      params = {"q", "!facets"})
+  public ResponseEntity<PagedResponse<BookResponseDTO>> searchByText(
+      @RequestParam String q, Pageable pageable) {
+    return ResponseEntity.ok(bookService.searchByText(q, pageable));
+  }
+
+  // Igual que la anterior, pero tolera errores de tipeo en títulos y autores
+  @GetMapping(
+      value = "/search",
+      params = {"q", "fuzzy=true", "!facets"})
+  public ResponseEntity<PagedResponse<BookResponseDTO>> searchByTextFuzzy(
+      @RequestParam String q, Pageable pageable) {
+    return ResponseEntity.ok(bookService.searchByTextFuzzy(q, pageable));
+  }
+
+  /*
+   * Catálogo completo (format=ndjson, por defecto, o csv), escrito a medida que se lee de la base
+   * de datos. Pensado para sincronizaciones: reemplaza recorrer GET /api/books página por página.
+   * Su duración depende del catálogo y del cliente, por lo que tiene su propio límite de tiempo
+   * (app.export.timeout) en lugar del de las demás respuestas asíncronas.
+   */
+  @GetMapping("/export")
+  public WebAsyncTask<Void> exportAll(
+      @RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) {
+    BookFileFormat fileFormat = BookFileFormat.fromName(format);
+    response.setContentType(
+        new MediaType(MediaType.parseMediaType(fileFormat.mediaType()), StandardCharsets.UTF_8)
+            .toString());
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment()
+            .filename("books." + fileFormat.extension())
+            .build()
+            .toString());
+    return new WebAsyncTask<>(
+        exportTimeout.toMillis(),
+        () -> {
+          bookExportService.exportBooks(response.getOutputStream(), fileFormat);
+          return null;
+        });
+  }
+
+  // Autocompletado por prefijo (title, authors o publisher), resuelto en memoria
+  @GetMapping("/suggest")
+  public ResponseEntity<List<SuggestionResponseDTO>> suggest(
+      @RequestParam String prefix,
+      @RequestParam(required = false) String field,
+      @RequestParam(defaultValue = "10") int limit) {
+    return ResponseEntity.ok(bookService.suggest(prefix, field, limit));
   }
 
   @PostMapping
@@ -74,10 +218,47 @@ public class BookController {
     return ResponseEntity.created(uri).body(newBook);
   }
 
+  /*
+   * Alta masiva (hasta 1000 libros por petición). Responde 200 con el resultado de cada libro, en
+   * el mismo orden: los inválidos se informan con sus errores y no impiden guardar el resto.
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<BookBatchResponseDTO> createAll(@RequestBody List<BookRequestDTO> books) {
+    return ResponseEntity.ok(bookService.createAll(books));
+  }
+
+  /*
+   * Varios libros en una sola petición (hasta 100 UUID o ISBN, por ejemplo los de un carrito).
+   * Responde 200 con los libros encontrados, en el orden de las claves, y las claves inexistentes.
+   */
+  @PostMapping("/lookup")
+  public ResponseEntity<BookLookupResponseDTO> findAllByKeys(@RequestBody List<String> keys) {
+    return ResponseEntity.ok(bookService.findAllByKeys(keys));
+  }
+
+  /*
+   * Importación de catálogos completos, que se procesan a medida que llegan (sin límite de
+   * tamaño): un libro por línea en NDJSON o un CSV con cabecera. Responde 200 con los totales y las
+   * filas rechazadas; las válidas se guardan aunque otras fallen.
+   */
+  @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<BookImportSummaryDTO> importNdjson(InputStream body) {
+    return ResponseEntity.ok(bookImportService.importBooks(body, BookFileFormat.NDJSON));
+  }
+
+  @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+  public ResponseEntity<BookImportSummaryDTO> importCsv(InputStream body) {
+    return ResponseEntity.ok(bookImportService.importBooks(body, BookFileFormat.CSV));
+  }
+
+  // Con If-Match (el ETag obtenido en el GET) sólo se actualiza si nadie lo modificó antes (412)
   @PutMapping("/{uuid}")
   public ResponseEntity<BookResponseDTO> update(
-      @PathVariable UUID uuid, @Valid @RequestBody BookRequestDTO book) {
-    return ResponseEntity.ok(bookService.update(uuid, book));
+      @PathVariable UUID uuid,
+      @Valid @RequestBody BookRequestDTO book,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    BookResponseDTO updatedBook = bookService.update(uuid, book, ETags.versionFromIfMatch(ifMatch));
+    return ResponseEntity.ok().eTag(ETags.of(updatedBook)).body(updatedBook);
   }
 
   @DeleteMapping("/{uuid}")
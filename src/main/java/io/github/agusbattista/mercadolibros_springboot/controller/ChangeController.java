@@ -0,0 +1,48 @@
+package io.github.agusbattista.mercadolibros_springboot.controller;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.ChangeFeedResponse;
+import io.github.agusbattista.mercadolibros_springboot.service.CatalogChangeService;
+import io.github.agusbattista.mercadolibros_springboot.stream.CatalogChangeBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeController {
+
+  private final CatalogChangeService catalogChangeService;
+  private final CatalogChangeBroadcaster catalogChangeBroadcaster;
+
+  /*
+   * Cambios de libros y géneros posteriores a "since", en el orden en que se confirmaron. Para
+   * seguir sincronizando se vuelve a pedir con since = next (mientras hasMore sea true, sin
+   * esperar).
+   */
+  @GetMapping
+  public ResponseEntity<ChangeFeedResponse> findSince(
+      @RequestParam(defaultValue = "0") long since, @RequestParam(defaultValue = "100") int limit) {
+    return ResponseEntity.ok(catalogChangeService.findSince(since, limit));
+  }
+
+  /*
+   * Los mismos cambios, a medida que se confirman, como Server-Sent Events (evento "change", con
+   * el número de secuencia como id). El navegador reenvía el último id en Last-Event-ID al
+   * reconectarse; "since" permite indicarlo en la primera conexión.
+   */
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter stream(
+      @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+      @RequestParam(required = false) Long since) {
+    return catalogChangeBroadcaster.subscribe(lastEventId != null ? lastEventId : since);
+  }
+}
@@ -1,14 +1,17 @@
 package io.github.agusbattista.mercadolibros_springboot.controller;
 
+import io.github.agusbattista.mercadolibros_springboot.config.ReadReplicaRouting;
 import io.github.agusbattista.mercadolibros_springboot.dto.GenreRequestDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.PagedResponse;
 import io.github.agusbattista.mercadolibros_springboot.exception.ResourceNotFoundException;
 import io.github.agusbattista.mercadolibros_springboot.service.GenreService;
+import io.github.agusbattista.mercadolibros_springboot.utils.ETags;
 import jakarta.validation.Valid;
 import java.net.URI;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,12 +20,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-@CrossOrigin(origins = "*")
+// ETag se expone para que los clientes puedan enviarlo en If-None-Match e If-Match, y
+// Primary-Until para que lo reenvíen en sus lecturas (ver ReadYourWritesInterceptor)
+@CrossOrigin(
+    origins = "*",
+    exposedHeaders = {HttpHeaders.ETAG, ReadReplicaRouting.PRIMARY_UNTIL_HEADER})
 @RestController
 @RequestMapping("/api/genres")
 @RequiredArgsConstructor
@@ -43,7 +51,7 @@ public class GenreController {
             .findById(id)
             .orElseThrow(
                 () -> new ResourceNotFoundException("Género con ID: " + id + NOT_FOUND_MESSAGE));
-    return ResponseEntity.ok(genre);
+    return ResponseEntity.ok().eTag(ETags.of(genre)).body(genre);
   }
 
   @GetMapping("/code/{code}")
@@ -55,7 +63,7 @@ public class GenreController {
                 () ->
                     new ResourceNotFoundException(
                         "Género con código: " + code + NOT_FOUND_MESSAGE));
-    return ResponseEntity.ok(genre);
+    return ResponseEntity.ok().eTag(ETags.of(genre)).body(genre);
   }
 
   @GetMapping("/search")
@@ -67,7 +75,7 @@ public class GenreController {
                 () ->
                     new ResourceNotFoundException(
                         "Género con nombre: " + name + NOT_FOUND_MESSAGE));
-    return ResponseEntity.ok(genre);
+    return ResponseEntity.ok().eTag(ETags.of(genre)).body(genre);
   }
 
   @PostMapping
@@ -77,10 +85,15 @@ public class GenreController {
     return ResponseEntity.created(uri).body(newGenre);
   }
 
+  // Con If-Match (el ETag obtenido en el GET) sólo se actualiza si nadie lo modificó antes (412)
   @PutMapping("/{id}")
   public ResponseEntity<GenreResponseDTO> update(
-      @PathVariable Long id, @Valid @RequestBody GenreRequestDTO genre) {
-    return ResponseEntity.ok(genreService.update(id, genre));
+      @PathVariable Long id,
+      @Valid @RequestBody GenreRequestDTO genre,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    GenreResponseDTO updatedGenre =
+        genreService.update(id, genre, ETags.versionFromIfMatch(ifMatch));
+    return ResponseEntity.ok().eTag(ETags.of(updatedGenre)).body(updatedGenre);
   }
 
   @DeleteMapping("/{id}")
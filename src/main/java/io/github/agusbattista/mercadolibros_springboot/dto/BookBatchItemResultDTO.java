@@ -0,0 +1,26 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/*
+ * Resultado de un libro dentro de un alta masiva. "index" es su posición en el lote recibido.
+ * Si falló, "uuid" es nulo y "errors" indica los motivos.
+ */
+public record BookBatchItemResultDTO(
+    int index, String isbn, Status status, UUID uuid, List<String> errors) {
+
+  public enum Status {
+    CREATED,
+    RESTORED,
+    FAILED
+  }
+
+  public static BookBatchItemResultDTO succeeded(int index, Status status, BookResponseDTO book) {
+    return new BookBatchItemResultDTO(index, book.isbn(), status, book.uuid(), List.of());
+  }
+
+  public static BookBatchItemResultDTO failed(int index, String isbn, List<String> errors) {
+    return new BookBatchItemResultDTO(index, isbn, Status.FAILED, null, errors);
+  }
+}
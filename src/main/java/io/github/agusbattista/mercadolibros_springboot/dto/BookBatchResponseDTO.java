@@ -0,0 +1,21 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import java.util.List;
+
+// Totales de un alta masiva y el resultado de cada libro, en el orden recibido
+public record BookBatchResponseDTO(
+    int created, int restored, int failed, List<BookBatchItemResultDTO> items) {
+
+  public static BookBatchResponseDTO from(List<BookBatchItemResultDTO> items) {
+    return new BookBatchResponseDTO(
+        count(items, BookBatchItemResultDTO.Status.CREATED),
+        count(items, BookBatchItemResultDTO.Status.RESTORED),
+        count(items, BookBatchItemResultDTO.Status.FAILED),
+        items);
+  }
+
+  private static int count(
+      List<BookBatchItemResultDTO> items, BookBatchItemResultDTO.Status status) {
+    return (int) items.stream().filter(item -> item.status() == status).count();
+  }
+}
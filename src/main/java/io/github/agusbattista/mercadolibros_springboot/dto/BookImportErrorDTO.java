@@ -0,0 +1,9 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import java.util.List;
+
+/*
+ * Fila rechazada en una importación. "row" es la posición del libro en el archivo, empezando en 1
+ * (sin contar la cabecera del CSV ni las líneas vacías). "isbn" es nulo si la fila no se pudo leer.
+ */
+public record BookImportErrorDTO(long row, String isbn, List<String> errors) {}
@@ -0,0 +1,16 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import java.util.List;
+
+/*
+ * Resultado de una importación. Para que el resumen no crezca con el archivo, "errors" incluye
+ * sólo las primeras filas rechazadas; "errorsTruncated" indica si hubo más ("failed" las cuenta
+ * todas).
+ */
+public record BookImportSummaryDTO(
+    long rows,
+    long created,
+    long restored,
+    long failed,
+    List<BookImportErrorDTO> errors,
+    boolean errorsTruncated) {}
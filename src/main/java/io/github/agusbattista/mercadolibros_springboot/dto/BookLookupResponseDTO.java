@@ -0,0 +1,9 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import java.util.List;
+
+/*
+ * Resultado de una búsqueda de varios libros por UUID o ISBN: los encontrados, en el orden de las
+ * claves recibidas, y las claves que no corresponden a ningún libro activo.
+ */
+public record BookLookupResponseDTO(List<BookResponseDTO> books, List<String> missing) {}
@@ -1,5 +1,6 @@
 package io.github.agusbattista.mercadolibros_springboot.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.math.BigDecimal;
 import java.util.UUID;
 
@@ -12,4 +13,6 @@ public record BookResponseDTO(
     String description,
     String publisher,
     GenreResponseDTO genre,
-    String imageUrl) {}
+    String imageUrl,
+    // Sólo para el ETag (ver BookController); no forma parte del cuerpo JSON
+    @JsonIgnore Long version) {}
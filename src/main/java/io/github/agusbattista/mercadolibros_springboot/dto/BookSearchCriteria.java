@@ -0,0 +1,49 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Filtros de GET /api/books/search. Todos son opcionales y sólo los presentes se agregan a la
+ * consulta. Los textos vacíos se consideran ausentes y el prefijo de ISBN ignora guiones y
+ * espacios ("978-84" equivale a "97884").
+ */
+public record BookSearchCriteria(
+    String title,
+    String authors,
+    String genre,
+    String publisher,
+    @PositiveOrZero(message = "El precio mínimo debe ser mayor o igual a cero") BigDecimal minPrice,
+    @PositiveOrZero(message = "El precio máximo debe ser mayor o igual a cero") BigDecimal maxPrice,
+    List<String> genreCodes,
+    @Pattern(regexp = "[0-9X]*", message = "El prefijo de ISBN sólo puede contener dígitos y X")
+        String isbnPrefix) {
+
+  public BookSearchCriteria {
+    title = blankToNull(title);
+    authors = blankToNull(authors);
+    genre = blankToNull(genre);
+    publisher = blankToNull(publisher);
+    genreCodes =
+        genreCodes == null
+            ? List.of()
+            : genreCodes.stream().filter(code -> code != null && !code.isBlank()).toList();
+    isbnPrefix =
+        isbnPrefix == null
+            ? null
+            : blankToNull(isbnPrefix.replaceAll("[\\s-]", "").toUpperCase(Locale.ROOT));
+  }
+
+  // Sólo los filtros originales de la búsqueda (título, autores, género y editorial)
+  public static BookSearchCriteria of(
+      String title, String authors, String genre, String publisher) {
+    return new BookSearchCriteria(title, authors, genre, publisher, null, null, null, null);
+  }
+
+  private static String blankToNull(String text) {
+    return (text == null || text.isBlank()) ? null : text;
+  }
+}
@@ -0,0 +1,22 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.model.CatalogChange;
+import java.time.Instant;
+
+/*
+ * Un cambio del catálogo. "id" es el UUID del libro o el ID del género: el estado actual se
+ * obtiene en /api/books/{id} o /api/genres/{id} (404 si fue eliminado).
+ */
+public record CatalogChangeDTO(
+    long sequence, CatalogChange.Resource resource, String id, ChangeType type, Instant changedAt) {
+
+  public static CatalogChangeDTO from(CatalogChange change) {
+    return new CatalogChangeDTO(
+        change.getSequence(),
+        change.getResource(),
+        change.getResourceId(),
+        change.getType(),
+        change.getChangedAt());
+  }
+}
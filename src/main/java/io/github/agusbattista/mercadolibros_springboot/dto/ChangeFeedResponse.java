@@ -0,0 +1,11 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import java.util.List;
+
+/*
+ * Página de GET /api/changes. "next" es el valor de "since" para la siguiente petición (el último
+ * cambio incluido, o el mismo "since" si no hubo cambios) y "latest" el último cambio confirmado
+ * al momento de responder.
+ */
+public record ChangeFeedResponse(
+    List<CatalogChangeDTO> changes, long next, boolean hasMore, long latest) {}
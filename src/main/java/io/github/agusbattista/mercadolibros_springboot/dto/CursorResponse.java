@@ -0,0 +1,19 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Sort;
+
+/*
+ * Respuesta de la paginación por cursor (keyset).
+ * No incluye totales ni número de página: el cliente avanza enviando "nextCursor" en el parámetro
+ * "after" de la siguiente petición. Si "nextCursor" es nulo, no hay más resultados.
+ */
+public record CursorResponse<T>(
+    List<T> content, int size, String nextCursor, boolean last, Map<String, String> sort) {
+
+  public static <T> CursorResponse<T> of(List<T> content, int size, String nextCursor, Sort sort) {
+    return new CursorResponse<>(
+        content, size, nextCursor, nextCursor == null, PagedResponse.createSortMap(sort));
+  }
+}
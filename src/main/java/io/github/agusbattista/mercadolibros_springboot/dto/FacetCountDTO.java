@@ -0,0 +1,3 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+public record FacetCountDTO(String value, long count) {}
@@ -0,0 +1,12 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * PagedResponse con los conteos por faceta de la búsqueda ("facets"), en el orden solicitado.
+ * Los campos de la página se serializan en el primer nivel, igual que en PagedResponse.
+ */
+public record FacetedResponse<T>(
+    @JsonUnwrapped PagedResponse<T> page, Map<String, List<FacetCountDTO>> facets) {}
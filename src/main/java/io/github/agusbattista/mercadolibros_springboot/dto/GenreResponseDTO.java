@@ -1,3 +1,6 @@
 package io.github.agusbattista.mercadolibros_springboot.dto;
 
-public record GenreResponseDTO(Long id, String code, String name) {}
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// "version" sólo se usa para el ETag (ver GenreController); no forma parte del cuerpo JSON
+public record GenreResponseDTO(Long id, String code, String name, @JsonIgnore Long version) {}
@@ -18,7 +18,7 @@ public record PagedResponse<T>(
     Map<String, String> sort) {
 
   public static <T> PagedResponse<T> from(Page<T> page) {
-    Map<String, String> sortInfo = createSortMap(page);
+    Map<String, String> sortInfo = createSortMap(page.getSort());
     return new PagedResponse<>(
         page.getContent(),
         page.getNumber(),
@@ -30,11 +30,11 @@ public record PagedResponse<T>(
   }
 
   @NonNull
-  private static <T> Map<String, String> createSortMap(Page<T> page) {
-    if (page.getSort().isUnsorted()) {
+  static Map<String, String> createSortMap(Sort sort) {
+    if (sort.isUnsorted()) {
       return Map.of("sorted", "NONE");
     }
-    return page.getSort().stream()
+    return sort.stream()
         .collect(
             Collectors.toMap(
                 Sort.Order::getProperty,
@@ -0,0 +1,23 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Slice;
+
+/*
+ * Variante de PagedResponse sin totalElements ni totalPages.
+ * Se construye a partir de un Slice, que obtiene size + 1 filas para saber si hay una página
+ * siguiente sin ejecutar COUNT(*).
+ */
+public record SliceResponse<T>(
+    List<T> content, int page, int size, boolean last, Map<String, String> sort) {
+
+  public static <T> SliceResponse<T> from(Slice<T> slice) {
+    return new SliceResponse<>(
+        slice.getContent(),
+        slice.getNumber(),
+        slice.getSize(),
+        slice.isLast(),
+        PagedResponse.createSortMap(slice.getSort()));
+  }
+}
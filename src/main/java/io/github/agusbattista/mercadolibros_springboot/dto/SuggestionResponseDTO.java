@@ -0,0 +1,3 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+public record SuggestionResponseDTO(String value, int books) {}
@@ -0,0 +1,9 @@
+package io.github.agusbattista.mercadolibros_springboot.event;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+
+/*
+ * Se publica desde BookServiceImpl dentro de la transacción de escritura.
+ * "book" contiene el estado del libro luego del cambio (o el último estado, si fue eliminado).
+ */
+public record BookChangedEvent(ChangeType type, Long id, BookResponseDTO book) {}
@@ -0,0 +1,8 @@
+package io.github.agusbattista.mercadolibros_springboot.event;
+
+public enum ChangeType {
+  CREATED,
+  UPDATED,
+  RESTORED,
+  DELETED
+}
@@ -0,0 +1,7 @@
+package io.github.agusbattista.mercadolibros_springboot.event;
+
+/*
+ * Se publica desde GenreServiceImpl dentro de la transacción de cada alta, modificación o baja de
+ * un género. Los libros incluyen el género en su respuesta, por lo que también cambian.
+ */
+public record GenreChangedEvent(ChangeType type, Long id) {}
@@ -7,11 +7,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.transaction.TransactionSystemException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -45,6 +47,27 @@ public class GlobalExceptionHandler {
     return this.buildResponse(HttpStatus.CONFLICT, ex.getMessage());
   }
 
+  // Precondición fallida (412) - If-Match no coincide con la versión actual
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<Map<String, Object>> handlePreconditionFailed(
+      PreconditionFailedException ex) {
+    log.warn("Precondición fallida: {}", ex.getMessage());
+    return this.buildResponse(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+  }
+
+  /*
+   * Precondición fallida (412) - Otra petición modificó el recurso entre la lectura y el guardado.
+   * Lo detecta la columna @Version al ejecutar el UPDATE.
+   */
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailure(
+      OptimisticLockingFailureException ex) {
+    log.warn("Modificación concurrente: {}", ex.getMessage());
+    return this.buildResponse(
+        HttpStatus.PRECONDITION_FAILED,
+        "El recurso fue modificado por otra petición. Vuelva a obtenerlo e intente nuevamente");
+  }
+
   // Argumentos ilegales (400)
   @ExceptionHandler(IllegalArgumentException.class)
   public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
@@ -61,6 +84,16 @@ public class GlobalExceptionHandler {
         HttpStatus.BAD_REQUEST, "El cuerpo de la petición está vacío o es inválido");
   }
 
+  // Content-Type no soportado (415) - por ejemplo, una importación que no es NDJSON ni CSV
+  @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+  public ResponseEntity<Map<String, Object>> handleUnsupportedMediaType(
+      HttpMediaTypeNotSupportedException ex) {
+    log.warn("Content-Type no soportado: {}", ex.getMessage());
+    return this.buildResponse(
+        HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+        "Content-Type no soportado. Tipos aceptados: " + ex.getSupportedMediaTypes());
+  }
+
   /*
    * Error de validación (400) - @Valid en el controller.
    * Extrae campo por campo que falló.
@@ -0,0 +1,8 @@
+package io.github.agusbattista.mercadolibros_springboot.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+  public PreconditionFailedException(String message) {
+    super(message);
+  }
+}
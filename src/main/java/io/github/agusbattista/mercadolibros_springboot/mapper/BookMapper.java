@@ -2,7 +2,9 @@ package io.github.agusbattista.mercadolibros_springboot.mapper;
 
 import io.github.agusbattista.mercadolibros_springboot.dto.BookRequestDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookSearchCriteria;
 import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookFilter;
 import org.mapstruct.InheritConfiguration;
 import org.mapstruct.InjectionStrategy;
 import org.mapstruct.Mapper;
@@ -18,11 +20,17 @@ public interface BookMapper {
   @Mapping(target = "id", ignore = true)
   @Mapping(target = "uuid", ignore = true)
   @Mapping(target = "deleted", ignore = true)
+  @Mapping(target = "version", ignore = true)
   @Mapping(target = "genre", ignore = true)
+  @Mapping(target = "normalizedTitle", ignore = true)
+  @Mapping(target = "normalizedAuthors", ignore = true)
+  @Mapping(target = "normalizedPublisher", ignore = true)
   Book toEntity(BookRequestDTO request);
 
   BookResponseDTO toResponse(Book book);
 
   @InheritConfiguration
   void updateEntityFromRequest(BookRequestDTO request, @MappingTarget Book entity);
+
+  BookFilter toFilter(BookSearchCriteria criteria);
 }
@@ -3,8 +3,12 @@ package io.github.agusbattista.mercadolibros_springboot.mapper;
 import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.model.Genre;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface GenreMapper {
   GenreResponseDTO toResponse(Genre genre);
+
+  @Mapping(target = "deleted", ignore = true)
+  Genre toEntity(GenreResponseDTO genre);
 }
@@ -1,11 +1,16 @@
 package io.github.agusbattista.mercadolibros_springboot.model;
 
+import io.github.agusbattista.mercadolibros_springboot.utils.StringFormatter;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.util.UUID;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
@@ -13,21 +18,56 @@ import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.type.SqlTypes;
 
 @Entity
-@Table(name = "books")
-@SQLDelete(sql = "UPDATE books SET deleted = true WHERE id = ?")
+@Table(
+    name = "books",
+    indexes = {
+      @Index(name = "idx_books_normalized_title", columnList = "normalized_title"),
+      @Index(name = "idx_books_normalized_authors", columnList = "normalized_authors"),
+      @Index(name = "idx_books_normalized_publisher", columnList = "normalized_publisher")
+    })
+// Con @Version, Hibernate pasa el ID y la versión esperada
+@SQLDelete(
+    sql = "UPDATE books SET deleted = true, version = version + 1 WHERE id = ? AND version = ?")
 @SQLRestriction("deleted = false")
+// Sólo con app.jpa.second-level-cache.enabled=true (ver SecondLevelCacheConfig)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
 public class Book {
 
+  // Cantidad de ID que se reservan por cada acceso a id_generators
+  public static final int ID_ALLOCATION_SIZE = 50;
+
+  public static final String CACHE_REGION = "books";
+
+  /*
+   * Los ID se reservan de a bloques en la tabla id_generators en lugar de usar IDENTITY, que obliga
+   * a insertar cada fila por separado para conocer su ID: así Hibernate puede agrupar los INSERT
+   * en lotes JDBC (ver BookIdGeneratorAlignment para las filas creadas con IDENTITY).
+   */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "book_ids")
+  @TableGenerator(
+      name = "book_ids",
+      table = "id_generators",
+      pkColumnName = "entity",
+      valueColumnName = "next_val",
+      pkColumnValue = "books",
+      allocationSize = Book.ID_ALLOCATION_SIZE)
   private Long id;
 
-  @UuidGenerator(style = UuidGenerator.Style.RANDOM)
-  @JdbcTypeCode(SqlTypes.VARCHAR)
-  @Column(unique = true, nullable = false, updatable = false)
+  /*
+   * UUID versión 7 guardado en 16 bytes: el índice único ocupa menos de la mitad que con el texto
+   * de 36 caracteres y las altas se agregan al final del índice (ver UuidV7Generator).
+   * Reemplaza a la columna de texto "uuid" de las bases existentes, que UuidBinaryBackfill copia
+   * a esta sin cambiar los valores. La columna admite NULL sólo para poder agregarla a una tabla
+   * con filas; los libros nuevos siempre la completan al guardarse.
+   */
+  @UuidGenerator(algorithm = UuidV7Generator.class)
+  @JdbcTypeCode(SqlTypes.BINARY)
+  @Column(name = "uuid_bin", length = 16, unique = true, updatable = false)
   private UUID uuid;
 
   @Column(unique = true, nullable = false)
@@ -40,6 +80,15 @@ public class Book {
   @Column(nullable = false)
   private boolean deleted = false;
 
+  /*
+   * Se incrementa con cada modificación confirmada. Identifica la representación del libro en los
+   * ETag de la API; las filas existentes antes de agregar la columna empiezan en 0.
+   */
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
+
   @Column(nullable = false)
   private String title;
 
@@ -62,6 +111,32 @@ public class Book {
   @Column(nullable = false, length = 500)
   private String imageUrl;
 
+  /*
+   * Copias normalizadas (ver StringFormatter.normalize) de título, autores y editorial.
+   * Las búsquedas comparan contra estas columnas, por lo que no distinguen mayúsculas ni acentos
+   * y no necesitan aplicar LOWER() a cada fila. Se calculan al guardar el libro y están indexadas:
+   * los filtros las buscan por prefijo (LIKE 'texto%'), que recorre sólo un rango del índice.
+   */
+  @Setter(AccessLevel.NONE)
+  @Column(name = "normalized_title")
+  private String normalizedTitle;
+
+  @Setter(AccessLevel.NONE)
+  @Column(name = "normalized_authors")
+  private String normalizedAuthors;
+
+  @Setter(AccessLevel.NONE)
+  @Column(name = "normalized_publisher")
+  private String normalizedPublisher;
+
+  @PrePersist
+  @PreUpdate
+  void normalizeSearchColumns() {
+    this.normalizedTitle = StringFormatter.normalize(this.title);
+    this.normalizedAuthors = StringFormatter.normalize(this.authors);
+    this.normalizedPublisher = StringFormatter.normalize(this.publisher);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -0,0 +1,72 @@
+package io.github.agusbattista.mercadolibros_springboot.model;
+
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/*
+ * Registro de cambios del catálogo (GET /api/changes): una fila por cada alta, modificación,
+ * baja o restauración de un libro o género, escrita en la misma transacción que el cambio.
+ * Las filas nunca se modifican.
+ */
+@Entity
+@Table(name = "catalog_changes")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CatalogChange implements Persistable<Long> {
+
+  public enum Resource {
+    BOOK,
+    GENRE
+  }
+
+  // Asignado por CatalogChangeSequence: crece en el mismo orden en que se confirman los cambios
+  @Id private Long sequence;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 10)
+  private Resource resource;
+
+  // UUID del libro o ID del género, tal como aparecen en la URL del recurso
+  @Column(name = "resource_id", nullable = false, length = 36)
+  private String resourceId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 10)
+  private ChangeType type;
+
+  @Column(name = "changed_at", nullable = false)
+  private Instant changedAt;
+
+  public CatalogChange(
+      Long sequence, Resource resource, String resourceId, ChangeType type, Instant changedAt) {
+    this.sequence = sequence;
+    this.resource = resource;
+    this.resourceId = resourceId;
+    this.type = type;
+    this.changedAt = changedAt;
+  }
+
+  @Override
+  public Long getId() {
+    return sequence;
+  }
+
+  // El ID se asigna antes de guardar; así Spring Data hace un INSERT directo (sin SELECT previo)
+  @Override
+  @Transient
+  public boolean isNew() {
+    return true;
+  }
+}
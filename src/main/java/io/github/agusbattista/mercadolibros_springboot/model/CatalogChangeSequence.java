@@ -0,0 +1,34 @@
+package io.github.agusbattista.mercadolibros_springboot.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * Último número asignado en catalog_changes (una única fila). Cada transacción que registra
+ * cambios la bloquea hasta confirmarse, por lo que los números se asignan en el orden de los
+ * commits: un consumidor que ya leyó hasta N nunca verá aparecer después un cambio menor a N.
+ * A cambio, las escrituras del catálogo se confirman de a una desde que registran su cambio.
+ */
+@Entity
+@Table(name = "catalog_change_sequence")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CatalogChangeSequence {
+
+  public static final int ID = 1;
+
+  @Id private Integer id;
+
+  @Column(name = "last_value", nullable = false)
+  private Long lastValue;
+
+  public long next() {
+    return ++lastValue;
+  }
+}
@@ -1,26 +1,38 @@
 package io.github.agusbattista.mercadolibros_springboot.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 
 @Entity
 @Table(name = "genres")
-@SQLDelete(sql = "UPDATE genres SET deleted = true WHERE id = ?")
+// Con @Version, Hibernate pasa el ID y la versión esperada
+@SQLDelete(
+    sql = "UPDATE genres SET deleted = true, version = version + 1 WHERE id = ? AND version = ?")
 @SQLRestriction("deleted = false")
+// Sólo con app.jpa.second-level-cache.enabled=true (ver SecondLevelCacheConfig)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Genre.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
 public class Genre {
 
+  public static final String CACHE_REGION = "genres";
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
@@ -38,6 +50,12 @@ public class Genre {
   @Column(nullable = false)
   private boolean deleted = false;
 
+  // Se incrementa con cada modificación confirmada; ver Book.version
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
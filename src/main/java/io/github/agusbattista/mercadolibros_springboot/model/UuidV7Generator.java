@@ -0,0 +1,56 @@
+package io.github.agusbattista.mercadolibros_springboot.model;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+/*
+ * UUID versión 7 (RFC 9562): los primeros 48 bits son el instante de creación en milisegundos,
+ * por lo que los UUID nuevos quedan ordenados y se insertan al final del índice único en lugar de
+ * en un punto al azar. Los 12 bits siguientes son un contador que mantiene el orden dentro de un
+ * mismo milisegundo (empieza en un valor al azar en cada uno) y los últimos 62 son aleatorios, por
+ * lo que siguen sin poder adivinarse.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private static final int MAX_COUNTER = 0xFFF;
+  // El contador arranca en la mitad inferior, para dejar lugar a los UUID del mismo milisegundo
+  private static final int INITIAL_COUNTER_BOUND = 1 << 11;
+  private static final long VERSION = 0x7000L;
+  private static final long VARIANT = 0x8000_0000_0000_0000L;
+  private static final long RANDOM_BITS = 0x3FFF_FFFF_FFFF_FFFFL;
+
+  private static long lastTimestamp;
+  private static int counter;
+
+  @Override
+  public UUID generateUuid(SharedSessionContractImplementor session) {
+    return generate();
+  }
+
+  public static UUID generate() {
+    long timestamp;
+    int sequence;
+    synchronized (UuidV7Generator.class) {
+      long now = System.currentTimeMillis();
+      if (now > lastTimestamp) {
+        lastTimestamp = now;
+        counter = RANDOM.nextInt(INITIAL_COUNTER_BOUND);
+      } else if (counter < MAX_COUNTER) {
+        counter++;
+      } else {
+        // Contador agotado (o reloj atrasado): se toma prestado el milisegundo siguiente
+        lastTimestamp++;
+        counter = 0;
+      }
+      timestamp = lastTimestamp;
+      sequence = counter;
+    }
+    long mostSignificant = (timestamp << 16) | VERSION | sequence;
+    long leastSignificant = VARIANT | (RANDOM.nextLong() & RANDOM_BITS);
+    return new UUID(mostSignificant, leastSignificant);
+  }
+}
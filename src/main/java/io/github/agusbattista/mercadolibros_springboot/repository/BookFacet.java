@@ -0,0 +1,77 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetCountDTO;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Campos por los que se pueden agrupar los resultados de la búsqueda por criterios
+public enum BookFacet {
+  GENRE,
+  PUBLISHER,
+  PRICE;
+
+  // Límites superiores (exclusivos) de los rangos de precio: 0-10, 10-20, 20-50, 50-100 y 100+
+  private static final List<BigDecimal> PRICE_LIMITS =
+      List.of(
+          new BigDecimal("10"), new BigDecimal("20"), new BigDecimal("50"), new BigDecimal("100"));
+
+  private static final List<String> PRICE_BUCKETS = createPriceBuckets();
+
+  public String key() {
+    return this.name().toLowerCase(Locale.ROOT);
+  }
+
+  public static BookFacet from(String facet) {
+    return Arrays.stream(values())
+        .filter(value -> value.key().equals(facet.trim().toLowerCase(Locale.ROOT)))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new IllegalArgumentException(
+                    "No se puede agrupar por: "
+                        + facet
+                        + ". Facetas permitidas: [genre, publisher, price]"));
+  }
+
+  public static String priceBucket(BigDecimal price) {
+    for (int i = 0; i < PRICE_LIMITS.size(); i++) {
+      if (price.compareTo(PRICE_LIMITS.get(i)) < 0) {
+        return PRICE_BUCKETS.get(i);
+      }
+    }
+    return PRICE_BUCKETS.getLast();
+  }
+
+  /*
+   * Los rangos de precio se devuelven en orden ascendente; el resto de las facetas, de la más
+   * frecuente a la menos frecuente. Los valores sin libros no se incluyen.
+   */
+  public List<FacetCountDTO> toFacetCounts(Map<String, Long> counts) {
+    Comparator<FacetCountDTO> order =
+        this == PRICE
+            ? Comparator.comparingInt(count -> PRICE_BUCKETS.indexOf(count.value()))
+            : Comparator.comparingLong(FacetCountDTO::count)
+                .reversed()
+                .thenComparing(FacetCountDTO::value);
+    return counts.entrySet().stream()
+        .map(entry -> new FacetCountDTO(entry.getKey(), entry.getValue()))
+        .sorted(order)
+        .toList();
+  }
+
+  private static List<String> createPriceBuckets() {
+    List<String> buckets = new ArrayList<>();
+    String lower = "0";
+    for (BigDecimal limit : PRICE_LIMITS) {
+      buckets.add(lower + "-" + limit.toPlainString());
+      lower = limit.toPlainString();
+    }
+    buckets.add(lower + "+");
+    return List.copyOf(buckets);
+  }
+}
@@ -0,0 +1,13 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetCountDTO;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Fragmento de BookRepository con consultas armadas con la Criteria API
+public interface BookFacetRepository {
+
+  // Conteos por faceta de los libros que cumplen "criteria": un GROUP BY por faceta
+  Map<String, List<FacetCountDTO>> countFacets(BookFilter criteria, Collection<BookFacet> facets);
+}
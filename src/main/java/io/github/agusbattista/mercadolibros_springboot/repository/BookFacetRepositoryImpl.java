@@ -0,0 +1,60 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetCountDTO;
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class BookFacetRepositoryImpl implements BookFacetRepository {
+
+  private final EntityManager entityManager;
+
+  @Override
+  public Map<String, List<FacetCountDTO>> countFacets(
+      BookFilter criteria, Collection<BookFacet> facets) {
+    Map<String, List<FacetCountDTO>> counts = new LinkedHashMap<>();
+    facets.forEach(facet -> counts.put(facet.key(), this.countFacet(criteria, facet)));
+    return counts;
+  }
+
+  /*
+   * Para el precio se agrupa por valor exacto y los rangos se arman en memoria: agrupar por una
+   * expresión CASE con parámetros no es válido con ONLY_FULL_GROUP_BY de MySQL.
+   */
+  private List<FacetCountDTO> countFacet(BookFilter criteria, BookFacet facet) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<Book> root = query.from(Book.class);
+    Expression<?> value =
+        switch (facet) {
+          case GENRE -> root.join("genre").get("name");
+          case PUBLISHER -> root.get("publisher");
+          case PRICE -> root.get("price");
+        };
+    query
+        .multiselect(value, cb.count(root))
+        .where(BookSpecifications.matching(criteria).toPredicate(root, query, cb))
+        .groupBy(value);
+    Map<String, Long> counts = new HashMap<>();
+    for (Tuple row : entityManager.createQuery(query).getResultList()) {
+      String key =
+          facet == BookFacet.PRICE
+              ? BookFacet.priceBucket(row.get(0, BigDecimal.class))
+              : row.get(0, String.class);
+      counts.merge(key, row.get(1, Long.class), Long::sum);
+    }
+    return facet.toFacetCounts(counts);
+  }
+}
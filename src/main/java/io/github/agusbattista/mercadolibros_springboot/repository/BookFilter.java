@@ -0,0 +1,29 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/*
+ * Filtros de la búsqueda por criterios para las consultas (ver BookSpecifications.matching y
+ * BookFacetRepository). El servicio los obtiene de BookSearchCriteria con BookMapper.toFilter, ya
+ * depurados: los filtros ausentes son null y genreCodes nunca es null.
+ */
+public record BookFilter(
+    String title,
+    String authors,
+    String genre,
+    String publisher,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    List<String> genreCodes,
+    String isbnPrefix) {
+
+  public BookFilter {
+    genreCodes = genreCodes == null ? List.of() : List.copyOf(genreCodes);
+  }
+
+  // Sólo los filtros originales de la búsqueda (título, autores, género y editorial)
+  public static BookFilter of(String title, String authors, String genre, String publisher) {
+    return new BookFilter(title, authors, genre, publisher, null, null, null, null);
+  }
+}
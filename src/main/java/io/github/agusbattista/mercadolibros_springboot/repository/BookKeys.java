@@ -0,0 +1,13 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import java.util.UUID;
+
+// Proyección con los identificadores públicos de un libro, usada para construir BookLookupFilter
+public interface BookKeys {
+
+  Long getId();
+
+  UUID getUuid();
+
+  String getIsbn();
+}
@@ -1,19 +1,29 @@
 package io.github.agusbattista.mercadolibros_springboot.repository;
 
 import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository
+    extends JpaRepository<Book, Long>,
+        JpaSpecificationExecutor<Book>,
+        BookFacetRepository,
+        BookStreamRepository {
 
   @Override
   @NonNull
@@ -27,24 +37,53 @@ public interface BookRepository extends JpaRepository<Book, Long> {
   Optional<Book> findByIsbn(String isbn);
 
   @EntityGraph(attributePaths = {"genre"})
+  List<Book> findByIdIn(Collection<Long> ids);
+
+  // Para las búsquedas de varios libros: UUID e ISBN en una misma consulta
+  @EntityGraph(attributePaths = {"genre"})
+  List<Book> findByUuidInOrIsbnIn(Collection<UUID> uuids, Collection<String> isbns);
+
+  default Page<Book> findBooksByCriteria(
+      String title, String authors, String genre, String publisher, Pageable pageable) {
+    return this.findBooksByCriteria(BookFilter.of(title, authors, genre, publisher), pageable);
+  }
+
+  // Sólo se agregan a la consulta los filtros presentes (ver BookSpecifications.matching)
+  default Page<Book> findBooksByCriteria(BookFilter criteria, Pageable pageable) {
+    return this.findAll(
+        BookSpecifications.matching(criteria).and(BookSpecifications.fetchGenre()), pageable);
+  }
+
+  @Query(
+      """
+      SELECT b.id AS id, b.isbn AS isbn, b.title AS title, b.authors AS authors,
+      b.publisher AS publisher, b.price AS price, g.name AS genreName
+      FROM Book b JOIN b.genre g WHERE b.id > :lastId ORDER BY b.id
+      """)
+  List<BookSummary> findSummariesAfter(@Param("lastId") Long lastId, Pageable pageable);
+
   @Query(
       """
-      SELECT b FROM Book b WHERE
-      (:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND
-      (:authors IS NULL OR LOWER(b.authors) LIKE LOWER(CONCAT('%', :authors, '%'))) AND
-      (:genre IS NULL OR (b.genre.name) = (:genre)) AND
-      (:publisher IS NULL OR LOWER(b.publisher) LIKE LOWER(CONCAT('%', :publisher, '%')))
+      SELECT b.id AS id, b.isbn AS isbn, b.title AS title, b.authors AS authors,
+      b.publisher AS publisher, b.price AS price, g.name AS genreName
+      FROM Book b JOIN b.genre g WHERE g.id = :genreId
       """)
-  Page<Book> findBooksByCriteria(
-      @Param("title") String title,
-      @Param("authors") String authors,
-      @Param("genre") String genre,
-      @Param("publisher") String publisher,
-      Pageable pageable);
+  List<BookSummary> findSummariesByGenreId(@Param("genreId") Long genreId);
 
+  @Query(
+      "SELECT b.id AS id, b.uuid AS uuid, b.isbn AS isbn FROM Book b WHERE b.id > :lastId ORDER BY b.id")
+  List<BookKeys> findKeysAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+  // Los libros eliminados no se guardan en la caché de segundo nivel (ver GenreRepository)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
   @Query(value = "SELECT * FROM books WHERE isbn = :isbn", nativeQuery = true)
   Optional<Book> findByIsbnIncludingDeleted(@Param("isbn") String isbn);
 
+  // Para las altas masivas: una sola consulta para todos los ISBN del lote
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+  @Query(value = "SELECT * FROM books WHERE isbn IN (:isbns)", nativeQuery = true)
+  List<Book> findAllByIsbnIncludingDeleted(@Param("isbns") Collection<String> isbns);
+
   @Query(value = "SELECT COUNT(*) FROM books", nativeQuery = true)
   long countAllIncludingDeleted();
 
@@ -0,0 +1,93 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.utils.StringFormatter;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+public class BookSpecifications {
+
+  private BookSpecifications() {}
+
+  public static Specification<Book> all() {
+    return (root, query, cb) -> cb.conjunction();
+  }
+
+  /*
+   * Equivalente a @EntityGraph(attributePaths = {"genre"}) para las consultas por Specification.
+   * No se aplica a las consultas de conteo, donde un fetch join no es válido.
+   */
+  public static Specification<Book> fetchGenre() {
+    return (root, query, cb) -> {
+      if (query != null && !isCountQuery(query)) {
+        root.fetch("genre");
+      }
+      return cb.conjunction();
+    };
+  }
+
+  public static Specification<Book> matchesCriteria(
+      String title, String authors, String genre, String publisher) {
+    return matching(BookFilter.of(title, authors, genre, publisher));
+  }
+
+  /*
+   * Búsqueda por criterios: a diferencia de una única consulta con "(:x IS NULL OR ...)" por
+   * filtro, sólo se agregan los predicados de los filtros presentes, por lo que cada combinación
+   * genera su propia consulta y la base de datos puede elegir el índice adecuado para ella.
+   * - title, authors y publisher: "empieza con", sobre las columnas normalizadas e indexadas
+   * - genre: igualdad por nombre; genreCodes: cualquiera de los códigos
+   * - minPrice y maxPrice: rango inclusivo; isbnPrefix: "empieza con"
+   * Un texto sin letras ni números no filtra.
+   */
+  public static Specification<Book> matching(BookFilter criteria) {
+    return (root, query, cb) -> {
+      List<Predicate> predicates = new ArrayList<>();
+      addStartsWith(predicates, cb, root.get("normalizedTitle"), criteria.title());
+      addStartsWith(predicates, cb, root.get("normalizedAuthors"), criteria.authors());
+      addStartsWith(predicates, cb, root.get("normalizedPublisher"), criteria.publisher());
+      if (criteria.genre() != null) {
+        predicates.add(
+            cb.equal(root.get("genre").get("name"), StringFormatter.formatName(criteria.genre())));
+      }
+      if (!criteria.genreCodes().isEmpty()) {
+        predicates.add(
+            root.get("genre")
+                .get("code")
+                .in(criteria.genreCodes().stream().map(StringFormatter::generateCode).toList()));
+      }
+      if (criteria.minPrice() != null) {
+        predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.minPrice()));
+      }
+      if (criteria.maxPrice() != null) {
+        predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.maxPrice()));
+      }
+      if (criteria.isbnPrefix() != null) {
+        predicates.add(cb.like(root.get("isbn"), escapeLike(criteria.isbnPrefix()) + "%", '\\'));
+      }
+      return cb.and(predicates.toArray(Predicate[]::new));
+    };
+  }
+
+  private static boolean isCountQuery(CriteriaQuery<?> query) {
+    return Long.class.equals(query.getResultType()) || long.class.equals(query.getResultType());
+  }
+
+  private static String escapeLike(String text) {
+    return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  // Sin comodín inicial: la base de datos recorre sólo el rango del índice que empieza con "texto"
+  private static void addStartsWith(
+      List<Predicate> predicates, CriteriaBuilder cb, Expression<String> attribute, String text) {
+    String normalized = StringFormatter.normalize(text);
+    if (!normalized.isEmpty()) {
+      predicates.add(cb.like(attribute, escapeLike(normalized) + "%", '\\'));
+    }
+  }
+}
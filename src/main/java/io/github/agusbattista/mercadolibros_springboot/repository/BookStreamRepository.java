@@ -0,0 +1,16 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import java.util.stream.Stream;
+
+// Fragmento de BookRepository para recorrer todo el catálogo sin paginar
+public interface BookStreamRepository {
+
+  /*
+   * Libros activos con su género, ordenados por ID, leídos a medida que se consume el Stream (hay
+   * que cerrarlo y consumirlo dentro de una transacción). "fetchSize" se pasa al driver JDBC:
+   * Integer.MIN_VALUE hace que MySQL envíe las filas de a una en lugar de cargar el resultado
+   * completo en memoria (otros drivers sólo aceptan valores positivos).
+   */
+  Stream<Book> streamAll(int fetchSize);
+}
@@ -0,0 +1,37 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import jakarta.persistence.EntityManager;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+@RequiredArgsConstructor
+class BookStreamRepositoryImpl implements BookStreamRepository {
+
+  private final EntityManager entityManager;
+
+  /*
+   * Cada libro se quita del contexto de persistencia al leerlo, para que no crezca con el catálogo
+   * (el género ya viene cargado por el JOIN FETCH y se comparte entre libros). Tampoco se guardan
+   * en la caché de segundo nivel: recorrer el catálogo completo desalojaría los libros más pedidos.
+   * La exportación usa una transacción propia, por lo que el modo de caché sólo afecta a su sesión.
+   */
+  @Override
+  public Stream<Book> streamAll(int fetchSize) {
+    // Las filas se leen después de ejecutar la consulta: la pista de la consulta ya no aplica
+    entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+    return entityManager
+        .createQuery("SELECT b FROM Book b JOIN FETCH b.genre ORDER BY b.id", Book.class)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultStream()
+        .map(
+            book -> {
+              entityManager.detach(book);
+              return book;
+            });
+  }
+}
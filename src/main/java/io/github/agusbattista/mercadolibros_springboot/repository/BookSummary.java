@@ -0,0 +1,24 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import java.math.BigDecimal;
+
+/*
+ * Proyección liviana de un libro (sin descripción ni imagen), usada para construir los índices en
+ * memoria sin cargar las entidades completas.
+ */
+public interface BookSummary {
+
+  Long getId();
+
+  String getIsbn();
+
+  String getTitle();
+
+  String getAuthors();
+
+  String getPublisher();
+
+  BigDecimal getPrice();
+
+  String getGenreName();
+}
@@ -0,0 +1,13 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import io.github.agusbattista.mercadolibros_springboot.model.CatalogChange;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+  List<CatalogChange> findBySequenceGreaterThanOrderBySequence(long since, Limit limit);
+}
@@ -0,0 +1,30 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import io.github.agusbattista.mercadolibros_springboot.model.CatalogChangeSequence;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogChangeSequenceRepository
+    extends JpaRepository<CatalogChangeSequence, Integer> {
+
+  /*
+   * SELECT ... FOR UPDATE: el bloqueo dura hasta el fin de la transacción. Una vez bloqueada, las
+   * siguientes llamadas de la misma transacción la toman del contexto de persistencia sin
+   * consultar la base de datos.
+   */
+  @Override
+  @NonNull
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<CatalogChangeSequence> findById(@NonNull Integer id);
+
+  // Último número confirmado, sin bloquear
+  @Query("SELECT s.lastValue FROM CatalogChangeSequence s WHERE s.id = :id")
+  Optional<Long> findLastValue(@Param("id") Integer id);
+}
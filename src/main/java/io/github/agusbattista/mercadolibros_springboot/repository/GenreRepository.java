@@ -1,17 +1,32 @@
 package io.github.agusbattista.mercadolibros_springboot.repository;
 
 import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface GenreRepository extends JpaRepository<Genre, Long> {
 
+  String BY_CODE_CACHE_REGION = "genres.byCode";
+
+  // Con la caché de consultas activa; se descarta ante cualquier cambio en la tabla genres
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_CODE_CACHE_REGION)
+  })
   Optional<Genre> findByCode(String code);
 
+  /*
+   * Puede devolver géneros eliminados: no se guardan en la caché de segundo nivel, porque una
+   * búsqueda por ID posterior los devolvería sin pasar por @SQLRestriction.
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
   @Query(value = "SELECT * FROM genres WHERE code = :code", nativeQuery = true)
   Optional<Genre> findByCodeIncludingDeleted(@Param("code") String code);
 
@@ -0,0 +1,533 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import io.github.agusbattista.mercadolibros_springboot.config.ReadReplicaRouting;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookSearchCriteria;
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetCountDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.SuggestionResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookFacet;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookSummary;
+import io.github.agusbattista.mercadolibros_springboot.utils.StringFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/*
+ * Índice en memoria del catálogo activo: por cada campo guarda término -> IDs de libros ordenados
+ * (PostingList) y, para título, autores y editorial, un diccionario ordenado de valores completos
+ * (PrefixIndex) que resuelve los filtros "empieza con" sin recorrer todos los términos.
+ * Se construye por lotes al iniciar la aplicación y se actualiza luego de cada escritura
+ * confirmada, por lo que las búsquedas por criterios y por texto no recorren la tabla "books".
+ * Mientras no está listo, o si se pide un ordenamiento que no soporta, los métodos de búsqueda
+ * devuelven Optional.empty() y el servicio consulta la base de datos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookSearchIndex {
+
+  private static final int REBUILD_BATCH_SIZE = 5_000;
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  private static final Comparator<IndexedBook> BY_ID = Comparator.comparingLong(IndexedBook::id);
+
+  // La búsqueda aproximada sólo tolera errores en títulos y autores
+  private static final IndexedField[] FUZZY_FIELDS = {IndexedField.TITLE, IndexedField.AUTHORS};
+
+  private static final Comparator<FuzzyScore> BY_FUZZY_RELEVANCE =
+      Comparator.comparingInt(FuzzyScore::matchedWords)
+          .reversed()
+          .thenComparingInt(FuzzyScore::distance)
+          .thenComparingLong(FuzzyScore::id);
+
+  // Mismo orden que la base de datos: sin distinguir mayúsculas ni acentos
+  private static final Map<String, Comparator<IndexedBook>> SORTABLE_PROPERTIES =
+      Map.of(
+          "id",
+          BY_ID,
+          "isbn",
+          Comparator.comparing(IndexedBook::isbn),
+          "title",
+          Comparator.comparing(IndexedBook::normalizedTitle),
+          "authors",
+          Comparator.comparing(IndexedBook::normalizedAuthors),
+          "publisher",
+          Comparator.comparing(IndexedBook::normalizedPublisher),
+          "price",
+          Comparator.comparing(IndexedBook::price),
+          "genre.name",
+          Comparator.comparing(IndexedBook::genreCode));
+
+  private final BookRepository bookRepository;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Long, IndexedBook> books = new HashMap<>();
+  private final Map<IndexedField, Map<String, PostingList>> postings = createPostings();
+  private final Map<IndexedField, PrefixIndex> prefixes = createPrefixes();
+  private final FuzzyTermIndex fuzzyTerms = new FuzzyTermIndex();
+  private final PostingList allIds = new PostingList();
+  private long totalTextLength;
+  private volatile boolean textSearchEnabled;
+  private volatile boolean ready;
+
+  /*
+   * Los términos de la editorial y las longitudes de los textos sólo los usa el ranking BM25 de
+   * searchText. InMemoryBookTextSearch lo activa al crearse, antes de la construcción inicial;
+   * con el perfil "mysql" la búsqueda de texto es FULLTEXT y esos datos no se construyen.
+   */
+  void enableTextSearch() {
+    textSearchEnabled = true;
+  }
+
+  // Del primario: un cambio confirmado que la réplica todavía no tiene faltaría en el índice
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    ReadReplicaRouting.runOnPrimary(this::build);
+  }
+
+  private void build() {
+    lock.writeLock().lock();
+    try {
+      ready = false;
+      books.clear();
+      postings.values().forEach(Map::clear);
+      prefixes.values().forEach(PrefixIndex::clear);
+      fuzzyTerms.clear();
+      allIds.clear();
+      totalTextLength = 0;
+      long lastId = 0;
+      List<BookSummary> batch;
+      do {
+        batch = bookRepository.findSummariesAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+        batch.forEach(summary -> this.add(this.toIndexedBook(summary)));
+        if (!batch.isEmpty()) {
+          lastId = batch.getLast().getId();
+        }
+      } while (batch.size() == REBUILD_BATCH_SIZE);
+      ready = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info("Índice de búsqueda en memoria construido con {} libros", books.size());
+  }
+
+  // Antes que CatalogVersion: el nuevo ETag de las búsquedas no puede llegar con resultados viejos
+  @TransactionalEventListener
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public void onBookChanged(BookChangedEvent event) {
+    lock.writeLock().lock();
+    try {
+      this.remove(event.id());
+      if (event.type() != ChangeType.DELETED) {
+        this.add(this.toIndexedBook(event.id(), event.book()));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /*
+   * Cada libro guarda el nombre de su género (filtros, facetas y orden por "genre.name"): al
+   * renombrarlo se reindexan sus libros. La consulta se hace con el lock tomado, para que un cambio
+   * de libro confirmado mientras tanto se aplique después y no quede pisado por datos anteriores.
+   * Las altas no tienen libros y sólo se eliminan géneros sin libros.
+   */
+  @TransactionalEventListener
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public void onGenreChanged(GenreChangedEvent event) {
+    if (event.type() != ChangeType.UPDATED) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      List<BookSummary> genreBooks =
+          ReadReplicaRouting.callOnPrimary(() -> bookRepository.findSummariesByGenreId(event.id()));
+      for (BookSummary summary : genreBooks) {
+        this.remove(summary.getId());
+        this.add(this.toIndexedBook(summary));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  /*
+   * Mismo contrato que BookSpecifications.matching: los textos se buscan por "empieza con" (sin
+   * distinguir mayúsculas ni acentos), el género por igualdad, el precio por rango y el ISBN por
+   * prefijo. Devuelve Optional.empty() si el índice no puede responder la consulta.
+   */
+  public Optional<Page<Long>> findIdsByCriteria(BookSearchCriteria criteria, Pageable pageable) {
+    Comparator<IndexedBook> order = this.toComparator(pageable.getSort());
+    if (!ready || order == null) {
+      return Optional.empty();
+    }
+    TopResults<IndexedBook> results = new TopResults<>(order, pageable);
+    lock.readLock().lock();
+    try {
+      this.forEachMatch(criteria, results::add);
+    } finally {
+      lock.readLock().unlock();
+    }
+    return Optional.of(results.toPage(IndexedBook::id));
+  }
+
+  // Conteos por faceta de los libros que cumplen "criteria", en una única pasada
+  public Optional<Map<String, List<FacetCountDTO>>> countFacets(
+      BookSearchCriteria criteria, Collection<BookFacet> facets) {
+    if (!ready) {
+      return Optional.empty();
+    }
+    Map<BookFacet, Map<String, Long>> counts = new EnumMap<>(BookFacet.class);
+    facets.forEach(facet -> counts.put(facet, new HashMap<>()));
+    lock.readLock().lock();
+    try {
+      this.forEachMatch(
+          criteria,
+          book ->
+              counts.forEach(
+                  (facet, values) -> values.merge(this.facetValue(book, facet), 1L, Long::sum)));
+    } finally {
+      lock.readLock().unlock();
+    }
+    Map<String, List<FacetCountDTO>> facetCounts = new LinkedHashMap<>();
+    facets.forEach(facet -> facetCounts.put(facet.key(), facet.toFacetCounts(counts.get(facet))));
+    return Optional.of(facetCounts);
+  }
+
+  /*
+   * Autocompletado: valores completos del campo cuya forma normalizada empieza con "prefix",
+   * ordenados por cantidad de libros. Mientras el índice no está listo no hay sugerencias.
+   */
+  public List<SuggestionResponseDTO> suggest(SuggestionField field, String prefix, int limit) {
+    String normalizedPrefix = StringFormatter.normalize(prefix);
+    if (!ready || normalizedPrefix.isEmpty()) {
+      return List.of();
+    }
+    lock.readLock().lock();
+    try {
+      return prefixes.get(field.indexedField()).suggest(normalizedPrefix, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /*
+   * Búsqueda de texto libre sobre título, autores y editorial, ordenada por relevancia (BM25).
+   * Como las sugerencias, mientras el índice no está listo no hay resultados.
+   */
+  public Page<Long> searchText(String query, Pageable pageable) {
+    if (!ready) {
+      return Page.empty(pageable);
+    }
+    Set<String> terms = new LinkedHashSet<>(IndexedBook.tokenize(StringFormatter.normalize(query)));
+    Map<Long, Double> scores = new HashMap<>();
+    lock.readLock().lock();
+    try {
+      int documentCount = books.size();
+      double averageLength = documentCount == 0 ? 0 : (double) totalTextLength / documentCount;
+      for (String term : terms) {
+        List<PostingList> termPostings = new ArrayList<>();
+        for (IndexedField field : IndexedField.TEXT_FIELDS) {
+          PostingList fieldTermPostings = this.fieldPostings(field).get(term);
+          if (fieldTermPostings != null) {
+            termPostings.add(fieldTermPostings);
+          }
+        }
+        long[] ids = PostingList.merge(termPostings);
+        double idf = Math.log(1 + (documentCount - ids.length + 0.5) / (ids.length + 0.5));
+        for (long id : ids) {
+          List<String> documentTerms = books.get(id).textTerms();
+          int frequency = Collections.frequency(documentTerms, term);
+          double lengthNorm = 1 - B + B * documentTerms.size() / averageLength;
+          double score = idf * frequency * (K1 + 1) / (frequency + K1 * lengthNorm);
+          scores.merge(id, score, Double::sum);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    TopResults<Map.Entry<Long, Double>> ranked =
+        new TopResults<>(
+            Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()),
+            pageable);
+    scores.entrySet().forEach(ranked::add);
+    return ranked.toPage(Map.Entry::getKey);
+  }
+
+  /*
+   * Búsqueda tolerante a errores de tipeo sobre títulos y autores: cada palabra coincide con los
+   * términos indexados a distancia de edición 0 (palabras de hasta 2 letras), 1 (hasta 5) o 2.
+   * Primero los libros que coinciden con más palabras y, entre ellos, con menos errores.
+   * Devuelve Optional.empty() mientras el índice no está listo.
+   */
+  public Optional<Page<Long>> searchFuzzy(String query, Pageable pageable) {
+    if (!ready) {
+      return Optional.empty();
+    }
+    Set<String> words = new LinkedHashSet<>(IndexedBook.tokenize(StringFormatter.normalize(query)));
+    Map<Long, FuzzyScore> scores = new HashMap<>();
+    lock.readLock().lock();
+    try {
+      for (String word : words) {
+        Map<Long, Integer> closest = new HashMap<>();
+        for (FuzzyTermIndex.Match match : fuzzyTerms.similar(word, maxDistance(word))) {
+          for (IndexedField field : FUZZY_FIELDS) {
+            PostingList termPostings = this.fieldPostings(field).get(match.term());
+            if (termPostings != null) {
+              for (long id : termPostings.toArray()) {
+                closest.merge(id, match.distance(), Math::min);
+              }
+            }
+          }
+        }
+        closest.forEach(
+            (id, distance) -> scores.merge(id, new FuzzyScore(id, 1, distance), FuzzyScore::plus));
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    TopResults<FuzzyScore> ranked = new TopResults<>(BY_FUZZY_RELEVANCE, pageable);
+    scores.values().forEach(ranked::add);
+    return Optional.of(ranked.toPage(FuzzyScore::id));
+  }
+
+  private static int maxDistance(String word) {
+    if (word.length() <= 2) {
+      return 0;
+    }
+    return word.length() <= 5 ? 1 : 2;
+  }
+
+  // Igual que en BookSpecifications.matching, un texto sin letras ni números no filtra
+  private void putFilter(Map<IndexedField, String> filters, IndexedField field, String normalized) {
+    if (!normalized.isEmpty()) {
+      filters.put(field, normalized);
+    }
+  }
+
+  private void forEachMatch(BookSearchCriteria criteria, Consumer<IndexedBook> action) {
+    Map<IndexedField, String> filters = new EnumMap<>(IndexedField.class);
+    this.putFilter(filters, IndexedField.TITLE, StringFormatter.normalize(criteria.title()));
+    this.putFilter(filters, IndexedField.AUTHORS, StringFormatter.normalize(criteria.authors()));
+    if (criteria.genre() != null) {
+      filters.put(IndexedField.GENRE, StringFormatter.generateCode(criteria.genre()));
+    }
+    this.putFilter(
+        filters, IndexedField.PUBLISHER, StringFormatter.normalize(criteria.publisher()));
+    List<long[]> candidateLists = new ArrayList<>();
+    filters.forEach((field, value) -> candidateLists.add(this.candidates(field, value)));
+    if (!criteria.genreCodes().isEmpty()) {
+      List<PostingList> genrePostings = new ArrayList<>();
+      for (String code : criteria.genreCodes()) {
+        PostingList codePostings =
+            this.fieldPostings(IndexedField.GENRE).get(StringFormatter.generateCode(code));
+        if (codePostings != null) {
+          genrePostings.add(codePostings);
+        }
+      }
+      candidateLists.add(PostingList.merge(genrePostings));
+    }
+    long[] candidates =
+        candidateLists.stream().reduce(PostingList::intersect).orElseGet(allIds::toArray);
+    for (long id : candidates) {
+      IndexedBook book = books.get(id);
+      if (this.matchesPriceAndIsbn(book, criteria)) {
+        action.accept(book);
+      }
+    }
+  }
+
+  private String facetValue(IndexedBook book, BookFacet facet) {
+    return switch (facet) {
+      case GENRE -> book.genreName();
+      case PUBLISHER -> book.publisher();
+      case PRICE -> BookFacet.priceBucket(book.price());
+    };
+  }
+
+  private boolean matchesPriceAndIsbn(IndexedBook book, BookSearchCriteria criteria) {
+    return (criteria.minPrice() == null || book.price().compareTo(criteria.minPrice()) >= 0)
+        && (criteria.maxPrice() == null || book.price().compareTo(criteria.maxPrice()) <= 0)
+        && (criteria.isbnPrefix() == null || book.isbn().startsWith(criteria.isbnPrefix()));
+  }
+
+  /*
+   * Para el género se busca el término exacto. Para los textos, el diccionario ordenado del campo
+   * devuelve los libros cuyo valor completo empieza con el filtro, ya unidos en una sola pasada.
+   */
+  private long[] candidates(IndexedField field, String value) {
+    if (field == IndexedField.GENRE) {
+      PostingList genrePostings = this.fieldPostings(field).get(value);
+      return genrePostings == null ? new long[0] : genrePostings.toArray();
+    }
+    return prefixes.get(field).ids(value);
+  }
+
+  private Comparator<IndexedBook> toComparator(Sort sort) {
+    if (sort.isUnsorted()) {
+      return BY_ID;
+    }
+    Comparator<IndexedBook> comparator = null;
+    for (Sort.Order order : sort) {
+      Comparator<IndexedBook> property = SORTABLE_PROPERTIES.get(order.getProperty());
+      if (property == null) {
+        return null;
+      }
+      if (order.isDescending()) {
+        property = property.reversed();
+      }
+      comparator = comparator == null ? property : comparator.thenComparing(property);
+    }
+    return comparator.thenComparing(BY_ID);
+  }
+
+  private void add(IndexedBook book) {
+    books.put(book.id(), book);
+    allIds.add(book.id());
+    for (IndexedField field : IndexedField.values()) {
+      if (!this.hasPostings(field)) {
+        continue;
+      }
+      Map<String, PostingList> fieldPostings = this.fieldPostings(field);
+      book.terms(field)
+          .forEach(
+              term -> fieldPostings.computeIfAbsent(term, key -> new PostingList()).add(book.id()));
+    }
+    for (IndexedField field : IndexedField.TEXT_FIELDS) {
+      prefixes.get(field).add(book.normalized(field), this.value(book, field), book.id());
+    }
+    for (IndexedField field : FUZZY_FIELDS) {
+      book.terms(field).forEach(fuzzyTerms::add);
+    }
+    if (textSearchEnabled) {
+      totalTextLength += book.textTerms().size();
+    }
+  }
+
+  private void remove(Long id) {
+    IndexedBook book = books.remove(id);
+    if (book == null) {
+      return;
+    }
+    allIds.remove(id);
+    for (IndexedField field : IndexedField.values()) {
+      if (!this.hasPostings(field)) {
+        continue;
+      }
+      Map<String, PostingList> fieldPostings = this.fieldPostings(field);
+      for (String term : book.terms(field)) {
+        PostingList termPostings = fieldPostings.get(term);
+        if (termPostings != null && termPostings.remove(id) && termPostings.isEmpty()) {
+          fieldPostings.remove(term);
+        }
+      }
+    }
+    for (IndexedField field : IndexedField.TEXT_FIELDS) {
+      prefixes.get(field).remove(book.normalized(field), id);
+    }
+    for (IndexedField field : FUZZY_FIELDS) {
+      book.terms(field).forEach(fuzzyTerms::remove);
+    }
+    if (textSearchEnabled) {
+      totalTextLength -= book.textTerms().size();
+    }
+  }
+
+  // Género para los filtros, título y autores para la búsqueda aproximada; editorial sólo BM25
+  private boolean hasPostings(IndexedField field) {
+    return textSearchEnabled || field != IndexedField.PUBLISHER;
+  }
+
+  private String value(IndexedBook book, IndexedField field) {
+    return switch (field) {
+      case TITLE -> book.title();
+      case AUTHORS -> book.authors();
+      case PUBLISHER -> book.publisher();
+      case GENRE -> book.genreName();
+    };
+  }
+
+  private Map<String, PostingList> fieldPostings(IndexedField field) {
+    return postings.get(field);
+  }
+
+  // Se crean todos los mapas de antemano para no modificar "postings" bajo el lock de lectura
+  private static Map<IndexedField, Map<String, PostingList>> createPostings() {
+    Map<IndexedField, Map<String, PostingList>> fieldPostings = new EnumMap<>(IndexedField.class);
+    for (IndexedField field : IndexedField.values()) {
+      fieldPostings.put(field, new HashMap<>());
+    }
+    return fieldPostings;
+  }
+
+  private static Map<IndexedField, PrefixIndex> createPrefixes() {
+    Map<IndexedField, PrefixIndex> fieldPrefixes = new EnumMap<>(IndexedField.class);
+    for (IndexedField field : IndexedField.TEXT_FIELDS) {
+      fieldPrefixes.put(field, new PrefixIndex());
+    }
+    return fieldPrefixes;
+  }
+
+  private IndexedBook toIndexedBook(BookSummary summary) {
+    return IndexedBook.of(
+        summary.getId(),
+        summary.getIsbn(),
+        summary.getTitle(),
+        summary.getAuthors(),
+        summary.getPublisher(),
+        summary.getPrice(),
+        summary.getGenreName());
+  }
+
+  private IndexedBook toIndexedBook(Long id, BookResponseDTO book) {
+    return IndexedBook.of(
+        id,
+        book.isbn(),
+        book.title(),
+        book.authors(),
+        book.publisher(),
+        book.price(),
+        book.genre() != null ? book.genre().name() : null);
+  }
+
+  private record FuzzyScore(long id, int matchedWords, int distance) {
+
+    private FuzzyScore plus(FuzzyScore other) {
+      return new FuzzyScore(id, matchedWords + other.matchedWords, distance + other.distance);
+    }
+  }
+}
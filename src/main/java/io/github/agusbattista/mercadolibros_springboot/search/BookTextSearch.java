@@ -0,0 +1,13 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/*
+ * Búsqueda de texto libre sobre título, autores y editorial.
+ * Devuelve los IDs de los libros ordenados por relevancia (de mayor a menor).
+ */
+public interface BookTextSearch {
+
+  Page<Long> search(String query, Pageable pageable);
+}
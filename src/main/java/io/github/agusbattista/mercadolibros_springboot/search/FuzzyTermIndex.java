@@ -0,0 +1,143 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Vocabulario de términos normalizados (por ejemplo, las palabras de títulos y autores) con un
+ * índice de bigramas, para encontrar los términos parecidos a una palabra mal escrita.
+ * Cada error (inserción, borrado, reemplazo o transposición) altera a lo sumo 3 bigramas, por lo
+ * que dos palabras a distancia de edición "d" comparten al menos max(|a|, |b|) + 1 - 3 * d
+ * bigramas (con los bordes marcados). Sólo se calcula la distancia contra los términos que
+ * superan ese mínimo o, si el mínimo no filtra, contra los de longitud compatible.
+ * Las modificaciones deben hacerse bajo el lock de escritura de BookSearchIndex.
+ */
+final class FuzzyTermIndex {
+
+  private static final char BOUNDARY = '$';
+
+  // Cantidad de libros y campos que usan cada término
+  private final Map<String, Integer> terms = new HashMap<>();
+  private final Map<String, Set<String>> termsByBigram = new HashMap<>();
+  private final Map<Integer, Set<String>> termsByLength = new HashMap<>();
+
+  void add(String term) {
+    if (terms.merge(term, 1, Integer::sum) > 1) {
+      return;
+    }
+    for (String bigram : bigrams(term)) {
+      termsByBigram.computeIfAbsent(bigram, ignored -> new HashSet<>()).add(term);
+    }
+    termsByLength.computeIfAbsent(term.length(), ignored -> new HashSet<>()).add(term);
+  }
+
+  void remove(String term) {
+    Integer count = terms.get(term);
+    if (count == null) {
+      return;
+    }
+    if (count > 1) {
+      terms.put(term, count - 1);
+      return;
+    }
+    terms.remove(term);
+    for (String bigram : bigrams(term)) {
+      removeFrom(termsByBigram, bigram, term);
+    }
+    removeFrom(termsByLength, term.length(), term);
+  }
+
+  void clear() {
+    terms.clear();
+    termsByBigram.clear();
+    termsByLength.clear();
+  }
+
+  // Términos a distancia de edición menor o igual a "maxDistance" de "word" (incluido él mismo)
+  List<Match> similar(String word, int maxDistance) {
+    Map<String, Integer> sharedBigrams = new HashMap<>();
+    for (String bigram : bigrams(word)) {
+      for (String term : termsByBigram.getOrDefault(bigram, Set.of())) {
+        sharedBigrams.merge(term, 1, Integer::sum);
+      }
+    }
+    List<Match> matches = new ArrayList<>();
+    for (int length = Math.max(1, word.length() - maxDistance);
+        length <= word.length() + maxDistance;
+        length++) {
+      int minShared = Math.max(word.length(), length) + 1 - 3 * maxDistance;
+      for (String term : termsByLength.getOrDefault(length, Set.of())) {
+        if (minShared > 0 && sharedBigrams.getOrDefault(term, 0) < minShared) {
+          continue;
+        }
+        int distance = distance(word, term, maxDistance);
+        if (distance <= maxDistance) {
+          matches.add(new Match(term, distance));
+        }
+      }
+    }
+    return matches;
+  }
+
+  /*
+   * Distancia de Damerau-Levenshtein restringida (inserción, borrado, reemplazo y transposición
+   * de letras vecinas). Deja de calcular en cuanto supera "maxDistance" y devuelve maxDistance + 1.
+   */
+  static int distance(String a, String b, int maxDistance) {
+    if (Math.abs(a.length() - b.length()) > maxDistance) {
+      return maxDistance + 1;
+    }
+    int[] previousPrevious = new int[b.length() + 1];
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      int rowMin = current[0];
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        current[j] =
+            Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+        if (i > 1
+            && j > 1
+            && a.charAt(i - 1) == b.charAt(j - 2)
+            && a.charAt(i - 2) == b.charAt(j - 1)) {
+          current[j] = Math.min(current[j], previousPrevious[j - 2] + 1);
+        }
+        rowMin = Math.min(rowMin, current[j]);
+      }
+      if (rowMin > maxDistance) {
+        return maxDistance + 1;
+      }
+      int[] recycled = previousPrevious;
+      previousPrevious = previous;
+      previous = current;
+      current = recycled;
+    }
+    return Math.min(previous[b.length()], maxDistance + 1);
+  }
+
+  private static List<String> bigrams(String term) {
+    String bounded = BOUNDARY + term + BOUNDARY;
+    List<String> bigrams = new ArrayList<>(bounded.length() - 1);
+    for (int i = 0; i < bounded.length() - 1; i++) {
+      bigrams.add(bounded.substring(i, i + 2));
+    }
+    return bigrams;
+  }
+
+  private static <K> void removeFrom(Map<K, Set<String>> index, K key, String term) {
+    Set<String> indexed = index.get(key);
+    if (indexed != null && indexed.remove(term) && indexed.isEmpty()) {
+      index.remove(key);
+    }
+  }
+
+  record Match(String term, int distance) {}
+}
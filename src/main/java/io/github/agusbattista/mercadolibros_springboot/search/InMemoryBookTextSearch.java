@@ -0,0 +1,28 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/*
+ * Alternativa al FULLTEXT de MySQL para bases sin ese soporte (H2): delega en el índice invertido
+ * de BookSearchIndex, que normaliza los términos con StringFormatter.normalize y rankea con BM25.
+ * Al crearse le pide al índice que construya también los datos que sólo usa ese ranking.
+ */
+@Component
+@Profile("!mysql")
+public class InMemoryBookTextSearch implements BookTextSearch {
+
+  private final BookSearchIndex bookSearchIndex;
+
+  public InMemoryBookTextSearch(BookSearchIndex bookSearchIndex) {
+    this.bookSearchIndex = bookSearchIndex;
+    bookSearchIndex.enableTextSearch();
+  }
+
+  @Override
+  public Page<Long> search(String query, Pageable pageable) {
+    return bookSearchIndex.searchText(query, pageable);
+  }
+}
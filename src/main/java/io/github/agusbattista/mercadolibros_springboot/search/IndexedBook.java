@@ -0,0 +1,74 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import io.github.agusbattista.mercadolibros_springboot.utils.StringFormatter;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+ * Copia inmutable de los campos de un libro que necesita BookSearchIndex, junto con sus formas
+ * normalizadas (ver StringFormatter.normalize) calculadas una única vez al indexar.
+ */
+record IndexedBook(
+    long id,
+    String isbn,
+    String title,
+    String authors,
+    String publisher,
+    BigDecimal price,
+    String genreName,
+    String normalizedTitle,
+    String normalizedAuthors,
+    String normalizedPublisher,
+    String genreCode) {
+
+  static IndexedBook of(
+      long id,
+      String isbn,
+      String title,
+      String authors,
+      String publisher,
+      BigDecimal price,
+      String genreName) {
+    return new IndexedBook(
+        id,
+        isbn,
+        title,
+        authors,
+        publisher,
+        price,
+        genreName,
+        StringFormatter.normalize(title),
+        StringFormatter.normalize(authors),
+        StringFormatter.normalize(publisher),
+        StringFormatter.generateCode(genreName));
+  }
+
+  String normalized(IndexedField field) {
+    return switch (field) {
+      case TITLE -> normalizedTitle;
+      case AUTHORS -> normalizedAuthors;
+      case PUBLISHER -> normalizedPublisher;
+      case GENRE -> genreCode;
+    };
+  }
+
+  List<String> terms(IndexedField field) {
+    if (field == IndexedField.GENRE) {
+      return genreCode.isEmpty() ? List.of() : List.of(genreCode);
+    }
+    return tokenize(this.normalized(field));
+  }
+
+  // Términos de texto libre (título, autores y editorial), con repeticiones
+  List<String> textTerms() {
+    return Stream.of(IndexedField.TEXT_FIELDS)
+        .flatMap(field -> this.terms(field).stream())
+        .toList();
+  }
+
+  static List<String> tokenize(String normalizedText) {
+    if (normalizedText == null || normalizedText.isEmpty()) return List.of();
+    return List.of(normalizedText.split(" "));
+  }
+}
@@ -0,0 +1,10 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+enum IndexedField {
+  TITLE,
+  AUTHORS,
+  PUBLISHER,
+  GENRE;
+
+  static final IndexedField[] TEXT_FIELDS = {TITLE, AUTHORS, PUBLISHER};
+}
@@ -0,0 +1,78 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+ * Búsqueda con el índice FULLTEXT de MySQL (InnoDB).
+ * La colación utf8mb4_0900_ai_ci de la base hace que la búsqueda no distinga mayúsculas ni acentos.
+ */
+@Component
+@Profile("mysql")
+@RequiredArgsConstructor
+@Slf4j
+public class MySqlFullTextBookSearch implements BookTextSearch {
+
+  static final String INDEX_NAME = "ft_books_title_authors_publisher";
+
+  private static final String MATCH =
+      "MATCH(title, authors, publisher) AGAINST (:query IN NATURAL LANGUAGE MODE)";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Override
+  public Page<Long> search(String query, Pageable pageable) {
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("query", query)
+            .addValue("limit", pageable.getPageSize())
+            .addValue("offset", pageable.getOffset());
+    List<Long> ids =
+        jdbcTemplate.queryForList(
+            "SELECT id FROM books WHERE deleted = false AND "
+                + MATCH
+                + " ORDER BY "
+                + MATCH
+                + " DESC, id LIMIT :limit OFFSET :offset",
+            params,
+            Long.class);
+    Long total =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM books WHERE deleted = false AND " + MATCH, params, Long.class);
+    return new PageImpl<>(ids, pageable, total != null ? total : 0);
+  }
+
+  /*
+   * Hibernate (ddl-auto=update) no puede declarar índices FULLTEXT, por lo que se crea al iniciar
+   * la aplicación si todavía no existe.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void createFullTextIndexIfMissing() {
+    Integer existing =
+        jdbcTemplate.queryForObject(
+            """
+            SELECT COUNT(*) FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'books' AND index_name = :index
+            """,
+            new MapSqlParameterSource("index", INDEX_NAME),
+            Integer.class);
+    if (existing != null && existing > 0) {
+      return;
+    }
+    log.info("Creando el índice FULLTEXT {} sobre la tabla books...", INDEX_NAME);
+    jdbcTemplate
+        .getJdbcTemplate()
+        .execute(
+            "ALTER TABLE books ADD FULLTEXT INDEX " + INDEX_NAME + " (title, authors, publisher)");
+  }
+}
@@ -0,0 +1,117 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/*
+ * Lista de IDs de libros ordenada y sin repetidos, respaldada por un long[] para evitar el costo
+ * de memoria de las colecciones de Long. No es thread-safe: BookSearchIndex la protege con su lock.
+ */
+final class PostingList {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private long[] ids = new long[INITIAL_CAPACITY];
+  private int size;
+
+  boolean add(long id) {
+    int index = Arrays.binarySearch(ids, 0, size, id);
+    if (index >= 0) {
+      return false;
+    }
+    int insertionPoint = -index - 1;
+    if (size == ids.length) {
+      ids = Arrays.copyOf(ids, size * 2);
+    }
+    System.arraycopy(ids, insertionPoint, ids, insertionPoint + 1, size - insertionPoint);
+    ids[insertionPoint] = id;
+    size++;
+    return true;
+  }
+
+  boolean remove(long id) {
+    int index = Arrays.binarySearch(ids, 0, size, id);
+    if (index < 0) {
+      return false;
+    }
+    System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+    size--;
+    return true;
+  }
+
+  void clear() {
+    ids = new long[INITIAL_CAPACITY];
+    size = 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  long[] toArray() {
+    return Arrays.copyOf(ids, size);
+  }
+
+  // Intersección de dos arreglos ordenados en tiempo lineal
+  static long[] intersect(long[] first, long[] second) {
+    long[] result = new long[Math.min(first.length, second.length)];
+    int i = 0;
+    int j = 0;
+    int count = 0;
+    while (i < first.length && j < second.length) {
+      if (first[i] < second[j]) {
+        i++;
+      } else if (first[i] > second[j]) {
+        j++;
+      } else {
+        result[count++] = first[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  /*
+   * Unión de varias listas en una sola pasada (k-way merge): un heap indica qué lista tiene el
+   * menor ID pendiente, por lo que cada ID se copia una única vez al resultado.
+   */
+  static long[] merge(List<PostingList> lists) {
+    if (lists.size() == 1) {
+      return lists.getFirst().toArray();
+    }
+    int total = 0;
+    for (PostingList list : lists) {
+      total += list.size;
+    }
+    long[] result = new long[total];
+    int[] positions = new int[lists.size()];
+    PriorityQueue<Integer> pending =
+        new PriorityQueue<>(
+            Math.max(1, lists.size()),
+            Comparator.comparingLong(list -> lists.get(list).ids[positions[list]]));
+    for (int list = 0; list < lists.size(); list++) {
+      if (!lists.get(list).isEmpty()) {
+        pending.add(list);
+      }
+    }
+    int count = 0;
+    while (!pending.isEmpty()) {
+      int list = pending.poll();
+      long id = lists.get(list).ids[positions[list]++];
+      if (count == 0 || result[count - 1] != id) {
+        result[count++] = id;
+      }
+      if (positions[list] < lists.get(list).size) {
+        pending.add(list);
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+}
@@ -0,0 +1,86 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.SuggestionResponseDTO;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/*
+ * Valores completos de un campo (por ejemplo, todos los títulos) en un diccionario ordenado por su
+ * forma normalizada, con los IDs de los libros que tienen cada valor. Los valores que empiezan con
+ * un prefijo quedan contiguos en el árbol, tanto para autocompletar como para los filtros
+ * "empieza con" de BookSearchIndex. No es thread-safe: las modificaciones deben hacerse bajo el
+ * lock de escritura de BookSearchIndex.
+ */
+final class PrefixIndex {
+
+  private static final Comparator<Match> BY_RELEVANCE =
+      Comparator.comparingInt(Match::books).reversed().thenComparing(Match::key);
+
+  private final NavigableMap<String, Entry> entries = new TreeMap<>();
+
+  void add(String key, String value, long id) {
+    if (key.isEmpty()) {
+      return;
+    }
+    entries.computeIfAbsent(key, ignored -> new Entry(value)).ids.add(id);
+  }
+
+  void remove(String key, long id) {
+    Entry entry = entries.get(key);
+    if (entry != null && entry.ids.remove(id) && entry.ids.isEmpty()) {
+      entries.remove(key);
+    }
+  }
+
+  void clear() {
+    entries.clear();
+  }
+
+  // Los valores que empiezan con "prefix", de los más repetidos a los menos
+  List<SuggestionResponseDTO> suggest(String prefix, int limit) {
+    PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, BY_RELEVANCE.reversed());
+    for (Map.Entry<String, Entry> entry : this.startingWith(prefix).entrySet()) {
+      top.add(new Match(entry.getKey(), entry.getValue().value, entry.getValue().ids.size()));
+      if (top.size() > limit) {
+        top.poll();
+      }
+    }
+    List<Match> matches = new ArrayList<>(top);
+    matches.sort(BY_RELEVANCE);
+    return matches.stream()
+        .map(match -> new SuggestionResponseDTO(match.value(), match.books()))
+        .toList();
+  }
+
+  // IDs ordenados de los libros cuyo valor empieza con "prefix"
+  long[] ids(String prefix) {
+    List<PostingList> lists = new ArrayList<>();
+    for (Entry entry : this.startingWith(prefix).values()) {
+      lists.add(entry.ids);
+    }
+    return PostingList.merge(lists);
+  }
+
+  // Las claves normalizadas sólo tienen letras, números y espacios: ninguna llega a MAX_VALUE
+  private SortedMap<String, Entry> startingWith(String prefix) {
+    return entries.subMap(prefix, prefix + Character.MAX_VALUE);
+  }
+
+  private static final class Entry {
+
+    private final String value;
+    private final PostingList ids = new PostingList();
+
+    private Entry(String value) {
+      this.value = value;
+    }
+  }
+
+  private record Match(String key, String value, int books) {}
+}
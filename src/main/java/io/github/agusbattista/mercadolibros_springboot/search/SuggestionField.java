@@ -0,0 +1,36 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+// Campos de un libro que admiten autocompletado
+public enum SuggestionField {
+  TITLE(IndexedField.TITLE),
+  AUTHORS(IndexedField.AUTHORS),
+  PUBLISHER(IndexedField.PUBLISHER);
+
+  private final IndexedField indexedField;
+
+  SuggestionField(IndexedField indexedField) {
+    this.indexedField = indexedField;
+  }
+
+  IndexedField indexedField() {
+    return indexedField;
+  }
+
+  public static SuggestionField from(String field) {
+    if (field == null || field.isBlank()) {
+      return TITLE;
+    }
+    return Arrays.stream(values())
+        .filter(value -> value.name().equals(field.trim().toUpperCase(Locale.ROOT)))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new IllegalArgumentException(
+                    "No se puede autocompletar el campo: "
+                        + field
+                        + ". Campos permitidos: [title, authors, publisher]"));
+  }
+}
@@ -0,0 +1,55 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/*
+ * Arma una página de resultados sin ordenar todas las coincidencias: un heap acotado conserva sólo
+ * las primeras offset + tamaño de página según "order" (O(n log k)) y cuenta el total.
+ */
+final class TopResults<T> {
+
+  private final Comparator<T> order;
+  private final Pageable pageable;
+  private final int limit;
+  private final PriorityQueue<T> top;
+  private long total;
+
+  TopResults(Comparator<T> order, Pageable pageable) {
+    this.order = order;
+    this.pageable = pageable;
+    this.limit =
+        pageable.isPaged()
+            ? (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize())
+            : Integer.MAX_VALUE;
+    // El peor de los conservados queda en la cabeza, para descartarlo al llegar uno mejor
+    this.top = new PriorityQueue<>(order.reversed());
+  }
+
+  void add(T result) {
+    total++;
+    if (top.size() < limit) {
+      top.add(result);
+    } else if (order.compare(result, top.peek()) < 0) {
+      top.poll();
+      top.add(result);
+    }
+  }
+
+  <R> Page<R> toPage(Function<T, R> mapper) {
+    List<T> sorted = new ArrayList<>(top);
+    sorted.sort(order);
+    int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), sorted.size()) : 0;
+    List<R> content = new ArrayList<>(sorted.size() - from);
+    for (T result : sorted.subList(from, sorted.size())) {
+      content.add(mapper.apply(result));
+    }
+    return new PageImpl<>(content, pageable, total);
+  }
+}
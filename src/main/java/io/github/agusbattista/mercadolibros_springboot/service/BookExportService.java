@@ -0,0 +1,10 @@
+package io.github.agusbattista.mercadolibros_springboot.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+
+  // Escribe todos los libros activos, ordenados por ID, a medida que se leen de la base de datos
+  void exportBooks(OutputStream output, BookFileFormat format) throws IOException;
+}
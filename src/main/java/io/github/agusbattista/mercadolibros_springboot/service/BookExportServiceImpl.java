@@ -0,0 +1,146 @@
+package io.github.agusbattista.mercadolibros_springboot.service;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.mapper.BookMapper;
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/*
+ * Exportación del catálogo completo con una única consulta que se recorre a medida que el cliente
+ * lee la respuesta: la memoria no depende de la cantidad de libros y, a diferencia de paginar
+ * GET /api/books, no hay OFFSET ni COUNT(*) por página.
+ * NDJSON usa el mismo formato que GET /api/books/{uuid}. CSV aplana el género (genreId y
+ * genreName) y sus columnas coinciden con las de la importación, por lo que el archivo se puede
+ * volver a importar.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class BookExportServiceImpl implements BookExportService {
+
+  private static final CsvMapper CSV_MAPPER = new CsvMapper();
+  private static final CsvSchema CSV_SCHEMA = CSV_MAPPER.schemaFor(BookCsvRow.class);
+
+  private final BookRepository bookRepository;
+  private final BookMapper bookMapper;
+  private final ObjectWriter ndjsonWriter;
+  private final ObjectWriter csvWriter;
+  private final int fetchSize;
+
+  public BookExportServiceImpl(
+      BookRepository bookRepository,
+      BookMapper bookMapper,
+      ObjectMapper objectMapper,
+      @Value("${app.export.fetch-size:500}") int fetchSize) {
+    this.bookRepository = bookRepository;
+    this.bookMapper = bookMapper;
+    this.ndjsonWriter =
+        withoutFlushOrClose(
+            objectMapper.writerFor(BookResponseDTO.class).withRootValueSeparator("\n"));
+    this.csvWriter = withoutFlushOrClose(CSV_MAPPER.writer(CSV_SCHEMA));
+    this.fetchSize = fetchSize;
+  }
+
+  @Override
+  public void exportBooks(OutputStream output, BookFileFormat format) throws IOException {
+    long books =
+        switch (format) {
+          case NDJSON -> {
+            long written = this.write(output, ndjsonWriter, Function.identity());
+            if (written > 0) {
+              output.write('\n');
+            }
+            yield written;
+          }
+          case CSV -> {
+            // La cabecera se escribe aparte para que esté aunque no haya libros
+            output.write(
+                (String.join(",", CSV_SCHEMA.getColumnNames()) + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            yield this.write(output, csvWriter, BookCsvRow::from);
+          }
+        };
+    output.flush();
+    log.info("Exportación finalizada: {} libros ({})", books, format);
+  }
+
+  private long write(OutputStream output, ObjectWriter writer, Function<BookResponseDTO, ?> toRow)
+      throws IOException {
+    long written = 0;
+    try (Stream<Book> books = bookRepository.streamAll(fetchSize);
+        SequenceWriter rows = writer.writeValues(output)) {
+      Iterator<Book> iterator = books.iterator();
+      while (iterator.hasNext()) {
+        rows.write(toRow.apply(bookMapper.toResponse(iterator.next())));
+        written++;
+      }
+    }
+    return written;
+  }
+
+  // El OutputStream es del llamador; se vacía una sola vez al final y no por cada libro
+  private static ObjectWriter withoutFlushOrClose(ObjectWriter writer) {
+    return writer
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
+
+  @JsonPropertyOrder({
+    "uuid",
+    "isbn",
+    "title",
+    "authors",
+    "price",
+    "description",
+    "publisher",
+    "genreId",
+    "genreName",
+    "imageUrl"
+  })
+  record BookCsvRow(
+      UUID uuid,
+      String isbn,
+      String title,
+      String authors,
+      BigDecimal price,
+      String description,
+      String publisher,
+      Long genreId,
+      String genreName,
+      String imageUrl) {
+
+    static BookCsvRow from(BookResponseDTO book) {
+      return new BookCsvRow(
+          book.uuid(),
+          book.isbn(),
+          book.title(),
+          book.authors(),
+          book.price(),
+          book.description(),
+          book.publisher(),
+          book.genre() != null ? book.genre().id() : null,
+          book.genre() != null ? book.genre().name() : null,
+          book.imageUrl());
+    }
+  }
+}
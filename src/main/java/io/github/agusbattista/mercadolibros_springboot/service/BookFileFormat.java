@@ -0,0 +1,49 @@
+package io.github.agusbattista.mercadolibros_springboot.service;
+
+import java.util.Locale;
+
+// Formatos de archivo de la importación y la exportación de catálogos
+public enum BookFileFormat {
+  // Un libro (objeto JSON) por línea
+  NDJSON("application/x-ndjson", "ndjson"),
+  // Con cabecera; al importar, las columnas se asocian por nombre a los campos de BookRequestDTO
+  CSV("text/csv", "csv");
+
+  private final String mediaType;
+  private final String extension;
+
+  BookFileFormat(String mediaType, String extension) {
+    this.mediaType = mediaType;
+    this.extension = extension;
+  }
+
+  public String mediaType() {
+    return mediaType;
+  }
+
+  public String extension() {
+    return extension;
+  }
+
+  // "ndjson" o "csv", sin distinguir mayúsculas (por ejemplo, el parámetro "format")
+  public static BookFileFormat fromName(String name) {
+    for (BookFileFormat format : values()) {
+      if (format.name().equalsIgnoreCase(name)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Formato no soportado: " + name + ". Use ndjson o csv");
+  }
+
+  public static BookFileFormat fromFileName(String fileName) {
+    String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+    if (lowerCaseName.endsWith(".csv")) {
+      return CSV;
+    }
+    if (lowerCaseName.endsWith(".ndjson") || lowerCaseName.endsWith(".jsonl")) {
+      return NDJSON;
+    }
+    throw new IllegalArgumentException(
+        "Formato de archivo no soportado: " + fileName + ". Use .ndjson, .jsonl o .csv");
+  }
+}
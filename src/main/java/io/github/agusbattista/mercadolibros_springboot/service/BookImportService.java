@@ -0,0 +1,10 @@
+package io.github.agusbattista.mercadolibros_springboot.service;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.BookImportSummaryDTO;
+import java.io.InputStream;
+
+public interface BookImportService {
+
+  // Las filas inválidas se informan en el resumen y no detienen la importación
+  BookImportSummaryDTO importBooks(InputStream input, BookFileFormat format);
+}
@@ -0,0 +1,202 @@
+package io.github.agusbattista.mercadolibros_springboot.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchItemResultDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookImportErrorDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookImportSummaryDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookRequestDTO;
+import jakarta.validation.ValidationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+/*
+ * Importación de catálogos completos sin cargarlos en memoria: las filas se leen de a una y se
+ * guardan en bloques de CHUNK_SIZE libros, cada uno en su propia transacción (BookService.createAll,
+ * que valida cada libro con las restricciones de BookRequestDTO). La siguiente fila no se lee
+ * hasta que el bloque anterior quedó guardado, por lo que la memoria no depende del tamaño del
+ * archivo. Ambos formatos se leen con el parser de Jackson, que avanza por tokens: una fila muy
+ * larga no se carga entera en memoria. Si falla un bloque (error de base de datos, de validación o
+ * al confirmar su transacción) se rechazan sus filas y se continúa con el siguiente; los bloques
+ * ya guardados no se revierten.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookImportServiceImpl implements BookImportService {
+
+  static final int CHUNK_SIZE = 500;
+  static final int MAX_REPORTED_ERRORS = 1_000;
+
+  // Las celdas vacías se leen como nulas, para que la validación informe el campo faltante
+  private static final ObjectReader CSV_READER =
+      new CsvMapper()
+          .readerFor(BookRequestDTO.class)
+          .with(CsvSchema.emptySchema().withHeader())
+          .with(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+          .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+  private final BookService bookService;
+  private final ObjectMapper objectMapper;
+
+  @Override
+  public BookImportSummaryDTO importBooks(InputStream input, BookFileFormat format) {
+    ChunkWriter writer = new ChunkWriter();
+    try {
+      switch (format) {
+        case NDJSON -> this.readNdjson(input, writer);
+        case CSV -> this.readCsv(input, writer);
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException("No se pudo leer el archivo a importar", ex);
+    }
+    writer.flush();
+    BookImportSummaryDTO summary = writer.summary();
+    log.info(
+        "Importación finalizada: {} filas ({} creadas, {} restauradas, {} rechazadas)",
+        summary.rows(),
+        summary.created(),
+        summary.restored(),
+        summary.failed());
+    return summary;
+  }
+
+  /*
+   * Igual que en CSV, un valor que no se puede convertir (por ejemplo, un precio no numérico)
+   * rechaza sólo su fila. Si el JSON está mal formado no se leen las filas siguientes: se informa
+   * la primera que no se pudo leer y se guardan las anteriores.
+   */
+  private void readNdjson(InputStream input, ChunkWriter writer) throws IOException {
+    try (MappingIterator<BookRequestDTO> rows =
+        objectMapper.readerFor(BookRequestDTO.class).readValues(input)) {
+      this.readRows(rows, writer);
+    } catch (JsonProcessingException ex) {
+      writer.reject(
+          writer.rows + 1,
+          "JSON mal formado, no se leyeron las filas siguientes: " + ex.getOriginalMessage());
+    }
+  }
+
+  /*
+   * Un valor que no se puede convertir (por ejemplo, un precio no numérico) rechaza sólo su fila:
+   * Jackson retoma la lectura en el registro siguiente. Si el CSV está mal formado (por ejemplo,
+   * una comilla sin cerrar) no se leen las filas siguientes: se informa la primera que no se pudo
+   * leer y se guardan las anteriores.
+   */
+  private void readCsv(InputStream input, ChunkWriter writer) throws IOException {
+    try (MappingIterator<BookRequestDTO> rows = CSV_READER.readValues(input)) {
+      this.readRows(rows, writer);
+    } catch (JsonProcessingException ex) {
+      writer.reject(
+          writer.rows + 1,
+          "CSV mal formado, no se leyeron las filas siguientes: " + ex.getOriginalMessage());
+    }
+  }
+
+  // Jackson descarta el resto del valor que no pudo convertir y retoma en la fila siguiente
+  private void readRows(MappingIterator<BookRequestDTO> rows, ChunkWriter writer)
+      throws IOException {
+    long row = 0;
+    while (rows.hasNextValue()) {
+      row++;
+      try {
+        writer.add(row, rows.nextValue());
+      } catch (JsonMappingException ex) {
+        writer.reject(row, "Fila ilegible: " + ex.getOriginalMessage());
+      }
+    }
+  }
+
+  // Acumula las filas de un bloque y los totales de la importación
+  private final class ChunkWriter {
+
+    private final List<BookRequestDTO> books = new ArrayList<>(CHUNK_SIZE);
+    private final long[] rowNumbers = new long[CHUNK_SIZE];
+    private final List<BookImportErrorDTO> errors = new ArrayList<>();
+    private long rows;
+    private long created;
+    private long restored;
+    private long failed;
+
+    void add(long row, BookRequestDTO book) {
+      rows++;
+      rowNumbers[books.size()] = row;
+      books.add(book);
+      if (books.size() == CHUNK_SIZE) {
+        this.flush();
+      }
+    }
+
+    void reject(long row, String error) {
+      rows++;
+      this.fail(row, null, List.of(error));
+    }
+
+    void flush() {
+      if (books.isEmpty()) {
+        return;
+      }
+      try {
+        BookBatchResponseDTO result = bookService.createAll(books);
+        created += result.created();
+        restored += result.restored();
+        for (BookBatchItemResultDTO item : result.items()) {
+          if (item.status() == BookBatchItemResultDTO.Status.FAILED) {
+            this.fail(rowNumbers[item.index()], item.isbn(), item.errors());
+          }
+        }
+      } catch (DataAccessException | TransactionException | ValidationException ex) {
+        log.warn(
+            "No se pudo guardar el bloque de las filas {} a {}",
+            rowNumbers[0],
+            rowNumbers[books.size() - 1],
+            ex);
+        for (int index = 0; index < books.size(); index++) {
+          BookRequestDTO book = books.get(index);
+          this.fail(
+              rowNumbers[index],
+              book != null ? book.isbn() : null,
+              List.of(
+                  "No se pudo guardar el bloque de la fila: "
+                      + NestedExceptionUtils.getMostSpecificCause(ex)));
+        }
+      }
+      books.clear();
+      log.info(
+          "Importación en curso: {} filas procesadas ({} creadas, {} restauradas, {} rechazadas)",
+          rows,
+          created,
+          restored,
+          failed);
+    }
+
+    BookImportSummaryDTO summary() {
+      return new BookImportSummaryDTO(
+          rows, created, restored, failed, List.copyOf(errors), failed > errors.size());
+    }
+
+    private void fail(long row, String isbn, List<String> rowErrors) {
+      failed++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(new BookImportErrorDTO(row, isbn, rowErrors));
+      }
+    }
+  }
+}
@@ -1,8 +1,16 @@
 package io.github.agusbattista.mercadolibros_springboot.service;
 
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookLookupResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.BookRequestDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookSearchCriteria;
+import io.github.agusbattista.mercadolibros_springboot.dto.CursorResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetedResponse;
 import io.github.agusbattista.mercadolibros_springboot.dto.PagedResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.SliceResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.SuggestionResponseDTO;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Pageable;
@@ -11,16 +19,43 @@ public interface BookService {
 
   PagedResponse<BookResponseDTO> findAll(Pageable pageable);
 
+  SliceResponse<BookResponseDTO> sliceAll(Pageable pageable);
+
+  CursorResponse<BookResponseDTO> scrollAll(String after, Pageable pageable);
+
   Optional<BookResponseDTO> findByUuid(UUID uuid);
 
   Optional<BookResponseDTO> findByIsbn(String isbn);
 
+  // Cada clave puede ser un UUID o un ISBN
+  BookLookupResponseDTO findAllByKeys(List<String> keys);
+
   PagedResponse<BookResponseDTO> findBooksByCriteria(
-      String title, String authors, String genre, String publisher, Pageable pageable);
+      BookSearchCriteria criteria, Pageable pageable);
+
+  FacetedResponse<BookResponseDTO> findBooksByCriteriaWithFacets(
+      BookSearchCriteria criteria, List<String> facets, Pageable pageable);
+
+  SliceResponse<BookResponseDTO> sliceBooksByCriteria(
+      BookSearchCriteria criteria, Pageable pageable);
+
+  CursorResponse<BookResponseDTO> scrollBooksByCriteria(
+      BookSearchCriteria criteria, String after, Pageable pageable);
+
+  PagedResponse<BookResponseDTO> searchByText(String query, Pageable pageable);
+
+  PagedResponse<BookResponseDTO> searchByTextFuzzy(String query, Pageable pageable);
+
+  List<SuggestionResponseDTO> suggest(String prefix, String field, int limit);
 
   BookResponseDTO create(BookRequestDTO book);
 
+  BookBatchResponseDTO createAll(List<BookRequestDTO> books);
+
   void deleteByUuid(UUID uuid);
 
   BookResponseDTO update(UUID uuid, BookRequestDTO book);
+
+  // Falla con PreconditionFailedException si el libro ya no está en "expectedVersion" (If-Match)
+  BookResponseDTO update(UUID uuid, BookRequestDTO book, Long expectedVersion);
 }
@@ -1,23 +1,69 @@
 package io.github.agusbattista.mercadolibros_springboot.service;
 
+import io.github.agusbattista.mercadolibros_springboot.cache.BookCache;
+import io.github.agusbattista.mercadolibros_springboot.cache.BookLookupFilter;
+import io.github.agusbattista.mercadolibros_springboot.cache.GenreCache;
+import io.github.agusbattista.mercadolibros_springboot.cache.SingleFlight;
+import io.github.agusbattista.mercadolibros_springboot.config.ReadReplicaRouting;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchItemResultDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookLookupResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.BookRequestDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookSearchCriteria;
+import io.github.agusbattista.mercadolibros_springboot.dto.CursorResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetCountDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetedResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.PagedResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.SliceResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.SuggestionResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
 import io.github.agusbattista.mercadolibros_springboot.exception.DuplicateResourceException;
+import io.github.agusbattista.mercadolibros_springboot.exception.PreconditionFailedException;
 import io.github.agusbattista.mercadolibros_springboot.exception.ResourceNotFoundException;
 import io.github.agusbattista.mercadolibros_springboot.mapper.BookMapper;
+import io.github.agusbattista.mercadolibros_springboot.mapper.GenreMapper;
 import io.github.agusbattista.mercadolibros_springboot.model.Book;
 import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookFacet;
 import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
-import io.github.agusbattista.mercadolibros_springboot.repository.GenreRepository;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookSpecifications;
+import io.github.agusbattista.mercadolibros_springboot.search.BookSearchIndex;
+import io.github.agusbattista.mercadolibros_springboot.search.BookTextSearch;
+import io.github.agusbattista.mercadolibros_springboot.search.SuggestionField;
+import io.github.agusbattista.mercadolibros_springboot.utils.CursorCodec;
 import io.github.agusbattista.mercadolibros_springboot.utils.StringFormatter;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -26,9 +72,43 @@ import org.springframework.transaction.annotation.Transactional;
 public class BookServiceImpl implements BookService {
 
   private static final String NOT_FOUND_MESSAGE = " no encontrado";
+  private static final String ID_PROPERTY = "id";
+  private static final int MAX_SUGGESTIONS = 20;
+  private static final int MAX_BATCH_SIZE = 1_000;
+  private static final int MAX_LOOKUP_SIZE = 100;
+  private static final int UUID_LENGTH = 36;
+
+  /*
+   * Campos por los que se puede ordenar en la paginación por cursor.
+   * Deben ser columnas propias de "books" y no nulas para que el keyset sea estable.
+   */
+  private static final Map<String, Function<String, Object>> KEYSET_PROPERTIES =
+      Map.of(
+          ID_PROPERTY,
+          Long::valueOf,
+          "isbn",
+          value -> value,
+          "title",
+          value -> value,
+          "authors",
+          value -> value,
+          "publisher",
+          value -> value,
+          "price",
+          BigDecimal::new);
+
   private final BookRepository bookRepository;
   private final BookMapper bookMapper;
-  private final GenreRepository genreRepository;
+  private final GenreCache genreCache;
+  private final GenreMapper genreMapper;
+  private final BookCache bookCache;
+  private final BookLookupFilter bookLookupFilter;
+  private final BookTextSearch bookTextSearch;
+  private final BookSearchIndex bookSearchIndex;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Validator validator;
+  private final SingleFlight<CriteriaKey, PagedResponse<BookResponseDTO>> criteriaLoads =
+      new SingleFlight<>();
 
   @Override
   public PagedResponse<BookResponseDTO> findAll(Pageable pageable) {
@@ -36,24 +116,170 @@ public class BookServiceImpl implements BookService {
   }
 
   @Override
+  public SliceResponse<BookResponseDTO> sliceAll(Pageable pageable) {
+    return this.slice(BookSpecifications.all(), pageable);
+  }
+
+  @Override
+  public CursorResponse<BookResponseDTO> scrollAll(String after, Pageable pageable) {
+    return this.scroll(BookSpecifications.all(), after, pageable);
+  }
+
+  /*
+   * Se resuelven desde BookCache: sólo un fallo de la caché toma una conexión. Antes se descartan,
+   * sin consultar nada, los UUID e ISBN que BookLookupFilter asegura que no existen.
+   */
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public Optional<BookResponseDTO> findByUuid(UUID uuid) {
     Objects.requireNonNull(uuid, "El UUID no puede ser nulo para realizar la búsqueda");
-    return bookRepository.findByUuid(uuid).map(bookMapper::toResponse);
+    if (!bookLookupFilter.mightContainUuid(uuid)) {
+      return Optional.empty();
+    }
+    return bookCache.findByUuid(uuid);
   }
 
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public Optional<BookResponseDTO> findByIsbn(String isbn) {
     Objects.requireNonNull(isbn, "El ISBN no puede ser nulo para realizar la búsqueda");
-    return bookRepository.findByIsbn(isbn).map(bookMapper::toResponse);
+    if (!bookLookupFilter.mightContainIsbn(isbn)) {
+      return Optional.empty();
+    }
+    return bookCache.findByIsbn(isbn);
+  }
+
+  /*
+   * Una sola consulta IN (con el género) para todas las claves que BookLookupFilter no descarta.
+   * Las claves repetidas se consideran una sola vez.
+   */
+  @Override
+  public BookLookupResponseDTO findAllByKeys(List<String> keys) {
+    Objects.requireNonNull(keys, "Las claves de los libros no pueden ser nulas");
+    if (keys.isEmpty() || keys.size() > MAX_LOOKUP_SIZE) {
+      throw new IllegalArgumentException(
+          "La búsqueda debe contener entre 1 y " + MAX_LOOKUP_SIZE + " claves");
+    }
+    Set<String> distinctKeys = new LinkedHashSet<>();
+    for (String key : keys) {
+      if (key == null || key.isBlank()) {
+        throw new IllegalArgumentException("Las claves de los libros no pueden estar vacías");
+      }
+      distinctKeys.add(key.trim());
+    }
+    Map<String, UUID> uuidsByKey = new LinkedHashMap<>();
+    Set<String> isbns = new LinkedHashSet<>();
+    for (String key : distinctKeys) {
+      UUID uuid = this.parseUuid(key);
+      if (uuid != null && bookLookupFilter.mightContainUuid(uuid)) {
+        uuidsByKey.put(key, uuid);
+      } else if (uuid == null && bookLookupFilter.mightContainIsbn(key)) {
+        isbns.add(key);
+      }
+    }
+    Map<UUID, BookResponseDTO> byUuid = new HashMap<>();
+    Map<String, BookResponseDTO> byIsbn = new HashMap<>();
+    if (!uuidsByKey.isEmpty() || !isbns.isEmpty()) {
+      for (Book book :
+          bookRepository.findByUuidInOrIsbnIn(Set.copyOf(uuidsByKey.values()), isbns)) {
+        BookResponseDTO response = bookMapper.toResponse(book);
+        byUuid.put(response.uuid(), response);
+        byIsbn.put(response.isbn(), response);
+      }
+    }
+    List<BookResponseDTO> books = new ArrayList<>();
+    List<String> missing = new ArrayList<>();
+    for (String key : distinctKeys) {
+      UUID uuid = uuidsByKey.get(key);
+      BookResponseDTO book = uuid != null ? byUuid.get(uuid) : byIsbn.get(key);
+      if (book != null) {
+        books.add(book);
+      } else {
+        missing.add(key);
+      }
+    }
+    return new BookLookupResponseDTO(books, missing);
   }
 
+  /*
+   * Las búsquedas idénticas (mismos filtros y misma página) que llegan mientras otra se está
+   * resolviendo esperan su resultado en lugar de repetir la consulta. Se ejecuta sin transacción
+   * para que las que esperan no retengan una conexión. Las que deben leer del primario (ver
+   * ReadReplicaRouting) sólo se agrupan entre sí, para no recibir un resultado de la réplica.
+   */
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public PagedResponse<BookResponseDTO> findBooksByCriteria(
-      String title, String authors, String genre, String publisher, Pageable pageable) {
-    String formattedGenre =
-        (genre != null && !genre.isBlank()) ? StringFormatter.formatName(genre) : null;
-    return this.toPagedResponse(
-        bookRepository.findBooksByCriteria(title, authors, formattedGenre, publisher, pageable));
+      BookSearchCriteria criteria, Pageable pageable) {
+    this.checkPriceRangeOrThrow(criteria);
+    return criteriaLoads.load(
+        new CriteriaKey(criteria, pageable, ReadReplicaRouting.isPrimaryRequired()),
+        () -> this.loadBooksByCriteria(criteria, pageable));
+  }
+
+  /*
+   * Los conteos salen del índice en memoria en una sola pasada o, si no está disponible, de un
+   * GROUP BY por faceta, en lugar de una búsqueda adicional por cada valor.
+   */
+  @Override
+  public FacetedResponse<BookResponseDTO> findBooksByCriteriaWithFacets(
+      BookSearchCriteria criteria, List<String> facets, Pageable pageable) {
+    Set<BookFacet> requestedFacets = this.getFacetsOrThrow(facets);
+    PagedResponse<BookResponseDTO> page = this.findBooksByCriteria(criteria, pageable);
+    Map<String, List<FacetCountDTO>> facetCounts =
+        bookSearchIndex
+            .countFacets(criteria, requestedFacets)
+            .orElseGet(
+                () -> bookRepository.countFacets(bookMapper.toFilter(criteria), requestedFacets));
+    return new FacetedResponse<>(page, facetCounts);
+  }
+
+  @Override
+  public SliceResponse<BookResponseDTO> sliceBooksByCriteria(
+      BookSearchCriteria criteria, Pageable pageable) {
+    this.checkPriceRangeOrThrow(criteria);
+    return this.slice(BookSpecifications.matching(bookMapper.toFilter(criteria)), pageable);
+  }
+
+  @Override
+  public CursorResponse<BookResponseDTO> scrollBooksByCriteria(
+      BookSearchCriteria criteria, String after, Pageable pageable) {
+    this.checkPriceRangeOrThrow(criteria);
+    return this.scroll(BookSpecifications.matching(bookMapper.toFilter(criteria)), after, pageable);
+  }
+
+  @Override
+  public PagedResponse<BookResponseDTO> searchByText(String query, Pageable pageable) {
+    this.checkQueryOrThrow(query);
+    // El orden es por relevancia, por lo que se ignora el ordenamiento solicitado
+    Pageable byRelevance = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    return this.toRankedResponse(bookTextSearch.search(query, byRelevance), byRelevance);
+  }
+
+  /*
+   * Tolera errores de tipeo en títulos y autores usando el índice en memoria. Mientras el índice
+   * no está listo se responde con la búsqueda de texto exacta.
+   */
+  @Override
+  public PagedResponse<BookResponseDTO> searchByTextFuzzy(String query, Pageable pageable) {
+    this.checkQueryOrThrow(query);
+    Pageable byRelevance = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    Page<Long> ids =
+        bookSearchIndex
+            .searchFuzzy(query, byRelevance)
+            .orElseGet(() -> bookTextSearch.search(query, byRelevance));
+    return this.toRankedResponse(ids, byRelevance);
+  }
+
+  // Se resuelve sólo en memoria, sin abrir una transacción ni tomar una conexión
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public List<SuggestionResponseDTO> suggest(String prefix, String field, int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("La cantidad de sugerencias debe ser mayor a cero");
+    }
+    return bookSearchIndex.suggest(
+        SuggestionField.from(field), prefix, Math.min(limit, MAX_SUGGESTIONS));
   }
 
   @Override
@@ -68,22 +294,108 @@ public class BookServiceImpl implements BookService {
     }
     Book newBook = bookMapper.toEntity(requestBook);
     newBook.setGenre(genre);
-    return bookMapper.toResponse(bookRepository.save(newBook));
+    return this.saveAndPublish(newBook, ChangeType.CREATED);
+  }
+
+  /*
+   * Alta masiva: cada libro se valida por separado y los inválidos se informan sin afectar al
+   * resto. Los géneros y los ISBN existentes se resuelven con una consulta IN para todo el lote,
+   * y los libros válidos se insertan en lotes JDBC (ver Book.id) dentro de una única transacción.
+   * Igual que en create, un ISBN eliminado lógicamente se restaura con los datos nuevos.
+   */
+  @Override
+  @Transactional
+  public BookBatchResponseDTO createAll(List<BookRequestDTO> requestBooks) {
+    Objects.requireNonNull(requestBooks, "Los libros que quiere guardar no pueden ser nulos");
+    if (requestBooks.isEmpty() || requestBooks.size() > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException(
+          "El lote debe contener entre 1 y " + MAX_BATCH_SIZE + " libros");
+    }
+    List<List<String>> validationErrors = requestBooks.stream().map(this::validate).toList();
+    List<BookRequestDTO> validBooks = new ArrayList<>();
+    for (int index = 0; index < requestBooks.size(); index++) {
+      if (validationErrors.get(index).isEmpty()) {
+        validBooks.add(requestBooks.get(index));
+      }
+    }
+    Map<Long, GenreResponseDTO> genres =
+        genreCache.findAllById(
+            validBooks.stream().map(BookRequestDTO::genreId).collect(Collectors.toSet()));
+    Map<String, Book> existingBooks =
+        bookRepository
+            .findAllByIsbnIncludingDeleted(
+                validBooks.stream().map(BookRequestDTO::isbn).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(Book::getIsbn, Function.identity()));
+    BookBatchItemResultDTO[] results = new BookBatchItemResultDTO[requestBooks.size()];
+    List<BatchItem> pending = new ArrayList<>();
+    Set<String> batchIsbns = new HashSet<>();
+    for (int index = 0; index < requestBooks.size(); index++) {
+      BookRequestDTO requestBook = requestBooks.get(index);
+      List<String> errors = validationErrors.get(index);
+      if (errors.isEmpty()) {
+        errors = this.checkBatchItem(requestBook, genres, existingBooks, batchIsbns);
+      }
+      if (!errors.isEmpty()) {
+        String isbn = requestBook != null ? requestBook.isbn() : null;
+        results[index] = BookBatchItemResultDTO.failed(index, isbn, errors);
+        continue;
+      }
+      Genre genre = genreMapper.toEntity(genres.get(requestBook.genreId()));
+      Book existingBook = existingBooks.get(requestBook.isbn());
+      if (existingBook != null) {
+        existingBook.setDeleted(false);
+        this.updateBookEntityFromRequest(requestBook, existingBook, genre);
+        pending.add(new BatchItem(index, existingBook, ChangeType.RESTORED));
+      } else {
+        Book newBook = bookMapper.toEntity(requestBook);
+        newBook.setGenre(genre);
+        pending.add(new BatchItem(index, newBook, ChangeType.CREATED));
+      }
+    }
+    bookRepository.saveAll(pending.stream().map(BatchItem::book).toList());
+    bookRepository.flush();
+    for (BatchItem item : pending) {
+      BookResponseDTO response = bookMapper.toResponse(item.book());
+      this.publishChange(item.type(), item.book().getId(), response);
+      BookBatchItemResultDTO.Status status =
+          item.type() == ChangeType.CREATED
+              ? BookBatchItemResultDTO.Status.CREATED
+              : BookBatchItemResultDTO.Status.RESTORED;
+      results[item.index()] = BookBatchItemResultDTO.succeeded(item.index(), status, response);
+    }
+    return BookBatchResponseDTO.from(List.of(results));
   }
 
   @Transactional
   @Override
   public BookResponseDTO update(UUID uuid, BookRequestDTO requestBook) {
+    return this.update(uuid, requestBook, null);
+  }
+
+  /*
+   * Control optimista: si otra petición modifica el libro entre esta verificación y el guardado,
+   * la cláusula de @Version del UPDATE no encuentra la fila y la actualización también falla.
+   */
+  @Transactional
+  @Override
+  public BookResponseDTO update(UUID uuid, BookRequestDTO requestBook, Long expectedVersion) {
     Objects.requireNonNull(uuid, "El UUID no puede ser nulo");
     Objects.requireNonNull(
         requestBook, "Los datos del libro que quiere actualizar no pueden ser nulos");
     Genre genre = this.getGenreOrThrow(requestBook.genreId(), "No se puede actualizar el libro");
     Book existingBook = this.getBookByUuidOrThrow(uuid, "No se puede actualizar el libro");
+    if (expectedVersion != null && !expectedVersion.equals(existingBook.getVersion())) {
+      throw new PreconditionFailedException(
+          "No se puede actualizar el libro. Fue modificado por otra petición (versión actual: "
+              + existingBook.getVersion()
+              + "). Vuelva a obtenerlo e intente nuevamente");
+    }
     if (!existingBook.getIsbn().equals(requestBook.isbn())) {
       this.checkIsbnIsUniqueOrThrow(requestBook.isbn());
     }
     this.updateBookEntityFromRequest(requestBook, existingBook, genre);
-    return bookMapper.toResponse(bookRepository.save(existingBook));
+    return this.saveAndPublish(existingBook, ChangeType.UPDATED);
   }
 
   @Override
@@ -92,11 +404,17 @@ public class BookServiceImpl implements BookService {
     Objects.requireNonNull(uuid, "El UUID no puede ser nulo para intentar la eliminación");
     Book book = this.getBookByUuidOrThrow(uuid, "No se puede eliminar");
     bookRepository.delete(book);
+    this.publishChange(ChangeType.DELETED, book.getId(), bookMapper.toResponse(book));
   }
 
+  /*
+   * El género sale de GenreCache, sin consultar la base de datos. El libro sólo necesita su ID para
+   * la clave foránea, por lo que alcanza con una copia no administrada por JPA.
+   */
   private Genre getGenreOrThrow(Long genreId, String errorMessagePrefix) {
-    return genreRepository
+    return genreCache
         .findById(genreId)
+        .map(genreMapper::toEntity)
         .orElseThrow(
             () ->
                 new ResourceNotFoundException(
@@ -111,7 +429,7 @@ public class BookServiceImpl implements BookService {
     } else {
       existingBook.setDeleted(false);
       this.updateBookEntityFromRequest(requestBook, existingBook, genre);
-      return bookMapper.toResponse(bookRepository.save(existingBook));
+      return this.saveAndPublish(existingBook, ChangeType.RESTORED);
     }
   }
 
@@ -138,11 +456,206 @@ public class BookServiceImpl implements BookService {
     }
   }
 
+  // Mismas validaciones que @Valid en el controller, con el formato "campo: mensaje"
+  private List<String> validate(BookRequestDTO requestBook) {
+    if (requestBook == null) {
+      return List.of("El libro no puede ser nulo");
+    }
+    return validator.validate(requestBook).stream()
+        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+        .sorted()
+        .toList();
+  }
+
+  private List<String> checkBatchItem(
+      BookRequestDTO requestBook,
+      Map<Long, GenreResponseDTO> genres,
+      Map<String, Book> existingBooks,
+      Set<String> batchIsbns) {
+    if (!genres.containsKey(requestBook.genreId())) {
+      return List.of("Género con ID: " + requestBook.genreId() + NOT_FOUND_MESSAGE);
+    }
+    if (!batchIsbns.add(requestBook.isbn())) {
+      return List.of("El ISBN: " + requestBook.isbn() + " está repetido en el lote");
+    }
+    Book existingBook = existingBooks.get(requestBook.isbn());
+    if (existingBook != null && !existingBook.isDeleted()) {
+      return List.of("Ya existe un libro activo con el ISBN: " + requestBook.isbn());
+    }
+    return List.of();
+  }
+
   private String buildUuidNotFoundMessage(UUID uuid) {
     return "Libro con UUID: " + uuid + NOT_FOUND_MESSAGE;
   }
 
+  // null si la clave no es un UUID (se busca como ISBN)
+  private UUID parseUuid(String key) {
+    if (key.length() != UUID_LENGTH) {
+      return null;
+    }
+    try {
+      return UUID.fromString(key);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private BookResponseDTO saveAndPublish(Book book, ChangeType type) {
+    Book savedBook = bookRepository.save(book);
+    // Al sincronizar se incrementa la versión, que así llega a la respuesta y al evento
+    bookRepository.flush();
+    BookResponseDTO response = bookMapper.toResponse(savedBook);
+    this.publishChange(type, savedBook.getId(), response);
+    return response;
+  }
+
+  private void publishChange(ChangeType type, Long id, BookResponseDTO book) {
+    eventPublisher.publishEvent(new BookChangedEvent(type, id, book));
+  }
+
+  private void checkQueryOrThrow(String query) {
+    if (query == null || StringFormatter.normalize(query).isEmpty()) {
+      throw new IllegalArgumentException("El texto a buscar no puede estar vacío");
+    }
+  }
+
+  private PagedResponse<BookResponseDTO> loadBooksByCriteria(
+      BookSearchCriteria criteria, Pageable pageable) {
+    Optional<Page<Long>> indexedIds = bookSearchIndex.findIdsByCriteria(criteria, pageable);
+    if (indexedIds.isPresent()) {
+      Page<Long> ids = indexedIds.get();
+      return this.toPagedResponse(
+          new PageImpl<>(
+              this.findAllByIdInOrder(ids.getContent()), pageable, ids.getTotalElements()));
+    }
+    return this.toPagedResponse(
+        bookRepository.findBooksByCriteria(bookMapper.toFilter(criteria), pageable));
+  }
+
+  private PagedResponse<BookResponseDTO> toRankedResponse(Page<Long> ids, Pageable byRelevance) {
+    return this.toPagedResponse(
+        new PageImpl<>(
+            this.findAllByIdInOrder(ids.getContent()), byRelevance, ids.getTotalElements()));
+  }
+
+  // Busca los libros por ID en una sola consulta y respeta el orden de "ids"
+  private List<Book> findAllByIdInOrder(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, Book> booksById =
+        bookRepository.findByIdIn(ids).stream()
+            .collect(Collectors.toMap(Book::getId, Function.identity()));
+    return ids.stream().map(booksById::get).filter(Objects::nonNull).toList();
+  }
+
+  private Set<BookFacet> getFacetsOrThrow(List<String> facets) {
+    Set<BookFacet> requestedFacets = new LinkedHashSet<>();
+    if (facets != null) {
+      facets.stream()
+          .filter(facet -> facet != null && !facet.isBlank())
+          .map(BookFacet::from)
+          .forEach(requestedFacets::add);
+    }
+    if (requestedFacets.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Debe indicar al menos una faceta. Facetas permitidas: [genre, publisher, price]");
+    }
+    return requestedFacets;
+  }
+
+  private void checkPriceRangeOrThrow(BookSearchCriteria criteria) {
+    Objects.requireNonNull(criteria, "Los criterios de búsqueda no pueden ser nulos");
+    if (criteria.minPrice() != null
+        && criteria.maxPrice() != null
+        && criteria.minPrice().compareTo(criteria.maxPrice()) > 0) {
+      throw new IllegalArgumentException(
+          "El precio mínimo: "
+              + criteria.minPrice()
+              + " no puede ser mayor al precio máximo: "
+              + criteria.maxPrice());
+    }
+  }
+
+  // Sin COUNT(*): se leen size + 1 filas para determinar si existe una página siguiente
+  private SliceResponse<BookResponseDTO> slice(Specification<Book> criteria, Pageable pageable) {
+    Slice<Book> booksSlice =
+        bookRepository.findBy(
+            criteria.and(BookSpecifications.fetchGenre()), query -> query.slice(pageable));
+    return SliceResponse.from(booksSlice.map(bookMapper::toResponse));
+  }
+
+  /*
+   * Paginación por keyset: en lugar de OFFSET se filtra por los valores de la última fila
+   * entregada, por lo que el costo de cada página no depende de su profundidad y no se ejecuta
+   * COUNT(*).
+   */
+  private CursorResponse<BookResponseDTO> scroll(
+      Specification<Book> criteria, String after, Pageable pageable) {
+    Sort sort = this.getKeysetSortOrThrow(pageable.getSort());
+    ScrollPosition position = this.toScrollPosition(after, sort);
+    int size = pageable.getPageSize();
+    Window<Book> window =
+        bookRepository.findBy(
+            criteria, query -> query.project("genre").sortBy(sort).limit(size).scroll(position));
+    String nextCursor = window.hasNext() ? this.buildNextCursor(window) : null;
+    return CursorResponse.of(
+        window.map(bookMapper::toResponse).getContent(), size, nextCursor, sort);
+  }
+
+  private Sort getKeysetSortOrThrow(Sort sort) {
+    if (sort.isUnsorted()) {
+      return Sort.by(ID_PROPERTY);
+    }
+    sort.forEach(
+        order -> {
+          if (!KEYSET_PROPERTIES.containsKey(order.getProperty())) {
+            throw new IllegalArgumentException(
+                "No se puede ordenar por el campo: "
+                    + order.getProperty()
+                    + " en la paginación por cursor. Campos permitidos: "
+                    + KEYSET_PROPERTIES.keySet());
+          }
+        });
+    return sort;
+  }
+
+  private ScrollPosition toScrollPosition(String after, Sort sort) {
+    Map<String, String> cursorKeys = CursorCodec.decode(after);
+    if (cursorKeys.isEmpty()) {
+      return ScrollPosition.keyset();
+    }
+    Map<String, Object> keys = new LinkedHashMap<>();
+    sort.forEach(order -> keys.put(order.getProperty(), null));
+    keys.put(ID_PROPERTY, null);
+    if (!cursorKeys.keySet().equals(keys.keySet())) {
+      throw new IllegalArgumentException(
+          "El cursor: " + after + " no corresponde al ordenamiento solicitado");
+    }
+    if (cursorKeys.containsValue(null)) {
+      throw new IllegalArgumentException("El cursor: " + after + " no es válido");
+    }
+    try {
+      keys.replaceAll(
+          (property, ignored) -> KEYSET_PROPERTIES.get(property).apply(cursorKeys.get(property)));
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("El cursor: " + after + " no es válido");
+    }
+    return ScrollPosition.forward(keys);
+  }
+
+  private String buildNextCursor(Window<Book> window) {
+    KeysetScrollPosition lastPosition = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+    return CursorCodec.encode(lastPosition.getKeys());
+  }
+
   private PagedResponse<BookResponseDTO> toPagedResponse(Page<Book> booksPage) {
     return PagedResponse.from(booksPage.map(bookMapper::toResponse));
   }
+
+  private record BatchItem(int index, Book book, ChangeType type) {}
+
+  private record CriteriaKey(
+      BookSearchCriteria criteria, Pageable pageable, boolean primaryRequired) {}
 }
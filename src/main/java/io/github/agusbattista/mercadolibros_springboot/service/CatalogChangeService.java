@@ -0,0 +1,12 @@
+package io.github.agusbattista.mercadolibros_springboot.service;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.ChangeFeedResponse;
+
+public interface CatalogChangeService {
+
+  // Hasta "limit" cambios con número mayor a "since", en orden
+  ChangeFeedResponse findSince(long since, int limit);
+
+  // Número del último cambio registrado (0 si todavía no hay ninguno)
+  long latestSequence();
+}
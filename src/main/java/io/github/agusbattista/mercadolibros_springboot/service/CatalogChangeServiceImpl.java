@@ -0,0 +1,111 @@
+package io.github.agusbattista.mercadolibros_springboot.service;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.CatalogChangeDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.ChangeFeedResponse;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.model.CatalogChange;
+import io.github.agusbattista.mercadolibros_springboot.model.CatalogChangeSequence;
+import io.github.agusbattista.mercadolibros_springboot.repository.CatalogChangeRepository;
+import io.github.agusbattista.mercadolibros_springboot.repository.CatalogChangeSequenceRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ * Registro de cambios del catálogo para sincronizaciones incrementales. Los eventos que
+ * BookServiceImpl y GenreServiceImpl publican dentro de su transacción se acumulan y se guardan
+ * justo antes del commit, en la misma transacción: si se revierte, no queda ningún registro.
+ * Recién ahí se bloquea CatalogChangeSequence, luego de escribir el resto de los cambios, por lo
+ * que el bloqueo dura sólo hasta el commit y siempre se toma en último lugar.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CatalogChangeServiceImpl implements CatalogChangeService {
+
+  static final int MAX_LIMIT = 1_000;
+
+  private final CatalogChangeRepository changeRepository;
+  private final CatalogChangeSequenceRepository sequenceRepository;
+
+  @Override
+  public ChangeFeedResponse findSince(long since, int limit) {
+    if (since < 0) {
+      throw new IllegalArgumentException("El parámetro since no puede ser negativo");
+    }
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_LIMIT);
+    }
+    // Uno más que el límite indica si quedan cambios, sin contarlos
+    List<CatalogChange> changes =
+        changeRepository.findBySequenceGreaterThanOrderBySequence(since, Limit.of(limit + 1));
+    boolean hasMore = changes.size() > limit;
+    List<CatalogChangeDTO> page =
+        changes.stream().limit(limit).map(CatalogChangeDTO::from).toList();
+    long next = page.isEmpty() ? since : page.getLast().sequence();
+    return new ChangeFeedResponse(page, next, hasMore, Math.max(this.latestSequence(), next));
+  }
+
+  @Override
+  public long latestSequence() {
+    return sequenceRepository.findLastValue(CatalogChangeSequence.ID).orElse(0L);
+  }
+
+  // Sin una transacción en curso falla con IllegalTransactionStateException
+  @EventListener
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void onBookChanged(BookChangedEvent event) {
+    this.record(CatalogChange.Resource.BOOK, event.book().uuid().toString(), event.type());
+  }
+
+  // Sin una transacción en curso falla con IllegalTransactionStateException
+  @EventListener
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void onGenreChanged(GenreChangedEvent event) {
+    this.record(CatalogChange.Resource.GENRE, event.id().toString(), event.type());
+  }
+
+  private void record(CatalogChange.Resource resource, String resourceId, ChangeType type) {
+    PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      pending = new PendingChanges();
+      TransactionSynchronizationManager.bindResource(this, pending);
+      TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+    pending.changes.add(new CatalogChange(null, resource, resourceId, type, Instant.now()));
+  }
+
+  // Cambios de la transacción actual, todavía sin número
+  private final class PendingChanges implements TransactionSynchronization {
+
+    private final List<CatalogChange> changes = new ArrayList<>();
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      changeRepository.flush();
+      CatalogChangeSequence sequence =
+          sequenceRepository
+              .findById(CatalogChangeSequence.ID)
+              .orElseThrow(
+                  () ->
+                      new IllegalStateException("No existe la secuencia del registro de cambios"));
+      changes.forEach(change -> change.setSequence(sequence.next()));
+      changeRepository.saveAll(changes);
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      TransactionSynchronizationManager.unbindResource(CatalogChangeServiceImpl.this);
+    }
+  }
+}
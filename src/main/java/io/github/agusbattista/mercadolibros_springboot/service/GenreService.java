@@ -21,4 +21,7 @@ public interface GenreService {
   void deleteById(Long id);
 
   GenreResponseDTO update(Long id, GenreRequestDTO genre);
+
+  // Falla con PreconditionFailedException si el género ya no está en "expectedVersion" (If-Match)
+  GenreResponseDTO update(Long id, GenreRequestDTO genre, Long expectedVersion);
 }
@@ -1,9 +1,13 @@
 package io.github.agusbattista.mercadolibros_springboot.service;
 
+import io.github.agusbattista.mercadolibros_springboot.cache.GenreCache;
 import io.github.agusbattista.mercadolibros_springboot.dto.GenreRequestDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.PagedResponse;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
 import io.github.agusbattista.mercadolibros_springboot.exception.DuplicateResourceException;
+import io.github.agusbattista.mercadolibros_springboot.exception.PreconditionFailedException;
 import io.github.agusbattista.mercadolibros_springboot.exception.ResourceInUseException;
 import io.github.agusbattista.mercadolibros_springboot.exception.ResourceNotFoundException;
 import io.github.agusbattista.mercadolibros_springboot.mapper.GenreMapper;
@@ -14,6 +18,7 @@ import io.github.agusbattista.mercadolibros_springboot.utils.StringFormatter;
 import java.util.Objects;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +32,8 @@ public class GenreServiceImpl implements GenreService {
   private final GenreRepository genreRepository;
   private final BookRepository bookRepository;
   private final GenreMapper genreMapper;
+  private final GenreCache genreCache;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
   public PagedResponse<GenreResponseDTO> findAll(Pageable pageable) {
@@ -36,23 +43,19 @@ public class GenreServiceImpl implements GenreService {
   @Override
   public Optional<GenreResponseDTO> findById(Long id) {
     Objects.requireNonNull(id, "El ID no puede ser nulo para realizar la búsqueda");
-    return genreRepository.findById(id).map(genreMapper::toResponse);
+    return genreCache.findById(id);
   }
 
   @Override
   public Optional<GenreResponseDTO> findByCode(String code) {
     Objects.requireNonNull(code, "El código no puede ser nulo para realizar la búsqueda");
-    return genreRepository
-        .findByCode(StringFormatter.generateCode(code))
-        .map(genreMapper::toResponse);
+    return genreCache.findByCode(StringFormatter.generateCode(code));
   }
 
   @Override
   public Optional<GenreResponseDTO> findByName(String name) {
     Objects.requireNonNull(name, "El nombre no puede ser nulo para realizar la búsqueda");
-    return genreRepository
-        .findByCode(StringFormatter.generateCode(name))
-        .map(genreMapper::toResponse);
+    return genreCache.findByCode(StringFormatter.generateCode(name));
   }
 
   @Override
@@ -62,6 +65,7 @@ public class GenreServiceImpl implements GenreService {
     String formattedName = StringFormatter.formatName(requestGenre.name());
     String code = StringFormatter.generateCode(formattedName);
     Optional<Genre> optionalGenre = genreRepository.findByCodeIncludingDeleted(code);
+    genreCache.invalidateAll();
     if (optionalGenre.isPresent()) {
       Genre existingGenre = optionalGenre.get();
       return this.restoreAndUpdateGenreOrThrow(existingGenre, code, formattedName);
@@ -69,15 +73,27 @@ public class GenreServiceImpl implements GenreService {
     Genre newGenre = new Genre();
     newGenre.setName(formattedName);
     newGenre.setCode(code);
-    return genreMapper.toResponse(genreRepository.save(newGenre));
+    return this.saveAndPublish(newGenre, ChangeType.CREATED);
   }
 
   @Override
   @Transactional
   public GenreResponseDTO update(Long id, GenreRequestDTO genre) {
+    return this.update(id, genre, null);
+  }
+
+  @Override
+  @Transactional
+  public GenreResponseDTO update(Long id, GenreRequestDTO genre, Long expectedVersion) {
     Objects.requireNonNull(id, "El ID no puede ser nulo para realizar la actualización");
     Objects.requireNonNull(genre, "El género que quiere actualizar no puede ser nulo");
     Genre existingGenre = this.getGenreByIdOrThrow(id, "No se puede actualizar");
+    if (expectedVersion != null && !expectedVersion.equals(existingGenre.getVersion())) {
+      throw new PreconditionFailedException(
+          "No se puede actualizar. El género fue modificado por otra petición (versión actual: "
+              + existingGenre.getVersion()
+              + "). Vuelva a obtenerlo e intente nuevamente");
+    }
     String formattedName = StringFormatter.formatName(genre.name());
     String code = StringFormatter.generateCode(formattedName);
     if (!existingGenre.getName().equals(formattedName)) {
@@ -85,7 +101,8 @@ public class GenreServiceImpl implements GenreService {
     }
     existingGenre.setName(formattedName);
     existingGenre.setCode(code);
-    return genreMapper.toResponse(genreRepository.save(existingGenre));
+    genreCache.invalidateAll();
+    return this.saveAndPublish(existingGenre, ChangeType.UPDATED);
   }
 
   @Override
@@ -95,6 +112,16 @@ public class GenreServiceImpl implements GenreService {
     Genre genre = this.getGenreByIdOrThrow(id, "No se puede eliminar");
     this.checkNoBooksAssociatedOrThrow(genre);
     genreRepository.delete(genre);
+    genreCache.invalidateAll();
+    eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.DELETED, genre.getId()));
+  }
+
+  private GenreResponseDTO saveAndPublish(Genre genre, ChangeType type) {
+    Genre savedGenre = genreRepository.save(genre);
+    // Al sincronizar se incrementa la versión, que así llega a la respuesta
+    genreRepository.flush();
+    eventPublisher.publishEvent(new GenreChangedEvent(type, savedGenre.getId()));
+    return genreMapper.toResponse(savedGenre);
   }
 
   private GenreResponseDTO restoreAndUpdateGenreOrThrow(
@@ -109,7 +136,7 @@ public class GenreServiceImpl implements GenreService {
       existingGenre.setDeleted(false);
       existingGenre.setName(name);
       existingGenre.setCode(code);
-      return genreMapper.toResponse(genreRepository.save(existingGenre));
+      return this.saveAndPublish(existingGenre, ChangeType.RESTORED);
     }
   }
 
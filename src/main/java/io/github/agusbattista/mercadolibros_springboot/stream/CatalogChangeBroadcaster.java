@@ -0,0 +1,267 @@
+package io.github.agusbattista.mercadolibros_springboot.stream;
+
+import io.github.agusbattista.mercadolibros_springboot.config.ReadReplicaRouting;
+import io.github.agusbattista.mercadolibros_springboot.dto.CatalogChangeDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.ChangeFeedResponse;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.service.CatalogChangeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/*
+ * Reparte los cambios del catálogo (ver CatalogChangeServiceImpl) entre los suscriptores de
+ * GET /api/changes/stream. Luego de cada commit, un único despachador lee de la base de datos los
+ * cambios nuevos y los copia en la cola de cada suscriptor, por lo que la cantidad de consultas no
+ * depende de la cantidad de suscriptores. Como los números de secuencia se asignan en el orden de
+ * los commits, leerlos desde el último repartido no saltea ninguno.
+ * Cada suscriptor tiene una cola acotada (app.changes.stream.buffer-size) que se vacía en su
+ * propio hilo virtual: si un cliente lento la llena, se lo desconecta y puede reconectarse con
+ * Last-Event-ID para continuar desde el último cambio recibido.
+ * Los cambios se leen siempre del primario: una réplica de lectura atrasada haría perder los
+ * cambios recién confirmados.
+ * Los suscriptores activos y los desconectados por lentos se publican en /actuator/metrics
+ * (catalog.changes.stream.subscribers y catalog.changes.stream.evictions).
+ */
+@Component
+@Slf4j
+public class CatalogChangeBroadcaster {
+
+  private static final int READ_BATCH_SIZE = 1_000;
+  private static final String EVENT_NAME = "change";
+
+  private final CatalogChangeService catalogChangeService;
+  private final int bufferSize;
+  private final Duration timeout;
+  private final Counter evictions;
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final AtomicBoolean dispatching = new AtomicBoolean();
+  private final AtomicBoolean pending = new AtomicBoolean();
+  // Último cambio repartido; -1 hasta que se lee de la base de datos
+  private long position = -1;
+
+  public CatalogChangeBroadcaster(
+      CatalogChangeService catalogChangeService,
+      MeterRegistry meterRegistry,
+      @Value("${app.changes.stream.buffer-size:256}") int bufferSize,
+      @Value("${app.changes.stream.timeout:30m}") Duration timeout) {
+    this.catalogChangeService = catalogChangeService;
+    this.bufferSize = bufferSize;
+    this.timeout = timeout;
+    this.evictions = meterRegistry.counter("catalog.changes.stream.evictions");
+    meterRegistry.gaugeCollectionSize("catalog.changes.stream.subscribers", Set.of(), subscribers);
+  }
+
+  /*
+   * Sin "lastEventId" se reciben sólo los cambios posteriores a la suscripción. Con él, primero se
+   * reenvían desde la base de datos los cambios posteriores a ese número y luego se continúa con
+   * los nuevos, sin repetir ni saltear ninguno.
+   */
+  public SseEmitter subscribe(Long lastEventId) {
+    if (lastEventId != null && lastEventId < 0) {
+      throw new IllegalArgumentException("El último evento recibido no puede ser negativo");
+    }
+    Subscriber subscriber = new Subscriber(this.createEmitter(timeout.toMillis()));
+    synchronized (this) {
+      subscriber.cursor = lastEventId != null ? lastEventId : this.currentPosition();
+      subscriber.replaying = lastEventId != null;
+      subscribers.add(subscriber);
+    }
+    subscriber.emitter.onCompletion(subscriber::close);
+    subscriber.emitter.onTimeout(subscriber::close);
+    subscriber.emitter.onError(error -> subscriber.close());
+    if (subscriber.replaying) {
+      subscriber.schedule();
+    }
+    return subscriber.emitter;
+  }
+
+  public int subscriberCount() {
+    return subscribers.size();
+  }
+
+  // Los cambios ya están guardados: CatalogChangeServiceImpl los registra antes del commit
+  @TransactionalEventListener
+  public void onBookChanged(BookChangedEvent event) {
+    this.signal();
+  }
+
+  @TransactionalEventListener
+  public void onGenreChanged(GenreChangedEvent event) {
+    this.signal();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    for (Subscriber subscriber : subscribers) {
+      subscriber.close();
+      subscriber.emitter.complete();
+    }
+    executor.shutdownNow();
+  }
+
+  SseEmitter createEmitter(long timeoutMillis) {
+    return new SseEmitter(timeoutMillis);
+  }
+
+  // Varios commits seguidos se resuelven con una sola lectura
+  private void signal() {
+    pending.set(true);
+    if (dispatching.compareAndSet(false, true)) {
+      executor.execute(this::dispatch);
+    }
+  }
+
+  private void dispatch() {
+    try {
+      while (pending.getAndSet(false)) {
+        this.broadcastNewChanges();
+      }
+    } catch (RuntimeException e) {
+      log.error("No se pudieron leer los cambios del catálogo para los suscriptores", e);
+    } finally {
+      dispatching.set(false);
+      if (pending.get() && dispatching.compareAndSet(false, true)) {
+        executor.execute(this::dispatch);
+      }
+    }
+  }
+
+  private void broadcastNewChanges() {
+    long since;
+    synchronized (this) {
+      since = this.currentPosition();
+    }
+    ChangeFeedResponse page;
+    do {
+      long from = since;
+      page =
+          ReadReplicaRouting.callOnPrimary(
+              () -> catalogChangeService.findSince(from, READ_BATCH_SIZE));
+      synchronized (this) {
+        for (CatalogChangeDTO change : page.changes()) {
+          subscribers.forEach(subscriber -> subscriber.offer(change));
+        }
+        position = page.next();
+      }
+      since = page.next();
+    } while (page.hasMore());
+  }
+
+  private long currentPosition() {
+    if (position < 0) {
+      position = ReadReplicaRouting.callOnPrimary(catalogChangeService::latestSequence);
+    }
+    return position;
+  }
+
+  private final class Subscriber {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<CatalogChangeDTO> queue = new ArrayBlockingQueue<>(bufferSize);
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+    // Último cambio enviado; sólo lo modifica el hilo que vacía la cola
+    private long cursor;
+    private boolean replaying;
+
+    private Subscriber(SseEmitter emitter) {
+      this.emitter = emitter;
+    }
+
+    private void offer(CatalogChangeDTO change) {
+      if (closed) {
+        return;
+      }
+      if (!queue.offer(change)) {
+        evictions.increment();
+        log.warn(
+            "Suscriptor de cambios desconectado por no leer {} cambios pendientes", bufferSize);
+        this.close();
+        // Puede estar bloqueado escribiendo al cliente: se cierra desde otro hilo
+        executor.execute(emitter::complete);
+        return;
+      }
+      this.schedule();
+    }
+
+    private void schedule() {
+      if (draining.compareAndSet(false, true)) {
+        executor.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      try {
+        if (replaying) {
+          this.replay();
+          replaying = false;
+        }
+        CatalogChangeDTO change;
+        while (!closed && (change = queue.poll()) != null) {
+          // Durante el reenvío pudieron llegar cambios que ya se leyeron de la base de datos
+          if (change.sequence() > cursor) {
+            this.send(change);
+          }
+        }
+      } catch (IOException | RuntimeException e) {
+        log.debug("Suscriptor de cambios desconectado: {}", e.getMessage());
+        this.close();
+        emitter.completeWithError(e);
+      } finally {
+        draining.set(false);
+        if (!closed && !queue.isEmpty()) {
+          this.schedule();
+        }
+      }
+    }
+
+    private void replay() throws IOException {
+      ChangeFeedResponse page;
+      do {
+        page =
+            ReadReplicaRouting.callOnPrimary(
+                () -> catalogChangeService.findSince(cursor, READ_BATCH_SIZE));
+        for (CatalogChangeDTO change : page.changes()) {
+          if (closed) {
+            return;
+          }
+          this.send(change);
+        }
+      } while (page.hasMore());
+    }
+
+    private void send(CatalogChangeDTO change) throws IOException {
+      emitter.send(
+          SseEmitter.event()
+              .id(Long.toString(change.sequence()))
+              .name(EVENT_NAME)
+              .data(change, MediaType.APPLICATION_JSON));
+      cursor = change.sequence();
+    }
+
+    private void close() {
+      closed = true;
+      subscribers.remove(this);
+      queue.clear();
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package io.github.agusbattista.mercadolibros_springboot.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CursorCodec {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final TypeReference<LinkedHashMap<String, String>> KEYS_TYPE =
+      new TypeReference<>() {};
+
+  private CursorCodec() {}
+
+  /*
+   * Codifica los valores de la última fila entregada (campos de ordenamiento + id) en un token
+   * opaco y apto para URLs.
+   */
+  public static String encode(Map<String, ?> keys) {
+    Map<String, String> values = new LinkedHashMap<>();
+    keys.forEach((key, value) -> values.put(key, toPlainString(value)));
+    try {
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(OBJECT_MAPPER.writeValueAsBytes(values));
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("No se pudo generar el cursor", ex);
+    }
+  }
+
+  public static Map<String, String> decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) return Map.of();
+    try {
+      byte[] json = Base64.getUrlDecoder().decode(cursor.trim());
+      return OBJECT_MAPPER.readValue(new String(json, StandardCharsets.UTF_8), KEYS_TYPE);
+    } catch (IllegalArgumentException | IOException ex) {
+      throw new IllegalArgumentException("El cursor: " + cursor + " no es válido");
+    }
+  }
+
+  private static String toPlainString(Object value) {
+    if (value instanceof BigDecimal decimal) return decimal.toPlainString();
+    return String.valueOf(value);
+  }
+}
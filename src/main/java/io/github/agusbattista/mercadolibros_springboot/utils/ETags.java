@@ -0,0 +1,42 @@
+package io.github.agusbattista.mercadolibros_springboot.utils;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.exception.PreconditionFailedException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Formato de los ETag de libros y géneros individuales, derivados de la columna @Version.
+ * El de un libro combina su versión con la de su género, que forma parte de la respuesta.
+ */
+public class ETags {
+
+  private static final Pattern VERSION_TAG = Pattern.compile("\"(\\d{1,18})(?:-\\d{1,18})?\"");
+
+  private ETags() {}
+
+  public static String of(BookResponseDTO book) {
+    return book.version() + "-" + book.genre().version();
+  }
+
+  public static String of(GenreResponseDTO genre) {
+    return String.valueOf(genre.version());
+  }
+
+  /*
+   * Devuelve la versión del registro indicada en If-Match, o null si no se envió o es "*".
+   * En un libro sólo se compara su propia versión: renombrar el género no impide editarlo.
+   * If-Match exige comparación fuerte, por lo que un ETag débil (W/...) o con otro formato nunca
+   * coincide.
+   */
+  public static Long versionFromIfMatch(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+    Matcher matcher = VERSION_TAG.matcher(ifMatch.trim());
+    if (!matcher.matches()) {
+      throw new PreconditionFailedException(
+          "El encabezado If-Match no corresponde a una versión del recurso: " + ifMatch);
+    }
+    return Long.valueOf(matcher.group(1));
+  }
+}
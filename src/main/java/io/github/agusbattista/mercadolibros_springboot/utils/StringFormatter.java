@@ -2,6 +2,7 @@ package io.github.agusbattista.mercadolibros_springboot.utils;
 
 import java.text.Normalizer;
 import java.util.Arrays;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 public class StringFormatter {
@@ -24,4 +25,17 @@ public class StringFormatter {
     String snakeCase = withoutAccents.replaceAll("[^A-Z0-9]+", "_");
     return snakeCase.replaceAll("(^_+)|(_+$)", "");
   }
+
+  /*
+   * Forma normalizada para búsquedas: minúsculas, sin acentos (mismo plegado NFD que
+   * generateCode) y con cualquier separador reducido a un único espacio.
+   * Ejemplo: "  Canción de Hielo & Fuego " se convierte en "cancion de hielo fuego".
+   */
+  public static String normalize(String text) {
+    if (text == null || text.isBlank()) return "";
+    String lowercaseAndTrimmed = text.trim().toLowerCase(Locale.ROOT);
+    String normalized = Normalizer.normalize(lowercaseAndTrimmed, Normalizer.Form.NFD);
+    String withoutAccents = normalized.replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+    return withoutAccents.replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+  }
 }
@@ -0,0 +1,50 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+  @Test
+  void mightContain_ShouldNeverReturnFalseForInsertedValues() {
+    BloomFilter filter = BloomFilter.create(10_000, 0.01);
+    IntStream.range(0, 10_000).forEach(i -> filter.put("isbn:978" + i));
+
+    assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("isbn:978" + i));
+  }
+
+  @Test
+  void mightContain_ShouldKeepFalsePositivesNearTheConfiguredRate() {
+    BloomFilter filter = BloomFilter.create(10_000, 0.01);
+    IntStream.range(0, 10_000).forEach(i -> filter.put("isbn:978" + i));
+
+    long falsePositives =
+        IntStream.range(0, 10_000).filter(i -> filter.mightContain("isbn:979" + i)).count();
+
+    assertThat(falsePositives).isLessThan(300);
+  }
+
+  @Test
+  void falsePositiveRate_ShouldReachTheConfiguredRateAtCapacityAndGrowPastIt() {
+    BloomFilter filter = BloomFilter.create(10_000, 0.01);
+    IntStream.range(0, 10_000).forEach(i -> filter.put("isbn:978" + i));
+
+    assertThat(filter.falsePositiveRate()).isBetween(0.005, 0.02);
+    assertThat(filter.isSaturated()).isFalse();
+
+    IntStream.range(10_000, 20_000).forEach(i -> filter.put("isbn:978" + i));
+
+    assertThat(filter.falsePositiveRate()).isGreaterThan(0.1);
+    assertThat(filter.isSaturated()).isTrue();
+  }
+
+  @Test
+  void isSaturated_ShouldNotCountRepeatedValues() {
+    BloomFilter filter = BloomFilter.create(10, 0.01);
+    IntStream.range(0, 100).forEach(i -> filter.put("isbn:9780000000000"));
+
+    assertThat(filter.isSaturated()).isFalse();
+  }
+}
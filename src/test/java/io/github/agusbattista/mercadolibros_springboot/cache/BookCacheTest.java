@@ -0,0 +1,237 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.mapper.BookMapper;
+import io.github.agusbattista.mercadolibros_springboot.mapper.BookMapperImpl;
+import io.github.agusbattista.mercadolibros_springboot.mapper.GenreMapperImpl;
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookCacheTest {
+
+  @Mock private BookRepository bookRepository;
+
+  private final BookMapper bookMapper = new BookMapperImpl(new GenreMapperImpl());
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private BookCache bookCache;
+
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    bookCache = new BookCache(bookRepository, bookMapper, meterRegistry, 2, Duration.ofMinutes(10));
+
+    Genre genre = new Genre();
+    genre.setId(1L);
+    genre.setName("Fantasía");
+    genre.setCode("FANTASIA");
+
+    book = new Book();
+    book.setId(1L);
+    book.setUuid(UUID.randomUUID());
+    book.setIsbn("9788401352836");
+    book.setTitle("El nombre del viento");
+    book.setAuthors("Patrick Rothfuss");
+    book.setPrice(new BigDecimal("18.00"));
+    book.setDescription("La historia de Kvothe.");
+    book.setPublisher("Plaza & Janés");
+    book.setGenre(genre);
+    book.setImageUrl("");
+  }
+
+  @Test
+  void findByUuid_ShouldQueryDatabaseOnlyOnFirstLookup() {
+    when(bookRepository.findByUuid(book.getUuid())).thenReturn(Optional.of(book));
+
+    bookCache.findByUuid(book.getUuid());
+    Optional<BookResponseDTO> result = bookCache.findByUuid(book.getUuid());
+
+    assertThat(result).isPresent();
+    assertThat(result.get().isbn()).isEqualTo(book.getIsbn());
+    verify(bookRepository).findByUuid(book.getUuid());
+  }
+
+  @Test
+  void findByIsbn_WhenBookWasFoundByUuid_ShouldNotQueryDatabase() {
+    when(bookRepository.findByUuid(book.getUuid())).thenReturn(Optional.of(book));
+    bookCache.findByUuid(book.getUuid());
+
+    Optional<BookResponseDTO> result = bookCache.findByIsbn(book.getIsbn());
+
+    assertThat(result).isPresent();
+    assertThat(result.get().uuid()).isEqualTo(book.getUuid());
+    verify(bookRepository, never()).findByIsbn(book.getIsbn());
+  }
+
+  @Test
+  void findByIsbn_WhenSameIsbnIsRequestedConcurrently_ShouldQueryDatabaseOnce() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(bookRepository.findByIsbn(book.getIsbn()))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return Optional.of(book);
+            });
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Optional<BookResponseDTO>>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(executor.submit(() -> bookCache.findByIsbn(book.getIsbn())));
+      }
+      assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+      // Se da tiempo a que el resto de las peticiones lleguen y esperen a la primera
+      Thread.sleep(200);
+      release.countDown();
+
+      for (Future<Optional<BookResponseDTO>> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).isPresent();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    verify(bookRepository).findByIsbn(book.getIsbn());
+  }
+
+  @Test
+  void findByIsbn_WhenBookDoesNotExist_ShouldNotCacheTheMiss() {
+    when(bookRepository.findByIsbn("0000000000000")).thenReturn(Optional.empty());
+
+    assertThat(bookCache.findByIsbn("0000000000000")).isEmpty();
+    assertThat(bookCache.findByIsbn("0000000000000")).isEmpty();
+
+    verify(bookRepository, times(2)).findByIsbn("0000000000000");
+  }
+
+  @Test
+  void findByIsbn_WhenBookChangesWhileLoading_ShouldNotKeepWhatWasLoaded() {
+    BookResponseDTO updated = bookMapper.toResponse(book);
+    // La modificación se confirma después de la consulta y antes de que se guarde el resultado
+    when(bookRepository.findByIsbn(book.getIsbn()))
+        .thenAnswer(
+            invocation -> {
+              bookCache.onBookChanged(
+                  new BookChangedEvent(ChangeType.UPDATED, book.getId(), updated));
+              return Optional.of(book);
+            })
+        .thenReturn(Optional.of(book));
+
+    bookCache.findByIsbn(book.getIsbn());
+    bookCache.findByIsbn(book.getIsbn());
+
+    verify(bookRepository, times(2)).findByIsbn(book.getIsbn());
+  }
+
+  @Test
+  void findByUuid_WhenGenreChangesWhileLoading_ShouldNotKeepWhatWasLoaded() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      when(bookRepository.findByUuid(book.getUuid()))
+          .thenAnswer(
+              invocation -> {
+                executor
+                    .submit(
+                        () ->
+                            bookCache.onGenreChanged(new GenreChangedEvent(ChangeType.UPDATED, 1L)))
+                    .get(5, TimeUnit.SECONDS);
+                return Optional.of(book);
+              })
+          .thenReturn(Optional.of(book));
+
+      bookCache.findByUuid(book.getUuid());
+      bookCache.findByUuid(book.getUuid());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    verify(bookRepository, times(2)).findByUuid(book.getUuid());
+  }
+
+  @Test
+  void onBookChanged_WhenIsbnWasUpdated_ShouldForgetOldAndNewKeys() {
+    String oldIsbn = book.getIsbn();
+    when(bookRepository.findByIsbn(oldIsbn)).thenReturn(Optional.of(book));
+    bookCache.findByIsbn(oldIsbn);
+    book.setIsbn("9788401337208");
+    when(bookRepository.findByUuid(book.getUuid())).thenReturn(Optional.of(book));
+    when(bookRepository.findByIsbn(oldIsbn)).thenReturn(Optional.empty());
+
+    bookCache.onBookChanged(
+        new BookChangedEvent(ChangeType.UPDATED, book.getId(), bookMapper.toResponse(book)));
+
+    assertThat(bookCache.findByIsbn(oldIsbn)).isEmpty();
+    assertThat(bookCache.findByUuid(book.getUuid()))
+        .hasValueSatisfying(found -> assertThat(found.isbn()).isEqualTo("9788401337208"));
+  }
+
+  @Test
+  void onBookChanged_WhenBookWasDeleted_ShouldStopServingIt() {
+    when(bookRepository.findByUuid(book.getUuid())).thenReturn(Optional.of(book));
+    bookCache.findByUuid(book.getUuid());
+    when(bookRepository.findByUuid(book.getUuid())).thenReturn(Optional.empty());
+
+    bookCache.onBookChanged(
+        new BookChangedEvent(ChangeType.DELETED, book.getId(), bookMapper.toResponse(book)));
+
+    assertThat(bookCache.findByUuid(book.getUuid())).isEmpty();
+  }
+
+  @Test
+  void findByUuid_WhenMaximumSizeIsExceeded_ShouldEvictAndPublishMetrics() {
+    for (int i = 0; i < 5; i++) {
+      UUID uuid = UUID.randomUUID();
+      Book other = new Book();
+      other.setUuid(uuid);
+      other.setIsbn("978000000000" + i);
+      other.setGenre(book.getGenre());
+      when(bookRepository.findByUuid(uuid)).thenReturn(Optional.of(other));
+      bookCache.findByUuid(uuid);
+    }
+    bookCache.cleanUp();
+
+    assertThat(
+            meterRegistry
+                .get("cache.evictions")
+                .tags("cache", "books.byUuid")
+                .functionCounter()
+                .count())
+        .isEqualTo(3);
+    assertThat(
+            meterRegistry
+                .get("cache.gets")
+                .tags("cache", "books.byUuid", "result", "miss")
+                .functionCounter()
+                .count())
+        .isEqualTo(5);
+  }
+}
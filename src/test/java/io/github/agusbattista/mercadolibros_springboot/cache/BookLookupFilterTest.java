@@ -0,0 +1,159 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookKeys;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class BookLookupFilterTest {
+
+  private static final UUID EXISTING_UUID = UUID.randomUUID();
+  private static final String EXISTING_ISBN = "9788401352836";
+
+  @Mock private BookRepository bookRepository;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private BookLookupFilter bookLookupFilter;
+
+  @BeforeEach
+  void setUp() {
+    bookLookupFilter = new BookLookupFilter(bookRepository, meterRegistry);
+  }
+
+  @Test
+  void mightContain_WhenFilterIsNotBuilt_ShouldAssumeEverythingMayExist() {
+    assertThat(bookLookupFilter.mightContainUuid(UUID.randomUUID())).isTrue();
+    assertThat(bookLookupFilter.mightContainIsbn("0000000000000")).isTrue();
+  }
+
+  @Test
+  void rebuild_ShouldRuleOutOnlyUnknownUuidsAndIsbns() {
+    this.rebuildWithExistingBook();
+
+    assertThat(bookLookupFilter.mightContainUuid(EXISTING_UUID)).isTrue();
+    assertThat(bookLookupFilter.mightContainIsbn(EXISTING_ISBN)).isTrue();
+    assertThat(bookLookupFilter.mightContainUuid(UUID.randomUUID())).isFalse();
+    assertThat(bookLookupFilter.mightContainIsbn("0000000000000")).isFalse();
+  }
+
+  @Test
+  void onBookChanged_ShouldAddCreatedAndRestoredBooks() {
+    this.rebuildWithExistingBook();
+    BookResponseDTO created = this.response(UUID.randomUUID(), "9780201485677");
+
+    bookLookupFilter.onBookChanged(new BookChangedEvent(ChangeType.CREATED, 2L, created));
+
+    assertThat(bookLookupFilter.mightContainUuid(created.uuid())).isTrue();
+    assertThat(bookLookupFilter.mightContainIsbn(created.isbn())).isTrue();
+  }
+
+  @Test
+  void onBookChanged_WhenFilterIsNotBuiltYet_ShouldKeepChangesForTheNextBuild() {
+    BookResponseDTO created = this.response(UUID.randomUUID(), "9780201485677");
+
+    bookLookupFilter.onBookChanged(new BookChangedEvent(ChangeType.CREATED, 2L, created));
+    this.rebuildWithExistingBook();
+
+    assertThat(bookLookupFilter.mightContainIsbn(created.isbn())).isTrue();
+  }
+
+  @Test
+  void rebuild_WhenTransactionIsStillOpen_ShouldKeepItsBooksInTheNewFilter() {
+    this.rebuildWithExistingBook();
+    BookResponseDTO created = this.response(UUID.randomUUID(), "9780201485677");
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      bookLookupFilter.onBookChanged(new BookChangedEvent(ChangeType.CREATED, 2L, created));
+      bookLookupFilter.rebuild();
+
+      assertThat(bookLookupFilter.mightContainIsbn(created.isbn())).isTrue();
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    bookLookupFilter.rebuild();
+
+    assertThat(bookLookupFilter.mightContainIsbn(created.isbn())).isFalse();
+  }
+
+  @Test
+  void onBookChanged_WhenFilterExceedsItsCapacity_ShouldRebuildIt() {
+    this.rebuildWithExistingBook();
+    when(bookRepository.count()).thenReturn(6_001L);
+
+    for (int i = 0; i < 6_000; i++) {
+      bookLookupFilter.onBookChanged(
+          new BookChangedEvent(
+              ChangeType.CREATED, 2L, this.response(UUID.randomUUID(), "978" + i)));
+    }
+
+    verify(bookRepository, timeout(5_000).times(2)).count();
+  }
+
+  @Test
+  void falsePositiveRate_ShouldBePublishedAsGauge() {
+    Gauge gauge = meterRegistry.get("books.lookup.filter.false.positive.rate").gauge();
+
+    assertThat(gauge.value()).isEqualTo(1.0);
+
+    this.rebuildWithExistingBook();
+
+    assertThat(gauge.value()).isLessThan(0.01);
+  }
+
+  private void rebuildWithExistingBook() {
+    when(bookRepository.count()).thenReturn(1L);
+    when(bookRepository.findKeysAfter(eq(0L), any(Pageable.class)))
+        .thenReturn(List.of(new Keys(1L, EXISTING_UUID, EXISTING_ISBN)));
+    bookLookupFilter.rebuild();
+  }
+
+  private BookResponseDTO response(UUID uuid, String isbn) {
+    return new BookResponseDTO(
+        uuid, isbn, "Refactoring", "Martin Fowler", BigDecimal.TEN, "", "", null, "", 0L);
+  }
+
+  private record Keys(Long id, UUID uuid, String isbn) implements BookKeys {
+
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    @Override
+    public UUID getUuid() {
+      return uuid;
+    }
+
+    @Override
+    public String getIsbn() {
+      return isbn;
+    }
+  }
+}
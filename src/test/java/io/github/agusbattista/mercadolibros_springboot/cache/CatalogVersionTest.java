@@ -0,0 +1,107 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.search.BookSearchIndex;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Sin la transacción de cada test: los listeners se ejecutan recién al confirmar
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CatalogVersion.class, BookSearchIndex.class})
+class CatalogVersionTest {
+
+  @Autowired private CatalogVersion catalogVersion;
+  @Autowired private ApplicationEventPublisher eventPublisher;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @MockitoSpyBean private BookSearchIndex bookSearchIndex;
+
+  private TransactionTemplate transactionTemplate;
+
+  // Versión vigente cuando el índice aplica cada cambio
+  private final List<String> versionsSeenByIndex = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    doAnswer(
+            invocation -> {
+              versionsSeenByIndex.add(catalogVersion.current());
+              return invocation.callRealMethod();
+            })
+        .when(bookSearchIndex)
+        .onBookChanged(any());
+    doAnswer(
+            invocation -> {
+              versionsSeenByIndex.add(catalogVersion.current());
+              return invocation.callRealMethod();
+            })
+        .when(bookSearchIndex)
+        .onGenreChanged(any());
+  }
+
+  @Test
+  void current_WhenChangeIsCommitted_ShouldChangeAfterSearchIndexIsUpdated() {
+    String before = catalogVersion.current();
+
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          eventPublisher.publishEvent(
+              new BookChangedEvent(ChangeType.CREATED, 1L, this.response()));
+          eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.CREATED, 1L));
+        });
+
+    assertThat(versionsSeenByIndex).containsExactly(before, before);
+    assertThat(catalogVersion.current()).isNotEqualTo(before);
+  }
+
+  @Test
+  void current_WhenTransactionIsRolledBack_ShouldNotChange() {
+    String before = catalogVersion.current();
+
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          eventPublisher.publishEvent(
+              new BookChangedEvent(ChangeType.CREATED, 1L, this.response()));
+          status.setRollbackOnly();
+        });
+
+    assertThat(versionsSeenByIndex).isEmpty();
+    assertThat(catalogVersion.current()).isEqualTo(before);
+  }
+
+  private BookResponseDTO response() {
+    return new BookResponseDTO(
+        UUID.randomUUID(),
+        "9788401352836",
+        "El nombre del viento",
+        "Patrick Rothfuss",
+        BigDecimal.TEN,
+        "",
+        "Plaza & Janés",
+        new GenreResponseDTO(1L, "FANTASIA", "Fantasía", 0L),
+        "",
+        0L);
+  }
+}
@@ -0,0 +1,153 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.mapper.GenreMapperImpl;
+import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import io.github.agusbattista.mercadolibros_springboot.repository.GenreRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class GenreCacheTest {
+
+  @Mock private GenreRepository genreRepository;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private GenreCache genreCache;
+
+  private Genre genre;
+
+  @BeforeEach
+  void setUp() {
+    genreCache = new GenreCache(genreRepository, new GenreMapperImpl(), meterRegistry);
+
+    genre = new Genre();
+    genre.setId(1L);
+    genre.setName("Fantasía");
+    genre.setCode("FANTASIA");
+    genre.setVersion(0L);
+  }
+
+  @Test
+  void findById_ShouldQueryDatabaseOnlyOnFirstLookup() {
+    when(genreRepository.findById(1L)).thenReturn(Optional.of(genre));
+
+    genreCache.findById(1L);
+    Optional<GenreResponseDTO> result = genreCache.findById(1L);
+
+    assertThat(result).contains(new GenreResponseDTO(1L, "FANTASIA", "Fantasía", 0L));
+    verify(genreRepository).findById(1L);
+  }
+
+  @Test
+  void findByCode_WhenGenreDoesNotExist_ShouldNotCacheTheMiss() {
+    when(genreRepository.findByCode("TERROR")).thenReturn(Optional.empty());
+
+    assertThat(genreCache.findByCode("TERROR")).isEmpty();
+    assertThat(genreCache.findByCode("TERROR")).isEmpty();
+
+    verify(genreRepository, times(2)).findByCode("TERROR");
+  }
+
+  @Test
+  void findAllById_ShouldLoadOnlyMissingGenresInOneQuery() {
+    when(genreRepository.findById(1L)).thenReturn(Optional.of(genre));
+    when(genreRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of());
+    genreCache.findById(1L);
+
+    Map<Long, GenreResponseDTO> result = genreCache.findAllById(List.of(1L, 2L, 3L));
+
+    assertThat(result).containsOnlyKeys(1L);
+    verify(genreRepository).findAllById(Set.of(2L, 3L));
+  }
+
+  @Test
+  void invalidateAll_ShouldReloadGenresOnNextLookup() {
+    when(genreRepository.findByCode("FANTASIA")).thenReturn(Optional.of(genre));
+    genreCache.findByCode("FANTASIA");
+
+    genreCache.invalidateAll();
+    genreCache.findByCode("FANTASIA");
+
+    verify(genreRepository, times(2)).findByCode("FANTASIA");
+  }
+
+  @Test
+  void findById_WhenInvalidatedWhileLoading_ShouldNotKeepWhatWasLoaded() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // El cambio se confirma después de la consulta y antes de que se guarde el resultado
+      when(genreRepository.findById(1L))
+          .thenAnswer(
+              invocation -> {
+                executor.submit(genreCache::invalidateAll).get(5, TimeUnit.SECONDS);
+                return Optional.of(genre);
+              })
+          .thenReturn(Optional.of(genre));
+
+      genreCache.findById(1L);
+      genreCache.findById(1L);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    verify(genreRepository, times(2)).findById(1L);
+  }
+
+  @Test
+  void findAllById_WhenInvalidatedWhileLoading_ShouldNotKeepWhatWasLoaded() {
+    when(genreRepository.findAllById(Set.of(1L)))
+        .thenAnswer(
+            invocation -> {
+              genreCache.invalidateAll();
+              return List.of(genre);
+            })
+        .thenReturn(List.of(genre));
+
+    assertThat(genreCache.findAllById(List.of(1L))).containsOnlyKeys(1L);
+    assertThat(genreCache.findAllById(List.of(1L))).containsOnlyKeys(1L);
+
+    verify(genreRepository, times(2)).findAllById(Set.of(1L));
+  }
+
+  @Test
+  void findById_ShouldPublishHitAndMissMetrics() {
+    when(genreRepository.findById(1L)).thenReturn(Optional.of(genre));
+
+    genreCache.findById(1L);
+    genreCache.findById(1L);
+    genreCache.findById(1L);
+
+    assertThat(
+            meterRegistry
+                .get("cache.gets")
+                .tags("cache", "genres.byId", "result", "hit")
+                .functionCounter()
+                .count())
+        .isEqualTo(2);
+    assertThat(
+            meterRegistry
+                .get("cache.gets")
+                .tags("cache", "genres.byId", "result", "miss")
+                .functionCounter()
+                .count())
+        .isEqualTo(1);
+  }
+}
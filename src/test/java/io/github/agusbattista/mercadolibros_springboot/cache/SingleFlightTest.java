@@ -0,0 +1,111 @@
+package io.github.agusbattista.mercadolibros_springboot.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private static final int CALLERS = 8;
+
+  private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+  private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void load_WhenCalledConcurrentlyWithSameKey_ShouldRunLoaderOnce() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    List<Future<String>> results =
+        this.loadConcurrently(
+            () -> {
+              loads.incrementAndGet();
+              this.await(release);
+              return "valor";
+            });
+
+    this.waitUntilAllCallersJoined();
+    release.countDown();
+
+    for (Future<String> result : results) {
+      assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("valor");
+    }
+    assertThat(loads).hasValue(1);
+    assertThat(singleFlight.inFlightCount()).isZero();
+  }
+
+  @Test
+  void load_WhenLoaderFails_ShouldPropagateSameExceptionToEveryCaller() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    IllegalStateException failure = new IllegalStateException("Base de datos no disponible");
+    List<Future<String>> results =
+        this.loadConcurrently(
+            () -> {
+              this.await(release);
+              throw failure;
+            });
+
+    this.waitUntilAllCallersJoined();
+    release.countDown();
+
+    for (Future<String> result : results) {
+      assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCause(failure);
+    }
+    assertThat(singleFlight.inFlightCount()).isZero();
+  }
+
+  @Test
+  void load_WhenPreviousLoadFinished_ShouldLoadAgain() {
+    AtomicInteger loads = new AtomicInteger();
+
+    singleFlight.load("clave", () -> "v" + loads.incrementAndGet());
+    String second = singleFlight.load("clave", () -> "v" + loads.incrementAndGet());
+
+    assertThat(second).isEqualTo("v2");
+  }
+
+  @Test
+  void load_WithDifferentKeys_ShouldNotShareLoads() {
+    assertThat(singleFlight.load("a", () -> "A")).isEqualTo("A");
+    assertThat(singleFlight.load("b", () -> "B")).isEqualTo("B");
+  }
+
+  private List<Future<String>> loadConcurrently(Supplier<String> loader) {
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      results.add(executor.submit(() -> singleFlight.load("clave", loader)));
+    }
+    return results;
+  }
+
+  // El primero queda bloqueado en la carga; se da tiempo a que el resto llegue y espere
+  private void waitUntilAllCallersJoined() throws InterruptedException {
+    while (singleFlight.inFlightCount() == 0) {
+      Thread.sleep(5);
+    }
+    Thread.sleep(100);
+  }
+
+  private void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+class BookIdGeneratorAlignmentTest {
+
+  @Autowired private TestEntityManager entityManager;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private BookIdGeneratorAlignment alignment;
+
+  @BeforeEach
+  void setUp() {
+    alignment = new BookIdGeneratorAlignment(jdbcTemplate);
+  }
+
+  @Test
+  void afterPropertiesSet_WhenRowsWereCreatedWithIdentity_ShouldMoveGeneratorPastThem() {
+    Book book = this.persistBook(this.persistGenre(), "9780132350884");
+    // Simula un libro creado con IDENTITY, con un ID mayor a los reservados por el generador
+    jdbcTemplate.update("UPDATE books SET id = 5000 WHERE id = ?", book.getId());
+
+    alignment.afterPropertiesSet();
+
+    assertThat(this.nextVal()).isEqualTo(5000L + Book.ID_ALLOCATION_SIZE);
+  }
+
+  @Test
+  void afterPropertiesSet_WhenGeneratorIsAhead_ShouldNotChangeIt() {
+    Book book = this.persistBook(this.persistGenre(), "9780132350884");
+    long before = this.nextVal();
+
+    alignment.afterPropertiesSet();
+
+    assertThat(before).isGreaterThanOrEqualTo(book.getId());
+    assertThat(this.nextVal()).isEqualTo(before);
+  }
+
+  /*
+   * Con un contexto nuevo, el generador todavía no reservó ningún bloque: el primer libro creado
+   * luego de adelantarlo toma su ID de id_generators. Sin transacción del test, porque Hibernate
+   * lee id_generators en una transacción aparte.
+   */
+  @Test
+  @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void afterPropertiesSet_WhenUpgradedFromIdentity_ShouldGiveNewBooksUnusedIds() {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    try {
+      Genre genre = transaction.execute(status -> this.persistGenre());
+      this.insertIdentityBook(120, genre.getId());
+
+      alignment.afterPropertiesSet();
+      Book created = transaction.execute(status -> this.persistBook(genre, "9788445073728"));
+
+      assertThat(created.getId()).isGreaterThan(120L);
+    } finally {
+      jdbcTemplate.update("DELETE FROM books");
+      jdbcTemplate.update("DELETE FROM genres");
+    }
+  }
+
+  private Genre persistGenre() {
+    Genre genre = new Genre();
+    genre.setName("Tecnología");
+    genre.setCode("TECNOLOGIA");
+    return entityManager.persist(genre);
+  }
+
+  private Book persistBook(Genre genre, String isbn) {
+    Book book = new Book();
+    book.setIsbn(isbn);
+    book.setTitle("Código Limpio");
+    book.setAuthors("Robert C. Martin");
+    book.setPrice(new BigDecimal("45.00"));
+    book.setDescription("Manual de estilo para el desarrollo ágil de software.");
+    book.setPublisher("Anaya Multimedia");
+    book.setGenre(genre);
+    book.setImageUrl("https://example.com/codigo-limpio.jpg");
+    return entityManager.persistFlushFind(book);
+  }
+
+  // Como las filas creadas con IDENTITY: el ID lo asignó la base de datos, no el generador
+  private void insertIdentityBook(long id, Long genreId) {
+    jdbcTemplate.update(
+        "INSERT INTO books (id, uuid_bin, isbn, deleted, version, title, authors, price,"
+            + " description, publisher, genre_id, image_url)"
+            + " VALUES (?, ?, '9780132350884', false, 0, 'Código Limpio', 'Robert C. Martin',"
+            + " 45.00, 'Manual de estilo.', 'Anaya Multimedia', ?, 'https://example.com/a.jpg')",
+        id,
+        UuidBinaryBackfill.toBytes(UUID.randomUUID()),
+        genreId);
+  }
+
+  private long nextVal() {
+    return jdbcTemplate.queryForObject(
+        "SELECT next_val FROM id_generators WHERE entity = 'books'", Long.class);
+  }
+}
@@ -0,0 +1,48 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.BookImportSummaryDTO;
+import io.github.agusbattista.mercadolibros_springboot.service.BookFileFormat;
+import io.github.agusbattista.mercadolibros_springboot.service.BookImportService;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportRunnerTest {
+
+  @Mock private BookImportService bookImportService;
+  @TempDir private Path tempDir;
+
+  @Test
+  void run_WhenFileIsCsv_ShouldImportAsCsv() throws Exception {
+    Path file = Files.writeString(tempDir.resolve("catalogo.csv"), "isbn,title\n");
+    when(bookImportService.importBooks(any(InputStream.class), eq(BookFileFormat.CSV)))
+        .thenReturn(new BookImportSummaryDTO(0, 0, 0, 0, List.of(), false));
+
+    new BookImportRunner(bookImportService, file).run();
+
+    verify(bookImportService).importBooks(any(InputStream.class), eq(BookFileFormat.CSV));
+  }
+
+  @Test
+  void run_WhenExtensionIsUnknown_ShouldNotImport() throws Exception {
+    Path file = Files.writeString(tempDir.resolve("catalogo.xml"), "<books/>");
+    BookImportRunner runner = new BookImportRunner(bookImportService, file);
+
+    assertThatThrownBy(runner::run).isInstanceOf(IllegalArgumentException.class);
+    verifyNoInteractions(bookImportService);
+  }
+}
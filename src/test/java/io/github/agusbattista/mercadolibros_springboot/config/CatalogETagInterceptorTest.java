@@ -0,0 +1,65 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class CatalogETagInterceptorTest {
+
+  // Hace de última secuencia de cambios de la réplica
+  private final AtomicLong replicaSequence = new AtomicLong(7);
+
+  private final CatalogETagInterceptor interceptor =
+      new CatalogETagInterceptor(() -> "abc-0-" + replicaSequence.get());
+
+  private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+  @Test
+  void preHandle_WhenVersionChanged_ShouldTagResponseWithoutRequiringPrimary() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc-0-6\"");
+
+    boolean proceed = interceptor.preHandle(request, response, null);
+
+    assertThat(proceed).isTrue();
+    assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc-0-7\"");
+    assertThat(ReadReplicaRouting.isPrimaryRequired()).isFalse();
+  }
+
+  @Test
+  void preHandle_WhenVersionDidNotChange_ShouldAnswerNotModified() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/search");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc-0-7\"");
+
+    boolean proceed = interceptor.preHandle(request, response, null);
+
+    assertThat(proceed).isFalse();
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+  }
+
+  @Test
+  void preHandle_WhenReplicaReceivesChange_ShouldChangeETag() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/genres");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc-0-7\"");
+    replicaSequence.incrementAndGet();
+
+    boolean proceed = interceptor.preHandle(request, response, null);
+
+    assertThat(proceed).isTrue();
+    assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc-0-8\"");
+  }
+
+  @Test
+  void preHandle_WhenNotGet_ShouldNotTagResponse() {
+    boolean proceed =
+        interceptor.preHandle(new MockHttpServletRequest("POST", "/api/books"), response, null);
+
+    assertThat(proceed).isTrue();
+    assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+  }
+}
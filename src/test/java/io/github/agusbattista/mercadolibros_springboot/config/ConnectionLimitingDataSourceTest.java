@@ -0,0 +1,126 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+  @Mock private DataSource target;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private ConnectionLimitingDataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    dataSource =
+        new ConnectionLimitingDataSource(
+            target, "dataSource", 2, Duration.ofMillis(200), meterRegistry);
+  }
+
+  @Test
+  void getConnection_ShouldTakePermitUntilConnectionIsClosed() throws SQLException {
+    Connection connection = mock(Connection.class);
+    when(target.getConnection()).thenReturn(connection);
+
+    Connection limited = dataSource.getConnection();
+    assertThat(dataSource.availablePermits()).isEqualTo(1);
+
+    limited.close();
+    limited.close();
+
+    assertThat(dataSource.availablePermits()).isEqualTo(2);
+    verify(connection, times(2)).close();
+    assertThat(meterRegistry.timer("db.connections.queue", "pool", "dataSource").count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.timer("db.connections.execution", "pool", "dataSource").count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void getConnection_WhenAllPermitsAreTaken_ShouldWaitForAClose() throws Exception {
+    when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    Connection first = dataSource.getConnection();
+    dataSource.getConnection();
+
+    CompletableFuture<Connection> third =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return dataSource.getConnection();
+              } catch (SQLException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    Thread.sleep(50);
+    assertThat(third).isNotDone();
+
+    first.close();
+
+    assertThat(third.get(1, TimeUnit.SECONDS)).isNotNull();
+  }
+
+  @Test
+  void getConnection_WhenNoPermitIsReleasedInTime_ShouldThrowTransientException()
+      throws SQLException {
+    when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    dataSource.getConnection();
+    dataSource.getConnection();
+
+    assertThatThrownBy(() -> dataSource.getConnection())
+        .isInstanceOf(SQLTransientConnectionException.class);
+    assertThat(dataSource.availablePermits()).isZero();
+  }
+
+  @Test
+  void getConnection_WhenTargetFails_ShouldReleasePermit() throws SQLException {
+    when(target.getConnection()).thenThrow(new SQLException("Base de datos no disponible"));
+
+    assertThatThrownBy(() -> dataSource.getConnection()).isInstanceOf(SQLException.class);
+
+    assertThat(dataSource.availablePermits()).isEqualTo(2);
+  }
+
+  @Test
+  void connectionLimiter_ShouldWrapHikariWithAsManyPermitsAsPoolConnections() {
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("meterRegistry", meterRegistry);
+    BeanPostProcessor limiter =
+        VirtualThreadConfig.connectionLimiter(
+            new MockEnvironment(), beanFactory.getBeanProvider(MeterRegistry.class));
+    try (HikariDataSource hikari = new HikariDataSource()) {
+      hikari.setMaximumPoolSize(7);
+
+      Object wrapped = limiter.postProcessAfterInitialization(hikari, "dataSource");
+
+      assertThat(wrapped).isInstanceOf(ConnectionLimitingDataSource.class);
+      assertThat(((ConnectionLimitingDataSource) wrapped).availablePermits()).isEqualTo(7);
+      assertThat(((ConnectionLimitingDataSource) wrapped).getTargetDataSource()).isSameAs(hikari);
+    }
+    assertThat(limiter.postProcessAfterInitialization("otro bean", "other")).isEqualTo("otro bean");
+  }
+}
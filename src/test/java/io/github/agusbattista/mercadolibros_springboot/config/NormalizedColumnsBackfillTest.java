@@ -0,0 +1,79 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import java.math.BigDecimal;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@DataJpaTest
+class NormalizedColumnsBackfillTest {
+
+  @Autowired private TestEntityManager entityManager;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private NormalizedColumnsBackfill backfill;
+
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    backfill = new NormalizedColumnsBackfill(jdbcTemplate);
+
+    Genre genre = new Genre();
+    genre.setName("Tecnología");
+    genre.setCode("TECNOLOGIA");
+    entityManager.persist(genre);
+
+    book = new Book();
+    book.setIsbn("9780132350884");
+    book.setTitle("Código Limpio");
+    book.setAuthors("Robert C. Martin");
+    book.setPrice(new BigDecimal("45.00"));
+    book.setDescription("Manual de estilo para el desarrollo ágil de software.");
+    book.setPublisher("Anaya Multimedia");
+    book.setGenre(genre);
+    book.setImageUrl("https://example.com/codigo-limpio.jpg");
+    entityManager.persistAndFlush(book);
+  }
+
+  @Test
+  void run_WhenRowsWereSavedBeforeTheColumnsExisted_ShouldFillThem() {
+    jdbcTemplate.update(
+        "UPDATE books SET normalized_title = NULL, normalized_authors = NULL,"
+            + " normalized_publisher = NULL, deleted = true WHERE id = ?",
+        book.getId());
+
+    backfill.run();
+
+    Map<String, Object> row =
+        jdbcTemplate.queryForMap(
+            "SELECT normalized_title, normalized_authors, normalized_publisher FROM books"
+                + " WHERE id = ?",
+            book.getId());
+    assertThat(row)
+        .containsEntry("NORMALIZED_TITLE", "codigo limpio")
+        .containsEntry("NORMALIZED_AUTHORS", "robert c martin")
+        .containsEntry("NORMALIZED_PUBLISHER", "anaya multimedia");
+  }
+
+  @Test
+  void run_WhenColumnsAreAlreadyFilled_ShouldNotChangeAnything() {
+    jdbcTemplate.update(
+        "UPDATE books SET normalized_title = 'sin tocar' WHERE id = ?", book.getId());
+
+    backfill.run();
+
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT normalized_title FROM books WHERE id = ?", String.class, book.getId()))
+        .isEqualTo("sin tocar");
+  }
+}
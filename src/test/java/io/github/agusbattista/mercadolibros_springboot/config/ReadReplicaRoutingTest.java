@@ -0,0 +1,140 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import io.github.agusbattista.mercadolibros_springboot.repository.GenreRepository;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/*
+ * Dos bases H2 en memoria hacen de primario y de réplica. La réplica tiene el mismo esquema pero
+ * no recibe las escrituras, como una réplica atrasada: contar los géneros muestra en cuál de las
+ * dos se ejecutó cada consulta.
+ */
+@DataJpaTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "app.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL
+    })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReadReplicaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaRoutingTest {
+
+  static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+  private static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+
+  @Autowired private GenreRepository genreRepository;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private ReadYourWritesInterceptor readYourWritesInterceptor;
+
+  private TransactionTemplate writeTransaction;
+  private TransactionTemplate readOnlyTransaction;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    writeTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+    copySchemaToReplica();
+    writeTransaction.executeWithoutResult(status -> genreRepository.save(newGenre()));
+  }
+
+  // Los géneros se eliminan con baja lógica: se borran las filas directamente
+  @AfterEach
+  void tearDown() throws SQLException {
+    ReadReplicaRouting.clear();
+    try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+        Statement statement = primary.createStatement()) {
+      statement.execute("DELETE FROM genres");
+    }
+  }
+
+  @Test
+  void readOnlyTransaction_ShouldRunOnReplica() {
+    assertThat(this.countInReadOnlyTransaction()).isZero();
+  }
+
+  @Test
+  void readWriteTransaction_ShouldRunOnPrimary() {
+    assertThat(this.countInWriteTransaction()).isEqualTo(1);
+  }
+
+  @Test
+  void callOnPrimary_ShouldRunReadOnlyTransactionOnPrimary() {
+    long count = ReadReplicaRouting.callOnPrimary(this::countInReadOnlyTransaction);
+
+    assertThat(count).isEqualTo(1);
+    assertThat(this.countInReadOnlyTransaction()).isZero();
+  }
+
+  @Test
+  void readOnlyTransaction_AfterClientWrite_ShouldRunOnPrimaryUntilRequestCompletes() {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/genres");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    readYourWritesInterceptor.preHandle(request, response, null);
+    long duringRequest = this.countInReadOnlyTransaction();
+    readYourWritesInterceptor.afterCompletion(request, response, null, null);
+
+    assertThat(duringRequest).isEqualTo(1);
+    assertThat(this.countInReadOnlyTransaction()).isZero();
+  }
+
+  private long countInReadOnlyTransaction() {
+    return readOnlyTransaction.execute(status -> genreRepository.count());
+  }
+
+  private long countInWriteTransaction() {
+    return writeTransaction.execute(status -> genreRepository.count());
+  }
+
+  // El esquema lo crea Hibernate en el primario; la réplica recibe sólo las tablas, sin filas
+  private static void copySchemaToReplica() throws SQLException {
+    List<String> statements = new ArrayList<>();
+    try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+        Statement statement = primary.createStatement();
+        ResultSet script = statement.executeQuery("SCRIPT NODATA")) {
+      while (script.next()) {
+        statements.add(script.getString(1));
+      }
+    }
+    try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+        Statement statement = replica.createStatement()) {
+      statement.execute("DROP ALL OBJECTS");
+      for (String sql : statements) {
+        statement.execute(sql);
+      }
+    }
+  }
+
+  private static Genre newGenre() {
+    Genre genre = new Genre();
+    genre.setName("Tecnología");
+    genre.setCode("TECNOLOGIA");
+    return genre;
+  }
+}
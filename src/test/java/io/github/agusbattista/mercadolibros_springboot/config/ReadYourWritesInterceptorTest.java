@@ -0,0 +1,111 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.http.Cookie;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ReadYourWritesInterceptorTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+  private final ReadYourWritesInterceptor interceptor =
+      new ReadYourWritesInterceptor(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+
+  private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+  @AfterEach
+  void tearDown() {
+    ReadReplicaRouting.clear();
+  }
+
+  @Test
+  void preHandle_WhenWriting_ShouldRequirePrimaryAndSetCookie() {
+    interceptor.preHandle(new MockHttpServletRequest("PUT", "/api/books/1"), response, null);
+
+    assertThat(ReadReplicaRouting.isPrimaryRequired()).isTrue();
+    assertThat(response.getHeader(HttpHeaders.SET_COOKIE))
+        .startsWith(ReadYourWritesInterceptor.COOKIE_NAME + "=" + NOW.plusSeconds(5).toEpochMilli())
+        .contains("Max-Age=5", "HttpOnly", "SameSite=Lax");
+    assertThat(response.getHeader(ReadYourWritesInterceptor.HEADER_NAME))
+        .isEqualTo(Long.toString(NOW.plusSeconds(5).toEpochMilli()));
+  }
+
+  @Test
+  void preHandle_WhenReadingWithoutCookie_ShouldNotRequirePrimary() {
+    interceptor.preHandle(new MockHttpServletRequest("GET", "/api/books"), response, null);
+
+    assertThat(ReadReplicaRouting.isPrimaryRequired()).isFalse();
+    assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+  }
+
+  @Test
+  void preHandle_WhenReadingWithUnexpiredCookie_ShouldRequirePrimary() {
+    interceptor.preHandle(this.readWithCookie(NOW.plusSeconds(1).toEpochMilli()), response, null);
+
+    assertThat(ReadReplicaRouting.isPrimaryRequired()).isTrue();
+  }
+
+  @Test
+  void preHandle_WhenReadingWithExpiredCookie_ShouldNotRequirePrimary() {
+    interceptor.preHandle(this.readWithCookie(NOW.toEpochMilli()), response, null);
+
+    assertThat(ReadReplicaRouting.isPrimaryRequired()).isFalse();
+  }
+
+  @Test
+  void preHandle_WhenCookieIsInvalid_ShouldNotRequirePrimary() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+    request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, "mañana"));
+
+    interceptor.preHandle(request, response, null);
+
+    assertThat(ReadReplicaRouting.isPrimaryRequired()).isFalse();
+  }
+
+  @Test
+  void preHandle_WhenReadingWithUnexpiredHeader_ShouldRequirePrimary() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+    request.addHeader(
+        ReadYourWritesInterceptor.HEADER_NAME, Long.toString(NOW.plusSeconds(1).toEpochMilli()));
+
+    interceptor.preHandle(request, response, null);
+
+    assertThat(ReadReplicaRouting.isPrimaryRequired()).isTrue();
+  }
+
+  @Test
+  void preHandle_WhenReadingWithExpiredHeader_ShouldNotRequirePrimary() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+    request.addHeader(ReadYourWritesInterceptor.HEADER_NAME, Long.toString(NOW.toEpochMilli()));
+
+    interceptor.preHandle(request, response, null);
+
+    assertThat(ReadReplicaRouting.isPrimaryRequired()).isFalse();
+  }
+
+  @Test
+  void afterCompletion_ShouldReleaseThread() {
+    MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/books/1");
+    interceptor.preHandle(request, response, null);
+
+    interceptor.afterCompletion(request, response, null, null);
+
+    assertThat(ReadReplicaRouting.isPrimaryRequired()).isFalse();
+  }
+
+  private MockHttpServletRequest readWithCookie(long primaryUntil) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+    request.setCookies(
+        new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, Long.toString(primaryUntil)));
+    return request;
+  }
+}
@@ -0,0 +1,171 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
+import io.github.agusbattista.mercadolibros_springboot.repository.GenreRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Cada operación en su propia transacción: dentro de una misma, responde el contexto de
+// persistencia
+@DataJpaTest(properties = "app.jpa.second-level-cache.enabled=true")
+@Import(SecondLevelCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheConfigTest {
+
+  @Autowired private GenreRepository genreRepository;
+  @Autowired private BookRepository bookRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private TransactionTemplate transaction;
+  private Statistics statistics;
+  private Genre genre;
+
+  @BeforeEach
+  void setUp() {
+    transaction = new TransactionTemplate(transactionManager);
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    genre = transaction.execute(status -> genreRepository.save(newGenre()));
+    entityManagerFactory.getCache().evictAll();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM books");
+    jdbcTemplate.update("DELETE FROM genres");
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  void findById_WhenRepeated_ShouldReadGenreFromCache() {
+    this.findGenreById(genre.getId());
+    Optional<Genre> cached = this.findGenreById(genre.getId());
+
+    assertThat(cached).map(Genre::getName).contains("Tecnología");
+    assertThat(this.region(Genre.CACHE_REGION).getMissCount()).isEqualTo(1);
+    assertThat(this.region(Genre.CACHE_REGION).getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void findById_AfterSoftDelete_ShouldReturnEmpty() {
+    this.findGenreById(genre.getId());
+
+    transaction.executeWithoutResult(status -> genreRepository.deleteById(genre.getId()));
+
+    assertThat(this.findGenreById(genre.getId())).isEmpty();
+  }
+
+  @Test
+  void findByCodeIncludingDeleted_ShouldNotCacheDeletedGenre() {
+    transaction.executeWithoutResult(status -> genreRepository.deleteById(genre.getId()));
+    entityManagerFactory.getCache().evictAll();
+
+    Optional<Genre> deleted =
+        transaction.execute(status -> genreRepository.findByCodeIncludingDeleted("TECNOLOGIA"));
+
+    assertThat(deleted).map(Genre::isDeleted).contains(true);
+    assertThat(entityManagerFactory.getCache().contains(Genre.class, genre.getId())).isFalse();
+    assertThat(this.findGenreById(genre.getId())).isEmpty();
+  }
+
+  @Test
+  void findByCode_WhenRepeated_ShouldUseQueryCacheUntilGenresChange() {
+    this.findGenreByCode();
+    this.findGenreByCode();
+    CacheRegionStatistics byCode = this.region(GenreRepository.BY_CODE_CACHE_REGION);
+    assertThat(byCode.getHitCount()).isEqualTo(1);
+
+    transaction.executeWithoutResult(
+        status -> genreRepository.findById(genre.getId()).orElseThrow().setName("Tecnologías"));
+
+    assertThat(this.findGenreByCode()).map(Genre::getName).contains("Tecnologías");
+    assertThat(byCode.getHitCount()).isEqualTo(1);
+    assertThat(byCode.getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  void findById_WhenBookIsCached_ShouldResolveGenreFromCache() {
+    Book book = transaction.execute(status -> bookRepository.save(this.newBook()));
+    entityManagerFactory.getCache().evictAll();
+    this.findGenreById(genre.getId());
+    statistics.clear();
+
+    String genreName =
+        transaction.execute(
+            status -> bookRepository.findById(book.getId()).orElseThrow().getGenre().getName());
+
+    assertThat(genreName).isEqualTo("Tecnología");
+    assertThat(this.region(Genre.CACHE_REGION).getHitCount()).isEqualTo(1);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void streamAll_ShouldNotFillBookCache() {
+    transaction.executeWithoutResult(status -> bookRepository.save(this.newBook()));
+    entityManagerFactory.getCache().evictAll();
+    statistics.clear();
+
+    transaction.executeWithoutResult(
+        status -> {
+          try (Stream<Book> books = bookRepository.streamAll(100)) {
+            assertThat(books).hasSize(1);
+          }
+        });
+
+    assertThat(this.region(Book.CACHE_REGION).getPutCount()).isZero();
+  }
+
+  private Optional<Genre> findGenreById(Long id) {
+    return transaction.execute(status -> genreRepository.findById(id));
+  }
+
+  private Optional<Genre> findGenreByCode() {
+    return transaction.execute(status -> genreRepository.findByCode("TECNOLOGIA"));
+  }
+
+  private CacheRegionStatistics region(String name) {
+    return statistics.getCacheRegionStatistics(name);
+  }
+
+  private Book newBook() {
+    Book book = new Book();
+    book.setIsbn("9780132350884");
+    book.setTitle("Clean Code");
+    book.setAuthors("Robert C. Martin");
+    book.setPrice(new BigDecimal("45.99"));
+    book.setDescription("Manual de buenas prácticas de programación.");
+    book.setPublisher("Prentice Hall");
+    book.setGenre(genre);
+    book.setImageUrl("https://example.com/clean-code.jpg");
+    return book;
+  }
+
+  private static Genre newGenre() {
+    Genre genre = new Genre();
+    genre.setName("Tecnología");
+    genre.setCode("TECNOLOGIA");
+    return genre;
+  }
+}
@@ -0,0 +1,33 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.internal.NoCachingRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+// Sin app.jpa.second-level-cache.enabled: hibernate-jcache está en el classpath, pero la caché no
+// debe activarse
+@DataJpaTest
+class SecondLevelCacheDisabledTest {
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  void secondLevelCache_WhenPropertyIsAbsent_ShouldBeDisabled() {
+    SessionFactoryImplementor sessionFactory =
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+    assertThat(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).isFalse();
+    assertThat(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()).isFalse();
+    assertThat(sessionFactory.getCache().getRegionFactory())
+        .isInstanceOf(NoCachingRegionFactory.class);
+    assertThat(sessionFactory.getCache().getCacheRegionNames())
+        .doesNotContain(Book.CACHE_REGION, Genre.CACHE_REGION);
+  }
+}
@@ -0,0 +1,125 @@
+package io.github.agusbattista.mercadolibros_springboot.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+// Los cambios de esquema de H2 confirman la transacción del test: la base no se reutiliza
+@DataJpaTest
+@DirtiesContext
+class UuidBinaryBackfillTest {
+
+  private static final UUID LEGACY_UUID = UUID.fromString("3f1c2a9e-8b4d-4c7a-9e21-6d5b0f4a7c13");
+
+  @Autowired private TestEntityManager entityManager;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private BookRepository bookRepository;
+
+  private UuidBinaryBackfill backfill;
+
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    backfill = new UuidBinaryBackfill(jdbcTemplate);
+
+    Genre genre = new Genre();
+    genre.setName("Tecnología");
+    genre.setCode("TECNOLOGIA");
+    entityManager.persist(genre);
+
+    book = new Book();
+    book.setIsbn("9780132350884");
+    book.setTitle("Código Limpio");
+    book.setAuthors("Robert C. Martin");
+    book.setPrice(new BigDecimal("45.00"));
+    book.setDescription("Manual de estilo para el desarrollo ágil de software.");
+    book.setPublisher("Anaya Multimedia");
+    book.setGenre(genre);
+    book.setImageUrl("https://example.com/codigo-limpio.jpg");
+    entityManager.persistAndFlush(book);
+    entityManager.clear();
+  }
+
+  // El cambio de esquema confirma también el borrado, que de otro modo se revertiría
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM books");
+    jdbcTemplate.update("DELETE FROM genres");
+    jdbcTemplate.execute("ALTER TABLE books DROP COLUMN IF EXISTS uuid");
+  }
+
+  // Durante la inicialización del contexto: antes que el servidor web y que cualquier runner
+  @Test
+  void backfill_ShouldRunAfterSchemaUpdateAndBeforeServerStarts() {
+    assertThat(backfill)
+        .isInstanceOf(InitializingBean.class)
+        .isNotInstanceOf(CommandLineRunner.class);
+    assertThat(UuidBinaryBackfill.class.getAnnotation(DependsOn.class).value())
+        .containsExactly("entityManagerFactory");
+  }
+
+  @Test
+  void run_WhenRowsOnlyHaveLegacyTextUuid_ShouldCopySameValueToBinaryColumn() {
+    this.simulateLegacyColumn();
+
+    backfill.afterPropertiesSet();
+
+    assertThat(bookRepository.findByUuid(LEGACY_UUID)).map(Book::getId).contains(book.getId());
+    assertThat(this.legacyColumnIsNullable()).isEqualTo("YES");
+  }
+
+  @Test
+  void run_WhenBinaryColumnIsAlreadyFilled_ShouldNotChangeIt() {
+    this.simulateLegacyColumn();
+    backfill.afterPropertiesSet();
+    jdbcTemplate.update(
+        "UPDATE books SET uuid = ? WHERE id = ?", UUID.randomUUID().toString(), book.getId());
+
+    backfill.afterPropertiesSet();
+
+    assertThat(bookRepository.findByUuid(LEGACY_UUID)).isPresent();
+  }
+
+  @Test
+  void run_WhenThereIsNoLegacyColumn_ShouldNotChangeAnything() {
+    UUID generated = book.getUuid();
+
+    backfill.afterPropertiesSet();
+
+    assertThat(generated.version()).isEqualTo(7);
+    assertThat(bookRepository.findByUuid(generated)).isPresent();
+  }
+
+  // Como una base creada antes de la columna binaria: UUID de texto obligatorio y binario vacío
+  private void simulateLegacyColumn() {
+    jdbcTemplate.execute("ALTER TABLE books ADD COLUMN uuid VARCHAR(255)");
+    jdbcTemplate.update(
+        "UPDATE books SET uuid = ?, uuid_bin = NULL WHERE id = ?",
+        LEGACY_UUID.toString(),
+        book.getId());
+    jdbcTemplate.execute("ALTER TABLE books ALTER COLUMN uuid SET NOT NULL");
+  }
+
+  private String legacyColumnIsNullable() {
+    return jdbcTemplate.queryForObject(
+        "SELECT is_nullable FROM information_schema.columns"
+            + " WHERE table_name = 'BOOKS' AND column_name = 'UUID'",
+        String.class);
+  }
+}
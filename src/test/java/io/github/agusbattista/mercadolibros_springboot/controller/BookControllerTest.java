@@ -1,13 +1,18 @@
 package io.github.agusbattista.mercadolibros_springboot.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -15,17 +20,40 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.agusbattista.mercadolibros_springboot.cache.CatalogVersion;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchItemResultDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookImportErrorDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookImportSummaryDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookLookupResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.BookRequestDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookSearchCriteria;
+import io.github.agusbattista.mercadolibros_springboot.dto.CursorResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetCountDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetedResponse;
 import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.PagedResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.SliceResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.SuggestionResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.exception.DuplicateResourceException;
+import io.github.agusbattista.mercadolibros_springboot.exception.PreconditionFailedException;
 import io.github.agusbattista.mercadolibros_springboot.exception.ResourceNotFoundException;
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.service.BookExportService;
+import io.github.agusbattista.mercadolibros_springboot.service.BookFileFormat;
+import io.github.agusbattista.mercadolibros_springboot.service.BookImportService;
 import io.github.agusbattista.mercadolibros_springboot.service.BookService;
+import io.github.agusbattista.mercadolibros_springboot.service.CatalogChangeService;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -35,15 +63,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(BookController.class)
 class BookControllerTest {
 
   @Autowired private MockMvc mockMvc;
   @MockitoBean private BookService bookService;
+  @MockitoBean private BookImportService bookImportService;
+  @MockitoBean private BookExportService bookExportService;
+  @MockitoBean private CatalogVersion catalogVersion;
+  @MockitoBean private CatalogChangeService catalogChangeService;
   @Autowired private ObjectMapper objectMapper;
   private BookRequestDTO bookRequest;
   private BookResponseDTO bookResponse;
@@ -65,7 +100,7 @@ class BookControllerTest {
             1L,
             "https://books.google.com/books/publisher/content?id=krMsDwAAQBAJ&printsec=frontcover&img=1&zoom=4&edge=curl&source=gbs_api");
 
-    GenreResponseDTO genreResponse = new GenreResponseDTO(1L, "FANTASIA", "Fantasía");
+    GenreResponseDTO genreResponse = new GenreResponseDTO(1L, "FANTASIA", "Fantasía", 0L);
 
     bookResponse =
         new BookResponseDTO(
@@ -77,7 +112,8 @@ class BookControllerTest {
             "La saga completa de Canción de Hielo y Fuego, la obra maestra de la fantasía moderna.",
             "Plaza & Janés",
             genreResponse,
-            "https://books.google.com/books/publisher/content?id=krMsDwAAQBAJ&printsec=frontcover&img=1&zoom=4&edge=curl&source=gbs_api");
+            "https://books.google.com/books/publisher/content?id=krMsDwAAQBAJ&printsec=frontcover&img=1&zoom=4&edge=curl&source=gbs_api",
+            2L);
 
     pagedResponse =
         new PagedResponse<>(
@@ -129,6 +165,45 @@ class BookControllerTest {
     verify(bookService).findAll(any(Pageable.class));
   }
 
+  @Test
+  void findAll_ShouldReturnCatalogVersionAsETag() throws Exception {
+    when(catalogVersion.current()).thenReturn("abc-3");
+    when(bookService.findAll(any(Pageable.class))).thenReturn(pagedResponse);
+
+    mockMvc
+        .perform(get(BASE_URL))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc-3\""));
+  }
+
+  @Test
+  void findAll_WhenCatalogHasNotChanged_ShouldReturnNotModifiedWithoutQueryingService()
+      throws Exception {
+    when(catalogVersion.current()).thenReturn("abc-3");
+
+    mockMvc
+        .perform(get(BASE_URL).header(HttpHeaders.IF_NONE_MATCH, "\"abc-3\""))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    verify(bookService, never()).findAll(any(Pageable.class));
+  }
+
+  @Test
+  void searchByText_WhenCatalogHasNotChanged_ShouldReturnNotModifiedWithoutQueryingService()
+      throws Exception {
+    when(catalogVersion.current()).thenReturn("abc-3");
+
+    mockMvc
+        .perform(
+            get(BASE_URL + "/search")
+                .param("q", "martin")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"abc-3\""))
+        .andExpect(status().isNotModified());
+
+    verify(bookService, never()).searchByText(anyString(), any(Pageable.class));
+  }
+
   @Test
   void findAll_WhenUnexpectedErrorOccurs_ShouldReturnInternalServerError() throws Exception {
     when(bookService.findAll(any(Pageable.class)))
@@ -143,6 +218,101 @@ class BookControllerTest {
     verify(bookService).findAll(any(Pageable.class));
   }
 
+  @Test
+  void sliceAll_WhenCountIsFalse_ShouldReturnResponseWithoutTotals() throws Exception {
+    SliceResponse<BookResponseDTO> sliceResponse =
+        new SliceResponse<>(List.of(bookResponse), 0, 5, true, Map.of("sorted", "NONE"));
+    when(bookService.sliceAll(any(Pageable.class))).thenReturn(sliceResponse);
+
+    mockMvc
+        .perform(get(BASE_URL).param("count", "false"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.page").value(0))
+        .andExpect(jsonPath("$.last").value(true))
+        .andExpect(jsonPath("$.totalElements").doesNotExist())
+        .andExpect(jsonPath("$.totalPages").doesNotExist());
+
+    verify(bookService).sliceAll(any(Pageable.class));
+    verify(bookService, never()).findAll(any(Pageable.class));
+  }
+
+  @Test
+  void findAll_WhenCountIsTrue_ShouldReturnPagedResponse() throws Exception {
+    when(bookService.findAll(any(Pageable.class))).thenReturn(pagedResponse);
+
+    mockMvc
+        .perform(get(BASE_URL).param("count", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements").value(1));
+
+    verify(bookService, never()).sliceAll(any(Pageable.class));
+  }
+
+  @Test
+  void sliceBooksByCriteria_WhenCountIsFalse_ShouldReturnResponseWithoutTotals() throws Exception {
+    SliceResponse<BookResponseDTO> sliceResponse =
+        new SliceResponse<>(List.of(bookResponse), 0, 5, false, Map.of("sorted", "NONE"));
+    BookSearchCriteria criteria = BookSearchCriteria.of(null, "Martin", null, null);
+    when(bookService.sliceBooksByCriteria(eq(criteria), any(Pageable.class)))
+        .thenReturn(sliceResponse);
+
+    mockMvc
+        .perform(get(BASE_URL + "/search").param("authors", "Martin").param("count", "false"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.last").value(false))
+        .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+    verify(bookService).sliceBooksByCriteria(eq(criteria), any(Pageable.class));
+  }
+
+  @Test
+  void scrollAll_WhenAfterIsPresent_ShouldReturnCursorResponse() throws Exception {
+    CursorResponse<BookResponseDTO> cursorResponse =
+        new CursorResponse<>(
+            List.of(bookResponse), 1, "eyJpZCI6IjEifQ", false, Map.of("id", "ASC"));
+    when(bookService.scrollAll(eq(""), any(Pageable.class))).thenReturn(cursorResponse);
+
+    mockMvc
+        .perform(get(BASE_URL).param("after", "").param("size", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.nextCursor").value("eyJpZCI6IjEifQ"))
+        .andExpect(jsonPath("$.last").value(false))
+        .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+    verify(bookService).scrollAll(eq(""), any(Pageable.class));
+    verify(bookService, never()).findAll(any(Pageable.class));
+  }
+
+  @Test
+  void scrollAll_WhenCursorIsInvalid_ShouldReturnBadRequest() throws Exception {
+    when(bookService.scrollAll(anyString(), any(Pageable.class)))
+        .thenThrow(new IllegalArgumentException("El cursor: x no es válido"));
+
+    mockMvc
+        .perform(get(BASE_URL).param("after", "x"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.status").value(400));
+  }
+
+  @Test
+  void scrollBooksByCriteria_WhenAfterIsPresent_ShouldReturnCursorResponse() throws Exception {
+    CursorResponse<BookResponseDTO> cursorResponse =
+        new CursorResponse<>(List.of(bookResponse), 5, null, true, Map.of("id", "ASC"));
+    BookSearchCriteria criteria = BookSearchCriteria.of("Fuego", null, null, null);
+    when(bookService.scrollBooksByCriteria(eq(criteria), eq("abc"), any(Pageable.class)))
+        .thenReturn(cursorResponse);
+
+    mockMvc
+        .perform(get(BASE_URL + "/search").param("title", "Fuego").param("after", "abc"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].uuid").value(bookResponse.uuid().toString()))
+        .andExpect(jsonPath("$.last").value(true));
+
+    verify(bookService).scrollBooksByCriteria(eq(criteria), eq("abc"), any(Pageable.class));
+  }
+
   @Test
   void findByUuid_WhenUuidExists_ShouldReturnBook() throws Exception {
     UUID uuid = bookResponse.uuid();
@@ -160,6 +330,43 @@ class BookControllerTest {
     verify(bookService).findByUuid(uuid);
   }
 
+  @Test
+  void findByUuid_WhenUuidExists_ShouldReturnETagWithBookAndGenreVersions() throws Exception {
+    UUID uuid = bookResponse.uuid();
+    when(bookService.findByUuid(uuid)).thenReturn(Optional.of(bookResponse));
+
+    mockMvc
+        .perform(get(BASE_URL + UUID_PATH_VARIABLE, uuid))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"2-0\""))
+        .andExpect(jsonPath("$.version").doesNotExist());
+  }
+
+  @Test
+  void findByUuid_WhenETagMatches_ShouldReturnNotModifiedWithoutBody() throws Exception {
+    UUID uuid = bookResponse.uuid();
+    when(bookService.findByUuid(uuid)).thenReturn(Optional.of(bookResponse));
+
+    mockMvc
+        .perform(
+            get(BASE_URL + UUID_PATH_VARIABLE, uuid).header(HttpHeaders.IF_NONE_MATCH, "\"2-0\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"2-0\""))
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void findByUuid_WhenETagIsOutdated_ShouldReturnBook() throws Exception {
+    UUID uuid = bookResponse.uuid();
+    when(bookService.findByUuid(uuid)).thenReturn(Optional.of(bookResponse));
+
+    mockMvc
+        .perform(
+            get(BASE_URL + UUID_PATH_VARIABLE, uuid).header(HttpHeaders.IF_NONE_MATCH, "\"1-0\""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.uuid").value(uuid.toString()));
+  }
+
   @Test
   void findByUuid_WhenUuidDoesNotExists_ShouldThrowResourceNotFoundException() throws Exception {
     UUID uuid = UUID.randomUUID();
@@ -218,8 +425,8 @@ class BookControllerTest {
     String title = "Fuego";
     String genre = "Fantasía";
     String url = BASE_URL + "/search";
-    when(bookService.findBooksByCriteria(
-            eq(title), isNull(), eq(genre), isNull(), any(Pageable.class)))
+    BookSearchCriteria criteria = BookSearchCriteria.of(title, null, genre, null);
+    when(bookService.findBooksByCriteria(eq(criteria), any(Pageable.class)))
         .thenReturn(pagedResponse);
 
     mockMvc
@@ -241,8 +448,164 @@ class BookControllerTest {
         .andExpect(jsonPath("$.totalElements").value(1))
         .andExpect(jsonPath("$.last").value(true));
 
-    verify(bookService)
-        .findBooksByCriteria(eq(title), isNull(), eq(genre), isNull(), any(Pageable.class));
+    verify(bookService).findBooksByCriteria(eq(criteria), any(Pageable.class));
+  }
+
+  @Test
+  void findBooksByCriteria_WithPriceRangeGenreCodesAndIsbnPrefix_ShouldBindAllFilters()
+      throws Exception {
+    BookSearchCriteria criteria =
+        new BookSearchCriteria(
+            null,
+            null,
+            null,
+            null,
+            new BigDecimal("10"),
+            new BigDecimal("30.50"),
+            List.of("FANTASIA", "TERROR"),
+            "97884");
+    when(bookService.findBooksByCriteria(eq(criteria), any(Pageable.class)))
+        .thenReturn(pagedResponse);
+
+    mockMvc
+        .perform(
+            get(BASE_URL + "/search")
+                .param("minPrice", "10")
+                .param("maxPrice", "30.50")
+                .param("genreCodes", "FANTASIA,TERROR")
+                .param("isbnPrefix", "978-84"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalElements").value(1));
+
+    verify(bookService).findBooksByCriteria(eq(criteria), any(Pageable.class));
+  }
+
+  @Test
+  void findBooksByCriteria_WhenFiltersAreInvalid_ShouldReturnBadRequest() throws Exception {
+    mockMvc
+        .perform(get(BASE_URL + "/search").param("minPrice", "-1").param("isbnPrefix", "978%"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.status").value(400));
+
+    verify(bookService, never()).findBooksByCriteria(any(), any(Pageable.class));
+  }
+
+  @Test
+  void findBooksByCriteriaWithFacets_WhenFacetsArePresent_ShouldReturnPageAndCounts()
+      throws Exception {
+    BookSearchCriteria criteria = BookSearchCriteria.of(null, null, "Fantasía", null);
+    List<String> facets = List.of("publisher", "price");
+    FacetedResponse<BookResponseDTO> facetedResponse =
+        new FacetedResponse<>(
+            pagedResponse,
+            Map.of(
+                "publisher", List.of(new FacetCountDTO("Plaza & Janés", 1)),
+                "price", List.of(new FacetCountDTO("20-50", 1))));
+    when(bookService.findBooksByCriteriaWithFacets(eq(criteria), eq(facets), any(Pageable.class)))
+        .thenReturn(facetedResponse);
+
+    mockMvc
+        .perform(
+            get(BASE_URL + "/search").param("genre", "Fantasía").param("facets", "publisher,price"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].uuid").value(bookResponse.uuid().toString()))
+        .andExpect(jsonPath("$.totalElements").value(1))
+        .andExpect(jsonPath("$.facets.publisher[0].value").value("Plaza & Janés"))
+        .andExpect(jsonPath("$.facets.publisher[0].count").value(1))
+        .andExpect(jsonPath("$.facets.price[0].value").value("20-50"));
+
+    verify(bookService, never()).findBooksByCriteria(any(), any(Pageable.class));
+  }
+
+  @Test
+  void findBooksByCriteriaWithFacets_WhenFacetIsNotAllowed_ShouldReturnBadRequest()
+      throws Exception {
+    when(bookService.findBooksByCriteriaWithFacets(any(), any(), any(Pageable.class)))
+        .thenThrow(new IllegalArgumentException("No se puede agrupar por: isbn"));
+
+    mockMvc
+        .perform(get(BASE_URL + "/search").param("facets", "isbn"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.status").value(400));
+  }
+
+  @Test
+  void findBooksByCriteriaWithFacets_WhenCombinedWithCountFalseTextOrCursor_ShouldReturnBadRequest()
+      throws Exception {
+    for (String[] param : new String[][] {{"count", "false"}, {"q", "hielo"}, {"after", "abc"}}) {
+      mockMvc
+          .perform(get(BASE_URL + "/search").param("facets", "genre").param(param[0], param[1]))
+          .andExpect(status().isBadRequest())
+          .andExpect(
+              jsonPath("$.message")
+                  .value(
+                      "Las facetas no se pueden combinar con la búsqueda de texto (q), con after"
+                          + " ni con count=false"));
+    }
+    mockMvc
+        .perform(
+            get(BASE_URL + "/search")
+                .param("facets", "genre")
+                .param("q", "hielo")
+                .param("fuzzy", "true"))
+        .andExpect(status().isBadRequest());
+
+    verify(bookService, never()).findBooksByCriteriaWithFacets(any(), any(), any(Pageable.class));
+    verify(bookService, never()).sliceBooksByCriteria(any(), any(Pageable.class));
+    verify(bookService, never()).searchByText(any(), any(Pageable.class));
+  }
+
+  @Test
+  void searchByText_WhenQueryIsPresent_ShouldReturnPagedResponse() throws Exception {
+    when(bookService.searchByText(eq("hielo"), any(Pageable.class))).thenReturn(pagedResponse);
+
+    mockMvc
+        .perform(get(BASE_URL + "/search").param("q", "hielo").param("after", ""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].uuid").value(bookResponse.uuid().toString()))
+        .andExpect(jsonPath("$.totalElements").value(1));
+
+    verify(bookService).searchByText(eq("hielo"), any(Pageable.class));
+    verify(bookService, never()).findBooksByCriteria(any(), any(Pageable.class));
+  }
+
+  @Test
+  void searchByTextFuzzy_WhenFuzzyIsTrue_ShouldUseTypoTolerantSearch() throws Exception {
+    when(bookService.searchByTextFuzzy(eq("fowlr"), any(Pageable.class))).thenReturn(pagedResponse);
+
+    mockMvc
+        .perform(get(BASE_URL + "/search").param("q", "fowlr").param("fuzzy", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].uuid").value(bookResponse.uuid().toString()));
+
+    verify(bookService).searchByTextFuzzy(eq("fowlr"), any(Pageable.class));
+    verify(bookService, never()).searchByText(any(), any(Pageable.class));
+  }
+
+  @Test
+  void suggest_ShouldReturnCompletionsForPrefix() throws Exception {
+    when(bookService.suggest("canc", "title", 5))
+        .thenReturn(List.of(new SuggestionResponseDTO("Canción de Hielo y Fuego", 2)));
+
+    mockMvc
+        .perform(
+            get(BASE_URL + "/suggest")
+                .param("prefix", "canc")
+                .param("field", "title")
+                .param("limit", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].value").value("Canción de Hielo y Fuego"))
+        .andExpect(jsonPath("$[0].books").value(2));
+  }
+
+  @Test
+  void suggest_WhenFieldIsNotAllowed_ShouldReturnBadRequest() throws Exception {
+    when(bookService.suggest("canc", "genre", 10))
+        .thenThrow(new IllegalArgumentException("No se puede autocompletar el campo: genre"));
+
+    mockMvc
+        .perform(get(BASE_URL + "/suggest").param("prefix", "canc").param("field", "genre"))
+        .andExpect(status().isBadRequest());
   }
 
   @Test
@@ -263,6 +626,160 @@ class BookControllerTest {
     verify(bookService).create(any(BookRequestDTO.class));
   }
 
+  @Test
+  void createAll_ShouldReturnResultOfEachBook() throws Exception {
+    BookBatchResponseDTO batchResponse =
+        BookBatchResponseDTO.from(
+            List.of(
+                BookBatchItemResultDTO.succeeded(
+                    0, BookBatchItemResultDTO.Status.CREATED, bookResponse),
+                BookBatchItemResultDTO.failed(
+                    1, "123", List.of("isbn: El formato del ISBN no es válido"))));
+    when(bookService.createAll(anyList())).thenReturn(batchResponse);
+    String requestBody = objectMapper.writeValueAsString(List.of(bookRequest, bookRequest));
+
+    mockMvc
+        .perform(
+            post(BASE_URL + "/batch").contentType(MediaType.APPLICATION_JSON).content(requestBody))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.created").value(1))
+        .andExpect(jsonPath("$.failed").value(1))
+        .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+        .andExpect(jsonPath("$.items[0].uuid").value(bookResponse.uuid().toString()))
+        .andExpect(jsonPath("$.items[1].status").value("FAILED"))
+        .andExpect(
+            jsonPath("$.items[1].errors[0]").value("isbn: El formato del ISBN no es válido"));
+
+    verify(bookService).createAll(anyList());
+  }
+
+  @Test
+  void findAllByKeys_ShouldReturnFoundBooksAndMissingKeys() throws Exception {
+    when(bookService.findAllByKeys(List.of(bookResponse.uuid().toString(), "0000000000000")))
+        .thenReturn(new BookLookupResponseDTO(List.of(bookResponse), List.of("0000000000000")));
+    String requestBody =
+        objectMapper.writeValueAsString(List.of(bookResponse.uuid().toString(), "0000000000000"));
+
+    mockMvc
+        .perform(
+            post(BASE_URL + "/lookup").contentType(MediaType.APPLICATION_JSON).content(requestBody))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.books[0].uuid").value(bookResponse.uuid().toString()))
+        .andExpect(jsonPath("$.missing[0]").value("0000000000000"));
+  }
+
+  @Test
+  void exportAll_ShouldStreamNdjsonByDefault() throws Exception {
+    doAnswer(
+            invocation -> {
+              OutputStream output = invocation.getArgument(0);
+              output.write("{\"isbn\":\"9786073155731\"}\n".getBytes(StandardCharsets.UTF_8));
+              return null;
+            })
+        .when(bookExportService)
+        .exportBooks(any(OutputStream.class), eq(BookFileFormat.NDJSON));
+
+    MvcResult result =
+        mockMvc.perform(get(BASE_URL + "/export")).andExpect(request().asyncStarted()).andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+        .andExpect(
+            header()
+                .string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books.ndjson\""))
+        .andExpect(content().string("{\"isbn\":\"9786073155731\"}\n"));
+  }
+
+  @Test
+  void exportAll_WhenFormatIsCsv_ShouldStreamCsv() throws Exception {
+    MvcResult result =
+        mockMvc
+            .perform(get(BASE_URL + "/export").param("format", "CSV"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("text/csv;charset=UTF-8"));
+
+    verify(bookExportService).exportBooks(any(OutputStream.class), eq(BookFileFormat.CSV));
+  }
+
+  @Test
+  void exportAll_ShouldUseItsOwnAsyncTimeout() throws Exception {
+    MvcResult result =
+        mockMvc.perform(get(BASE_URL + "/export")).andExpect(request().asyncStarted()).andReturn();
+
+    assertThat(result.getRequest().getAsyncContext().getTimeout())
+        .isEqualTo(Duration.ofHours(1).toMillis());
+  }
+
+  @Test
+  void exportAll_WhenFormatIsUnknown_ShouldReturnBadRequest() throws Exception {
+    mockMvc
+        .perform(get(BASE_URL + "/export").param("format", "xml"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Formato no soportado: xml. Use ndjson o csv"));
+
+    verify(bookExportService, never()).exportBooks(any(), any());
+  }
+
+  @Test
+  void importBooks_WhenNdjson_ShouldReturnSummary() throws Exception {
+    BookImportSummaryDTO summary =
+        new BookImportSummaryDTO(
+            2,
+            1,
+            0,
+            1,
+            List.of(new BookImportErrorDTO(2, "123", List.of("isbn: El formato no es válido"))),
+            false);
+    when(bookImportService.importBooks(any(InputStream.class), eq(BookFileFormat.NDJSON)))
+        .thenReturn(summary);
+    String line = objectMapper.writeValueAsString(bookRequest);
+
+    mockMvc
+        .perform(
+            post(BASE_URL + "/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(line + "\n" + line + "\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.rows").value(2))
+        .andExpect(jsonPath("$.created").value(1))
+        .andExpect(jsonPath("$.errors[0].row").value(2))
+        .andExpect(jsonPath("$.errorsTruncated").value(false));
+
+    verify(bookImportService).importBooks(any(InputStream.class), eq(BookFileFormat.NDJSON));
+  }
+
+  @Test
+  void importBooks_WhenCsv_ShouldImportAsCsv() throws Exception {
+    when(bookImportService.importBooks(any(InputStream.class), eq(BookFileFormat.CSV)))
+        .thenReturn(new BookImportSummaryDTO(0, 0, 0, 0, List.of(), false));
+
+    mockMvc
+        .perform(
+            post(BASE_URL + "/import")
+                .contentType("text/csv")
+                .content("isbn,title,authors,price,description,publisher,genreId,imageUrl\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.rows").value(0));
+
+    verify(bookImportService).importBooks(any(InputStream.class), eq(BookFileFormat.CSV));
+  }
+
+  @Test
+  void importBooks_WhenUnsupportedContentType_ShouldReturnUnsupportedMediaType() throws Exception {
+    mockMvc
+        .perform(post(BASE_URL + "/import").contentType(MediaType.TEXT_PLAIN).content("isbn"))
+        .andExpect(status().isUnsupportedMediaType());
+
+    verify(bookImportService, never()).importBooks(any(), any());
+  }
+
   @Test
   void create_WhenInvalidInput_ShouldReturnBadRequest() throws Exception {
     BookRequestDTO invalidRequest =
@@ -310,16 +827,86 @@ class BookControllerTest {
     String url = BASE_URL + UUID_PATH_VARIABLE;
     UUID uuid = bookResponse.uuid();
     String requestBody = objectMapper.writeValueAsString(bookRequest);
-    when(bookService.update(eq(uuid), any(BookRequestDTO.class))).thenReturn(bookResponse);
+    when(bookService.update(eq(uuid), any(BookRequestDTO.class), isNull()))
+        .thenReturn(bookResponse);
 
     mockMvc
         .perform(put(url, uuid).contentType(MediaType.APPLICATION_JSON).content(requestBody))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
         .andExpect(jsonPath("$.uuid").value(uuid.toString()))
-        .andExpect(jsonPath("$.genre.id").value(1));
+        .andExpect(jsonPath("$.genre.id").value(1))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"2-0\""));
 
-    verify(bookService).update(eq(uuid), any(BookRequestDTO.class));
+    verify(bookService).update(eq(uuid), any(BookRequestDTO.class), isNull());
+  }
+
+  @Test
+  void update_WhenIfMatchIsSent_ShouldPassBookVersionToService() throws Exception {
+    UUID uuid = bookResponse.uuid();
+    String requestBody = objectMapper.writeValueAsString(bookRequest);
+    when(bookService.update(eq(uuid), any(BookRequestDTO.class), eq(1L))).thenReturn(bookResponse);
+
+    mockMvc
+        .perform(
+            put(BASE_URL + UUID_PATH_VARIABLE, uuid)
+                .header(HttpHeaders.IF_MATCH, "\"1-0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"2-0\""));
+
+    verify(bookService).update(eq(uuid), any(BookRequestDTO.class), eq(1L));
+  }
+
+  @Test
+  void update_WhenVersionDoesNotMatch_ShouldReturnPreconditionFailed() throws Exception {
+    UUID uuid = bookResponse.uuid();
+    String requestBody = objectMapper.writeValueAsString(bookRequest);
+    when(bookService.update(eq(uuid), any(BookRequestDTO.class), eq(1L)))
+        .thenThrow(new PreconditionFailedException("Fue modificado por otra petición"));
+
+    mockMvc
+        .perform(
+            put(BASE_URL + UUID_PATH_VARIABLE, uuid)
+                .header(HttpHeaders.IF_MATCH, "\"1-0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+        .andExpect(status().isPreconditionFailed())
+        .andExpect(jsonPath("$.status").value(412));
+  }
+
+  @Test
+  void update_WhenIfMatchIsWeak_ShouldReturnPreconditionFailedWithoutCallingService()
+      throws Exception {
+    UUID uuid = bookResponse.uuid();
+    String requestBody = objectMapper.writeValueAsString(bookRequest);
+
+    mockMvc
+        .perform(
+            put(BASE_URL + UUID_PATH_VARIABLE, uuid)
+                .header(HttpHeaders.IF_MATCH, "W/\"1-0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+        .andExpect(status().isPreconditionFailed());
+
+    verify(bookService, never()).update(any(), any(), any());
+  }
+
+  @Test
+  void update_WhenConcurrentUpdateWins_ShouldReturnPreconditionFailed() throws Exception {
+    UUID uuid = bookResponse.uuid();
+    String requestBody = objectMapper.writeValueAsString(bookRequest);
+    when(bookService.update(eq(uuid), any(BookRequestDTO.class), isNull()))
+        .thenThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+    mockMvc
+        .perform(
+            put(BASE_URL + UUID_PATH_VARIABLE, uuid)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+        .andExpect(status().isPreconditionFailed())
+        .andExpect(jsonPath("$.status").value(412));
   }
 
   @Test
@@ -336,7 +923,7 @@ class BookControllerTest {
         .andExpect(jsonPath("$.status").value(400))
         .andExpect(jsonPath("$.message").exists());
 
-    verify(bookService, never()).update(any(), any());
+    verify(bookService, never()).update(any(), any(), any());
   }
 
   @Test
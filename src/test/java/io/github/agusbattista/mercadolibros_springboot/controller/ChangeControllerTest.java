@@ -0,0 +1,122 @@
+package io.github.agusbattista.mercadolibros_springboot.controller;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.github.agusbattista.mercadolibros_springboot.cache.CatalogVersion;
+import io.github.agusbattista.mercadolibros_springboot.dto.CatalogChangeDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.ChangeFeedResponse;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.model.CatalogChange;
+import io.github.agusbattista.mercadolibros_springboot.service.CatalogChangeService;
+import io.github.agusbattista.mercadolibros_springboot.stream.CatalogChangeBroadcaster;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@WebMvcTest(ChangeController.class)
+class ChangeControllerTest {
+
+  private static final String BASE_URL = "/api/changes";
+
+  @Autowired private MockMvc mockMvc;
+  @MockitoBean private CatalogChangeService catalogChangeService;
+  @MockitoBean private CatalogChangeBroadcaster catalogChangeBroadcaster;
+  @MockitoBean private CatalogVersion catalogVersion;
+
+  @Test
+  void findSince_ShouldReturnChangesAfterSequence() throws Exception {
+    CatalogChangeDTO change =
+        new CatalogChangeDTO(
+            43,
+            CatalogChange.Resource.BOOK,
+            "6f1c1a43-8d7e-4a5c-9a8e-2f7c8f0c2d11",
+            ChangeType.UPDATED,
+            Instant.parse("2026-01-01T00:00:00Z"));
+    when(catalogChangeService.findSince(42, 10))
+        .thenReturn(new ChangeFeedResponse(List.of(change), 43, true, 80));
+
+    mockMvc
+        .perform(get(BASE_URL).param("since", "42").param("limit", "10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.changes[0].sequence").value(43))
+        .andExpect(jsonPath("$.changes[0].resource").value("BOOK"))
+        .andExpect(jsonPath("$.changes[0].id").value("6f1c1a43-8d7e-4a5c-9a8e-2f7c8f0c2d11"))
+        .andExpect(jsonPath("$.changes[0].type").value("UPDATED"))
+        .andExpect(jsonPath("$.changes[0].changedAt").value("2026-01-01T00:00:00Z"))
+        .andExpect(jsonPath("$.next").value(43))
+        .andExpect(jsonPath("$.hasMore").value(true))
+        .andExpect(jsonPath("$.latest").value(80));
+  }
+
+  @Test
+  void findSince_WhenNoParameters_ShouldStartFromTheBeginning() throws Exception {
+    when(catalogChangeService.findSince(0, 100))
+        .thenReturn(new ChangeFeedResponse(List.of(), 0, false, 0));
+
+    mockMvc.perform(get(BASE_URL)).andExpect(status().isOk());
+
+    verify(catalogChangeService).findSince(0, 100);
+  }
+
+  @Test
+  void findSince_WhenLimitIsInvalid_ShouldReturnBadRequest() throws Exception {
+    when(catalogChangeService.findSince(0, 5000))
+        .thenThrow(new IllegalArgumentException("El límite debe estar entre 1 y 1000"));
+
+    mockMvc
+        .perform(get(BASE_URL).param("limit", "5000"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("El límite debe estar entre 1 y 1000"));
+
+    verify(catalogChangeService, never())
+        .findSince(ArgumentMatchers.eq(0L), ArgumentMatchers.eq(100));
+  }
+
+  @Test
+  void stream_WithLastEventIdHeader_ShouldResumeAfterThatChange() throws Exception {
+    when(catalogChangeBroadcaster.subscribe(42L)).thenReturn(new SseEmitter());
+
+    mockMvc
+        .perform(
+            get(BASE_URL + "/stream")
+                .header("Last-Event-ID", "42")
+                .param("since", "7")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+        .andExpect(request().asyncStarted());
+
+    verify(catalogChangeBroadcaster).subscribe(42L);
+  }
+
+  @Test
+  void stream_WithSinceParameter_ShouldResumeAfterThatChange() throws Exception {
+    when(catalogChangeBroadcaster.subscribe(7L)).thenReturn(new SseEmitter());
+
+    mockMvc
+        .perform(get(BASE_URL + "/stream").param("since", "7"))
+        .andExpect(request().asyncStarted());
+
+    verify(catalogChangeBroadcaster).subscribe(7L);
+  }
+
+  @Test
+  void stream_WithoutLastEventId_ShouldSubscribeToNewChanges() throws Exception {
+    when(catalogChangeBroadcaster.subscribe(null)).thenReturn(new SseEmitter());
+
+    mockMvc.perform(get(BASE_URL + "/stream")).andExpect(request().asyncStarted());
+
+    verify(catalogChangeBroadcaster).subscribe(null);
+  }
+}
@@ -16,11 +16,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.agusbattista.mercadolibros_springboot.cache.CatalogVersion;
 import io.github.agusbattista.mercadolibros_springboot.dto.GenreRequestDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.PagedResponse;
 import io.github.agusbattista.mercadolibros_springboot.exception.DuplicateResourceException;
+import io.github.agusbattista.mercadolibros_springboot.exception.PreconditionFailedException;
 import io.github.agusbattista.mercadolibros_springboot.exception.ResourceNotFoundException;
+import io.github.agusbattista.mercadolibros_springboot.service.CatalogChangeService;
 import io.github.agusbattista.mercadolibros_springboot.service.GenreService;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +33,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -39,6 +43,8 @@ class GenreControllerTest {
 
   @Autowired private MockMvc mockMvc;
   @MockitoBean private GenreService genreService;
+  @MockitoBean private CatalogVersion catalogVersion;
+  @MockitoBean private CatalogChangeService catalogChangeService;
   @Autowired private ObjectMapper objectMapper;
   private GenreRequestDTO genreRequest;
   private GenreResponseDTO genreResponse;
@@ -51,7 +57,7 @@ class GenreControllerTest {
   void setUp() {
     genreRequest = new GenreRequestDTO("Fantasía");
 
-    genreResponse = new GenreResponseDTO(1L, "FANTASIA", "Fantasía");
+    genreResponse = new GenreResponseDTO(1L, "FANTASIA", "Fantasía", 0L);
 
     pagedResponse =
         new PagedResponse<>(
@@ -83,6 +89,19 @@ class GenreControllerTest {
     verify(genreService).findAll(any(Pageable.class));
   }
 
+  @Test
+  void findAll_WhenCatalogHasNotChanged_ShouldReturnNotModifiedWithoutQueryingService()
+      throws Exception {
+    when(catalogVersion.current()).thenReturn("abc-3");
+
+    mockMvc
+        .perform(get(BASE_URL).header(HttpHeaders.IF_NONE_MATCH, "\"abc-3\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc-3\""));
+
+    verify(genreService, never()).findAll(any(Pageable.class));
+  }
+
   @Test
   void findAll_WhenNoGenreExist_ShouldReturnEmptyPagedResponse() throws Exception {
     PagedResponse<GenreResponseDTO> emptyPagedResponse =
@@ -131,6 +150,18 @@ class GenreControllerTest {
     verify(genreService).findById(id);
   }
 
+  @Test
+  void findById_WhenETagMatches_ShouldReturnNotModifiedWithoutBody() throws Exception {
+    Long id = 1L;
+    when(genreService.findById(id)).thenReturn(Optional.of(genreResponse));
+
+    mockMvc
+        .perform(get(BASE_URL + ID_PATH_VARIABLE, id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+        .andExpect(content().string(""));
+  }
+
   @Test
   void findById_WhenIdDoesNotExists_ShouldThrowResourceNotFoundException() throws Exception {
     Long id = 999L;
@@ -274,9 +305,9 @@ class GenreControllerTest {
     String url = BASE_URL + ID_PATH_VARIABLE;
     GenreRequestDTO updatedGenreRequest = new GenreRequestDTO("Fantasía Épica");
     GenreResponseDTO updatedGenreResponse =
-        new GenreResponseDTO(1L, "FANTASIA_EPICA", "Fantasía Épica");
+        new GenreResponseDTO(1L, "FANTASIA_EPICA", "Fantasía Épica", 1L);
     String requestBody = objectMapper.writeValueAsString(updatedGenreRequest);
-    when(genreService.update(1L, updatedGenreRequest)).thenReturn(updatedGenreResponse);
+    when(genreService.update(1L, updatedGenreRequest, null)).thenReturn(updatedGenreResponse);
 
     mockMvc
         .perform(put(url, 1L).contentType(MediaType.APPLICATION_JSON).content(requestBody))
@@ -284,9 +315,27 @@ class GenreControllerTest {
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
         .andExpect(jsonPath("$.id").value(1))
         .andExpect(jsonPath("$.code").value(updatedGenreResponse.code()))
-        .andExpect(jsonPath("$.name").value(updatedGenreResponse.name()));
+        .andExpect(jsonPath("$.name").value(updatedGenreResponse.name()))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+    verify(genreService).update(1L, updatedGenreRequest, null);
+  }
 
-    verify(genreService).update(1L, updatedGenreRequest);
+  @Test
+  void update_WhenVersionDoesNotMatch_ShouldReturnPreconditionFailed() throws Exception {
+    GenreRequestDTO updatedGenreRequest = new GenreRequestDTO("Fantasía Épica");
+    String requestBody = objectMapper.writeValueAsString(updatedGenreRequest);
+    when(genreService.update(1L, updatedGenreRequest, 0L))
+        .thenThrow(new PreconditionFailedException("Fue modificado por otra petición"));
+
+    mockMvc
+        .perform(
+            put(BASE_URL + ID_PATH_VARIABLE, 1L)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+        .andExpect(status().isPreconditionFailed())
+        .andExpect(jsonPath("$.status").value(412));
   }
 
   @Test
@@ -301,7 +350,7 @@ class GenreControllerTest {
         .andExpect(jsonPath("$.status").value(400))
         .andExpect(jsonPath("$.message").exists());
 
-    verify(genreService, never()).update(any(), any());
+    verify(genreService, never()).update(any(), any(), any());
   }
 
   @Test
@@ -0,0 +1,40 @@
+package io.github.agusbattista.mercadolibros_springboot.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+class SliceResponseTest {
+
+  @Test
+  void from_WhenSliceHasNext_ShouldMapCorrectlyAndNotBeLast() {
+    List<String> content = List.of("Item A", "Item B");
+    Pageable pageable = PageRequest.of(1, 2);
+    Slice<String> slice = new SliceImpl<>(content, pageable, true);
+
+    SliceResponse<String> response = SliceResponse.from(slice);
+
+    assertThat(response.content()).isEqualTo(content);
+    assertThat(response.page()).isEqualTo(1);
+    assertThat(response.size()).isEqualTo(2);
+    assertThat(response.last()).isFalse();
+    assertThat(response.sort()).hasSize(1).containsEntry("sorted", "NONE");
+  }
+
+  @Test
+  void from_WhenSliceIsSortedAndLast_ShouldMapSortCorrectly() {
+    Pageable pageable = PageRequest.of(0, 5, Sort.by("title").ascending());
+    Slice<String> slice = new SliceImpl<>(List.of("Item A"), pageable, false);
+
+    SliceResponse<String> response = SliceResponse.from(slice);
+
+    assertThat(response.last()).isTrue();
+    assertThat(response.sort()).hasSize(1).containsEntry("title", "ASC");
+  }
+}
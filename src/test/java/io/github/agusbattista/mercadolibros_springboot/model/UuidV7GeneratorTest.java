@@ -0,0 +1,42 @@
+package io.github.agusbattista.mercadolibros_springboot.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTest {
+
+  @Test
+  void generate_ShouldReturnVersion7WithCurrentTimestamp() {
+    long before = System.currentTimeMillis();
+
+    UUID uuid = UuidV7Generator.generate();
+
+    assertThat(uuid.version()).isEqualTo(7);
+    assertThat(uuid.variant()).isEqualTo(2);
+    assertThat(uuid.getMostSignificantBits() >>> 16)
+        .isBetween(before, System.currentTimeMillis() + 1);
+  }
+
+  @Test
+  void generate_WhenCalledRepeatedly_ShouldReturnIncreasingUniqueValues() {
+    List<UUID> uuids = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      uuids.add(UuidV7Generator.generate());
+    }
+
+    assertThat(new HashSet<>(uuids)).hasSize(uuids.size());
+    assertThat(uuids).isSorted();
+  }
+
+  @Test
+  void generateUuid_ShouldUseSameAlgorithmForHibernate() {
+    UUID uuid = new UuidV7Generator().generateUuid(null);
+
+    assertThat(uuid.version()).isEqualTo(7);
+  }
+}
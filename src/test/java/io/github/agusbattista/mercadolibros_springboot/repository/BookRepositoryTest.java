@@ -2,19 +2,29 @@ package io.github.agusbattista.mercadolibros_springboot.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetCountDTO;
 import io.github.agusbattista.mercadolibros_springboot.model.Book;
 import io.github.agusbattista.mercadolibros_springboot.model.Genre;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 @DataJpaTest
 class BookRepositoryTest {
@@ -78,14 +88,39 @@ class BookRepositoryTest {
   @Test
   void findBooksByCriteria_ByTitle_ShouldReturnMatchingBooks() {
     Page<Book> found =
-        bookRepository.findBooksByCriteria("hielo", null, null, null, Pageable.unpaged());
+        bookRepository.findBooksByCriteria("cancion de hie", null, null, null, Pageable.unpaged());
     assertThat(found.getContent())
         .hasSize(1)
         .extracting(Book::getTitle)
         .containsExactly("Canción de Hielo y Fuego (Colección)");
+    // Se busca por prefijo: una palabra del medio del título no alcanza
     Page<Book> otherFound =
-        bookRepository.findBooksByCriteria("n", null, null, null, Pageable.unpaged());
-    assertThat(otherFound.getContent()).hasSize(3);
+        bookRepository.findBooksByCriteria("hielo", null, null, null, Pageable.unpaged());
+    assertThat(otherFound.getContent()).isEmpty();
+  }
+
+  @Test
+  void findByUuidInOrIsbnIn_ShouldReturnBooksMatchingEitherKey() {
+    entityManager.clear();
+
+    List<Book> found =
+        bookRepository.findByUuidInOrIsbnIn(
+            List.of(book1.getUuid(), UUID.randomUUID()), List.of(book3.getIsbn(), "0000000000000"));
+
+    assertThat(found)
+        .extracting(Book::getIsbn)
+        .containsExactlyInAnyOrder(book1.getIsbn(), book3.getIsbn());
+    assertThat(found).allMatch(book -> Hibernate.isInitialized(book.getGenre()));
+  }
+
+  @Test
+  void findByUuidInOrIsbnIn_WhenOneListIsEmpty_ShouldUseTheOther() {
+    assertThat(bookRepository.findByUuidInOrIsbnIn(List.of(), List.of(book2.getIsbn())))
+        .extracting(Book::getIsbn)
+        .containsExactly(book2.getIsbn());
+    assertThat(bookRepository.findByUuidInOrIsbnIn(List.of(book2.getUuid()), List.of()))
+        .extracting(Book::getIsbn)
+        .containsExactly(book2.getIsbn());
   }
 
   @Test
@@ -95,10 +130,78 @@ class BookRepositoryTest {
     assertThat(found.getContent()).isEmpty();
   }
 
+  @Test
+  void findBooksByCriteria_ShouldIgnoreAccentsAndPunctuation() {
+    Page<Book> found =
+        bookRepository.findBooksByCriteria(
+            "CANCION de hielo", "george r.r.", null, "plaza janes", Pageable.unpaged());
+    assertThat(found.getContent()).extracting(Book::getIsbn).containsExactly(book1.getIsbn());
+  }
+
+  @Test
+  void findBooksByCriteria_WhenTextHasNoLettersOrNumbers_ShouldIgnoreThatFilter() {
+    Page<Book> found =
+        bookRepository.findBooksByCriteria(null, null, null, "&", Pageable.unpaged());
+    assertThat(found.getContent()).hasSize(3);
+  }
+
+  @Test
+  void save_ShouldKeepNormalizedColumnsInSyncWithTheirFields() {
+    assertThat(book2.getNormalizedTitle()).isEqualTo("la comunidad del anillo");
+
+    book2.setTitle("Las Dos Torres");
+    book2.setPublisher("Minotauro Ediciones");
+    entityManager.flush();
+    entityManager.clear();
+
+    Book updated = bookRepository.findById(book2.getId()).orElseThrow();
+    assertThat(updated.getNormalizedTitle()).isEqualTo("las dos torres");
+    assertThat(updated.getNormalizedAuthors()).isEqualTo("j r r tolkien");
+    assertThat(updated.getNormalizedPublisher()).isEqualTo("minotauro ediciones");
+    assertThat(bookRepository.findBooksByCriteria("las dos", null, null, null, Pageable.unpaged()))
+        .extracting(Book::getIsbn)
+        .containsExactly(book2.getIsbn());
+  }
+
+  @Test
+  void saveAndDelete_ShouldIncrementVersion() {
+    assertThat(book2.getVersion()).isZero();
+
+    book2.setPrice(new BigDecimal("14.99"));
+    entityManager.flush();
+    assertThat(book2.getVersion()).isEqualTo(1L);
+
+    bookRepository.delete(book2);
+    entityManager.flush();
+    entityManager.clear();
+
+    Book deleted = bookRepository.findByIsbnIncludingDeleted(book2.getIsbn()).orElseThrow();
+    assertThat(deleted.isDeleted()).isTrue();
+    assertThat(deleted.getVersion()).isEqualTo(2L);
+  }
+
+  @Test
+  void findBooksByCriteria_ByPriceRangeGenreCodesAndIsbnPrefix_ShouldFilterCorrectly() {
+    BookFilter criteria =
+        new BookFilter(
+            null,
+            null,
+            null,
+            null,
+            new BigDecimal("13"),
+            new BigDecimal("33.99"),
+            List.of("fantasía", "TERROR"),
+            "97884");
+
+    Page<Book> found = bookRepository.findBooksByCriteria(criteria, Pageable.unpaged());
+
+    assertThat(found.getContent()).extracting(Book::getIsbn).containsExactly(book3.getIsbn());
+  }
+
   @Test
   void findBooksByCriteria_ByAuthors_ShouldReturnMatchingBooks() {
     Page<Book> found =
-        bookRepository.findBooksByCriteria(null, "martin", null, null, Pageable.unpaged());
+        bookRepository.findBooksByCriteria(null, "george", null, null, Pageable.unpaged());
     assertThat(found.getContent())
         .hasSize(1)
         .extracting(Book::getAuthors)
@@ -129,7 +232,7 @@ class BookRepositoryTest {
   @Test
   void findBooksByCriteria_ByPublisher_ShouldReturnMatchingBooks() {
     Page<Book> found =
-        bookRepository.findBooksByCriteria(null, null, null, "Janés", Pageable.unpaged());
+        bookRepository.findBooksByCriteria(null, null, null, "Plaza", Pageable.unpaged());
     assertThat(found.getContent()).hasSize(2);
   }
 
@@ -143,32 +246,34 @@ class BookRepositoryTest {
   @Test
   void findBooksByCriteria_WithMultipleCriteria_ShouldFilterCorrectly() {
     Page<Book> found =
-        bookRepository.findBooksByCriteria(null, null, "Fantasía", "Janés", Pageable.unpaged());
+        bookRepository.findBooksByCriteria(null, null, "Fantasía", "Plaza", Pageable.unpaged());
     assertThat(found.getContent())
         .hasSize(2)
         .extracting(Book::getTitle)
         .containsExactlyInAnyOrder("Canción de Hielo y Fuego (Colección)", "El nombre del viento");
     Page<Book> otherFound =
-        bookRepository.findBooksByCriteria("viento", null, "Fantasía", "Janés", Pageable.unpaged());
+        bookRepository.findBooksByCriteria(
+            "el nombre", null, "Fantasía", "Plaza", Pageable.unpaged());
     assertThat(otherFound.getContent()).hasSize(1);
     Page<Book> otherFound2 =
         bookRepository.findBooksByCriteria(
-            "viento", "patricK", "Fantasía", "Janés", Pageable.unpaged());
+            "el nombre", "patricK", "Fantasía", "Plaza", Pageable.unpaged());
     assertThat(otherFound2.getContent()).hasSize(1);
   }
 
   @Test
   void findBooksByCriteria_CaseInsensitiveSearch_ShouldReturnMatchingBooks() {
     Page<Book> foundByTitle =
-        bookRepository.findBooksByCriteria("hIeLo", null, null, null, Pageable.unpaged());
+        bookRepository.findBooksByCriteria("cAnCiÓn", null, null, null, Pageable.unpaged());
     assertThat(foundByTitle.getContent()).hasSize(1);
 
     Page<Book> foundByAuthor =
-        bookRepository.findBooksByCriteria(null, "tOLkiEn", null, null, Pageable.unpaged());
+        bookRepository.findBooksByCriteria(
+            null, "J. r. R. tOLkiEn", null, null, Pageable.unpaged());
     assertThat(foundByAuthor.getContent()).hasSize(1);
 
     Page<Book> foundByPublisher =
-        bookRepository.findBooksByCriteria(null, null, null, "jANés", Pageable.unpaged());
+        bookRepository.findBooksByCriteria(null, null, null, "pLAza", Pageable.unpaged());
     assertThat(foundByPublisher.getContent()).hasSize(2);
   }
 
@@ -262,6 +367,39 @@ class BookRepositoryTest {
     entityManager.flush();
   }
 
+  @Test
+  void countFacets_ShouldGroupAllMatchingBooksByEachFacet() {
+    this.persistNewBook();
+
+    Map<String, List<FacetCountDTO>> facets =
+        bookRepository.countFacets(
+            BookFilter.of(null, null, null, null),
+            List.of(BookFacet.GENRE, BookFacet.PUBLISHER, BookFacet.PRICE));
+
+    assertThat(facets.keySet()).containsExactly("genre", "publisher", "price");
+    assertThat(facets.get("genre"))
+        .containsExactly(new FacetCountDTO("Fantasía", 3), new FacetCountDTO("Ciencia Ficción", 1));
+    assertThat(facets.get("publisher"))
+        .containsExactly(
+            new FacetCountDTO("Plaza & Janés", 2),
+            new FacetCountDTO("Debolsillo", 1),
+            new FacetCountDTO("Minotauro", 1));
+    assertThat(facets.get("price"))
+        .containsExactly(new FacetCountDTO("10-20", 3), new FacetCountDTO("20-50", 1));
+  }
+
+  @Test
+  void countFacets_ShouldOnlyCountBooksMatchingTheCriteria() {
+    this.persistNewBook();
+
+    Map<String, List<FacetCountDTO>> facets =
+        bookRepository.countFacets(
+            BookFilter.of(null, null, null, "plaza"), List.of(BookFacet.PRICE));
+
+    assertThat(facets.get("price"))
+        .containsExactly(new FacetCountDTO("10-20", 1), new FacetCountDTO("20-50", 1));
+  }
+
   @Test
   void findBooksByCriteria_Paged_AndSortedByGenreName_ShouldOrderResults() {
     this.persistNewBook();
@@ -272,6 +410,37 @@ class BookRepositoryTest {
     assertThat(found.getContent().getFirst().getGenre().getName()).isEqualTo("Ciencia Ficción");
   }
 
+  @Test
+  void streamAll_ShouldReturnActiveBooksInIdOrderWithGenreAndDetached() {
+    bookRepository.delete(book2);
+    entityManager.flush();
+    entityManager.clear();
+
+    List<Book> books;
+    try (Stream<Book> stream = bookRepository.streamAll(100)) {
+      books = stream.toList();
+    }
+
+    assertThat(books).extracting(Book::getId).containsExactly(book1.getId(), book3.getId());
+    assertThat(books.getFirst().getGenre().getName()).isEqualTo("Fantasía");
+    assertThat(books).noneMatch(entityManager.getEntityManager()::contains);
+  }
+
+  @Test
+  void findKeysAfter_ShouldReturnUuidAndIsbnOfActiveBooksInIdOrder() {
+    bookRepository.delete(book2);
+    entityManager.flush();
+
+    List<BookKeys> keys = bookRepository.findKeysAfter(0L, PageRequest.of(0, 10));
+
+    assertThat(keys).extracting(BookKeys::getId).containsExactly(book1.getId(), book3.getId());
+    assertThat(keys.getFirst().getUuid()).isEqualTo(book1.getUuid());
+    assertThat(keys.getFirst().getIsbn()).isEqualTo(book1.getIsbn());
+    assertThat(bookRepository.findKeysAfter(book1.getId(), PageRequest.of(0, 10)))
+        .extracting(BookKeys::getIsbn)
+        .containsExactly(book3.getIsbn());
+  }
+
   @Test
   void findByIsbnIncludingDeleted_WhenBookIsDeleted_ShouldReturnBook() {
     book1.setDeleted(true);
@@ -290,6 +459,21 @@ class BookRepositoryTest {
     assertThat(found.get().isDeleted()).isFalse();
   }
 
+  @Test
+  void findAllByIsbnIncludingDeleted_ShouldReturnActiveAndDeletedBooksInOneQuery() {
+    book1.setDeleted(true);
+    entityManager.merge(book1);
+    entityManager.flush();
+
+    List<Book> found =
+        bookRepository.findAllByIsbnIncludingDeleted(
+            List.of("9786073155731", "9788445073728", "0000000000000"));
+
+    assertThat(found)
+        .extracting(Book::getIsbn)
+        .containsExactlyInAnyOrder("9786073155731", "9788445073728");
+  }
+
   @Test
   void findByIsbnIncludingDeleted_WhenBookNotExists_ShouldReturnEmptyOptional() {
     Optional<Book> found = bookRepository.findByIsbnIncludingDeleted("0000000000000");
@@ -382,4 +566,103 @@ class BookRepositoryTest {
 
     assertThat(bookRepository.countByGenreIdIncludingDeleted(genreTech.getId())).isEqualTo(1);
   }
+
+  @Test
+  void findBy_ScrollByKeyset_ShouldWalkAllBooksWithoutRepeating() {
+    Sort sort = Sort.by("price").descending();
+
+    Window<Book> first =
+        bookRepository.findBy(
+            BookSpecifications.all().and(BookSpecifications.fetchGenre()),
+            query -> query.sortBy(sort).limit(2).scroll(ScrollPosition.keyset()));
+
+    assertThat(first.getContent())
+        .extracting(Book::getTitle)
+        .containsExactly(book1.getTitle(), book3.getTitle());
+    assertThat(first.hasNext()).isTrue();
+
+    KeysetScrollPosition lastPosition = (KeysetScrollPosition) first.positionAt(first.size() - 1);
+    assertThat(lastPosition.getKeys()).containsOnlyKeys("price", "id");
+
+    Window<Book> second =
+        bookRepository.findBy(
+            BookSpecifications.all(),
+            query ->
+                query.sortBy(sort).limit(2).scroll(ScrollPosition.forward(lastPosition.getKeys())));
+
+    assertThat(second.getContent()).extracting(Book::getTitle).containsExactly(book2.getTitle());
+    assertThat(second.hasNext()).isFalse();
+  }
+
+  @Test
+  void findBy_ScrollByKeyset_FromExplicitKeys_ShouldStartAfterThem() {
+    Window<Book> window =
+        bookRepository.findBy(
+            BookSpecifications.all(),
+            query ->
+                query
+                    .sortBy(Sort.by("id"))
+                    .limit(5)
+                    .scroll(ScrollPosition.forward(Map.of("id", book1.getId()))));
+
+    assertThat(window.getContent())
+        .extracting(Book::getId)
+        .containsExactly(book2.getId(), book3.getId());
+  }
+
+  @Test
+  void findBy_ScrollByKeyset_WithCriteria_ShouldFilterLikeFindBooksByCriteria() {
+    this.persistNewBook();
+    entityManager.clear();
+
+    Window<Book> window =
+        bookRepository.findBy(
+            BookSpecifications.matchesCriteria(null, null, "Fantasía", "pLAza")
+                .and(BookSpecifications.fetchGenre()),
+            query -> query.sortBy(Sort.by("title")).limit(5).scroll(ScrollPosition.keyset()));
+
+    assertThat(window.getContent())
+        .extracting(Book::getTitle)
+        .containsExactly(book1.getTitle(), book3.getTitle());
+    assertThat(window.getContent())
+        .extracting(b -> b.getGenre().getName())
+        .containsOnly("Fantasía");
+    assertThat(window.hasNext()).isFalse();
+  }
+
+  @Test
+  void findBy_Slice_ShouldDetectNextPageWithoutTotals() {
+    Pageable pageable = PageRequest.of(0, 2, Sort.by("title"));
+
+    Slice<Book> first =
+        bookRepository.findBy(
+            BookSpecifications.all().and(BookSpecifications.fetchGenre()),
+            query -> query.slice(pageable));
+
+    assertThat(first).isNotInstanceOf(Page.class);
+    assertThat(first.getContent())
+        .extracting(Book::getTitle)
+        .containsExactly(book1.getTitle(), book3.getTitle());
+    assertThat(first.hasNext()).isTrue();
+
+    Slice<Book> second =
+        bookRepository.findBy(
+            BookSpecifications.all().and(BookSpecifications.fetchGenre()),
+            query -> query.slice(pageable.next()));
+
+    assertThat(second.getContent()).extracting(Book::getTitle).containsExactly(book2.getTitle());
+    assertThat(second.isLast()).isTrue();
+  }
+
+  @Test
+  void findBy_Slice_WithCriteria_ShouldFilterLikeFindBooksByCriteria() {
+    Slice<Book> found =
+        bookRepository.findBy(
+            BookSpecifications.matchesCriteria("el nombre", "patricK", "Fantasía", "Plaza")
+                .and(BookSpecifications.fetchGenre()),
+            query -> query.slice(PageRequest.of(0, 5)));
+
+    assertThat(found.getContent()).extracting(Book::getTitle).containsExactly(book3.getTitle());
+    assertThat(found.isLast()).isTrue();
+  }
 }
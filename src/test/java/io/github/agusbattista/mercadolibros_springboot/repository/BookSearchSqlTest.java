@@ -0,0 +1,126 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+/*
+ * Regresión del SQL de la búsqueda por criterios: para cada combinación de filtros se captura la
+ * consulta que genera Hibernate y se verifica que contenga sólo los predicados de los filtros
+ * enviados, sin comodines del tipo "(? IS NULL OR ...)" que obligan a un plan genérico.
+ * Verifica el texto de la consulta, no el plan: H2 no elige índices como MySQL, por lo que los
+ * planes se revisan con EXPLAIN contra MySQL.
+ */
+@DataJpaTest
+@TestPropertySource(
+    properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "io.github.agusbattista.mercadolibros_springboot.repository"
+            + ".BookSearchSqlTest$SqlCapture")
+class BookSearchSqlTest {
+
+  private static final BigDecimal MIN_PRICE = new BigDecimal("10");
+  private static final BigDecimal MAX_PRICE = new BigDecimal("30");
+
+  @Autowired private BookRepository bookRepository;
+
+  private enum Filter {
+    TITLE("normalized_title like"),
+    AUTHORS("normalized_authors like"),
+    PUBLISHER("normalized_publisher like"),
+    GENRE(".name=?"),
+    GENRE_CODES(".code in"),
+    MIN_PRICE(".price>=?"),
+    MAX_PRICE(".price<=?"),
+    ISBN_PREFIX(".isbn like");
+
+    private final String predicate;
+
+    Filter(String predicate) {
+      this.predicate = predicate;
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    SqlCapture.STATEMENTS.clear();
+  }
+
+  static Stream<Arguments> filterCombinations() {
+    return Stream.of(
+        Arguments.of(EnumSet.noneOf(Filter.class)),
+        Arguments.of(EnumSet.of(Filter.TITLE)),
+        Arguments.of(EnumSet.of(Filter.AUTHORS)),
+        Arguments.of(EnumSet.of(Filter.PUBLISHER)),
+        Arguments.of(EnumSet.of(Filter.GENRE)),
+        Arguments.of(EnumSet.of(Filter.GENRE_CODES)),
+        Arguments.of(EnumSet.of(Filter.MIN_PRICE)),
+        Arguments.of(EnumSet.of(Filter.MAX_PRICE)),
+        Arguments.of(EnumSet.of(Filter.ISBN_PREFIX)),
+        Arguments.of(EnumSet.of(Filter.TITLE, Filter.GENRE)),
+        Arguments.of(EnumSet.of(Filter.AUTHORS, Filter.PUBLISHER)),
+        Arguments.of(EnumSet.of(Filter.MIN_PRICE, Filter.MAX_PRICE, Filter.GENRE_CODES)),
+        Arguments.of(EnumSet.of(Filter.ISBN_PREFIX, Filter.TITLE)),
+        Arguments.of(EnumSet.allOf(Filter.class)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("filterCombinations")
+  void findBooksByCriteria_ShouldOnlyEmitPredicatesForSuppliedFilters(Set<Filter> filters) {
+    bookRepository.findBooksByCriteria(this.criteriaWith(filters), PageRequest.of(0, 5));
+
+    assertThat(SqlCapture.STATEMENTS).isNotEmpty();
+    SqlCapture.STATEMENTS.forEach(
+        sql -> {
+          String where = sql.substring(sql.indexOf(" where ")).toLowerCase();
+          assertThat(where).doesNotContain("is null");
+          for (Filter filter : Filter.values()) {
+            if (filters.contains(filter)) {
+              assertThat(where).as(filter.name()).contains(filter.predicate);
+            } else {
+              assertThat(where).as(filter.name()).doesNotContain(filter.predicate);
+            }
+          }
+        });
+  }
+
+  private BookFilter criteriaWith(Set<Filter> filters) {
+    return new BookFilter(
+        filters.contains(Filter.TITLE) ? "hielo" : null,
+        filters.contains(Filter.AUTHORS) ? "martin" : null,
+        filters.contains(Filter.GENRE) ? "fantasía" : null,
+        filters.contains(Filter.PUBLISHER) ? "plaza" : null,
+        filters.contains(Filter.MIN_PRICE) ? MIN_PRICE : null,
+        filters.contains(Filter.MAX_PRICE) ? MAX_PRICE : null,
+        filters.contains(Filter.GENRE_CODES) ? List.of("FANTASIA", "TERROR") : null,
+        filters.contains(Filter.ISBN_PREFIX) ? "978" : null);
+  }
+
+  // Hibernate la instancia por nombre, por lo que debe ser pública y con constructor vacío
+  public static class SqlCapture implements StatementInspector {
+
+    static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+      if (sql.startsWith("select") && sql.contains(" from books ")) {
+        STATEMENTS.add(sql);
+      }
+      return sql;
+    }
+  }
+}
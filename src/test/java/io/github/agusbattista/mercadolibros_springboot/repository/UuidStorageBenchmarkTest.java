@@ -0,0 +1,199 @@
+package io.github.agusbattista.mercadolibros_springboot.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.agusbattista.mercadolibros_springboot.model.UuidV7Generator;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/*
+ * Compara altas y búsquedas por UUID con el almacenamiento anterior (texto de 36 caracteres con
+ * UUID aleatorios) y el actual (16 bytes con UUID versión 7). No forma parte de la ejecución
+ * habitual de los tests; se ejecuta con:
+ *
+ *   ./mvnw test -Dtest=UuidStorageBenchmarkTest -Dbenchmark=true
+ *
+ * Por defecto usa H2 en memoria, que sirve sólo para probar el benchmark: no reproduce las
+ * divisiones de páginas ni el buffer pool de InnoDB, por lo que sus números no sirven para comparar
+ * los formatos. Para medir contra MySQL se indica la base con
+ * -Dbenchmark.url=jdbc:mysql://localhost:3307/mercadolibros_db (y -Dbenchmark.username /
+ * -Dbenchmark.password); en MySQL también se informa el tamaño del índice único.
+ *
+ * Antes de medir, cada formato se ejecuta una vez con menos filas para calentar la JVM y la base.
+ * Luego se hacen varias rondas rotando el orden de los formatos, para que ninguno corra siempre
+ * último (con el caché de la base y el JIT más calientes), y se informa la mediana de cada uno.
+ * Se ajusta con -Dbenchmark.rows (por defecto 200000), -Dbenchmark.warmupRows (por defecto 20000)
+ * y -Dbenchmark.rounds (por defecto 3).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class UuidStorageBenchmarkTest {
+
+  private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+  private static final int WARMUP_ROWS = Integer.getInteger("benchmark.warmupRows", 20_000);
+  private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 3);
+  private static final int LOOKUPS = 50_000;
+  private static final int BATCH_SIZE = 1_000;
+
+  private static final String URL = System.getProperty("benchmark.url", "jdbc:h2:mem:benchmark");
+  private static final String USERNAME = System.getProperty("benchmark.username", "sa");
+  private static final String PASSWORD = System.getProperty("benchmark.password", "");
+
+  private record Storage(
+      String name, String columnType, Supplier<UUID> generator, Function<UUID, Object> toColumn) {}
+
+  private record Measurement(
+      double insertsPerSecond, double lookupsPerSecond, String indexSizeKb) {}
+
+  @Test
+  void compareUuidStorages() throws SQLException {
+    List<Storage> storages =
+        List.of(
+            new Storage("VARCHAR(36) + v4", "VARCHAR(36)", UUID::randomUUID, UUID::toString),
+            new Storage("BINARY(16) + v4", "BINARY(16)", UUID::randomUUID, this::toBytes),
+            new Storage("BINARY(16) + v7", "BINARY(16)", UuidV7Generator::generate, this::toBytes));
+    Map<Storage, List<Measurement>> measurements = new LinkedHashMap<>();
+    try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+      for (Storage storage : storages) {
+        this.run(connection, storage, WARMUP_ROWS);
+        measurements.put(storage, new ArrayList<>());
+      }
+      for (int round = 0; round < ROUNDS; round++) {
+        List<Storage> order = new ArrayList<>(storages);
+        Collections.rotate(order, -round);
+        for (Storage storage : order) {
+          measurements.get(storage).add(this.run(connection, storage, ROWS));
+        }
+      }
+    }
+
+    StringBuilder report =
+        new StringBuilder(
+            String.format(
+                "UUID en %s, %d filas, %d búsquedas, mediana de %d rondas%n%-18s %12s %12s %14s",
+                URL,
+                ROWS,
+                LOOKUPS,
+                ROUNDS,
+                "Almacenamiento",
+                "altas/s",
+                "búsquedas/s",
+                "índice (KB)"));
+    measurements.forEach(
+        (storage, results) ->
+            report.append(
+                String.format(
+                    "%n%-18s %12.0f %12.0f %14s",
+                    storage.name(),
+                    this.median(results, Measurement::insertsPerSecond),
+                    this.median(results, Measurement::lookupsPerSecond),
+                    results.getLast().indexSizeKb())));
+    log.info("{}", report);
+  }
+
+  private Measurement run(Connection connection, Storage storage, int rows) throws SQLException {
+    this.execute(connection, "DROP TABLE IF EXISTS uuid_benchmark");
+    this.execute(
+        connection,
+        "CREATE TABLE uuid_benchmark (id BIGINT PRIMARY KEY, uuid "
+            + storage.columnType()
+            + " NOT NULL, CONSTRAINT uk_uuid_benchmark UNIQUE (uuid))");
+    List<UUID> uuids = new ArrayList<>(rows);
+
+    connection.setAutoCommit(false);
+    long insertStart = System.nanoTime();
+    try (PreparedStatement insert =
+        connection.prepareStatement("INSERT INTO uuid_benchmark (id, uuid) VALUES (?, ?)")) {
+      for (int id = 1; id <= rows; id++) {
+        UUID uuid = storage.generator().get();
+        uuids.add(uuid);
+        insert.setLong(1, id);
+        insert.setObject(2, storage.toColumn().apply(uuid));
+        insert.addBatch();
+        if (id % BATCH_SIZE == 0) {
+          insert.executeBatch();
+          connection.commit();
+        }
+      }
+      insert.executeBatch();
+      connection.commit();
+    }
+    double insertsPerSecond = rows / this.seconds(insertStart);
+    connection.setAutoCommit(true);
+
+    Random random = new Random(42);
+    int found = 0;
+    long lookupStart = System.nanoTime();
+    try (PreparedStatement lookup =
+        connection.prepareStatement("SELECT id FROM uuid_benchmark WHERE uuid = ?")) {
+      for (int i = 0; i < LOOKUPS; i++) {
+        lookup.setObject(1, storage.toColumn().apply(uuids.get(random.nextInt(rows))));
+        try (ResultSet rs = lookup.executeQuery()) {
+          found += rs.next() ? 1 : 0;
+        }
+      }
+    }
+    double lookupsPerSecond = LOOKUPS / this.seconds(lookupStart);
+
+    String indexSizeKb = this.indexSizeKb(connection);
+    this.execute(connection, "DROP TABLE uuid_benchmark");
+    assertThat(found).isEqualTo(LOOKUPS);
+    return new Measurement(insertsPerSecond, lookupsPerSecond, indexSizeKb);
+  }
+
+  private double median(List<Measurement> results, ToDoubleFunction<Measurement> value) {
+    double[] sorted = results.stream().mapToDouble(value).sorted().toArray();
+    int middle = sorted.length / 2;
+    return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+  }
+
+  // Sólo MySQL informa el tamaño de los índices secundarios
+  private String indexSizeKb(Connection connection) throws SQLException {
+    if (!"MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+      return "-";
+    }
+    this.execute(connection, "ANALYZE TABLE uuid_benchmark");
+    try (Statement statement = connection.createStatement();
+        ResultSet rs =
+            statement.executeQuery(
+                "SELECT index_length FROM information_schema.tables"
+                    + " WHERE table_schema = DATABASE() AND table_name = 'uuid_benchmark'")) {
+      return rs.next() ? Long.toString(rs.getLong(1) / 1024) : "-";
+    }
+  }
+
+  private void execute(Connection connection, String sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  private double seconds(long start) {
+    return (System.nanoTime() - start) / 1_000_000_000.0;
+  }
+
+  private Object toBytes(UUID uuid) {
+    return ByteBuffer.allocate(16)
+        .putLong(uuid.getMostSignificantBits())
+        .putLong(uuid.getLeastSignificantBits())
+        .array();
+  }
+}
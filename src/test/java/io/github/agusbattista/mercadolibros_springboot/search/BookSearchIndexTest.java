@@ -0,0 +1,412 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookSearchCriteria;
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetCountDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.SuggestionResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookFacet;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookSummary;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchIndexTest {
+
+  @Mock private BookRepository bookRepository;
+
+  private BookSearchIndex bookSearchIndex;
+
+  @BeforeEach
+  void setUp() {
+    bookSearchIndex = new BookSearchIndex(bookRepository);
+    bookSearchIndex.enableTextSearch();
+    when(bookRepository.findSummariesAfter(eq(0L), any(Pageable.class)))
+        .thenReturn(
+            List.of(
+                new Summary(
+                    1L,
+                    "9788401032431",
+                    "Canción de Hielo y Fuego",
+                    "George R. R. Martin",
+                    "Plaza & Janés",
+                    "25.50",
+                    "Fantasía"),
+                new Summary(
+                    2L,
+                    "9788401352836",
+                    "El nombre del viento",
+                    "Patrick Rothfuss",
+                    "Plaza & Janés",
+                    "18.00",
+                    "Fantasía"),
+                new Summary(
+                    3L,
+                    "9780201485677",
+                    "Refactoring",
+                    "Martin Fowler",
+                    "Addison-Wesley",
+                    "40.00",
+                    "Programación")));
+    bookSearchIndex.rebuild();
+  }
+
+  @Test
+  void findIdsByCriteria_WhenIndexIsNotBuilt_ShouldReturnEmpty() {
+    BookSearchIndex notBuilt = new BookSearchIndex(bookRepository);
+
+    assertThat(notBuilt.isReady()).isFalse();
+    assertThat(
+            notBuilt.findIdsByCriteria(
+                BookSearchCriteria.of("hielo", null, null, null), PageRequest.of(0, 5)))
+        .isEmpty();
+  }
+
+  @Test
+  void findIdsByCriteria_ShouldMatchPartialWordsIgnoringCaseAndAccents() {
+    Optional<Page<Long>> found =
+        bookSearchIndex.findIdsByCriteria(
+            BookSearchCriteria.of("CANCIÓN de hie", null, null, null), PageRequest.of(0, 5));
+
+    assertThat(found).isPresent();
+    assertThat(found.get().getContent()).containsExactly(1L);
+  }
+
+  @Test
+  void findIdsByCriteria_ShouldMatchFromTheStartOfTheField() {
+    Optional<Page<Long>> found =
+        bookSearchIndex.findIdsByCriteria(
+            BookSearchCriteria.of("hielo", null, null, null), PageRequest.of(0, 5));
+
+    assertThat(found).isPresent();
+    assertThat(found.get()).isEmpty();
+  }
+
+  @Test
+  void findIdsByCriteria_ShouldRequireTheWholePhraseNotOnlyItsWords() {
+    Optional<Page<Long>> found =
+        bookSearchIndex.findIdsByCriteria(
+            BookSearchCriteria.of("fuego y hielo", null, null, null), PageRequest.of(0, 5));
+
+    assertThat(found).isPresent();
+    assertThat(found.get()).isEmpty();
+  }
+
+  @Test
+  void findIdsByCriteria_ShouldCombineFieldsAndMatchGenreByName() {
+    Optional<Page<Long>> found =
+        bookSearchIndex.findIdsByCriteria(
+            BookSearchCriteria.of(null, "george", "Fantasía", "plaza"), PageRequest.of(0, 5));
+
+    assertThat(found).isPresent();
+    assertThat(found.get().getContent()).containsExactly(1L);
+  }
+
+  @Test
+  void findIdsByCriteria_ShouldSortAndPaginateInMemory() {
+    Optional<Page<Long>> found =
+        bookSearchIndex.findIdsByCriteria(
+            BookSearchCriteria.of(null, null, null, null),
+            PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "price")));
+
+    assertThat(found).isPresent();
+    assertThat(found.get().getContent()).containsExactly(3L, 1L);
+    assertThat(found.get().getTotalElements()).isEqualTo(3);
+  }
+
+  @Test
+  void findIdsByCriteria_ShouldFilterByPriceRangeGenreCodesAndIsbnPrefix() {
+    BookSearchCriteria byPriceAndCodes =
+        new BookSearchCriteria(
+            null,
+            null,
+            null,
+            null,
+            new BigDecimal("20"),
+            new BigDecimal("40"),
+            List.of("fantasia", "CIENCIA_FICCION"),
+            null);
+    BookSearchCriteria byIsbnPrefix =
+        new BookSearchCriteria(null, null, null, null, null, null, null, "978-84");
+
+    assertThat(bookSearchIndex.findIdsByCriteria(byPriceAndCodes, PageRequest.of(0, 5)))
+        .hasValueSatisfying(page -> assertThat(page.getContent()).containsExactly(1L));
+    assertThat(bookSearchIndex.findIdsByCriteria(byIsbnPrefix, PageRequest.of(0, 5)))
+        .hasValueSatisfying(page -> assertThat(page.getContent()).containsExactly(1L, 2L));
+  }
+
+  @Test
+  void findIdsByCriteria_WhenSortIsNotSupported_ShouldReturnEmpty() {
+    Pageable pageable = PageRequest.of(0, 5, Sort.by("description"));
+
+    assertThat(
+            bookSearchIndex.findIdsByCriteria(
+                BookSearchCriteria.of("hielo", null, null, null), pageable))
+        .isEmpty();
+  }
+
+  @Test
+  void findIdsByCriteria_WhenFilterHasNoSearchableCharacters_ShouldIgnoreIt() {
+    assertThat(
+            bookSearchIndex.findIdsByCriteria(
+                BookSearchCriteria.of(null, null, null, "&"), PageRequest.of(0, 5)))
+        .hasValueSatisfying(page -> assertThat(page.getTotalElements()).isEqualTo(3));
+  }
+
+  @Test
+  void countFacets_ShouldCountMatchingBooksPerValueInRequestedOrder() {
+    Optional<Map<String, List<FacetCountDTO>>> facets =
+        bookSearchIndex.countFacets(
+            new BookSearchCriteria(null, null, null, null, new BigDecimal("20"), null, null, null),
+            List.of(BookFacet.PRICE, BookFacet.GENRE, BookFacet.PUBLISHER));
+
+    assertThat(facets).isPresent();
+    assertThat(facets.get().keySet()).containsExactly("price", "genre", "publisher");
+    assertThat(facets.get().get("price")).containsExactly(new FacetCountDTO("20-50", 2));
+    assertThat(facets.get().get("genre"))
+        .containsExactly(new FacetCountDTO("Fantasía", 1), new FacetCountDTO("Programación", 1));
+  }
+
+  @Test
+  void countFacets_WhenIndexIsNotBuilt_ShouldReturnEmpty() {
+    BookSearchIndex notBuilt = new BookSearchIndex(bookRepository);
+
+    assertThat(
+            notBuilt.countFacets(
+                BookSearchCriteria.of(null, null, null, null), List.of(BookFacet.GENRE)))
+        .isEmpty();
+  }
+
+  @Test
+  void onBookChanged_ShouldReplaceFieldsOfUpdatedBooksAndForgetDeletedOnes() {
+    bookSearchIndex.onBookChanged(
+        new BookChangedEvent(
+            ChangeType.UPDATED,
+            2L,
+            this.response("El temor de un hombre sabio", "Patrick Rothfuss", "Ciencia Ficción")));
+    bookSearchIndex.onBookChanged(
+        new BookChangedEvent(
+            ChangeType.DELETED, 3L, this.response("Refactoring", "Martin Fowler", "Programación")));
+
+    assertThat(
+            bookSearchIndex.findIdsByCriteria(
+                BookSearchCriteria.of("el nombre", null, null, null), PageRequest.of(0, 5)))
+        .hasValueSatisfying(page -> assertThat(page).isEmpty());
+    assertThat(
+            bookSearchIndex.findIdsByCriteria(
+                BookSearchCriteria.of("el temor", null, "Ciencia Ficción", null),
+                PageRequest.of(0, 5)))
+        .hasValueSatisfying(page -> assertThat(page.getContent()).containsExactly(2L));
+    assertThat(
+            bookSearchIndex.findIdsByCriteria(
+                BookSearchCriteria.of(null, "martin", null, null), PageRequest.of(0, 5)))
+        .hasValueSatisfying(page -> assertThat(page).isEmpty());
+  }
+
+  @Test
+  void onGenreChanged_WhenGenreIsRenamed_ShouldReindexItsBooks() {
+    when(bookRepository.findSummariesByGenreId(1L))
+        .thenReturn(
+            List.of(
+                new Summary(
+                    1L,
+                    "9788401032431",
+                    "Canción de Hielo y Fuego",
+                    "George R. R. Martin",
+                    "Plaza & Janés",
+                    "25.50",
+                    "Fantasía Épica"),
+                new Summary(
+                    2L,
+                    "9788401352836",
+                    "El nombre del viento",
+                    "Patrick Rothfuss",
+                    "Plaza & Janés",
+                    "18.00",
+                    "Fantasía Épica")));
+
+    bookSearchIndex.onGenreChanged(new GenreChangedEvent(ChangeType.UPDATED, 1L));
+
+    assertThat(
+            bookSearchIndex.findIdsByCriteria(
+                BookSearchCriteria.of(null, null, "Fantasía Épica", null), PageRequest.of(0, 5)))
+        .hasValueSatisfying(page -> assertThat(page.getContent()).containsExactly(1L, 2L));
+    assertThat(
+            bookSearchIndex.findIdsByCriteria(
+                BookSearchCriteria.of(null, null, "Fantasía", null), PageRequest.of(0, 5)))
+        .hasValueSatisfying(page -> assertThat(page).isEmpty());
+    assertThat(
+            bookSearchIndex.countFacets(
+                BookSearchCriteria.of(null, null, null, null), List.of(BookFacet.GENRE)))
+        .hasValueSatisfying(
+            facets ->
+                assertThat(facets.get("genre"))
+                    .containsExactly(
+                        new FacetCountDTO("Fantasía Épica", 2),
+                        new FacetCountDTO("Programación", 1)));
+    assertThat(
+            bookSearchIndex.findIdsByCriteria(
+                BookSearchCriteria.of(null, null, null, null),
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "genre.name"))))
+        .hasValueSatisfying(page -> assertThat(page.getContent()).containsExactly(3L, 1L, 2L));
+  }
+
+  @Test
+  void suggest_ShouldReturnFieldValuesStartingWithPrefixMostRepeatedFirst() {
+    assertThat(bookSearchIndex.suggest(SuggestionField.PUBLISHER, "PLA", 5))
+        .containsExactly(new SuggestionResponseDTO("Plaza & Janés", 2));
+    assertThat(bookSearchIndex.suggest(SuggestionField.TITLE, "e", 5))
+        .containsExactly(new SuggestionResponseDTO("El nombre del viento", 1));
+    assertThat(bookSearchIndex.suggest(SuggestionField.AUTHORS, "  ", 5)).isEmpty();
+  }
+
+  @Test
+  void suggest_ShouldReflectUpdatedAndDeletedBooks() {
+    bookSearchIndex.onBookChanged(
+        new BookChangedEvent(
+            ChangeType.UPDATED,
+            2L,
+            this.response("El temor de un hombre sabio", "Patrick Rothfuss", "Fantasía")));
+    bookSearchIndex.onBookChanged(
+        new BookChangedEvent(
+            ChangeType.DELETED, 3L, this.response("Refactoring", "Martin Fowler", "Programación")));
+
+    assertThat(bookSearchIndex.suggest(SuggestionField.TITLE, "el", 5))
+        .containsExactly(new SuggestionResponseDTO("El temor de un hombre sabio", 1));
+    assertThat(bookSearchIndex.suggest(SuggestionField.AUTHORS, "mar", 5)).isEmpty();
+  }
+
+  @Test
+  void searchFuzzy_ShouldToleratePhrasesWithTyposRankingClosestMatchesFirst() {
+    Optional<Page<Long>> found =
+        bookSearchIndex.searchFuzzy("Fowlr refactorng", PageRequest.of(0, 5));
+
+    assertThat(found).isPresent();
+    assertThat(found.get().getContent()).containsExactly(3L);
+    assertThat(bookSearchIndex.searchFuzzy("matrin", PageRequest.of(0, 5)))
+        .hasValueSatisfying(page -> assertThat(page.getContent()).containsExactly(1L, 3L));
+  }
+
+  @Test
+  void searchFuzzy_ShouldOnlyMatchTitlesAndAuthors() {
+    assertThat(bookSearchIndex.searchFuzzy("plaza janes", PageRequest.of(0, 5)))
+        .hasValueSatisfying(page -> assertThat(page).isEmpty());
+  }
+
+  @Test
+  void searchFuzzy_WhenIndexIsNotBuilt_ShouldReturnEmpty() {
+    BookSearchIndex notBuilt = new BookSearchIndex(bookRepository);
+
+    assertThat(notBuilt.searchFuzzy("fowlr", PageRequest.of(0, 5))).isEmpty();
+  }
+
+  @Test
+  void searchText_ShouldRankBooksAcrossTextFields() {
+    Page<Long> found = bookSearchIndex.searchText("martin fowler", PageRequest.of(0, 5));
+
+    assertThat(found.getContent()).containsExactly(3L, 1L);
+  }
+
+  @Test
+  void searchText_WhenIndexIsNotBuilt_ShouldReturnEmptyPage() {
+    BookSearchIndex notBuilt = new BookSearchIndex(bookRepository);
+    notBuilt.enableTextSearch();
+
+    assertThat(notBuilt.searchText("martin", PageRequest.of(0, 5))).isEmpty();
+  }
+
+  @Test
+  void rebuild_WhenTextSearchIsNotEnabled_ShouldStillFilterByPublisher() {
+    BookSearchIndex withoutTextSearch = new BookSearchIndex(bookRepository);
+    withoutTextSearch.rebuild();
+
+    assertThat(
+            withoutTextSearch
+                .findIdsByCriteria(
+                    new BookSearchCriteria(null, null, null, "plaza", null, null, null, null),
+                    PageRequest.of(0, 5))
+                .map(Page::getContent))
+        .contains(List.of(1L, 2L));
+    assertThat(withoutTextSearch.searchText("plaza", PageRequest.of(0, 5))).isEmpty();
+  }
+
+  private BookResponseDTO response(String title, String authors, String genreName) {
+    return new BookResponseDTO(
+        null,
+        "9780000000000",
+        title,
+        authors,
+        BigDecimal.TEN,
+        "",
+        "Debolsillo",
+        new GenreResponseDTO(1L, null, genreName, 0L),
+        "",
+        0L);
+  }
+
+  private record Summary(
+      Long id,
+      String isbn,
+      String title,
+      String authors,
+      String publisher,
+      String price,
+      String genreName)
+      implements BookSummary {
+
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    @Override
+    public String getIsbn() {
+      return isbn;
+    }
+
+    @Override
+    public String getTitle() {
+      return title;
+    }
+
+    @Override
+    public String getAuthors() {
+      return authors;
+    }
+
+    @Override
+    public String getPublisher() {
+      return publisher;
+    }
+
+    @Override
+    public BigDecimal getPrice() {
+      return new BigDecimal(price);
+    }
+
+    @Override
+    public String getGenreName() {
+      return genreName;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FuzzyTermIndexTest {
+
+  private FuzzyTermIndex fuzzyTermIndex;
+
+  @BeforeEach
+  void setUp() {
+    fuzzyTermIndex = new FuzzyTermIndex();
+    fuzzyTermIndex.add("fowler");
+    fuzzyTermIndex.add("gamma");
+    fuzzyTermIndex.add("gamma");
+    fuzzyTermIndex.add("martin");
+    fuzzyTermIndex.add("refactoring");
+  }
+
+  @Test
+  void similar_ShouldReturnTermsWithinEditDistance() {
+    assertThat(fuzzyTermIndex.similar("fowlr", 1))
+        .containsExactly(new FuzzyTermIndex.Match("fowler", 1));
+    assertThat(fuzzyTermIndex.similar("gama", 1))
+        .containsExactly(new FuzzyTermIndex.Match("gamma", 1));
+    assertThat(fuzzyTermIndex.similar("refactorng", 2))
+        .containsExactly(new FuzzyTermIndex.Match("refactoring", 1));
+  }
+
+  @Test
+  void similar_ShouldCountTranspositionAsOneEdit() {
+    assertThat(fuzzyTermIndex.similar("matrin", 1))
+        .containsExactly(new FuzzyTermIndex.Match("martin", 1));
+  }
+
+  @Test
+  void similar_WhenWordIsTooDifferent_ShouldReturnEmptyList() {
+    assertThat(fuzzyTermIndex.similar("tolkien", 2)).isEmpty();
+    assertThat(fuzzyTermIndex.similar("fwlr", 1)).isEmpty();
+  }
+
+  @Test
+  void remove_ShouldKeepTermWhileOtherBooksStillUseIt() {
+    fuzzyTermIndex.remove("gamma");
+    assertThat(fuzzyTermIndex.similar("gama", 1)).hasSize(1);
+
+    fuzzyTermIndex.remove("gamma");
+    assertThat(fuzzyTermIndex.similar("gama", 1)).isEmpty();
+  }
+
+  @Test
+  void distance_ShouldStopOnceMaxDistanceIsExceeded() {
+    assertThat(FuzzyTermIndex.distance("fowler", "fowler", 2)).isZero();
+    assertThat(FuzzyTermIndex.distance("fowler", "flower", 2)).isEqualTo(2);
+    assertThat(FuzzyTermIndex.distance("fowler", "martin", 2)).isEqualTo(3);
+  }
+}
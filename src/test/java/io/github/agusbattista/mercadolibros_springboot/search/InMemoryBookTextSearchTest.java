@@ -0,0 +1,146 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookSummary;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryBookTextSearchTest {
+
+  @Mock private BookRepository bookRepository;
+
+  private BookSearchIndex bookSearchIndex;
+
+  private InMemoryBookTextSearch textSearch;
+
+  @BeforeEach
+  void setUp() {
+    bookSearchIndex = new BookSearchIndex(bookRepository);
+    textSearch = new InMemoryBookTextSearch(bookSearchIndex);
+    when(bookRepository.findSummariesAfter(eq(0L), any(Pageable.class)))
+        .thenReturn(
+            List.of(
+                this.book(1L, "Canción de Hielo y Fuego (Colección)", "George R. R. Martin"),
+                this.book(2L, "El nombre del viento", "Patrick Rothfuss"),
+                this.book(3L, "Fuego y Sangre", "George R. R. Martin")));
+    bookSearchIndex.rebuild();
+  }
+
+  @Test
+  void search_ShouldIgnoreCaseAndAccents() {
+    Page<Long> found = textSearch.search("CANCIÓN", PageRequest.of(0, 5));
+
+    assertThat(found.getContent()).containsExactly(1L);
+  }
+
+  @Test
+  void search_ShouldRankBooksMatchingMoreTermsFirst() {
+    Page<Long> found = textSearch.search("fuego sangre", PageRequest.of(0, 5));
+
+    assertThat(found.getContent()).containsExactly(3L, 1L);
+    assertThat(found.getTotalElements()).isEqualTo(2);
+  }
+
+  @Test
+  void search_ShouldPaginateRankedResults() {
+    Page<Long> found = textSearch.search("martin viento", PageRequest.of(1, 2));
+
+    assertThat(found.getContent()).hasSize(1);
+    assertThat(found.getTotalElements()).isEqualTo(3);
+  }
+
+  @Test
+  void search_WhenNothingMatches_ShouldReturnEmptyPage() {
+    assertThat(textSearch.search("refactoring", PageRequest.of(0, 5))).isEmpty();
+  }
+
+  @Test
+  void onBookChanged_ShouldIndexCreatedBooksAndForgetDeletedOnes() {
+    bookSearchIndex.onBookChanged(
+        new BookChangedEvent(
+            ChangeType.CREATED, 4L, this.response("Refactoring", "Martin Fowler")));
+    bookSearchIndex.onBookChanged(
+        new BookChangedEvent(
+            ChangeType.DELETED, 2L, this.response("El nombre del viento", "Patrick Rothfuss")));
+
+    assertThat(textSearch.search("refactoring", PageRequest.of(0, 5)).getContent())
+        .containsExactly(4L);
+    assertThat(textSearch.search("viento", PageRequest.of(0, 5))).isEmpty();
+  }
+
+  @Test
+  void onBookChanged_WhenBookIsUpdated_ShouldReplaceItsTerms() {
+    bookSearchIndex.onBookChanged(
+        new BookChangedEvent(
+            ChangeType.UPDATED,
+            2L,
+            this.response("El temor de un hombre sabio", "Patrick Rothfuss")));
+
+    assertThat(textSearch.search("viento", PageRequest.of(0, 5))).isEmpty();
+    assertThat(textSearch.search("sabio", PageRequest.of(0, 5)).getContent()).containsExactly(2L);
+  }
+
+  private BookSummary book(Long id, String title, String authors) {
+    return new Summary(id, title, authors);
+  }
+
+  private BookResponseDTO response(String title, String authors) {
+    return new BookResponseDTO(
+        null, "9780000000000", title, authors, BigDecimal.TEN, "", "Debolsillo", null, "", 0L);
+  }
+
+  private record Summary(Long id, String title, String authors) implements BookSummary {
+
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    @Override
+    public String getIsbn() {
+      return "978000000000" + id;
+    }
+
+    @Override
+    public String getTitle() {
+      return title;
+    }
+
+    @Override
+    public String getAuthors() {
+      return authors;
+    }
+
+    @Override
+    public String getPublisher() {
+      return "Plaza & Janés";
+    }
+
+    @Override
+    public BigDecimal getPrice() {
+      return BigDecimal.TEN;
+    }
+
+    @Override
+    public String getGenreName() {
+      return "Fantasía";
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PostingListTest {
+
+  @Test
+  void add_ShouldKeepIdsSortedAndWithoutDuplicates() {
+    PostingList postingList = new PostingList();
+
+    assertThat(postingList.add(5)).isTrue();
+    assertThat(postingList.add(1)).isTrue();
+    assertThat(postingList.add(9)).isTrue();
+    assertThat(postingList.add(3)).isTrue();
+    assertThat(postingList.add(7)).isTrue();
+    assertThat(postingList.add(5)).isFalse();
+
+    assertThat(postingList.toArray()).containsExactly(1, 3, 5, 7, 9);
+    assertThat(postingList.size()).isEqualTo(5);
+  }
+
+  @Test
+  void remove_ShouldDropIdAndReportWhetherItExisted() {
+    PostingList postingList = new PostingList();
+    postingList.add(1);
+    postingList.add(2);
+
+    assertThat(postingList.remove(1)).isTrue();
+    assertThat(postingList.remove(4)).isFalse();
+    assertThat(postingList.toArray()).containsExactly(2);
+    assertThat(postingList.remove(2)).isTrue();
+    assertThat(postingList.isEmpty()).isTrue();
+  }
+
+  @Test
+  void intersect_ShouldReturnCommonIdsInOrder() {
+    assertThat(PostingList.intersect(new long[] {1, 3, 5, 8}, new long[] {2, 3, 8, 9}))
+        .containsExactly(3, 8);
+    assertThat(PostingList.intersect(new long[] {1, 2}, new long[] {})).isEmpty();
+  }
+
+  @Test
+  void merge_ShouldJoinAllListsInOrderWithoutDuplicates() {
+    assertThat(
+            PostingList.merge(
+                List.of(postings(1, 3, 5), postings(2, 3, 6), postings(), postings(3, 7))))
+        .containsExactly(1, 2, 3, 5, 6, 7);
+    assertThat(PostingList.merge(List.of(postings(4)))).containsExactly(4);
+    assertThat(PostingList.merge(List.of())).isEmpty();
+  }
+
+  private static PostingList postings(long... ids) {
+    PostingList postingList = new PostingList();
+    for (long id : ids) {
+      postingList.add(id);
+    }
+    return postingList;
+  }
+}
@@ -0,0 +1,68 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.SuggestionResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PrefixIndexTest {
+
+  private PrefixIndex prefixIndex;
+
+  @BeforeEach
+  void setUp() {
+    prefixIndex = new PrefixIndex();
+    prefixIndex.add("el nombre del viento", "El nombre del viento", 4L);
+    prefixIndex.add("el temor de un hombre sabio", "El temor de un hombre sabio", 1L);
+    prefixIndex.add("el temor de un hombre sabio", "El Temor de un Hombre Sabio", 3L);
+    prefixIndex.add("elantris", "Elantris", 2L);
+    prefixIndex.add("fuego y sangre", "Fuego y Sangre", 5L);
+  }
+
+  @Test
+  void suggest_ShouldReturnOnlyKeysStartingWithPrefixMostRepeatedFirst() {
+    assertThat(prefixIndex.suggest("el", 10))
+        .containsExactly(
+            new SuggestionResponseDTO("El temor de un hombre sabio", 2),
+            new SuggestionResponseDTO("El nombre del viento", 1),
+            new SuggestionResponseDTO("Elantris", 1));
+  }
+
+  @Test
+  void suggest_ShouldRespectLimit() {
+    assertThat(prefixIndex.suggest("el", 2))
+        .extracting(SuggestionResponseDTO::value)
+        .containsExactly("El temor de un hombre sabio", "El nombre del viento");
+  }
+
+  @Test
+  void suggest_WhenNothingStartsWithPrefix_ShouldReturnEmptyList() {
+    assertThat(prefixIndex.suggest("zz", 5)).isEmpty();
+    assertThat(prefixIndex.suggest("viento", 5)).isEmpty();
+  }
+
+  @Test
+  void remove_ShouldDropKeyOnlyWhenNoBookUsesIt() {
+    prefixIndex.remove("el temor de un hombre sabio", 1L);
+    prefixIndex.remove("elantris", 2L);
+
+    assertThat(prefixIndex.suggest("el", 10))
+        .containsExactly(
+            new SuggestionResponseDTO("El nombre del viento", 1),
+            new SuggestionResponseDTO("El temor de un hombre sabio", 1));
+  }
+
+  @Test
+  void ids_ShouldReturnSortedIdsOfBooksWhoseValueStartsWithPrefix() {
+    assertThat(prefixIndex.ids("el")).containsExactly(1L, 2L, 3L, 4L);
+    assertThat(prefixIndex.ids("el temor")).containsExactly(1L, 3L);
+    assertThat(prefixIndex.ids("fuego y sangre")).containsExactly(5L);
+  }
+
+  @Test
+  void ids_WhenNothingStartsWithPrefix_ShouldReturnEmptyArray() {
+    assertThat(prefixIndex.ids("sangre")).isEmpty();
+    assertThat(prefixIndex.ids("elantrisx")).isEmpty();
+  }
+}
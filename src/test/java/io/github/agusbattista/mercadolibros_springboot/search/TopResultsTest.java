@@ -0,0 +1,46 @@
+package io.github.agusbattista.mercadolibros_springboot.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+class TopResultsTest {
+
+  @Test
+  void toPage_ShouldReturnRequestedPageInOrderAndCountEveryResult() {
+    TopResults<Integer> results =
+        new TopResults<>(Comparator.<Integer>reverseOrder(), PageRequest.of(1, 2));
+    List.of(4, 9, 1, 7, 3, 8).forEach(results::add);
+
+    Page<String> page = results.toPage(String::valueOf);
+
+    assertThat(page.getContent()).containsExactly("7", "4");
+    assertThat(page.getTotalElements()).isEqualTo(6);
+  }
+
+  @Test
+  void toPage_WhenOffsetIsPastTheResults_ShouldReturnEmptyContentWithTotal() {
+    TopResults<Integer> results =
+        new TopResults<>(Comparator.<Integer>naturalOrder(), PageRequest.of(3, 2));
+    List.of(2, 1).forEach(results::add);
+
+    Page<Integer> page = results.toPage(value -> value);
+
+    assertThat(page.getContent()).isEmpty();
+    assertThat(page.getTotalElements()).isEqualTo(2);
+  }
+
+  @Test
+  void toPage_WhenUnpaged_ShouldReturnEveryResultInOrder() {
+    TopResults<Integer> results =
+        new TopResults<>(Comparator.<Integer>naturalOrder(), Pageable.unpaged());
+    List.of(3, 1, 2).forEach(results::add);
+
+    assertThat(results.toPage(value -> value).getContent()).containsExactly(1, 2, 3);
+  }
+}
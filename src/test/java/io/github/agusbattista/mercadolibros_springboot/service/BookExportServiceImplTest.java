@@ -0,0 +1,136 @@
+package io.github.agusbattista.mercadolibros_springboot.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookRequestDTO;
+import io.github.agusbattista.mercadolibros_springboot.mapper.BookMapperImpl;
+import io.github.agusbattista.mercadolibros_springboot.mapper.GenreMapperImpl;
+import io.github.agusbattista.mercadolibros_springboot.model.Book;
+import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookExportServiceImplTest {
+
+  private static final int FETCH_SIZE = 1_000;
+
+  @Mock private BookRepository bookRepository;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private BookExportService bookExportService;
+
+  private Book book1;
+  private Book book2;
+
+  @BeforeEach
+  void setUp() {
+    bookExportService =
+        new BookExportServiceImpl(
+            bookRepository, new BookMapperImpl(new GenreMapperImpl()), objectMapper, FETCH_SIZE);
+
+    Genre genre = new Genre();
+    genre.setId(1L);
+    genre.setName("Fantasía");
+    genre.setCode("FANTASIA");
+
+    book1 = this.book(1L, "9788445073728", "La Comunidad del Anillo", genre);
+    book2 = this.book(2L, "9788401337208", "El nombre del viento, edición especial", genre);
+  }
+
+  @Test
+  void exportBooks_WhenNdjson_ShouldWriteOneBookPerLine() throws Exception {
+    when(bookRepository.streamAll(FETCH_SIZE)).thenReturn(Stream.of(book1, book2));
+
+    String output = this.export(BookFileFormat.NDJSON);
+
+    assertThat(output).endsWith("\n");
+    List<String> lines = output.lines().toList();
+    assertThat(lines).hasSize(2);
+    JsonNode first = objectMapper.readTree(lines.getFirst());
+    assertThat(first.get("uuid").asText()).isEqualTo(book1.getUuid().toString());
+    assertThat(first.get("genre").get("name").asText()).isEqualTo("Fantasía");
+    assertThat(first.has("version")).isFalse();
+    assertThat(objectMapper.readTree(lines.get(1)).get("isbn").asText()).isEqualTo(book2.getIsbn());
+    verify(bookRepository).streamAll(FETCH_SIZE);
+  }
+
+  @Test
+  void exportBooks_WhenCsv_ShouldWriteHeaderAndRowsReadableByImport() throws Exception {
+    when(bookRepository.streamAll(FETCH_SIZE)).thenReturn(Stream.of(book1, book2));
+
+    String output = this.export(BookFileFormat.CSV);
+
+    assertThat(output.lines().findFirst())
+        .contains("uuid,isbn,title,authors,price,description,publisher,genreId,genreName,imageUrl");
+    List<BookRequestDTO> imported =
+        new CsvMapper()
+            .readerFor(BookRequestDTO.class)
+            .with(CsvSchema.emptySchema().withHeader())
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .<BookRequestDTO>readValues(output)
+            .readAll();
+    assertThat(imported)
+        .extracting(BookRequestDTO::title)
+        .containsExactly(book1.getTitle(), book2.getTitle());
+    assertThat(imported.getFirst().genreId()).isEqualTo(1L);
+    assertThat(imported.getFirst().price()).isEqualByComparingTo("12.99");
+  }
+
+  @Test
+  void exportBooks_WhenThereAreNoBooks_ShouldWriteOnlyCsvHeader() throws Exception {
+    when(bookRepository.streamAll(FETCH_SIZE)).thenReturn(Stream.empty());
+
+    assertThat(this.export(BookFileFormat.CSV).lines()).hasSize(1);
+  }
+
+  @Test
+  void exportBooks_ShouldCloseTheStream() throws Exception {
+    boolean[] closed = {false};
+    when(bookRepository.streamAll(FETCH_SIZE))
+        .thenReturn(Stream.of(book1).onClose(() -> closed[0] = true));
+
+    this.export(BookFileFormat.NDJSON);
+
+    assertThat(closed[0]).isTrue();
+  }
+
+  private String export(BookFileFormat format) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    bookExportService.exportBooks(output, format);
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  private Book book(Long id, String isbn, String title, Genre genre) {
+    Book book = new Book();
+    book.setId(id);
+    book.setUuid(UUID.randomUUID());
+    book.setIsbn(isbn);
+    book.setTitle(title);
+    book.setAuthors("J. R. R. Tolkien");
+    book.setPrice(new BigDecimal("12.99"));
+    book.setDescription("La primera parte de la historia de la Guerra del Anillo.");
+    book.setPublisher("Minotauro");
+    book.setGenre(genre);
+    book.setImageUrl("https://example.com/anillo.jpg");
+    return book;
+  }
+}
@@ -0,0 +1,295 @@
+package io.github.agusbattista.mercadolibros_springboot.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchItemResultDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookImportErrorDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookImportSummaryDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookRequestDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import jakarta.validation.ConstraintViolationException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionSystemException;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceImplTest {
+
+  private static final String INVALID_ISBN = "123";
+  private static final String CSV_HEADER =
+      "isbn,title,authors,price,description,publisher,genreId,imageUrl\n";
+
+  @Mock private BookService bookService;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private BookImportService bookImportService;
+
+  // Tamaño de cada bloque recibido por createAll (la lista se reutiliza entre bloques)
+  private final List<Integer> chunkSizes = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    bookImportService = new BookImportServiceImpl(bookService, objectMapper);
+  }
+
+  @Test
+  void importBooks_WhenNdjson_ShouldSaveEveryRow() throws Exception {
+    this.stubCreateAll();
+    String content = this.ndjsonLine(this.book("9780306406157")) + "\n\n";
+    content += this.ndjsonLine(this.book("9780451524935")) + "\n";
+
+    BookImportSummaryDTO summary = this.importBooks(content, BookFileFormat.NDJSON);
+
+    assertThat(summary.rows()).isEqualTo(2);
+    assertThat(summary.created()).isEqualTo(2);
+    assertThat(summary.failed()).isZero();
+    assertThat(summary.errors()).isEmpty();
+    assertThat(chunkSizes).containsExactly(2);
+  }
+
+  @Test
+  void importBooks_WhenNdjsonRowIsUnreadable_ShouldRejectOnlyThatRow() throws Exception {
+    this.stubCreateAll();
+    String content = this.ndjsonLine(this.book("9780306406157")) + "\n";
+    content += "{\"isbn\": \"9780451524935\", \"price\": \"abc\", \"genreId\": {\"id\": 1}}\n";
+    content += this.ndjsonLine(this.book("9780451524935")) + "\n";
+
+    BookImportSummaryDTO summary = this.importBooks(content, BookFileFormat.NDJSON);
+
+    assertThat(summary.rows()).isEqualTo(3);
+    assertThat(summary.created()).isEqualTo(2);
+    assertThat(summary.failed()).isEqualTo(1);
+    assertThat(summary.errors()).extracting(BookImportErrorDTO::row).containsExactly(2L);
+    assertThat(summary.errors().getFirst().isbn()).isNull();
+  }
+
+  @Test
+  void importBooks_WhenNdjsonIsMalformed_ShouldSavePreviousRowsAndStop() throws Exception {
+    this.stubCreateAll();
+    String content = this.ndjsonLine(this.book("9780306406157")) + "\n";
+    content += "{\"isbn\": \"9780451524935\", \"title\": ]\n";
+    content += this.ndjsonLine(this.book("9780451524935")) + "\n";
+
+    BookImportSummaryDTO summary = this.importBooks(content, BookFileFormat.NDJSON);
+
+    assertThat(summary.rows()).isEqualTo(2);
+    assertThat(summary.created()).isEqualTo(1);
+    assertThat(summary.errors()).extracting(BookImportErrorDTO::row).containsExactly(2L);
+    assertThat(summary.errors().getFirst().errors().getFirst()).startsWith("JSON mal formado");
+  }
+
+  @Test
+  void importBooks_WhenBookIsInvalid_ShouldReportItsRow() throws Exception {
+    this.stubCreateAll();
+    String content = this.ndjsonLine(this.book("9780306406157")) + "\n";
+    content += this.ndjsonLine(this.book(INVALID_ISBN)) + "\n";
+
+    BookImportSummaryDTO summary = this.importBooks(content, BookFileFormat.NDJSON);
+
+    assertThat(summary.created()).isEqualTo(1);
+    assertThat(summary.failed()).isEqualTo(1);
+    assertThat(summary.errors())
+        .containsExactly(
+            new BookImportErrorDTO(2, INVALID_ISBN, List.of("isbn: El formato no es válido")));
+  }
+
+  @Test
+  void importBooks_WhenMoreRowsThanChunkSize_ShouldSaveInChunks() throws Exception {
+    this.stubCreateAll();
+    String line = this.ndjsonLine(this.book("9780306406157")) + "\n";
+    String content = line.repeat(BookImportServiceImpl.CHUNK_SIZE * 2 + 1);
+
+    BookImportSummaryDTO summary = this.importBooks(content, BookFileFormat.NDJSON);
+
+    assertThat(summary.rows()).isEqualTo(BookImportServiceImpl.CHUNK_SIZE * 2 + 1);
+    assertThat(chunkSizes)
+        .containsExactly(BookImportServiceImpl.CHUNK_SIZE, BookImportServiceImpl.CHUNK_SIZE, 1);
+  }
+
+  @Test
+  void importBooks_WhenChunkFails_ShouldRejectItsRowsAndContinue() throws Exception {
+    when(bookService.createAll(anyList()))
+        .thenThrow(new DataIntegrityViolationException("Duplicate entry"))
+        .thenAnswer(invocation -> this.createAll(invocation.getArgument(0)));
+    String line = this.ndjsonLine(this.book("9780306406157")) + "\n";
+    String content = line.repeat(BookImportServiceImpl.CHUNK_SIZE + 1);
+
+    BookImportSummaryDTO summary = this.importBooks(content, BookFileFormat.NDJSON);
+
+    assertThat(summary.created()).isEqualTo(1);
+    assertThat(summary.failed()).isEqualTo(BookImportServiceImpl.CHUNK_SIZE);
+    assertThat(summary.errors().getFirst().row()).isEqualTo(1);
+  }
+
+  @Test
+  void importBooks_WhenChunkFailsValidationOrCommit_ShouldRejectItsRowsAndContinue()
+      throws Exception {
+    when(bookService.createAll(anyList()))
+        .thenThrow(new ConstraintViolationException("title: no puede estar vacío", Set.of()))
+        .thenThrow(new TransactionSystemException("No se pudo confirmar la transacción"))
+        .thenAnswer(invocation -> this.createAll(invocation.getArgument(0)));
+    String line = this.ndjsonLine(this.book("9780306406157")) + "\n";
+    String content = line.repeat(BookImportServiceImpl.CHUNK_SIZE * 2 + 1);
+
+    BookImportSummaryDTO summary = this.importBooks(content, BookFileFormat.NDJSON);
+
+    assertThat(summary.created()).isEqualTo(1);
+    assertThat(summary.failed()).isEqualTo(BookImportServiceImpl.CHUNK_SIZE * 2);
+    assertThat(summary.errors().getFirst().errors().getFirst())
+        .endsWith("title: no puede estar vacío");
+  }
+
+  @Test
+  void importBooks_WhenManyRowsFail_ShouldTruncateReportedErrors() throws Exception {
+    this.stubCreateAll();
+    String line = this.ndjsonLine(this.book(INVALID_ISBN)) + "\n";
+    int rows = BookImportServiceImpl.MAX_REPORTED_ERRORS + 10;
+
+    BookImportSummaryDTO summary = this.importBooks(line.repeat(rows), BookFileFormat.NDJSON);
+
+    assertThat(summary.failed()).isEqualTo(rows);
+    assertThat(summary.errors()).hasSize(BookImportServiceImpl.MAX_REPORTED_ERRORS);
+    assertThat(summary.errorsTruncated()).isTrue();
+  }
+
+  @Test
+  void importBooks_WhenCsv_ShouldReadColumnsByName() throws Exception {
+    this.stubCreateAll();
+    String content =
+        "title,isbn,authors,price,description,publisher,genreId,imageUrl,extra\n"
+            + "\"Cosmos, edición ilustrada\",9780306406157,Carl Sagan,25.50,"
+            + "\"Un viaje por el universo,\ncon saltos de línea\",Planeta,1,"
+            + "https://example.com/cosmos.jpg,ignorado\n";
+
+    BookImportSummaryDTO summary = this.importBooks(content, BookFileFormat.CSV);
+
+    assertThat(summary.rows()).isEqualTo(1);
+    assertThat(summary.created()).isEqualTo(1);
+    assertThat(chunkSizes).containsExactly(1);
+  }
+
+  @Test
+  void importBooks_WhenCsvRowIsUnreadable_ShouldRejectOnlyThatRow() throws Exception {
+    this.stubCreateAll();
+    String content =
+        CSV_HEADER
+            + "9780306406157,Cosmos,Carl Sagan,abc,Descripción,Planeta,1,https://example.com/a\n"
+            + "9780451524935,1984,George Orwell,10,Descripción,Debolsillo,1,https://example.com/b\n";
+
+    BookImportSummaryDTO summary = this.importBooks(content, BookFileFormat.CSV);
+
+    assertThat(summary.rows()).isEqualTo(2);
+    assertThat(summary.created()).isEqualTo(1);
+    assertThat(summary.errors()).extracting(BookImportErrorDTO::row).containsExactly(1L);
+  }
+
+  @Test
+  void importBooks_WhenCsvIsMalformed_ShouldSavePreviousRowsAndStop() throws Exception {
+    this.stubCreateAll();
+    String content =
+        CSV_HEADER
+            + "9780306406157,Cosmos,Carl Sagan,10,Descripción,Planeta,1,https://example.com/a\n"
+            + "9780451524935,\"1984,George Orwell,10,Descripción,Debolsillo,1,https://e.com/b\n";
+
+    BookImportSummaryDTO summary = this.importBooks(content, BookFileFormat.CSV);
+
+    assertThat(summary.rows()).isEqualTo(2);
+    assertThat(summary.created()).isEqualTo(1);
+    assertThat(summary.errors()).extracting(BookImportErrorDTO::row).containsExactly(2L);
+    assertThat(summary.errors().getFirst().errors().getFirst()).startsWith("CSV mal formado");
+  }
+
+  @Test
+  void importBooks_WhenFileIsEmpty_ShouldNotSaveAnything() throws Exception {
+    BookImportSummaryDTO summary = this.importBooks(CSV_HEADER, BookFileFormat.CSV);
+
+    assertThat(summary.rows()).isZero();
+    verify(bookService, never()).createAll(anyList());
+  }
+
+  @Test
+  void fromFileName_ShouldDetectFormatByExtension() {
+    assertThat(BookFileFormat.fromFileName("catalogo.CSV")).isEqualTo(BookFileFormat.CSV);
+    assertThat(BookFileFormat.fromFileName("catalogo.ndjson")).isEqualTo(BookFileFormat.NDJSON);
+    assertThat(BookFileFormat.fromFileName("catalogo.jsonl")).isEqualTo(BookFileFormat.NDJSON);
+    assertThatThrownBy(() -> BookFileFormat.fromFileName("catalogo.xml"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private void stubCreateAll() {
+    when(bookService.createAll(anyList()))
+        .thenAnswer(invocation -> this.createAll(invocation.getArgument(0)));
+  }
+
+  // Simula BookService.createAll: rechaza los libros con INVALID_ISBN
+  private BookBatchResponseDTO createAll(List<BookRequestDTO> books) {
+    chunkSizes.add(books.size());
+    List<BookBatchItemResultDTO> items = new ArrayList<>();
+    for (int index = 0; index < books.size(); index++) {
+      BookRequestDTO book = books.get(index);
+      if (INVALID_ISBN.equals(book.isbn())) {
+        items.add(
+            BookBatchItemResultDTO.failed(
+                index, book.isbn(), List.of("isbn: El formato no es válido")));
+      } else {
+        BookResponseDTO response =
+            new BookResponseDTO(
+                UUID.randomUUID(),
+                book.isbn(),
+                book.title(),
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                0L);
+        items.add(
+            BookBatchItemResultDTO.succeeded(
+                index, BookBatchItemResultDTO.Status.CREATED, response));
+      }
+    }
+    return BookBatchResponseDTO.from(items);
+  }
+
+  private BookImportSummaryDTO importBooks(String content, BookFileFormat format) throws Exception {
+    try (InputStream input = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))) {
+      return bookImportService.importBooks(input, format);
+    }
+  }
+
+  private String ndjsonLine(BookRequestDTO book) throws Exception {
+    return objectMapper.writeValueAsString(book);
+  }
+
+  private BookRequestDTO book(String isbn) {
+    return new BookRequestDTO(
+        isbn,
+        "Cosmos",
+        "Carl Sagan",
+        new BigDecimal("25.50"),
+        "Un viaje por el universo conocido",
+        "Planeta",
+        1L,
+        "https://example.com/cosmos.jpg");
+  }
+}
@@ -3,10 +3,26 @@ package io.github.agusbattista.mercadolibros_springboot.service;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import io.github.agusbattista.mercadolibros_springboot.cache.BookCache;
+import io.github.agusbattista.mercadolibros_springboot.cache.BookLookupFilter;
+import io.github.agusbattista.mercadolibros_springboot.cache.GenreCache;
+import io.github.agusbattista.mercadolibros_springboot.config.ReadReplicaRouting;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchItemResultDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookBatchResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookLookupResponseDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.BookRequestDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookSearchCriteria;
+import io.github.agusbattista.mercadolibros_springboot.dto.CursorResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetCountDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.FacetedResponse;
 import io.github.agusbattista.mercadolibros_springboot.dto.PagedResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.SliceResponse;
+import io.github.agusbattista.mercadolibros_springboot.dto.SuggestionResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
 import io.github.agusbattista.mercadolibros_springboot.exception.DuplicateResourceException;
+import io.github.agusbattista.mercadolibros_springboot.exception.PreconditionFailedException;
 import io.github.agusbattista.mercadolibros_springboot.exception.ResourceNotFoundException;
 import io.github.agusbattista.mercadolibros_springboot.mapper.BookMapper;
 import io.github.agusbattista.mercadolibros_springboot.mapper.BookMapperImpl;
@@ -14,31 +30,63 @@ import io.github.agusbattista.mercadolibros_springboot.mapper.GenreMapper;
 import io.github.agusbattista.mercadolibros_springboot.mapper.GenreMapperImpl;
 import io.github.agusbattista.mercadolibros_springboot.model.Book;
 import io.github.agusbattista.mercadolibros_springboot.model.Genre;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookFacet;
+import io.github.agusbattista.mercadolibros_springboot.repository.BookFilter;
 import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
 import io.github.agusbattista.mercadolibros_springboot.repository.GenreRepository;
+import io.github.agusbattista.mercadolibros_springboot.search.BookSearchIndex;
+import io.github.agusbattista.mercadolibros_springboot.search.BookTextSearch;
+import io.github.agusbattista.mercadolibros_springboot.search.SuggestionField;
+import io.github.agusbattista.mercadolibros_springboot.utils.CursorCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 
 @ExtendWith(MockitoExtension.class)
 class BookServiceImplTest {
 
   @Mock private BookRepository bookRepository;
   @Mock private GenreRepository genreRepository;
+  @Mock private BookTextSearch bookTextSearch;
+  @Mock private BookSearchIndex bookSearchIndex;
+  @Mock private ApplicationEventPublisher eventPublisher;
 
   private final GenreMapper genreMapper = new GenreMapperImpl();
   private final BookMapper bookMapper = new BookMapperImpl(genreMapper);
 
+  private BookLookupFilter bookLookupFilter;
+
   private BookService bookService;
 
   private BookRequestDTO bookRequest;
@@ -47,7 +95,20 @@ class BookServiceImplTest {
 
   @BeforeEach
   void setUp() {
-    bookService = new BookServiceImpl(bookRepository, bookMapper, genreRepository);
+    bookLookupFilter = new BookLookupFilter(bookRepository, new SimpleMeterRegistry());
+    bookService =
+        new BookServiceImpl(
+            bookRepository,
+            bookMapper,
+            new GenreCache(genreRepository, genreMapper, new SimpleMeterRegistry()),
+            genreMapper,
+            new BookCache(
+                bookRepository, bookMapper, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10)),
+            bookLookupFilter,
+            bookTextSearch,
+            bookSearchIndex,
+            eventPublisher,
+            Validation.buildDefaultValidatorFactory().getValidator());
 
     genre = new Genre();
     genre.setId(1L);
@@ -75,6 +136,7 @@ class BookServiceImplTest {
   void findByIsbn_WhenIsbnExists_ShouldReturnBook() {
     String isbn = bookRequest.isbn();
     Book book = bookMapper.toEntity(bookRequest);
+    book.setUuid(UUID.randomUUID());
     book.setGenre(genre);
     when(bookRepository.findByIsbn(isbn)).thenReturn(Optional.of(book));
 
@@ -85,6 +147,70 @@ class BookServiceImplTest {
     verify(bookRepository).findByIsbn(isbn);
   }
 
+  @Test
+  void findByIsbn_WhenLookupFilterRulesItOut_ShouldNotQueryDatabase() {
+    bookLookupFilter.rebuild();
+
+    assertThat(bookService.findByIsbn("0000000000000")).isEmpty();
+    assertThat(bookService.findByUuid(UUID.randomUUID())).isEmpty();
+
+    verify(bookRepository, never()).findByIsbn(any());
+    verify(bookRepository, never()).findByUuid(any());
+  }
+
+  @Test
+  void findAllByKeys_ShouldReturnBooksInRequestOrderAndMissingKeys() {
+    Book first = this.bookWithIsbn("9788445073728");
+    Book second = this.bookWithIsbn("9786073155731");
+    String missingUuid = UUID.randomUUID().toString();
+    when(bookRepository.findByUuidInOrIsbnIn(anyCollection(), anyCollection()))
+        .thenReturn(List.of(second, first));
+
+    BookLookupResponseDTO result =
+        bookService.findAllByKeys(
+            List.of(
+                second.getUuid().toString(),
+                missingUuid,
+                first.getIsbn(),
+                " " + first.getIsbn() + " ",
+                "0000000000000"));
+
+    assertThat(result.books())
+        .extracting(BookResponseDTO::isbn)
+        .containsExactly(second.getIsbn(), first.getIsbn());
+    assertThat(result.missing()).containsExactly(missingUuid, "0000000000000");
+    verify(bookRepository)
+        .findByUuidInOrIsbnIn(
+            Set.of(second.getUuid(), UUID.fromString(missingUuid)),
+            Set.of(first.getIsbn(), "0000000000000"));
+  }
+
+  @Test
+  void findAllByKeys_WhenLookupFilterRulesAllKeysOut_ShouldNotQueryDatabase() {
+    bookLookupFilter.rebuild();
+    String uuid = UUID.randomUUID().toString();
+
+    BookLookupResponseDTO result = bookService.findAllByKeys(List.of(uuid, "0000000000000"));
+
+    assertThat(result.books()).isEmpty();
+    assertThat(result.missing()).containsExactly(uuid, "0000000000000");
+    verify(bookRepository, never()).findByUuidInOrIsbnIn(any(), any());
+  }
+
+  @Test
+  void findAllByKeys_WhenKeysAreEmptyOrTooMany_ShouldThrowIllegalArgumentException() {
+    List<String> tooMany = IntStream.range(0, 101).mapToObj(Integer::toString).toList();
+
+    assertThatThrownBy(() -> bookService.findAllByKeys(List.of()))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("La búsqueda debe contener entre 1 y 100 claves");
+    assertThatThrownBy(() -> bookService.findAllByKeys(tooMany))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> bookService.findAllByKeys(List.of(" ")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Las claves de los libros no pueden estar vacías");
+  }
+
   @Test
   void findByIsbn_WhenIsbnDoesNotExist_ShouldReturnEmptyOptional() {
     String isbn = "0000000000000";
@@ -125,6 +251,10 @@ class BookServiceImplTest {
     verify(genreRepository).findById(bookRequest.genreId());
     verify(bookRepository).findByIsbnIncludingDeleted(bookRequest.isbn());
     verify(bookRepository).save(any(Book.class));
+    ArgumentCaptor<BookChangedEvent> eventCaptor = ArgumentCaptor.forClass(BookChangedEvent.class);
+    verify(eventPublisher).publishEvent(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().type()).isEqualTo(ChangeType.CREATED);
+    assertThat(eventCaptor.getValue().book().isbn()).isEqualTo(bookRequest.isbn());
   }
 
   @Test
@@ -158,6 +288,75 @@ class BookServiceImplTest {
     verify(genreRepository).findById(bookRequest.genreId());
     verify(bookRepository).findByIsbnIncludingDeleted(bookRequest.isbn());
     verify(bookRepository).save(argThat(savedBook -> !savedBook.isDeleted()));
+    verify(eventPublisher)
+        .publishEvent(argThat((BookChangedEvent event) -> event.type() == ChangeType.RESTORED));
+  }
+
+  @Test
+  void createAll_ShouldSaveValidBooksAndReportEachFailure() {
+    BookRequestDTO newBook = this.createNewBookRequestWithIsbn("9780321247148");
+    BookRequestDTO invalidBook =
+        new BookRequestDTO(
+            "9788445073728",
+            "",
+            bookRequest.authors(),
+            bookRequest.price(),
+            bookRequest.description(),
+            bookRequest.publisher(),
+            bookRequest.genreId(),
+            bookRequest.imageUrl());
+    BookRequestDTO deletedBook = this.createNewBookRequestWithIsbn("9780132350884");
+    BookRequestDTO unknownGenreBook =
+        new BookRequestDTO(
+            "9780201633610",
+            bookRequest.title(),
+            bookRequest.authors(),
+            bookRequest.price(),
+            bookRequest.description(),
+            bookRequest.publisher(),
+            99L,
+            bookRequest.imageUrl());
+    Book existingActive = bookMapper.toEntity(bookRequest);
+    Book existingDeleted = bookMapper.toEntity(deletedBook);
+    existingDeleted.setDeleted(true);
+    when(genreRepository.findAllById(any())).thenReturn(List.of(genre));
+    when(bookRepository.findAllByIsbnIncludingDeleted(any()))
+        .thenReturn(List.of(existingActive, existingDeleted));
+    when(bookRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+    BookBatchResponseDTO result =
+        bookService.createAll(
+            List.of(newBook, invalidBook, newBook, bookRequest, deletedBook, unknownGenreBook));
+
+    assertThat(result.created()).isEqualTo(1);
+    assertThat(result.restored()).isEqualTo(1);
+    assertThat(result.failed()).isEqualTo(4);
+    assertThat(result.items())
+        .extracting(BookBatchItemResultDTO::status)
+        .containsExactly(
+            BookBatchItemResultDTO.Status.CREATED,
+            BookBatchItemResultDTO.Status.FAILED,
+            BookBatchItemResultDTO.Status.FAILED,
+            BookBatchItemResultDTO.Status.FAILED,
+            BookBatchItemResultDTO.Status.RESTORED,
+            BookBatchItemResultDTO.Status.FAILED);
+    assertThat(result.items().get(1).errors()).containsExactly("title: El título es obligatorio");
+    assertThat(result.items().get(2).errors().getFirst()).contains("repetido en el lote");
+    assertThat(result.items().get(3).errors().getFirst()).contains("Ya existe un libro activo");
+    assertThat(result.items().get(5).errors().getFirst()).contains("Género con ID: 99");
+    assertThat(existingDeleted.isDeleted()).isFalse();
+    verify(genreRepository).findAllById(any());
+    verify(bookRepository).findAllByIsbnIncludingDeleted(any());
+    verify(bookRepository, never()).findByIsbnIncludingDeleted(any());
+    verify(eventPublisher, times(2)).publishEvent(any(BookChangedEvent.class));
+  }
+
+  @Test
+  void createAll_WhenBatchIsEmpty_ShouldThrowIllegalArgumentException() {
+    assertThatThrownBy(() -> bookService.createAll(List.of()))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    verifyNoInteractions(bookRepository);
   }
 
   @Test
@@ -176,6 +375,8 @@ class BookServiceImplTest {
 
     verify(bookRepository).findByUuid(uuid);
     verify(bookRepository).delete(book);
+    verify(eventPublisher)
+        .publishEvent(argThat((BookChangedEvent event) -> event.type() == ChangeType.DELETED));
   }
 
   @Test
@@ -249,6 +450,41 @@ class BookServiceImplTest {
     verify(bookRepository).save(book);
   }
 
+  @Test
+  void update_WhenExpectedVersionMatches_ShouldUpdateBook() {
+    UUID uuid = UUID.randomUUID();
+    Book book = bookMapper.toEntity(bookRequest);
+    book.setGenre(genre);
+    book.setUuid(uuid);
+    book.setVersion(3L);
+    when(genreRepository.findById(bookRequest.genreId())).thenReturn(Optional.of(genre));
+    when(bookRepository.findByUuid(uuid)).thenReturn(Optional.of(book));
+    when(bookRepository.save(book)).thenReturn(book);
+
+    BookResponseDTO result = bookService.update(uuid, bookRequest, 3L);
+
+    assertThat(result.uuid()).isEqualTo(uuid);
+    verify(bookRepository).save(book);
+  }
+
+  @Test
+  void update_WhenExpectedVersionIsOutdated_ShouldThrowPreconditionFailedException() {
+    UUID uuid = UUID.randomUUID();
+    Book book = bookMapper.toEntity(bookRequest);
+    book.setGenre(genre);
+    book.setUuid(uuid);
+    book.setVersion(4L);
+    when(genreRepository.findById(bookRequest.genreId())).thenReturn(Optional.of(genre));
+    when(bookRepository.findByUuid(uuid)).thenReturn(Optional.of(book));
+
+    assertThatThrownBy(() -> bookService.update(uuid, bookRequest, 3L))
+        .isInstanceOf(PreconditionFailedException.class)
+        .hasMessageContaining("versión actual: 4");
+
+    verify(bookRepository, never()).save(any(Book.class));
+    verifyNoInteractions(eventPublisher);
+  }
+
   @Test
   void update_WhenNewIsbnDoesNotExist_ShouldUpdateBook() {
     UUID uuid = UUID.randomUUID();
@@ -308,6 +544,7 @@ class BookServiceImplTest {
     verify(bookRepository).findByUuid(uuid);
     verify(bookRepository).findByIsbnIncludingDeleted(newIsbn);
     verify(bookRepository, never()).save(any(Book.class));
+    verifyNoInteractions(eventPublisher);
   }
 
   @Test
@@ -337,11 +574,11 @@ class BookServiceImplTest {
     Book book = bookMapper.toEntity(bookRequest);
     book.setGenre(genre);
     Page<Book> booksPage = new PageImpl<>(List.of(book), pageable, 1);
-    when(bookRepository.findBooksByCriteria(title, null, null, null, pageable))
+    BookSearchCriteria criteria = BookSearchCriteria.of(title, null, null, null);
+    when(bookRepository.findBooksByCriteria(bookMapper.toFilter(criteria), pageable))
         .thenReturn(booksPage);
 
-    PagedResponse<BookResponseDTO> response =
-        bookService.findBooksByCriteria(title, null, null, null, pageable);
+    PagedResponse<BookResponseDTO> response = bookService.findBooksByCriteria(criteria, pageable);
 
     assertThat(response).isNotNull();
     assertThat(response.content()).hasSize(1);
@@ -350,7 +587,178 @@ class BookServiceImplTest {
     assertThat(response.totalPages()).isEqualTo(1);
     assertThat(response.content().getFirst().title()).isEqualTo(bookRequest.title());
     assertThat(response.content().getFirst().genre().id()).isEqualTo(bookRequest.genreId());
-    verify(bookRepository).findBooksByCriteria(title, null, null, null, pageable);
+    verify(bookRepository).findBooksByCriteria(bookMapper.toFilter(criteria), pageable);
+  }
+
+  @Test
+  void findBooksByCriteria_WhenIdenticalSearchesRunConcurrently_ShouldQueryOnce() throws Exception {
+    Pageable pageable = PageRequest.of(0, 5);
+    Book book = bookMapper.toEntity(bookRequest);
+    book.setGenre(genre);
+    BookSearchCriteria criteria = BookSearchCriteria.of("hielo", null, null, null);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(bookRepository.findBooksByCriteria(bookMapper.toFilter(criteria), pageable))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return new PageImpl<>(List.of(book), pageable, 1);
+            });
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<PagedResponse<BookResponseDTO>>> results =
+          IntStream.range(0, 4)
+              .mapToObj(
+                  i ->
+                      executor.submit(
+                          () ->
+                              bookService.findBooksByCriteria(
+                                  BookSearchCriteria.of("hielo", null, null, null),
+                                  PageRequest.of(0, 5))))
+              .toList();
+      assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+      // Se da tiempo a que el resto de las búsquedas lleguen y esperen a la primera
+      Thread.sleep(200);
+      release.countDown();
+
+      for (Future<PagedResponse<BookResponseDTO>> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS).content()).hasSize(1);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    verify(bookRepository).findBooksByCriteria(bookMapper.toFilter(criteria), pageable);
+  }
+
+  @Test
+  void findBooksByCriteria_WhenOnlyOneSearchRequiresPrimary_ShouldNotShareItsResult()
+      throws Exception {
+    Pageable pageable = PageRequest.of(0, 5);
+    Book book = bookMapper.toEntity(bookRequest);
+    book.setGenre(genre);
+    BookSearchCriteria criteria = BookSearchCriteria.of("hielo", null, null, null);
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    when(bookRepository.findBooksByCriteria(bookMapper.toFilter(criteria), pageable))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return new PageImpl<>(List.of(book), pageable, 1);
+            });
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<PagedResponse<BookResponseDTO>> fromReplica =
+          executor.submit(() -> bookService.findBooksByCriteria(criteria, pageable));
+      Future<PagedResponse<BookResponseDTO>> fromPrimary =
+          executor.submit(
+              () ->
+                  ReadReplicaRouting.callOnPrimary(
+                      () -> bookService.findBooksByCriteria(criteria, pageable)));
+      // Si la del primario esperara a la otra, nunca llegaría a consultar
+      assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+      release.countDown();
+
+      assertThat(fromReplica.get(5, TimeUnit.SECONDS).content()).hasSize(1);
+      assertThat(fromPrimary.get(5, TimeUnit.SECONDS).content()).hasSize(1);
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+    verify(bookRepository, times(2)).findBooksByCriteria(bookMapper.toFilter(criteria), pageable);
+  }
+
+  @Test
+  void findBooksByCriteria_WhenIndexIsReady_ShouldLoadMatchedIdsWithoutQueryingCriteria() {
+    Pageable pageable = PageRequest.of(0, 5, Sort.by("title"));
+    Book first = bookMapper.toEntity(bookRequest);
+    first.setId(3L);
+    first.setGenre(genre);
+    Book second = bookMapper.toEntity(createNewBookRequestWithIsbn("9780321247148"));
+    second.setId(1L);
+    second.setGenre(genre);
+    BookSearchCriteria criteria = BookSearchCriteria.of("hielo", null, "fantasía", null);
+    when(bookSearchIndex.findIdsByCriteria(criteria, pageable))
+        .thenReturn(Optional.of(new PageImpl<>(List.of(3L, 1L), pageable, 7)));
+    when(bookRepository.findByIdIn(List.of(3L, 1L))).thenReturn(List.of(second, first));
+
+    PagedResponse<BookResponseDTO> response = bookService.findBooksByCriteria(criteria, pageable);
+
+    assertThat(response.content())
+        .extracting(BookResponseDTO::isbn)
+        .containsExactly(first.getIsbn(), second.getIsbn());
+    assertThat(response.totalElements()).isEqualTo(7);
+    assertThat(response.sort()).containsEntry("title", "ASC");
+    verify(bookRepository, never()).findBooksByCriteria(any(BookFilter.class), any());
+  }
+
+  @Test
+  void findBooksByCriteria_WhenMinPriceIsGreaterThanMaxPrice_ShouldThrowIllegalArgumentException() {
+    BookSearchCriteria criteria =
+        new BookSearchCriteria(
+            null, null, null, null, new BigDecimal("50"), new BigDecimal("10"), null, null);
+    Pageable pageable = PageRequest.of(0, 5);
+
+    assertThatThrownBy(() -> bookService.findBooksByCriteria(criteria, pageable))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("precio mínimo");
+
+    verifyNoInteractions(bookSearchIndex, bookRepository);
+  }
+
+  @Test
+  void findBooksByCriteriaWithFacets_WhenIndexIsReady_ShouldCountFacetsInMemory() {
+    Pageable pageable = PageRequest.of(0, 5);
+    BookSearchCriteria criteria = BookSearchCriteria.of(null, null, null, "plaza");
+    Map<String, List<FacetCountDTO>> facets =
+        Map.of(
+            "publisher", List.of(new FacetCountDTO("Plaza & Janés", 2)),
+            "price", List.of(new FacetCountDTO("10-20", 2)));
+    when(bookSearchIndex.findIdsByCriteria(criteria, pageable))
+        .thenReturn(Optional.of(new PageImpl<>(List.of(), pageable, 0)));
+    when(bookSearchIndex.countFacets(criteria, Set.of(BookFacet.PUBLISHER, BookFacet.PRICE)))
+        .thenReturn(Optional.of(facets));
+
+    FacetedResponse<BookResponseDTO> response =
+        bookService.findBooksByCriteriaWithFacets(
+            criteria, List.of("publisher", " PRICE ", "publisher"), pageable);
+
+    assertThat(response.facets()).isEqualTo(facets);
+    verify(bookRepository, never()).countFacets(any(), any());
+  }
+
+  @Test
+  void findBooksByCriteriaWithFacets_WhenIndexIsNotReady_ShouldGroupInDatabase() {
+    Pageable pageable = PageRequest.of(0, 5);
+    BookSearchCriteria criteria = BookSearchCriteria.of("hielo", null, null, null);
+    Map<String, List<FacetCountDTO>> facets =
+        Map.of("genre", List.of(new FacetCountDTO("Fantasía", 1)));
+    when(bookRepository.findBooksByCriteria(bookMapper.toFilter(criteria), pageable))
+        .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+    when(bookRepository.countFacets(bookMapper.toFilter(criteria), Set.of(BookFacet.GENRE)))
+        .thenReturn(facets);
+
+    FacetedResponse<BookResponseDTO> response =
+        bookService.findBooksByCriteriaWithFacets(criteria, List.of("genre"), pageable);
+
+    assertThat(response.page().totalElements()).isZero();
+    assertThat(response.facets()).isEqualTo(facets);
+  }
+
+  @Test
+  void findBooksByCriteriaWithFacets_WhenFacetIsNotAllowed_ShouldThrowIllegalArgumentException() {
+    BookSearchCriteria criteria = BookSearchCriteria.of(null, null, null, null);
+    Pageable pageable = PageRequest.of(0, 5);
+
+    assertThatThrownBy(
+            () ->
+                bookService.findBooksByCriteriaWithFacets(
+                    criteria, List.of("genre", "description"), pageable))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("description");
+
+    verifyNoInteractions(bookSearchIndex, bookRepository);
   }
 
   @Test
@@ -367,6 +775,243 @@ class BookServiceImplTest {
     verify(bookRepository).findAll(pageable);
   }
 
+  @Test
+  void searchByText_ShouldReturnBooksInRelevanceOrder() {
+    Book first = bookMapper.toEntity(bookRequest);
+    first.setId(2L);
+    first.setGenre(genre);
+    Book second = bookMapper.toEntity(createNewBookRequestWithIsbn("9780321247148"));
+    second.setId(1L);
+    second.setGenre(genre);
+    Pageable pageable = PageRequest.of(0, 5, Sort.by("title"));
+    when(bookTextSearch.search(eq("hielo fuego"), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(2L, 1L), PageRequest.of(0, 5), 2));
+    when(bookRepository.findByIdIn(List.of(2L, 1L))).thenReturn(List.of(second, first));
+
+    PagedResponse<BookResponseDTO> response = bookService.searchByText("hielo fuego", pageable);
+
+    assertThat(response.content())
+        .extracting(BookResponseDTO::isbn)
+        .containsExactly(first.getIsbn(), second.getIsbn());
+    assertThat(response.totalElements()).isEqualTo(2);
+    assertThat(response.sort()).containsEntry("sorted", "NONE");
+  }
+
+  @Test
+  void searchByText_WhenNothingMatches_ShouldNotQueryBooks() {
+    when(bookTextSearch.search(eq("inexistente"), any(Pageable.class)))
+        .thenReturn(Page.empty(PageRequest.of(0, 5)));
+
+    PagedResponse<BookResponseDTO> response =
+        bookService.searchByText("inexistente", PageRequest.of(0, 5));
+
+    assertThat(response.content()).isEmpty();
+    assertThat(response.totalElements()).isZero();
+    verifyNoInteractions(bookRepository);
+  }
+
+  @Test
+  void searchByText_WhenQueryIsBlank_ShouldThrowIllegalArgumentException() {
+    Pageable pageable = PageRequest.of(0, 5);
+
+    assertThatThrownBy(() -> bookService.searchByText(" & ", pageable))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    verifyNoInteractions(bookTextSearch);
+  }
+
+  @Test
+  void searchByTextFuzzy_WhenIndexIsReady_ShouldReturnBooksInIndexOrder() {
+    Book book = bookMapper.toEntity(bookRequest);
+    book.setId(4L);
+    book.setGenre(genre);
+    when(bookSearchIndex.searchFuzzy(eq("fowlr"), any(Pageable.class)))
+        .thenReturn(Optional.of(new PageImpl<>(List.of(4L), PageRequest.of(0, 5), 1)));
+    when(bookRepository.findByIdIn(List.of(4L))).thenReturn(List.of(book));
+
+    PagedResponse<BookResponseDTO> response =
+        bookService.searchByTextFuzzy("fowlr", PageRequest.of(0, 5, Sort.by("title")));
+
+    assertThat(response.content())
+        .extracting(BookResponseDTO::isbn)
+        .containsExactly(book.getIsbn());
+    assertThat(response.sort()).containsEntry("sorted", "NONE");
+    verifyNoInteractions(bookTextSearch);
+  }
+
+  @Test
+  void searchByTextFuzzy_WhenIndexIsNotReady_ShouldFallBackToTextSearch() {
+    when(bookTextSearch.search(eq("fowlr"), any(Pageable.class)))
+        .thenReturn(Page.empty(PageRequest.of(0, 5)));
+
+    PagedResponse<BookResponseDTO> response =
+        bookService.searchByTextFuzzy("fowlr", PageRequest.of(0, 5));
+
+    assertThat(response.content()).isEmpty();
+    verify(bookSearchIndex).searchFuzzy(eq("fowlr"), any(Pageable.class));
+  }
+
+  @Test
+  void searchByTextFuzzy_WhenQueryIsBlank_ShouldThrowIllegalArgumentException() {
+    Pageable pageable = PageRequest.of(0, 5);
+
+    assertThatThrownBy(() -> bookService.searchByTextFuzzy("  ", pageable))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    verifyNoInteractions(bookSearchIndex, bookTextSearch);
+  }
+
+  @Test
+  void suggest_ShouldUseIndexAndCapLimit() {
+    List<SuggestionResponseDTO> suggestions =
+        List.of(new SuggestionResponseDTO("Martin Fowler", 3));
+    when(bookSearchIndex.suggest(SuggestionField.AUTHORS, "mar", 20)).thenReturn(suggestions);
+
+    assertThat(bookService.suggest("mar", "authors", 500)).isEqualTo(suggestions);
+    verifyNoInteractions(bookRepository);
+  }
+
+  @Test
+  void suggest_WhenFieldOrLimitIsInvalid_ShouldThrowIllegalArgumentException() {
+    assertThatThrownBy(() -> bookService.suggest("mar", "genre", 10))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> bookService.suggest("mar", "title", 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    verifyNoInteractions(bookSearchIndex);
+  }
+
+  @Test
+  void sliceAll_ShouldReturnSliceResponseWithoutCounting() {
+    Pageable pageable = PageRequest.of(0, 1);
+    Book book = bookMapper.toEntity(bookRequest);
+    book.setGenre(genre);
+    when(bookRepository.findBy(ArgumentMatchers.<Specification<Book>>any(), any()))
+        .thenReturn(new SliceImpl<>(List.of(book), pageable, true));
+
+    SliceResponse<BookResponseDTO> response = bookService.sliceAll(pageable);
+
+    assertThat(response.content()).hasSize(1);
+    assertThat(response.content().getFirst().isbn()).isEqualTo(bookRequest.isbn());
+    assertThat(response.last()).isFalse();
+    verify(bookRepository, never()).findAll(any(Pageable.class));
+    verify(bookRepository, never()).count();
+  }
+
+  @Test
+  void sliceBooksByCriteria_ShouldReturnSliceResponse() {
+    Pageable pageable = PageRequest.of(0, 5);
+    when(bookRepository.findBy(ArgumentMatchers.<Specification<Book>>any(), any()))
+        .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+    SliceResponse<BookResponseDTO> response =
+        bookService.sliceBooksByCriteria(
+            BookSearchCriteria.of("hielo", null, null, null), pageable);
+
+    assertThat(response.content()).isEmpty();
+    assertThat(response.last()).isTrue();
+    verify(bookRepository, never()).findBooksByCriteria(any(BookFilter.class), any());
+  }
+
+  @Test
+  void scrollAll_WhenWindowHasNext_ShouldReturnNextCursorWithLastKeys() {
+    Book book = bookMapper.toEntity(bookRequest);
+    book.setId(7L);
+    book.setGenre(genre);
+    Window<Book> window =
+        Window.from(
+            List.of(book),
+            index -> ScrollPosition.forward(Map.of("title", book.getTitle(), "id", book.getId())),
+            true);
+    when(bookRepository.findBy(ArgumentMatchers.<Specification<Book>>any(), any()))
+        .thenReturn(window);
+
+    CursorResponse<BookResponseDTO> response =
+        bookService.scrollAll("", PageRequest.of(0, 1, Sort.by("title")));
+
+    assertThat(response.content()).hasSize(1);
+    assertThat(response.size()).isEqualTo(1);
+    assertThat(response.last()).isFalse();
+    assertThat(response.sort()).containsEntry("title", "ASC");
+    assertThat(CursorCodec.decode(response.nextCursor()))
+        .containsEntry("title", book.getTitle())
+        .containsEntry("id", "7");
+  }
+
+  @Test
+  void scrollAll_WhenWindowIsLast_ShouldReturnNullCursor() {
+    Window<Book> window = Window.from(List.of(), ScrollPosition::offset, false);
+    when(bookRepository.findBy(ArgumentMatchers.<Specification<Book>>any(), any()))
+        .thenReturn(window);
+
+    CursorResponse<BookResponseDTO> response = bookService.scrollAll(null, PageRequest.of(0, 5));
+
+    assertThat(response.content()).isEmpty();
+    assertThat(response.nextCursor()).isNull();
+    assertThat(response.last()).isTrue();
+    assertThat(response.sort()).containsEntry("id", "ASC");
+  }
+
+  @Test
+  void scrollAll_WhenSortPropertyIsNotAllowed_ShouldThrowIllegalArgumentException() {
+    Pageable pageable = PageRequest.of(0, 5, Sort.by("genre.name"));
+
+    assertThatThrownBy(() -> bookService.scrollAll(null, pageable))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    verifyNoInteractions(bookRepository);
+  }
+
+  @Test
+  void scrollAll_WhenCursorDoesNotMatchSort_ShouldThrowIllegalArgumentException() {
+    String cursor = CursorCodec.encode(Map.of("price", "10.00", "id", 3L));
+    Pageable pageable = PageRequest.of(0, 5, Sort.by("title"));
+
+    assertThatThrownBy(() -> bookService.scrollAll(cursor, pageable))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    verifyNoInteractions(bookRepository);
+  }
+
+  @Test
+  void scrollAll_WhenCursorHasInvalidValue_ShouldThrowIllegalArgumentException() {
+    String cursor = CursorCodec.encode(Map.of("id", "abc"));
+    Pageable pageable = PageRequest.of(0, 5);
+
+    assertThatThrownBy(() -> bookService.scrollAll(cursor, pageable))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    verifyNoInteractions(bookRepository);
+  }
+
+  @Test
+  void scrollAll_WhenCursorHasNullValue_ShouldThrowIllegalArgumentException() {
+    String cursor =
+        Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString("{\"price\":null,\"id\":\"3\"}".getBytes(StandardCharsets.UTF_8));
+    Pageable pageable = PageRequest.of(0, 5, Sort.by("price"));
+
+    assertThatThrownBy(() -> bookService.scrollAll(cursor, pageable))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("no es válido");
+
+    verifyNoInteractions(bookRepository);
+  }
+
+  @Test
+  void scrollBooksByCriteria_ShouldQueryRepositoryWithSpecification() {
+    Window<Book> window = Window.from(List.of(), ScrollPosition::offset, false);
+    when(bookRepository.findBy(ArgumentMatchers.<Specification<Book>>any(), any()))
+        .thenReturn(window);
+
+    CursorResponse<BookResponseDTO> response =
+        bookService.scrollBooksByCriteria(
+            BookSearchCriteria.of("hielo", null, "fantasía", null), null, PageRequest.of(0, 5));
+
+    assertThat(response.last()).isTrue();
+    verify(bookRepository).findBy(ArgumentMatchers.<Specification<Book>>any(), any());
+  }
+
   private BookRequestDTO createNewBookRequestWithIsbn(String newIsbn) {
     return new BookRequestDTO(
         newIsbn,
@@ -378,4 +1023,11 @@ class BookServiceImplTest {
         bookRequest.genreId(),
         bookRequest.imageUrl());
   }
+
+  private Book bookWithIsbn(String isbn) {
+    Book book = bookMapper.toEntity(this.createNewBookRequestWithIsbn(isbn));
+    book.setUuid(UUID.randomUUID());
+    book.setGenre(genre);
+    return book;
+  }
 }
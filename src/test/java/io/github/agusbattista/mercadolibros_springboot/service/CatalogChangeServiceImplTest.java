@@ -0,0 +1,154 @@
+package io.github.agusbattista.mercadolibros_springboot.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.github.agusbattista.mercadolibros_springboot.config.CatalogChangeSequenceInitializer;
+import io.github.agusbattista.mercadolibros_springboot.dto.BookResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.CatalogChangeDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.ChangeFeedResponse;
+import io.github.agusbattista.mercadolibros_springboot.event.BookChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.model.CatalogChange;
+import io.github.agusbattista.mercadolibros_springboot.repository.CatalogChangeRepository;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Sin la transacción de cada test: el registro se escribe recién al confirmar
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CatalogChangeServiceImpl.class, CatalogChangeSequenceInitializer.class})
+class CatalogChangeServiceImplTest {
+
+  @Autowired private CatalogChangeService catalogChangeService;
+  @Autowired private CatalogChangeRepository changeRepository;
+  @Autowired private ApplicationEventPublisher eventPublisher;
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate transactionTemplate;
+  private long start;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    start = catalogChangeService.latestSequence();
+  }
+
+  @AfterEach
+  void tearDown() {
+    changeRepository.deleteAll();
+  }
+
+  @Test
+  void findSince_WhenChangesWereCommitted_ShouldReturnThemInOrder() {
+    UUID uuid = UUID.randomUUID();
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          eventPublisher.publishEvent(this.bookEvent(ChangeType.CREATED, uuid));
+          eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.UPDATED, 7L));
+        });
+    transactionTemplate.executeWithoutResult(
+        status -> eventPublisher.publishEvent(this.bookEvent(ChangeType.DELETED, uuid)));
+
+    ChangeFeedResponse response = catalogChangeService.findSince(start, 10);
+
+    assertThat(response.changes())
+        .extracting(CatalogChangeDTO::sequence)
+        .containsExactly(start + 1, start + 2, start + 3);
+    assertThat(response.changes())
+        .extracting(CatalogChangeDTO::resource, CatalogChangeDTO::id, CatalogChangeDTO::type)
+        .containsExactly(
+            tuple(CatalogChange.Resource.BOOK, uuid.toString(), ChangeType.CREATED),
+            tuple(CatalogChange.Resource.GENRE, "7", ChangeType.UPDATED),
+            tuple(CatalogChange.Resource.BOOK, uuid.toString(), ChangeType.DELETED));
+    assertThat(response.changes().getFirst().changedAt()).isNotNull();
+    assertThat(response.next()).isEqualTo(start + 3);
+    assertThat(response.hasMore()).isFalse();
+    assertThat(response.latest()).isEqualTo(start + 3);
+  }
+
+  @Test
+  void findSince_WhenMoreChangesThanLimit_ShouldReturnThemInBatches() {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          for (int i = 0; i < 5; i++) {
+            eventPublisher.publishEvent(this.bookEvent(ChangeType.CREATED, UUID.randomUUID()));
+          }
+        });
+
+    ChangeFeedResponse first = catalogChangeService.findSince(start, 2);
+    ChangeFeedResponse second = catalogChangeService.findSince(first.next(), 2);
+    ChangeFeedResponse last = catalogChangeService.findSince(second.next(), 2);
+    ChangeFeedResponse empty = catalogChangeService.findSince(last.next(), 2);
+
+    assertThat(first.changes()).hasSize(2);
+    assertThat(first.hasMore()).isTrue();
+    assertThat(second.changes().getFirst().sequence()).isEqualTo(start + 3);
+    assertThat(second.hasMore()).isTrue();
+    assertThat(last.changes()).hasSize(1);
+    assertThat(last.hasMore()).isFalse();
+    assertThat(empty.changes()).isEmpty();
+    assertThat(empty.next()).isEqualTo(start + 5);
+  }
+
+  @Test
+  void latestSequence_ShouldReturnLastCommittedChange() {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.CREATED, 7L));
+          eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.UPDATED, 7L));
+        });
+
+    assertThat(catalogChangeService.latestSequence()).isEqualTo(start + 2);
+  }
+
+  @Test
+  void onBookChanged_WhenTransactionRollsBack_ShouldNotRecordNorAdvanceSequence() {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          eventPublisher.publishEvent(this.bookEvent(ChangeType.CREATED, UUID.randomUUID()));
+          status.setRollbackOnly();
+        });
+
+    ChangeFeedResponse response = catalogChangeService.findSince(start, 10);
+
+    assertThat(response.changes()).isEmpty();
+    assertThat(response.latest()).isEqualTo(start);
+  }
+
+  @Test
+  void onBookChanged_WhenOutsideTransaction_ShouldThrowIllegalTransactionStateException() {
+    BookChangedEvent event = this.bookEvent(ChangeType.CREATED, UUID.randomUUID());
+
+    assertThatThrownBy(() -> eventPublisher.publishEvent(event))
+        .isInstanceOf(IllegalTransactionStateException.class);
+  }
+
+  @Test
+  void findSince_WhenParametersAreInvalid_ShouldThrowIllegalArgumentException() {
+    assertThatThrownBy(() -> catalogChangeService.findSince(-1, 10))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> catalogChangeService.findSince(0, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () -> catalogChangeService.findSince(0, CatalogChangeServiceImpl.MAX_LIMIT + 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private BookChangedEvent bookEvent(ChangeType type, UUID uuid) {
+    BookResponseDTO book =
+        new BookResponseDTO(uuid, "9788445073728", null, null, null, null, null, null, null, 0L);
+    return new BookChangedEvent(type, 1L, book);
+  }
+}
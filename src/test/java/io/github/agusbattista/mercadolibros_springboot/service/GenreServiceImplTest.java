@@ -3,12 +3,18 @@ package io.github.agusbattista.mercadolibros_springboot.service;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import io.github.agusbattista.mercadolibros_springboot.cache.GenreCache;
 import io.github.agusbattista.mercadolibros_springboot.dto.GenreRequestDTO;
 import io.github.agusbattista.mercadolibros_springboot.dto.GenreResponseDTO;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
 import io.github.agusbattista.mercadolibros_springboot.exception.DuplicateResourceException;
+import io.github.agusbattista.mercadolibros_springboot.exception.PreconditionFailedException;
 import io.github.agusbattista.mercadolibros_springboot.exception.ResourceInUseException;
 import io.github.agusbattista.mercadolibros_springboot.exception.ResourceNotFoundException;
 import io.github.agusbattista.mercadolibros_springboot.mapper.GenreMapper;
@@ -16,18 +22,21 @@ import io.github.agusbattista.mercadolibros_springboot.mapper.GenreMapperImpl;
 import io.github.agusbattista.mercadolibros_springboot.model.Genre;
 import io.github.agusbattista.mercadolibros_springboot.repository.BookRepository;
 import io.github.agusbattista.mercadolibros_springboot.repository.GenreRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class GenreServiceImplTest {
 
   @Mock private GenreRepository genreRepository;
   @Mock private BookRepository bookRepository;
+  @Mock private ApplicationEventPublisher eventPublisher;
 
   private final GenreMapper genreMapper = new GenreMapperImpl();
 
@@ -38,7 +47,13 @@ class GenreServiceImplTest {
 
   @BeforeEach
   void setUp() {
-    genreService = new GenreServiceImpl(genreRepository, bookRepository, genreMapper);
+    genreService =
+        new GenreServiceImpl(
+            genreRepository,
+            bookRepository,
+            genreMapper,
+            new GenreCache(genreRepository, genreMapper, new SimpleMeterRegistry()),
+            eventPublisher);
 
     genre = new Genre();
     genre.setId(1L);
@@ -155,6 +170,7 @@ class GenreServiceImplTest {
     assertThat(result.code()).isEqualTo("AVENTURA");
     verify(genreRepository).findByCodeIncludingDeleted("AVENTURA");
     verify(genreRepository).save(any(Genre.class));
+    verify(eventPublisher).publishEvent(new GenreChangedEvent(ChangeType.CREATED, 3L));
   }
 
   @Test
@@ -174,6 +190,7 @@ class GenreServiceImplTest {
     assertThat(genre.isDeleted()).isFalse();
     verify(genreRepository).findByCodeIncludingDeleted(genre.getCode());
     verify(genreRepository).save(genre);
+    verify(eventPublisher).publishEvent(new GenreChangedEvent(ChangeType.RESTORED, genre.getId()));
   }
 
   @Test
@@ -206,6 +223,7 @@ class GenreServiceImplTest {
     verify(genreRepository).findById(genre.getId());
     verify(bookRepository).countByGenreIdIncludingDeleted(genre.getId());
     verify(genreRepository).delete(genre);
+    verify(eventPublisher).publishEvent(new GenreChangedEvent(ChangeType.DELETED, genre.getId()));
   }
 
   @Test
@@ -271,6 +289,33 @@ class GenreServiceImplTest {
     verify(genreRepository).findById(id);
     verify(genreRepository).findByCodeIncludingDeleted(genre.getCode());
     verify(genreRepository).save(genre);
+    verify(eventPublisher).publishEvent(new GenreChangedEvent(ChangeType.UPDATED, id));
+  }
+
+  @Test
+  void findByName_WhenGenreWasAlreadyFound_ShouldNotQueryDatabaseAgain() {
+    when(genreRepository.findByCode("FANTASIA")).thenReturn(Optional.of(genre));
+
+    genreService.findByCode("fantasia");
+    Optional<GenreResponseDTO> result = genreService.findByName("Fantasía");
+
+    assertThat(result).isPresent();
+    assertThat(result.get().name()).isEqualTo(genre.getName());
+    verify(genreRepository).findByCode("FANTASIA");
+  }
+
+  @Test
+  void update_ShouldInvalidateCachedGenres() {
+    Long id = genre.getId();
+    when(genreRepository.findByCode("FANTASIA")).thenReturn(Optional.of(genre));
+    when(genreRepository.findById(id)).thenReturn(Optional.of(genre));
+    when(genreRepository.save(genre)).thenReturn(genre);
+    genreService.findByCode("FANTASIA");
+
+    genreService.update(id, new GenreRequestDTO("Fantasía"));
+    genreService.findByCode("FANTASIA");
+
+    verify(genreRepository, times(2)).findByCode("FANTASIA");
   }
 
   @Test
@@ -286,6 +331,19 @@ class GenreServiceImplTest {
     verify(genreRepository, never()).save(any(Genre.class));
   }
 
+  @Test
+  void update_WhenExpectedVersionIsOutdated_ShouldThrowPreconditionFailedException() {
+    Long id = genre.getId();
+    genre.setVersion(2L);
+    when(genreRepository.findById(id)).thenReturn(Optional.of(genre));
+
+    assertThatThrownBy(() -> genreService.update(id, new GenreRequestDTO("Fantasía Épica"), 1L))
+        .isInstanceOf(PreconditionFailedException.class);
+
+    verify(genreRepository, never()).save(any(Genre.class));
+    verifyNoInteractions(eventPublisher);
+  }
+
   @Test
   void update_WhenNameExists_ShouldThrowDuplicateResourceException() {
     Long id = genre.getId();
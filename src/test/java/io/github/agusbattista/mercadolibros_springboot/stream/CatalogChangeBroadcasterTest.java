@@ -0,0 +1,204 @@
+package io.github.agusbattista.mercadolibros_springboot.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import io.github.agusbattista.mercadolibros_springboot.dto.CatalogChangeDTO;
+import io.github.agusbattista.mercadolibros_springboot.dto.ChangeFeedResponse;
+import io.github.agusbattista.mercadolibros_springboot.event.ChangeType;
+import io.github.agusbattista.mercadolibros_springboot.event.GenreChangedEvent;
+import io.github.agusbattista.mercadolibros_springboot.model.CatalogChange;
+import io.github.agusbattista.mercadolibros_springboot.service.CatalogChangeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogChangeBroadcasterTest {
+
+  private static final int READ_BATCH_SIZE = 1_000;
+
+  @Mock private CatalogChangeService catalogChangeService;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final List<CapturingEmitter> emitters = new ArrayList<>();
+
+  private CatalogChangeBroadcaster broadcaster;
+
+  @AfterEach
+  void tearDown() {
+    emitters.forEach(emitter -> emitter.blockSends.countDown());
+    if (broadcaster != null) {
+      broadcaster.shutdown();
+    }
+  }
+
+  @Test
+  void subscribe_WithoutLastEventId_ShouldReceiveOnlyNewChanges() throws InterruptedException {
+    this.createBroadcaster(256);
+    when(catalogChangeService.latestSequence()).thenReturn(5L);
+    when(catalogChangeService.findSince(5, READ_BATCH_SIZE)).thenReturn(feed(5, false, 6));
+
+    broadcaster.subscribe(null);
+    broadcaster.onGenreChanged(new GenreChangedEvent(ChangeType.UPDATED, 1L));
+
+    CapturingEmitter emitter = emitters.getFirst();
+    assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).isEqualTo(6L);
+    assertThat(emitter.sent.poll(100, TimeUnit.MILLISECONDS)).isNull();
+  }
+
+  @Test
+  void onGenreChanged_ShouldSendEachChangeToEverySubscriber() throws InterruptedException {
+    this.createBroadcaster(256);
+    when(catalogChangeService.latestSequence()).thenReturn(0L);
+    when(catalogChangeService.findSince(0, READ_BATCH_SIZE)).thenReturn(feed(0, false, 1, 2));
+
+    broadcaster.subscribe(null);
+    broadcaster.subscribe(null);
+    broadcaster.onGenreChanged(new GenreChangedEvent(ChangeType.CREATED, 1L));
+
+    for (CapturingEmitter emitter : emitters) {
+      assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).isEqualTo(1L);
+      assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).isEqualTo(2L);
+    }
+    assertThat(broadcaster.subscriberCount()).isEqualTo(2);
+  }
+
+  @Test
+  void subscribe_WithLastEventId_ShouldReplayMissedChangesWithoutDuplicates()
+      throws InterruptedException {
+    this.createBroadcaster(256);
+    when(catalogChangeService.findSince(3, READ_BATCH_SIZE)).thenReturn(feed(3, false, 4, 5, 6));
+    when(catalogChangeService.latestSequence()).thenReturn(4L);
+    when(catalogChangeService.findSince(4, READ_BATCH_SIZE)).thenReturn(feed(4, false, 5, 6));
+
+    broadcaster.subscribe(3L);
+    broadcaster.onGenreChanged(new GenreChangedEvent(ChangeType.UPDATED, 1L));
+
+    CapturingEmitter emitter = emitters.getFirst();
+    assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).isEqualTo(4L);
+    assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).isEqualTo(5L);
+    assertThat(emitter.sent.poll(5, TimeUnit.SECONDS)).isEqualTo(6L);
+    assertThat(emitter.sent.poll(200, TimeUnit.MILLISECONDS)).isNull();
+  }
+
+  @Test
+  void onGenreChanged_WhenSubscriberBufferIsFull_ShouldDisconnectIt() throws InterruptedException {
+    this.createBroadcaster(1);
+    when(catalogChangeService.latestSequence()).thenReturn(0L);
+    when(catalogChangeService.findSince(0, READ_BATCH_SIZE)).thenReturn(feed(0, false, 1, 2, 3));
+    broadcaster.subscribe(null);
+    CapturingEmitter emitter = emitters.getFirst();
+    emitter.blockSends = new CountDownLatch(1);
+
+    broadcaster.onGenreChanged(new GenreChangedEvent(ChangeType.UPDATED, 1L));
+
+    assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(broadcaster.subscriberCount()).isZero();
+    assertThat(meterRegistry.counter("catalog.changes.stream.evictions").count()).isEqualTo(1);
+  }
+
+  @Test
+  void onGenreChanged_WhenSendFails_ShouldRemoveSubscriber() throws InterruptedException {
+    this.createBroadcaster(256);
+    when(catalogChangeService.latestSequence()).thenReturn(0L);
+    when(catalogChangeService.findSince(0, READ_BATCH_SIZE)).thenReturn(feed(0, false, 1));
+    broadcaster.subscribe(null);
+    CapturingEmitter emitter = emitters.getFirst();
+    emitter.failSends = true;
+
+    broadcaster.onGenreChanged(new GenreChangedEvent(ChangeType.UPDATED, 1L));
+
+    assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(broadcaster.subscriberCount()).isZero();
+  }
+
+  @Test
+  void subscribe_WhenLastEventIdIsNegative_ShouldThrowIllegalArgumentException() {
+    this.createBroadcaster(256);
+
+    assertThatThrownBy(() -> broadcaster.subscribe(-1L))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("El último evento recibido no puede ser negativo");
+    assertThat(broadcaster.subscriberCount()).isZero();
+  }
+
+  private void createBroadcaster(int bufferSize) {
+    broadcaster =
+        new CatalogChangeBroadcaster(
+            catalogChangeService, meterRegistry, bufferSize, Duration.ofMinutes(30)) {
+          @Override
+          SseEmitter createEmitter(long timeoutMillis) {
+            CapturingEmitter emitter = new CapturingEmitter();
+            emitters.add(emitter);
+            return emitter;
+          }
+        };
+  }
+
+  private static ChangeFeedResponse feed(long since, boolean hasMore, long... sequences) {
+    List<CatalogChangeDTO> changes =
+        LongStream.of(sequences)
+            .mapToObj(
+                sequence ->
+                    new CatalogChangeDTO(
+                        sequence,
+                        CatalogChange.Resource.GENRE,
+                        "1",
+                        ChangeType.UPDATED,
+                        Instant.parse("2026-01-01T00:00:00Z")))
+            .toList();
+    long next = changes.isEmpty() ? since : changes.getLast().sequence();
+    return new ChangeFeedResponse(changes, next, hasMore, next);
+  }
+
+  // Guarda los números de secuencia enviados en lugar de escribirlos en una respuesta HTTP
+  private static final class CapturingEmitter extends SseEmitter {
+
+    private final BlockingQueue<Long> sent = new LinkedBlockingQueue<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private volatile CountDownLatch blockSends = new CountDownLatch(0);
+    private volatile boolean failSends;
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      if (failSends) {
+        throw new IOException("Conexión cerrada por el cliente");
+      }
+      try {
+        blockSends.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+      builder.build().stream()
+          .filter(part -> part.getData() instanceof CatalogChangeDTO)
+          .forEach(part -> sent.add(((CatalogChangeDTO) part.getData()).sequence()));
+    }
+
+    @Override
+    public void complete() {
+      completed.countDown();
+    }
+
+    @Override
+    public void completeWithError(Throwable ex) {
+      completed.countDown();
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package io.github.agusbattista.mercadolibros_springboot.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CursorCodecTest {
+
+  @Test
+  void encode_ThenDecode_ShouldReturnSameKeysAsStrings() {
+    Map<String, Object> keys = new LinkedHashMap<>();
+    keys.put("price", new BigDecimal("33.99"));
+    keys.put("id", 42L);
+
+    Map<String, String> decoded = CursorCodec.decode(CursorCodec.encode(keys));
+
+    assertThat(decoded).containsEntry("price", "33.99").containsEntry("id", "42");
+    assertThat(decoded.keySet()).containsExactly("price", "id");
+  }
+
+  @Test
+  void encode_ShouldReturnUrlSafeToken() {
+    String cursor = CursorCodec.encode(Map.of("title", "¿Qué? / +Canción+ & más"));
+
+    assertThat(cursor).doesNotContain("+", "/", "=", "&");
+  }
+
+  @Test
+  void encode_WhenPriceHasExponent_ShouldUsePlainNotation() {
+    String cursor = CursorCodec.encode(Map.of("price", new BigDecimal("1E+2")));
+
+    assertThat(CursorCodec.decode(cursor)).containsEntry("price", "100");
+  }
+
+  @Test
+  void decode_WhenCursorIsNullOrBlank_ShouldReturnEmptyMap() {
+    assertThat(CursorCodec.decode(null)).isEmpty();
+    assertThat(CursorCodec.decode("  ")).isEmpty();
+  }
+
+  @Test
+  void decode_WhenCursorIsInvalid_ShouldThrowIllegalArgumentException() {
+    assertThatThrownBy(() -> CursorCodec.decode("no-es-un-cursor!"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> CursorCodec.decode("bm8tZXMtanNvbg"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
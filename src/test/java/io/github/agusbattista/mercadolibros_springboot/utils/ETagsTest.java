@@ -0,0 +1,34 @@
+package io.github.agusbattista.mercadolibros_springboot.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.agusbattista.mercadolibros_springboot.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+
+class ETagsTest {
+
+  @Test
+  void versionFromIfMatch_WhenHeaderIsMissingOrWildcard_ShouldReturnNull() {
+    assertThat(ETags.versionFromIfMatch(null)).isNull();
+    assertThat(ETags.versionFromIfMatch(" ")).isNull();
+    assertThat(ETags.versionFromIfMatch("*")).isNull();
+  }
+
+  @Test
+  void versionFromIfMatch_ShouldReturnRecordVersion() {
+    assertThat(ETags.versionFromIfMatch("\"7\"")).isEqualTo(7L);
+    // En un libro, la versión del género se ignora
+    assertThat(ETags.versionFromIfMatch("\"7-2\"")).isEqualTo(7L);
+  }
+
+  @Test
+  void versionFromIfMatch_WhenETagIsWeakOrMalformed_ShouldThrowPreconditionFailedException() {
+    assertThatThrownBy(() -> ETags.versionFromIfMatch("W/\"7\""))
+        .isInstanceOf(PreconditionFailedException.class);
+    assertThatThrownBy(() -> ETags.versionFromIfMatch("\"abc\""))
+        .isInstanceOf(PreconditionFailedException.class);
+    assertThatThrownBy(() -> ETags.versionFromIfMatch("7"))
+        .isInstanceOf(PreconditionFailedException.class);
+  }
+}
@@ -84,4 +84,23 @@ class StringFormatterTest {
     assertThat(StringFormatter.generateCode("Auto-ayuda & Motivación!"))
         .isEqualTo("AUTO_AYUDA_MOTIVACION");
   }
+
+  @Test
+  void normalize_WhenStringIsNullOrBlank_ShouldReturnEmptyString() {
+    assertThat(StringFormatter.normalize(null)).isEmpty();
+    assertThat(StringFormatter.normalize("   ")).isEmpty();
+  }
+
+  @Test
+  void normalize_WhenStringHasAccentsAndMixedCase_ShouldFoldThem() {
+    assertThat(StringFormatter.normalize("TecnologÍa")).isEqualTo("tecnologia");
+    assertThat(StringFormatter.normalize("Plaza & Janés")).isEqualTo("plaza janes");
+  }
+
+  @Test
+  void normalize_WhenStringHasSeparators_ShouldCollapseThemIntoSingleSpaces() {
+    assertThat(StringFormatter.normalize("  Canción de Hielo y Fuego (Colección) "))
+        .isEqualTo("cancion de hielo y fuego coleccion");
+    assertThat(StringFormatter.normalize("George R. R. Martin")).isEqualTo("george r r martin");
+  }
 }